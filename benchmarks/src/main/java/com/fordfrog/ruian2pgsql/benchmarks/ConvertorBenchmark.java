@@ -0,0 +1,140 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.benchmarks;
+
+import com.fordfrog.ruian2pgsql.Config;
+import com.fordfrog.ruian2pgsql.convertors.ExchangeFormatConvertor;
+import com.fordfrog.ruian2pgsql.utils.Log;
+import java.io.StringReader;
+import java.io.Writer;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * End-to-end benchmark of conversion of StavebniObjekty and Parcely from
+ * synthetic VFR document. Database is replaced by {@link NoopJdbc} so the
+ * benchmark measures XML parsing, geometry processing and filling of
+ * statements. Results are reported per converted element.
+ *
+ * @author fordfrog
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConvertorBenchmark {
+
+    /**
+     * Number of StavebniObjekt and Parcela elements in the document.
+     */
+    private static final int ITEMS = 1_000;
+    /**
+     * How geometries are passed to database: gml, ewkt or ewkb.
+     */
+    @Param({"gml", "ewkt", "ewkb"})
+    private String geometry;
+    /**
+     * JDBC batch size.
+     */
+    @Param({"1", "100"})
+    private int batchSize;
+    /**
+     * XML input factory.
+     */
+    private XMLInputFactory xmlInputFactory;
+    /**
+     * Generated document.
+     */
+    private String document;
+    /**
+     * Convertor of the document.
+     */
+    private ExchangeFormatConvertor convertor;
+
+    /**
+     * Configures the application and generates the document.
+     *
+     * @throws SQLException Thrown if problem occurred while initializing
+     *                      convertors.
+     */
+    @Setup
+    public void setup() throws SQLException {
+        Log.setLogWriter(new Writer() {
+            @Override
+            public void write(final char[] cbuf, final int off,
+                    final int len) {
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+
+        Config.setConvertToEWKT("ewkt".equals(geometry));
+        Config.setConvertToEWKB("ewkb".equals(geometry));
+        Config.setBatchSize(batchSize);
+
+        xmlInputFactory = XMLInputFactory.newInstance();
+        document = VfrGenerator.document(ITEMS, 20);
+        convertor = new ExchangeFormatConvertor(NoopJdbc.createConnection());
+    }
+
+    /**
+     * Converts the document.
+     *
+     * @throws XMLStreamException Thrown if problem occurred while reading XML
+     *                            stream.
+     * @throws SQLException       Thrown if problem occurred while communicating
+     *                            with database.
+     */
+    @Benchmark
+    @OperationsPerInvocation(2 * ITEMS)
+    public void convert() throws XMLStreamException, SQLException {
+        final XMLStreamReader reader = xmlInputFactory.createXMLStreamReader(
+                new StringReader(document));
+        reader.nextTag();
+
+        convertor.convert(reader);
+        convertor.flush();
+    }
+}
@@ -0,0 +1,123 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.benchmarks;
+
+import com.fordfrog.ruian2pgsql.gml.CoordinateTokenizer;
+import com.fordfrog.ruian2pgsql.gml.Line;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares parsing of position list using string splitting with parsing
+ * using {@link CoordinateTokenizer}.
+ *
+ * @author fordfrog
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CoordinateParsingBenchmark {
+
+    /**
+     * Number of points in the position list.
+     */
+    @Param({"5", "100", "1000"})
+    private int points;
+    /**
+     * Text of the position list.
+     */
+    private String text;
+    /**
+     * Characters of the position list.
+     */
+    private char[] chars;
+
+    /**
+     * Generates position list in RÚIAN format.
+     */
+    @Setup
+    public void setup() {
+        final Random random = new Random(0);
+        final StringBuilder sbText = new StringBuilder(points * 22);
+
+        for (int i = 0; i < points; i++) {
+            if (i > 0) {
+                sbText.append(' ');
+            }
+
+            sbText.append(String.format("-%d.%02d -%d.%02d",
+                    430000 + random.nextInt(470000), random.nextInt(100),
+                    930000 + random.nextInt(300000), random.nextInt(100)));
+        }
+
+        text = sbText.toString();
+        chars = text.toCharArray();
+    }
+
+    /**
+     * Parses position list the way it was parsed before the tokenizer was
+     * introduced.
+     *
+     * @return parsed line
+     */
+    @Benchmark
+    public Line splitAndParseDouble() {
+        final Line line = new Line();
+        final String[] parts = text.split(" ");
+
+        for (int i = 0; i < parts.length; i += 2) {
+            line.addPoint(Double.parseDouble(parts[i]),
+                    Double.parseDouble(parts[i + 1]));
+        }
+
+        return line;
+    }
+
+    /**
+     * Parses position list using the tokenizer.
+     *
+     * @return parsed line
+     */
+    @Benchmark
+    public Line tokenizer() {
+        final Line line = new Line();
+        final CoordinateTokenizer tokenizer = new CoordinateTokenizer(line);
+        tokenizer.append(chars, 0, chars.length);
+        tokenizer.finish();
+
+        return line;
+    }
+}
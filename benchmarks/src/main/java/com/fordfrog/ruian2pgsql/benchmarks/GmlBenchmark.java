@@ -0,0 +1,210 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.benchmarks;
+
+import com.fordfrog.ruian2pgsql.gml.Curve;
+import com.fordfrog.ruian2pgsql.gml.GMLParser;
+import com.fordfrog.ruian2pgsql.gml.GMLUtils;
+import com.fordfrog.ruian2pgsql.gml.Geometry;
+import com.fordfrog.ruian2pgsql.gml.Line;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.util.concurrent.TimeUnit;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of GML parsing, GML string creation, linearization and
+ * conversion of geometries to EWKT and EWKB.
+ *
+ * @author fordfrog
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GmlBenchmark {
+
+    /**
+     * Number of points of polygon boundary.
+     */
+    @Param({"10", "200"})
+    private int points;
+    /**
+     * XML input factory.
+     */
+    private XMLInputFactory xmlInputFactory;
+    /**
+     * Database connection stand-in.
+     */
+    private Connection connection;
+    /**
+     * Multi surface with linear boundary.
+     */
+    private String linearXml;
+    /**
+     * Multi surface with boundary containing arc.
+     */
+    private String curvedXml;
+    /**
+     * Parsed multi surface with linear boundary.
+     */
+    private Geometry geometry;
+    /**
+     * Curve approximating circle.
+     */
+    private Curve curve;
+
+    /**
+     * Generates the geometries.
+     *
+     * @throws XMLStreamException Thrown if problem occurred while reading XML
+     *                            stream.
+     */
+    @Setup
+    public void setup() throws XMLStreamException {
+        xmlInputFactory = XMLInputFactory.newInstance();
+        connection = NoopJdbc.createConnection();
+        linearXml = VfrGenerator.multiSurface(
+                "H.1", -740000, -1040000, points, false);
+        curvedXml = VfrGenerator.multiSurface(
+                "H.2", -740000, -1040000, points, true);
+        geometry = parse();
+
+        curve = new Curve();
+        curve.setSrid(5514);
+
+        for (int i = 0; i <= points; i++) {
+            final double angle = 2 * Math.PI * i / points;
+            curve.addPoint(-740000 + 50 * Math.cos(angle),
+                    -1040000 + 50 * Math.sin(angle));
+        }
+    }
+
+    /**
+     * Parses multi surface with linear boundary.
+     *
+     * @return parsed geometry
+     *
+     * @throws XMLStreamException Thrown if problem occurred while reading XML
+     *                            stream.
+     */
+    @Benchmark
+    public Geometry parse() throws XMLStreamException {
+        final XMLStreamReader reader = openReader(linearXml);
+
+        return GMLParser.parse(
+                reader, reader.getNamespaceURI(), reader.getLocalName());
+    }
+
+    /**
+     * Parses and linearizes multi surface with boundary containing arc.
+     *
+     * @return parsed geometry
+     *
+     * @throws XMLStreamException Thrown if problem occurred while reading XML
+     *                            stream.
+     */
+    @Benchmark
+    public Geometry parseLinearized() throws XMLStreamException {
+        final XMLStreamReader reader = openReader(curvedXml);
+
+        return GMLParser.parseLinearized(reader, reader.getNamespaceURI(),
+                reader.getLocalName(), 0.1);
+    }
+
+    /**
+     * Creates GML string that is passed to database when GML is not parsed.
+     *
+     * @return GML string
+     *
+     * @throws XMLStreamException Thrown if problem occurred while reading or
+     *                            writing XML stream.
+     */
+    @Benchmark
+    public String createGMLString() throws XMLStreamException {
+        return GMLUtils.createGMLString(openReader(linearXml), connection);
+    }
+
+    /**
+     * Linearizes curve.
+     *
+     * @return linearized curve
+     */
+    @Benchmark
+    public Line linearize() {
+        return curve.linearize(0.1);
+    }
+
+    /**
+     * Converts parsed geometry to EWKT.
+     *
+     * @return EWKT string
+     */
+    @Benchmark
+    public String toWKT() {
+        return geometry.toWKT();
+    }
+
+    /**
+     * Converts parsed geometry to EWKB.
+     *
+     * @return EWKB bytes
+     */
+    @Benchmark
+    public byte[] toEWKB() {
+        return geometry.toEWKB();
+    }
+
+    /**
+     * Creates XML reader positioned at the root element.
+     *
+     * @param xml XML string
+     *
+     * @return XML stream reader
+     *
+     * @throws XMLStreamException Thrown if problem occurred while reading XML
+     *                            stream.
+     */
+    private XMLStreamReader openReader(final String xml)
+            throws XMLStreamException {
+        final XMLStreamReader reader =
+                xmlInputFactory.createXMLStreamReader(new StringReader(xml));
+        reader.nextTag();
+
+        return reader;
+    }
+}
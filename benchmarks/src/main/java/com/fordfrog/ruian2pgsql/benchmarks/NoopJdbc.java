@@ -0,0 +1,112 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.benchmarks;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+
+/**
+ * JDBC stand-in that accepts all calls and does nothing. Methods returning
+ * JDBC interfaces return another stand-in, methods returning primitive
+ * values return default values (so for example result sets are always
+ * empty) and other methods return null. It makes it possible to measure
+ * convertors without database.
+ *
+ * @author fordfrog
+ */
+public class NoopJdbc implements InvocationHandler {
+
+    /**
+     * Connection stand-in that is returned from getConnection() methods.
+     */
+    private Connection connection;
+
+    /**
+     * Creates new instance of NoopJdbc.
+     */
+    private NoopJdbc() {
+    }
+
+    /**
+     * Creates new connection stand-in.
+     *
+     * @return connection stand-in
+     */
+    public static Connection createConnection() {
+        final NoopJdbc handler = new NoopJdbc();
+        handler.connection = handler.create(Connection.class);
+
+        return handler.connection;
+    }
+
+    @Override
+    public Object invoke(final Object proxy, final Method method,
+            final Object[] args) {
+        final Class<?> returnType = method.getReturnType();
+
+        switch (method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return "NoopJdbc@" + Integer.toHexString(
+                        System.identityHashCode(proxy));
+            case "executeBatch":
+                return new int[0];
+            case "getConnection":
+                return connection;
+        }
+
+        if (returnType == Void.TYPE) {
+            return null;
+        } else if (returnType == Boolean.TYPE) {
+            return false;
+        } else if (returnType == Integer.TYPE) {
+            return 0;
+        } else if (returnType == Long.TYPE) {
+            return 0L;
+        } else if (returnType.isPrimitive()) {
+            throw new UnsupportedOperationException(method.toString());
+        } else if (returnType.isInterface()
+                && returnType.getName().startsWith("java.sql.")) {
+            return create(returnType);
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Creates stand-in of specified interface.
+     *
+     * @param <T>  interface type
+     * @param type interface class
+     *
+     * @return stand-in
+     */
+    private <T> T create(final Class<T> type) {
+        return type.cast(Proxy.newProxyInstance(
+                NoopJdbc.class.getClassLoader(), new Class<?>[]{type}, this));
+    }
+}
@@ -0,0 +1,246 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.benchmarks;
+
+import com.fordfrog.ruian2pgsql.utils.Namespaces;
+import java.util.Locale;
+
+/**
+ * Generator of synthetic VFR XML data. Generated data are deterministic so
+ * that results of benchmark runs can be compared.
+ *
+ * @author fordfrog
+ */
+public class VfrGenerator {
+
+    /**
+     * Spatial reference system used in generated geometries.
+     */
+    private static final String SRS_NAME = "urn:ogc:def:crs:EPSG::5514";
+
+    /**
+     * Creates new instance of VfrGenerator.
+     */
+    private VfrGenerator() {
+    }
+
+    /**
+     * Generates GML point.
+     *
+     * @param id gml:id of the point
+     * @param x  x coordinate
+     * @param y  y coordinate
+     *
+     * @return GML point
+     */
+    public static String point(final String id, final double x,
+            final double y) {
+        return "<gml:Point xmlns:gml=\"" + Namespaces.GML + "\" gml:id=\""
+                + id + "\" srsName=\"" + SRS_NAME
+                + "\" srsDimension=\"2\"><gml:pos>" + format(x) + ' '
+                + format(y) + "</gml:pos></gml:Point>";
+    }
+
+    /**
+     * Generates GML multi surface with single polygon. Polygon boundary
+     * approximates circle. If arcs are requested, the boundary is composed of
+     * line string and arc string, otherwise it is single linear ring.
+     *
+     * @param id      gml:id of the multi surface
+     * @param centerX x coordinate of the center
+     * @param centerY y coordinate of the center
+     * @param points  number of points of the boundary
+     * @param arcs    whether the boundary should contain arc
+     *
+     * @return GML multi surface
+     */
+    public static String multiSurface(final String id, final double centerX,
+            final double centerY, final int points, final boolean arcs) {
+        final StringBuilder sbXml = new StringBuilder(200 + points * 24);
+        sbXml.append("<gml:MultiSurface xmlns:gml=\"").append(Namespaces.GML).
+                append("\" gml:id=\"").append(id).
+                append("\" srsName=\"").append(SRS_NAME).
+                append("\" srsDimension=\"2\"><gml:surfaceMember>"
+                        + "<gml:Polygon gml:id=\"").append(id).
+                append(".1\"><gml:exterior>");
+
+        final double radius = 10 + points;
+
+        if (arcs) {
+            sbXml.append("<gml:Ring><gml:curveMember><gml:LineString gml:id=\"").
+                    append(id).append(".1.1\"><gml:posList>");
+            appendArcPoints(sbXml, centerX, centerY, radius, 0, Math.PI,
+                    points);
+            sbXml.append("</gml:posList></gml:LineString></gml:curveMember>"
+                    + "<gml:curveMember><gml:Curve gml:id=\"").append(id).
+                    append(".1.2\"><gml:segments><gml:ArcString>"
+                            + "<gml:posList>");
+            appendArcPoints(sbXml, centerX, centerY, radius, Math.PI,
+                    2 * Math.PI, 3);
+            sbXml.append("</gml:posList></gml:ArcString></gml:segments>"
+                    + "</gml:Curve></gml:curveMember></gml:Ring>");
+        } else {
+            sbXml.append("<gml:LinearRing><gml:posList>");
+            appendArcPoints(sbXml, centerX, centerY, radius, 0, 2 * Math.PI,
+                    points);
+            sbXml.append("</gml:posList></gml:LinearRing>");
+        }
+
+        sbXml.append("</gml:exterior></gml:Polygon></gml:surfaceMember>"
+                + "</gml:MultiSurface>");
+
+        return sbXml.toString();
+    }
+
+    /**
+     * Generates VFR document with StavebniObjekty and Parcely.
+     *
+     * @param count  number of items of each type
+     * @param points number of points of boundaries
+     *
+     * @return VFR document
+     */
+    public static String document(final int count, final int points) {
+        final StringBuilder sbXml = new StringBuilder(count * (2_000
+                + points * 48));
+        sbXml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+                + "<vf:VymennyFormat xmlns:vf=\"").
+                append(Namespaces.VYMENNY_FORMAT_TYPY).
+                append("\" xmlns:soi=\"").append(Namespaces.STAV_OBJ_INT_TYPY).
+                append("\" xmlns:pai=\"").append(Namespaces.PARCELA_INT_TYPY).
+                append("\" xmlns:kui=\"").append(Namespaces.KAT_UZ_INT_TYPY).
+                append("\" xmlns:com=\"").append(Namespaces.COMMON_TYPY).
+                append("\" xmlns:gml=\"").append(Namespaces.GML).
+                append("\"><vf:Data><vf:StavebniObjekty>");
+
+        for (int i = 1; i <= count; i++) {
+            final double x = -740000 + (i % 1000) * 50.25;
+            final double y = -1040000 + (i / 1000) * 50.25;
+
+            sbXml.append("<vf:StavebniObjekt gml:id=\"SO.").append(i).
+                    append("\"><soi:Kod>").append(i).
+                    append("</soi:Kod><soi:Nespravny>false</soi:Nespravny>"
+                            + "<soi:IdentifikacniParcela><pai:Id>").
+                    append(i).
+                    append("</pai:Id></soi:IdentifikacniParcela>"
+                            + "<soi:CislaDomovni><com:CisloDomovni>").
+                    append(i % 500 + 1).
+                    append("</com:CisloDomovni></soi:CislaDomovni>"
+                            + "<soi:PlatiOd>2016-05-31T00:00:00</soi:PlatiOd>"
+                            + "<soi:IdTransakce>").append(1_000_000 + i).
+                    append("</soi:IdTransakce><soi:IsknBudovaId>").
+                    append(10_000_000 + i).
+                    append("</soi:IsknBudovaId><soi:GlobalniIdNavrhuZmeny>").
+                    append(i).
+                    append("</soi:GlobalniIdNavrhuZmeny>"
+                            + "<soi:Dokonceni>1998-10-01T00:00:00"
+                            + "</soi:Dokonceni><soi:PocetBytu>").
+                    append(i % 12).
+                    append("</soi:PocetBytu><soi:PocetPodlazi>").
+                    append(i % 4 + 1).
+                    append("</soi:PocetPodlazi>"
+                            + "<soi:TypStavebnihoObjektuKod>1"
+                            + "</soi:TypStavebnihoObjektuKod>"
+                            + "<soi:ZpusobVyuzitiKod>7</soi:ZpusobVyuzitiKod>"
+                            + "<soi:Geometrie><soi:DefinicniBod>").
+                    append(point("DSO." + i, x, y)).
+                    append("</soi:DefinicniBod><soi:OriginalniHranice>").
+                    append(multiSurface("HSO." + i, x, y, points, false)).
+                    append("</soi:OriginalniHranice></soi:Geometrie>"
+                            + "</vf:StavebniObjekt>");
+        }
+
+        sbXml.append("</vf:StavebniObjekty><vf:Parcely>");
+
+        for (int i = 1; i <= count; i++) {
+            final double x = -740000 + (i % 1000) * 50.25;
+            final double y = -1040000 + (i / 1000) * 50.25;
+
+            sbXml.append("<vf:Parcela gml:id=\"PA.").append(i).
+                    append("\"><pai:Id>").append(i).
+                    append("</pai:Id><pai:Nespravny>false</pai:Nespravny>"
+                            + "<pai:KmenoveCislo>").append(i).
+                    append("</pai:KmenoveCislo>"
+                            + "<pai:PlatiOd>2016-05-31T00:00:00</pai:PlatiOd>"
+                            + "<pai:IdTransakce>").append(1_000_000 + i).
+                    append("</pai:IdTransakce><pai:VymeraParcely>").
+                    append(100 + i % 10_000).
+                    append("</pai:VymeraParcely><pai:RizeniId>").
+                    append(i).
+                    append("</pai:RizeniId>"
+                            + "<pai:DruhCislovaniKod>2</pai:DruhCislovaniKod>"
+                            + "<pai:DruhPozemkuKod>13</pai:DruhPozemkuKod>"
+                            + "<pai:KatastralniUzemi><kui:Kod>600016"
+                            + "</kui:Kod></pai:KatastralniUzemi>"
+                            + "<pai:Geometrie><pai:DefinicniBod>").
+                    append(point("DPA." + i, x, y)).
+                    append("</pai:DefinicniBod><pai:OriginalniHranice>").
+                    append(multiSurface("HPA." + i, x, y, points, i % 5 == 0)).
+                    append("</pai:OriginalniHranice></pai:Geometrie>"
+                            + "</vf:Parcela>");
+        }
+
+        sbXml.append("</vf:Parcely></vf:Data></vf:VymennyFormat>");
+
+        return sbXml.toString();
+    }
+
+    /**
+     * Appends points on the arc. First and last point are always included.
+     *
+     * @param sbXml   string builder
+     * @param centerX x coordinate of the center
+     * @param centerY y coordinate of the center
+     * @param radius  radius
+     * @param start   start angle
+     * @param end     end angle
+     * @param points  number of points
+     */
+    private static void appendArcPoints(final StringBuilder sbXml,
+            final double centerX, final double centerY, final double radius,
+            final double start, final double end, final int points) {
+        for (int i = 0; i < points; i++) {
+            // end of full circle must be exactly the same as the start
+            final double angle = i == points - 1 && end == 2 * Math.PI
+                    ? 0 : start + (end - start) * i / (points - 1);
+
+            if (i > 0) {
+                sbXml.append(' ');
+            }
+
+            sbXml.append(format(centerX + radius * Math.cos(angle))).
+                    append(' ').
+                    append(format(centerY + radius * Math.sin(angle)));
+        }
+    }
+
+    /**
+     * Formats coordinate the way coordinates are formatted in VFR files.
+     *
+     * @param value coordinate
+     *
+     * @return formatted coordinate
+     */
+    private static String format(final double value) {
+        return String.format(Locale.ROOT, "%.2f", value);
+    }
+}
@@ -63,6 +63,19 @@ public class App {
 
         for (int i = 0; i < args.length; i++) {
             switch (args[i]) {
+                case "--batch-size":
+                    i++;
+                    Config.setBatchSize(Integer.parseInt(args[i]));
+                    break;
+                case "--bulk-copy":
+                    Config.setBulkCopy(true);
+                    break;
+                case "--coalesce":
+                    Config.setCoalesce(true);
+                    break;
+                case "--convert-to-ewkb":
+                    Config.setConvertToEWKB(true);
+                    break;
                 case "--convert-to-ewkt":
                     Config.setConvertToEWKT(true);
                     break;
@@ -86,6 +99,13 @@ public class App {
                 case "--ignore-invalid-gml":
                     Config.setIgnoreInvalidGML(true);
                     break;
+                case "--index-threads":
+                    i++;
+                    Config.setIndexThreads(Integer.parseInt(args[i]));
+                    break;
+                case "--initial-load":
+                    Config.setInitialLoad(true);
+                    break;
                 case "--input-dir":
                     i++;
                     Config.setInputDirPath(Paths.get(args[i]));
@@ -97,12 +117,42 @@ public class App {
                 case "--no-gis":
                     Config.setNoGis(true);
                     break;
+                case "--partitions":
+                    i++;
+                    Config.setPartitions(Integer.parseInt(args[i]));
+                    break;
+                case "--pipeline":
+                    Config.setPipeline(true);
+                    break;
+                case "--preload-index":
+                    Config.setPreloadIndex(true);
+                    break;
+                case "--rebuild-indexes-threshold":
+                    i++;
+                    Config.setRebuildIndexesThreshold(Long.parseLong(args[i]));
+                    break;
                 case "--reset-transaction-ids":
                     Config.setResetTransactionIds(true);
                     break;
+                case "--row-hash":
+                    Config.setRowHash(true);
+                    break;
+                case "--staging":
+                    Config.setStaging(true);
+                    break;
+                case "--sync-sub-items":
+                    Config.setSyncSubItems(true);
+                    break;
+                case "--threads":
+                    i++;
+                    Config.setThreads(Integer.parseInt(args[i]));
+                    break;
                 case "--truncate-all":
                     Config.setTruncateAll(true);
                     break;
+                case "--upsert":
+                    Config.setUpsert(true);
+                    break;
                 case "--linearize-ewkt":
                      Config.setLinearizeEWKT(true);
                      break;
@@ -119,9 +169,119 @@ public class App {
         Objects.requireNonNull(
                 Config.getInputDirPath(), "--input-dir must be set");
 
-        if (Config.isLinearizeEWKT() && !Config.isConvertToEWKT()) {
+        if (Config.getBatchSize() < 1) {
+            throw new RuntimeException(
+                    "Switch --batch-size must be set to positive number.");
+        }
+
+        if (Config.getThreads() < 1) {
+            throw new RuntimeException(
+                    "Switch --threads must be set to positive number.");
+        }
+
+        if (Config.getIndexThreads() < 1) {
+            throw new RuntimeException(
+                    "Switch --index-threads must be set to positive number.");
+        }
+
+        if (Config.isConvertToEWKT() && Config.isConvertToEWKB()) {
+            throw new RuntimeException("Switches --convert-to-ewkt and "
+                    + "--convert-to-ewkb cannot be used together.");
+        }
+
+        if (Config.isLinearizeEWKT() && !Config.isParseGML()) {
             throw new RuntimeException(
-                "Switch --linearize-ewkt without --convert-to-ewkt is not supported.");
+                "Switch --linearize-ewkt without --convert-to-ewkt or --convert-to-ewkb is not supported.");
+        }
+
+        if (Config.isPipeline() && Config.isIgnoreInvalidGML()
+                && !Config.isParseGML()) {
+            throw new RuntimeException("Switch --pipeline cannot be used with "
+                    + "--ignore-invalid-gml without --convert-to-ewkt or "
+                    + "--convert-to-ewkb.");
+        }
+
+        if (Config.isBulkCopy()) {
+            if (Config.isMysqlDriver() && !Config.isNoGis()) {
+                throw new RuntimeException("Switch --bulk-copy requires "
+                        + "--no-gis when MySQL is used.");
+            }
+
+            if (Config.isUpsert()) {
+                throw new RuntimeException(
+                        "Switch --bulk-copy cannot be used with --upsert.");
+            }
+
+            if (!Config.isNoGis() && (!Config.isParseGML()
+                    || Config.getDestinationSrid() != null)) {
+                throw new RuntimeException("Switch --bulk-copy requires "
+                        + "--convert-to-ewkt or --convert-to-ewkb and does not "
+                        + "support --dest-srid.");
+            }
+
+            if (!Config.isCreateTables() && !Config.isTruncateAll()) {
+                throw new RuntimeException("Switch --bulk-copy requires "
+                        + "--create-tables or --truncate-all.");
+            }
+        }
+
+        if (Config.isInitialLoad()) {
+            if (Config.isMysqlDriver()) {
+                throw new RuntimeException("Switch --initial-load is "
+                        + "supported only for PostgreSQL.");
+            }
+
+            if (!Config.isCreateTables()) {
+                throw new RuntimeException(
+                        "Switch --initial-load requires --create-tables.");
+            }
+        }
+
+        if (Config.getRebuildIndexesThreshold() < 0) {
+            throw new RuntimeException("Switch --rebuild-indexes-threshold "
+                    + "must not be set to negative number.");
+        }
+
+        if (Config.getRebuildIndexesThreshold() > 0
+                && Config.isMysqlDriver()) {
+            throw new RuntimeException("Switch --rebuild-indexes-threshold is "
+                    + "supported only for PostgreSQL.");
+        }
+
+        if (Config.getPartitions() != 0) {
+            if (Config.getPartitions() < 2) {
+                throw new RuntimeException(
+                        "Switch --partitions must be set to at least 2.");
+            }
+
+            if (Config.isMysqlDriver() || !Config.isCreateTables()) {
+                throw new RuntimeException("Switch --partitions requires "
+                        + "--create-tables and is supported only for "
+                        + "PostgreSQL.");
+            }
+
+            if (Config.isInitialLoad()) {
+                throw new RuntimeException("Switch --partitions cannot be "
+                        + "used with --initial-load.");
+            }
+        }
+
+        if (Config.isStaging()) {
+            if (Config.isMysqlDriver()) {
+                throw new RuntimeException(
+                        "Switch --staging is supported only for PostgreSQL.");
+            }
+
+            if (Config.isBulkCopy() || Config.isPreloadIndex()) {
+                throw new RuntimeException("Switch --staging cannot be used "
+                        + "with --bulk-copy or --preload-index.");
+            }
+        }
+
+        if (Config.isSyncSubItems()
+                && (Config.isStaging() || Config.isBulkCopy())) {
+            throw new RuntimeException("Switch --sync-sub-items cannot be "
+                    + "used with --staging or --bulk-copy.");
         }
 
         try (@SuppressWarnings("UseOfSystemOutOrSystemErr")
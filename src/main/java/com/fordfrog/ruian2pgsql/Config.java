@@ -56,6 +56,11 @@ public class Config {
      * database.
      */
     private static boolean convertToEWKT;
+    /**
+     * Whether geometries should be converted to EWKB before they are stored in
+     * database.
+     */
+    private static boolean convertToEWKB;
     /**
      * Whether debug information should be output.
      */
@@ -89,6 +94,73 @@ public class Config {
      * Whether EWKT geometries should be linearized before they are stored in database.
      */
     private static boolean linearizeEWKT;
+    /**
+     * Number of INSERT/UPDATE statements that are sent to the database in
+     * single batch. Value 1 means that batching is disabled.
+     */
+    private static int batchSize = 1;
+    /**
+     * Whether items should be saved using single upsert statement instead of
+     * testing for existence and then inserting or updating the item.
+     */
+    private static boolean upsert;
+    /**
+     * Whether new items should be loaded to database using COPY.
+     */
+    private static boolean bulkCopy;
+    /**
+     * Number of threads that convert files concurrently.
+     */
+    private static int threads = 1;
+    /**
+     * Whether database operations should be executed by separate writer
+     * thread while the XML is read.
+     */
+    private static boolean pipeline;
+    /**
+     * Whether keys and transaction ids of existing items should be loaded
+     * into memory at startup.
+     */
+    private static boolean preloadIndex;
+    /**
+     * Whether input files should be scanned first so that only the latest
+     * version of each item is imported.
+     */
+    private static boolean coalesce;
+    /**
+     * Whether items should be saved to staging tables and merged into target
+     * tables using set-based statements.
+     */
+    private static boolean staging;
+    /**
+     * Whether sub-items of Parcela and StavebniObjekt should be synchronized
+     * with database instead of being deleted and inserted again.
+     */
+    private static boolean syncSubItems;
+    /**
+     * Whether hash of row values should be stored in row_hash column and rows
+     * with unchanged hash should not be updated.
+     */
+    private static boolean rowHash;
+    /**
+     * Whether tables should be created unlogged and import session should be
+     * tuned for initial load of data.
+     */
+    private static boolean initialLoad;
+    /**
+     * Number of database connections that create indexes concurrently.
+     */
+    private static int indexThreads = 1;
+    /**
+     * Number of items from which indexes of the touched table are dropped
+     * before the import and created afterwards, 0 means never.
+     */
+    private static long rebuildIndexesThreshold;
+    /**
+     * Number of partitions of rn_parcela and rn_stavebni_objekt tables, 0
+     * means that the tables are not partitioned.
+     */
+    private static int partitions;
 
     /**
      * Getter for {@link #inputDirPath}.
@@ -235,6 +307,34 @@ public class Config {
         Config.convertToEWKT = convertToEWKT;
     }
 
+    /**
+     * Getter for {@link #convertToEWKB}.
+     *
+     * @return {@link #convertToEWKB}
+     */
+    public static boolean isConvertToEWKB() {
+        return convertToEWKB;
+    }
+
+    /**
+     * Setter for {@link #convertToEWKB}.
+     *
+     * @param convertToEWKB {@link #convertToEWKB}
+     */
+    public static void setConvertToEWKB(final boolean convertToEWKB) {
+        Config.convertToEWKB = convertToEWKB;
+    }
+
+    /**
+     * Returns true if GML is parsed in the application and converted either to
+     * EWKT or to EWKB, otherwise false.
+     *
+     * @return true if GML is parsed in the application, otherwise false
+     */
+    public static boolean isParseGML() {
+        return convertToEWKT || convertToEWKB;
+    }
+
     /**
      * Getter for {@link #debug}.
      *
@@ -344,6 +444,270 @@ public class Config {
         Config.linearizeEWKT = linearizeEWKT;
     }
 
+    /**
+     * Getter for {@link #batchSize}.
+     *
+     * @return {@link #batchSize}
+     */
+    public static int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Setter for {@link #batchSize}.
+     *
+     * @param batchSize {@link #batchSize}
+     */
+    public static void setBatchSize(final int batchSize) {
+        Config.batchSize = batchSize;
+    }
+
+    /**
+     * Returns true if statements should be executed in batches, otherwise
+     * false.
+     *
+     * @return true if statements should be executed in batches, otherwise
+     *         false
+     */
+    public static boolean isBatchMode() {
+        return batchSize > 1;
+    }
+
+    /**
+     * Getter for {@link #upsert}.
+     *
+     * @return {@link #upsert}
+     */
+    public static boolean isUpsert() {
+        return upsert;
+    }
+
+    /**
+     * Setter for {@link #upsert}.
+     *
+     * @param upsert {@link #upsert}
+     */
+    public static void setUpsert(final boolean upsert) {
+        Config.upsert = upsert;
+    }
+
+    /**
+     * Getter for {@link #bulkCopy}.
+     *
+     * @return {@link #bulkCopy}
+     */
+    public static boolean isBulkCopy() {
+        return bulkCopy;
+    }
+
+    /**
+     * Setter for {@link #bulkCopy}.
+     *
+     * @param bulkCopy {@link #bulkCopy}
+     */
+    public static void setBulkCopy(final boolean bulkCopy) {
+        Config.bulkCopy = bulkCopy;
+    }
+
+    /**
+     * Getter for {@link #threads}.
+     *
+     * @return {@link #threads}
+     */
+    public static int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Setter for {@link #threads}.
+     *
+     * @param threads {@link #threads}
+     */
+    public static void setThreads(final int threads) {
+        Config.threads = threads;
+    }
+
+    /**
+     * Getter for {@link #pipeline}.
+     *
+     * @return {@link #pipeline}
+     */
+    public static boolean isPipeline() {
+        return pipeline;
+    }
+
+    /**
+     * Setter for {@link #pipeline}.
+     *
+     * @param pipeline {@link #pipeline}
+     */
+    public static void setPipeline(final boolean pipeline) {
+        Config.pipeline = pipeline;
+    }
+
+    /**
+     * Getter for {@link #preloadIndex}.
+     *
+     * @return {@link #preloadIndex}
+     */
+    public static boolean isPreloadIndex() {
+        return preloadIndex;
+    }
+
+    /**
+     * Setter for {@link #preloadIndex}.
+     *
+     * @param preloadIndex {@link #preloadIndex}
+     */
+    public static void setPreloadIndex(final boolean preloadIndex) {
+        Config.preloadIndex = preloadIndex;
+    }
+
+    /**
+     * Getter for {@link #coalesce}.
+     *
+     * @return {@link #coalesce}
+     */
+    public static boolean isCoalesce() {
+        return coalesce;
+    }
+
+    /**
+     * Setter for {@link #coalesce}.
+     *
+     * @param coalesce {@link #coalesce}
+     */
+    public static void setCoalesce(final boolean coalesce) {
+        Config.coalesce = coalesce;
+    }
+
+    /**
+     * Getter for {@link #staging}.
+     *
+     * @return {@link #staging}
+     */
+    public static boolean isStaging() {
+        return staging;
+    }
+
+    /**
+     * Setter for {@link #staging}.
+     *
+     * @param staging {@link #staging}
+     */
+    public static void setStaging(final boolean staging) {
+        Config.staging = staging;
+    }
+
+    /**
+     * Getter for {@link #syncSubItems}.
+     *
+     * @return {@link #syncSubItems}
+     */
+    public static boolean isSyncSubItems() {
+        return syncSubItems;
+    }
+
+    /**
+     * Setter for {@link #syncSubItems}.
+     *
+     * @param syncSubItems {@link #syncSubItems}
+     */
+    public static void setSyncSubItems(final boolean syncSubItems) {
+        Config.syncSubItems = syncSubItems;
+    }
+
+    /**
+     * Getter for {@link #rowHash}.
+     *
+     * @return {@link #rowHash}
+     */
+    public static boolean isRowHash() {
+        return rowHash;
+    }
+
+    /**
+     * Setter for {@link #rowHash}.
+     *
+     * @param rowHash {@link #rowHash}
+     */
+    public static void setRowHash(final boolean rowHash) {
+        Config.rowHash = rowHash;
+    }
+
+    /**
+     * Getter for {@link #initialLoad}.
+     *
+     * @return {@link #initialLoad}
+     */
+    public static boolean isInitialLoad() {
+        return initialLoad;
+    }
+
+    /**
+     * Setter for {@link #initialLoad}.
+     *
+     * @param initialLoad {@link #initialLoad}
+     */
+    public static void setInitialLoad(final boolean initialLoad) {
+        Config.initialLoad = initialLoad;
+    }
+
+    /**
+     * Getter for {@link #indexThreads}.
+     *
+     * @return {@link #indexThreads}
+     */
+    public static int getIndexThreads() {
+        return indexThreads;
+    }
+
+    /**
+     * Setter for {@link #indexThreads}.
+     *
+     * @param indexThreads {@link #indexThreads}
+     */
+    public static void setIndexThreads(final int indexThreads) {
+        Config.indexThreads = indexThreads;
+    }
+
+    /**
+     * Getter for {@link #rebuildIndexesThreshold}.
+     *
+     * @return {@link #rebuildIndexesThreshold}
+     */
+    public static long getRebuildIndexesThreshold() {
+        return rebuildIndexesThreshold;
+    }
+
+    /**
+     * Setter for {@link #rebuildIndexesThreshold}.
+     *
+     * @param rebuildIndexesThreshold {@link #rebuildIndexesThreshold}
+     */
+    public static void setRebuildIndexesThreshold(
+            final long rebuildIndexesThreshold) {
+        Config.rebuildIndexesThreshold = rebuildIndexesThreshold;
+    }
+
+    /**
+     * Getter for {@link #partitions}.
+     *
+     * @return {@link #partitions}
+     */
+    public static int getPartitions() {
+        return partitions;
+    }
+
+    /**
+     * Setter for {@link #partitions}.
+     *
+     * @param partitions {@link #partitions}
+     */
+    public static void setPartitions(final int partitions) {
+        Config.partitions = partitions;
+    }
+
     /**
      * Creates new instance of Config.
      */
@@ -28,24 +28,45 @@ import java.util.Date;
  *
  * @author fordfrog
  */
-public class AdresniMisto implements ItemWithDefinicniBod, ItemWithEmergency {
+public class AdresniMisto implements ItemWithDefinicniBod, ItemWithEmergency,
+        ItemWithIdTransRuian, ItemWithZmenaGrafiky, ReusableItem {
+
+    /**
+     * Bits of {@link #nulls} of fields with primitive types.
+     */
+    private static final int NULL_NESPRAVNY = 1;
+    private static final int NULL_ADRP_PSC = 1 << 1;
+    private static final int NULL_ULICE_KOD = 1 << 2;
+    private static final int NULL_VO_KOD = 1 << 3;
+    private static final int NULL_STAVOBJ_KOD = 1 << 4;
+    private static final int NULL_CISLO_DOMOVNI = 1 << 5;
+    private static final int NULL_CISLO_ORIENTACNI_HODNOTA = 1 << 6;
+    private static final int NULL_NZ_ID_GLOBALNI = 1 << 7;
+    /**
+     * All bits of {@link #nulls}.
+     */
+    private static final int ALL_NULLS = (1 << 8) - 1;
+    /**
+     * Bit mask of fields with primitive types that have no value.
+     */
+    private int nulls = ALL_NULLS;
 
     private Integer kod;
-    private Boolean nespravny;
-    private Integer adrpPsc;
-    private Integer uliceKod;
-    private Integer voKod;
-    private Integer stavobjKod;
-    private Integer cisloDomovni;
-    private Integer cisloOrientacniHodnota;
+    private boolean nespravny;
+    private int adrpPsc;
+    private int uliceKod;
+    private int voKod;
+    private int stavobjKod;
+    private int cisloDomovni;
+    private int cisloOrientacniHodnota;
     private String cisloOrientacniPismeno;
     private Long idTransRuian;
     private Date platiOd;
     private Boolean zmenaGrafiky;
-    private Long nzIdGlobalni;
-    private String definicniBod;
-    private String zachranka;
-    private String hasici;
+    private long nzIdGlobalni;
+    private Object definicniBod;
+    private Object zachranka;
+    private Object hasici;
 
     public Integer getKod() {
         return kod;
@@ -55,61 +76,95 @@ public class AdresniMisto implements ItemWithDefinicniBod, ItemWithEmergency {
         this.kod = kod;
     }
 
-    public Boolean getNespravny() {
+    public boolean getNespravny() {
         return nespravny;
     }
 
-    public void setNespravny(final Boolean nespravny) {
+    public void setNespravny(final boolean nespravny) {
         this.nespravny = nespravny;
+        nulls &= ~NULL_NESPRAVNY;
     }
 
-    public Integer getAdrpPsc() {
+    public boolean isNespravnyNull() {
+        return (nulls & NULL_NESPRAVNY) != 0;
+    }
+
+    public int getAdrpPsc() {
         return adrpPsc;
     }
 
-    public void setAdrpPsc(final Integer adrpPsc) {
+    public void setAdrpPsc(final int adrpPsc) {
         this.adrpPsc = adrpPsc;
+        nulls &= ~NULL_ADRP_PSC;
     }
 
-    public Integer getUliceKod() {
+    public boolean isAdrpPscNull() {
+        return (nulls & NULL_ADRP_PSC) != 0;
+    }
+
+    public int getUliceKod() {
         return uliceKod;
     }
 
-    public void setUliceKod(final Integer uliceKod) {
+    public void setUliceKod(final int uliceKod) {
         this.uliceKod = uliceKod;
+        nulls &= ~NULL_ULICE_KOD;
+    }
+
+    public boolean isUliceKodNull() {
+        return (nulls & NULL_ULICE_KOD) != 0;
     }
 
-    public Integer getVoKod() {
+    public int getVoKod() {
         return voKod;
     }
 
-    public void setVoKod(final Integer voKod) {
+    public void setVoKod(final int voKod) {
         this.voKod = voKod;
+        nulls &= ~NULL_VO_KOD;
+    }
+
+    public boolean isVoKodNull() {
+        return (nulls & NULL_VO_KOD) != 0;
     }
 
-    public Integer getStavobjKod() {
+    public int getStavobjKod() {
         return stavobjKod;
     }
 
-    public void setStavobjKod(final Integer stavobjKod) {
+    public void setStavobjKod(final int stavobjKod) {
         this.stavobjKod = stavobjKod;
+        nulls &= ~NULL_STAVOBJ_KOD;
+    }
+
+    public boolean isStavobjKodNull() {
+        return (nulls & NULL_STAVOBJ_KOD) != 0;
     }
 
-    public Integer getCisloDomovni() {
+    public int getCisloDomovni() {
         return cisloDomovni;
     }
 
-    public void setCisloDomovni(final Integer cisloDomovni) {
+    public void setCisloDomovni(final int cisloDomovni) {
         this.cisloDomovni = cisloDomovni;
+        nulls &= ~NULL_CISLO_DOMOVNI;
     }
 
-    public Integer getCisloOrientacniHodnota() {
+    public boolean isCisloDomovniNull() {
+        return (nulls & NULL_CISLO_DOMOVNI) != 0;
+    }
+
+    public int getCisloOrientacniHodnota() {
         return cisloOrientacniHodnota;
     }
 
-    public void setCisloOrientacniHodnota(
-            final Integer cisloOrientacniHodnota) {
+    public void setCisloOrientacniHodnota(final int cisloOrientacniHodnota) {
         this.cisloOrientacniHodnota = cisloOrientacniHodnota;
+        nulls &= ~NULL_CISLO_ORIENTACNI_HODNOTA;
+    }
+
+    public boolean isCisloOrientacniHodnotaNull() {
+        return (nulls & NULL_CISLO_ORIENTACNI_HODNOTA) != 0;
     }
 
     public String getCisloOrientacniPismeno() {
@@ -138,50 +193,77 @@ public class AdresniMisto implements ItemWithDefinicniBod, ItemWithEmergency {
         this.platiOd = platiOd;
     }
 
+    @Override
     public Boolean getZmenaGrafiky() {
         return zmenaGrafiky;
     }
 
+    @Override
     public void setZmenaGrafiky(final Boolean zmenaGrafiky) {
         this.zmenaGrafiky = zmenaGrafiky;
     }
 
-    public Long getNzIdGlobalni() {
+    public long getNzIdGlobalni() {
         return nzIdGlobalni;
     }
 
-    public void setNzIdGlobalni(final Long nzIdGlobalni) {
+    public void setNzIdGlobalni(final long nzIdGlobalni) {
         this.nzIdGlobalni = nzIdGlobalni;
+        nulls &= ~NULL_NZ_ID_GLOBALNI;
+    }
+
+    public boolean isNzIdGlobalniNull() {
+        return (nulls & NULL_NZ_ID_GLOBALNI) != 0;
     }
 
     @Override
-    public String getDefinicniBod() {
+    public Object getDefinicniBod() {
         return definicniBod;
     }
 
     @Override
-    public void setDefinicniBod(final String definicniBod) {
+    public void setDefinicniBod(final Object definicniBod) {
         this.definicniBod = definicniBod;
     }
 
     @Override
-    public String getZachranka() {
+    public Object getZachranka() {
         return zachranka;
     }
 
     @Override
-    public void setZachranka(final String zachranka) {
+    public void setZachranka(final Object zachranka) {
         this.zachranka = zachranka;
     }
 
     @Override
-    public String getHasici() {
+    public Object getHasici() {
         return hasici;
     }
 
     @Override
-    public void setHasici(final String hasici) {
+    public void setHasici(final Object hasici) {
         this.hasici = hasici;
     }
 
+    @Override
+    public void reset() {
+        nulls = ALL_NULLS;
+        kod = null;
+        nespravny = false;
+        adrpPsc = 0;
+        uliceKod = 0;
+        voKod = 0;
+        stavobjKod = 0;
+        cisloDomovni = 0;
+        cisloOrientacniHodnota = 0;
+        cisloOrientacniPismeno = null;
+        idTransRuian = null;
+        platiOd = null;
+        zmenaGrafiky = null;
+        nzIdGlobalni = 0;
+        definicniBod = null;
+        zachranka = null;
+        hasici = null;
+    }
 }
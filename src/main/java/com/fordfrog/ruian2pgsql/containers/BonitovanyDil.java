@@ -26,13 +26,28 @@ package com.fordfrog.ruian2pgsql.containers;
  *
  * @author fordfrog
  */
-public class BonitovanyDil {
+public class BonitovanyDil implements ReusableItem {
+
+    /**
+     * Bits of {@link #nulls} of fields with primitive types.
+     */
+    private static final int NULL_BPEJ_KOD = 1;
+    private static final int NULL_VYMERA = 1 << 1;
+    private static final int NULL_RIZENI_ID = 1 << 2;
+    /**
+     * All bits of {@link #nulls}.
+     */
+    private static final int ALL_NULLS = (1 << 3) - 1;
+    /**
+     * Bit mask of fields with primitive types that have no value.
+     */
+    private int nulls = ALL_NULLS;
 
     private Long parcelaId;
-    private Integer bpejKod;
-    private Integer vymera;
+    private int bpejKod;
+    private int vymera;
     private Long idTransRuian;
-    private Long rizeniId;
+    private long rizeniId;
 
     public Long getParcelaId() {
         return parcelaId;
@@ -42,20 +57,30 @@ public class BonitovanyDil {
         this.parcelaId = parcelaId;
     }
 
-    public Integer getBpejKod() {
+    public int getBpejKod() {
         return bpejKod;
     }
 
-    public void setBpejKod(final Integer bpejKod) {
+    public void setBpejKod(final int bpejKod) {
         this.bpejKod = bpejKod;
+        nulls &= ~NULL_BPEJ_KOD;
+    }
+
+    public boolean isBpejKodNull() {
+        return (nulls & NULL_BPEJ_KOD) != 0;
     }
 
-    public Integer getVymera() {
+    public int getVymera() {
         return vymera;
     }
 
-    public void setVymera(final Integer vymera) {
+    public void setVymera(final int vymera) {
         this.vymera = vymera;
+        nulls &= ~NULL_VYMERA;
+    }
+
+    public boolean isVymeraNull() {
+        return (nulls & NULL_VYMERA) != 0;
     }
 
     public Long getIdTransRuian() {
@@ -66,11 +91,26 @@ public class BonitovanyDil {
         this.idTransRuian = idTransRuian;
     }
 
-    public Long getRizeniId() {
+    public long getRizeniId() {
         return rizeniId;
     }
 
-    public void setRizeniId(final Long rizeniId) {
+    public void setRizeniId(final long rizeniId) {
         this.rizeniId = rizeniId;
+        nulls &= ~NULL_RIZENI_ID;
+    }
+
+    public boolean isRizeniIdNull() {
+        return (nulls & NULL_RIZENI_ID) != 0;
+    }
+
+    @Override
+    public void reset() {
+        nulls = ALL_NULLS;
+        parcelaId = null;
+        bpejKod = 0;
+        vymera = 0;
+        idTransRuian = null;
+        rizeniId = 0;
     }
 }
@@ -29,12 +29,28 @@ import java.util.Date;
  * @author fordfrog
  */
 public class CastObce implements ItemWithDefinicniBod, ItemWithHranice,
-        ItemWithMluvCharPad {
+        ItemWithMluvCharPad, ItemWithIdTransRuian, ItemWithZmenaGrafiky,
+        ReusableItem {
+
+    /**
+     * Bits of {@link #nulls} of fields with primitive types.
+     */
+    private static final int NULL_NESPRAVNY = 1;
+    private static final int NULL_OBEC_KOD = 1 << 1;
+    private static final int NULL_NZ_ID_GLOBALNI = 1 << 2;
+    /**
+     * All bits of {@link #nulls}.
+     */
+    private static final int ALL_NULLS = (1 << 3) - 1;
+    /**
+     * Bit mask of fields with primitive types that have no value.
+     */
+    private int nulls = ALL_NULLS;
 
     private Integer kod;
     private String nazev;
-    private Boolean nespravny;
-    private Integer obecKod;
+    private boolean nespravny;
+    private int obecKod;
     private String mluvCharPad2;
     private String mluvCharPad3;
     private String mluvCharPad4;
@@ -44,9 +60,9 @@ public class CastObce implements ItemWithDefinicniBod, ItemWithHranice,
     private Long idTransRuian;
     private Boolean zmenaGrafiky;
     private Date platiOd;
-    private Long nzIdGlobalni;
-    private String definicniBod;
-    private String hranice;
+    private long nzIdGlobalni;
+    private Object definicniBod;
+    private Object hranice;
     private Date datumVzniku;
 
     public Integer getKod() {
@@ -65,20 +81,30 @@ public class CastObce implements ItemWithDefinicniBod, ItemWithHranice,
         this.nazev = nazev;
     }
 
-    public Boolean getNespravny() {
+    public boolean getNespravny() {
         return nespravny;
     }
 
-    public void setNespravny(final Boolean nespravny) {
+    public void setNespravny(final boolean nespravny) {
         this.nespravny = nespravny;
+        nulls &= ~NULL_NESPRAVNY;
     }
 
-    public Integer getObecKod() {
+    public boolean isNespravnyNull() {
+        return (nulls & NULL_NESPRAVNY) != 0;
+    }
+
+    public int getObecKod() {
         return obecKod;
     }
 
-    public void setObecKod(final Integer obecKod) {
+    public void setObecKod(final int obecKod) {
         this.obecKod = obecKod;
+        nulls &= ~NULL_OBEC_KOD;
+    }
+
+    public boolean isObecKodNull() {
+        return (nulls & NULL_OBEC_KOD) != 0;
     }
 
     @Override
@@ -149,10 +175,12 @@ public class CastObce implements ItemWithDefinicniBod, ItemWithHranice,
         this.idTransRuian = idTransRuian;
     }
 
+    @Override
     public Boolean getZmenaGrafiky() {
         return zmenaGrafiky;
     }
 
+    @Override
     public void setZmenaGrafiky(final Boolean zmenaGrafiky) {
         this.zmenaGrafiky = zmenaGrafiky;
     }
@@ -167,31 +195,36 @@ public class CastObce implements ItemWithDefinicniBod, ItemWithHranice,
         this.platiOd = platiOd;
     }
 
-    public Long getNzIdGlobalni() {
+    public long getNzIdGlobalni() {
         return nzIdGlobalni;
     }
 
-    public void setNzIdGlobalni(final Long nzIdGlobalni) {
+    public void setNzIdGlobalni(final long nzIdGlobalni) {
         this.nzIdGlobalni = nzIdGlobalni;
+        nulls &= ~NULL_NZ_ID_GLOBALNI;
+    }
+
+    public boolean isNzIdGlobalniNull() {
+        return (nulls & NULL_NZ_ID_GLOBALNI) != 0;
     }
 
     @Override
-    public String getDefinicniBod() {
+    public Object getDefinicniBod() {
         return definicniBod;
     }
 
     @Override
-    public void setDefinicniBod(final String definicniBod) {
+    public void setDefinicniBod(final Object definicniBod) {
         this.definicniBod = definicniBod;
     }
 
     @Override
-    public String getHranice() {
+    public Object getHranice() {
         return hranice;
     }
 
     @Override
-    public void setHranice(final String hranice) {
+    public void setHranice(final Object hranice) {
         this.hranice = hranice;
     }
 
@@ -202,4 +235,26 @@ public class CastObce implements ItemWithDefinicniBod, ItemWithHranice,
     public void setDatumVzniku(final Date datumVzniku) {
         this.datumVzniku = datumVzniku;
     }
+
+    @Override
+    public void reset() {
+        nulls = ALL_NULLS;
+        kod = null;
+        nazev = null;
+        nespravny = false;
+        obecKod = 0;
+        mluvCharPad2 = null;
+        mluvCharPad3 = null;
+        mluvCharPad4 = null;
+        mluvCharPad5 = null;
+        mluvCharPad6 = null;
+        mluvCharPad7 = null;
+        idTransRuian = null;
+        zmenaGrafiky = null;
+        platiOd = null;
+        nzIdGlobalni = 0;
+        definicniBod = null;
+        hranice = null;
+        datumVzniku = null;
+    }
 }
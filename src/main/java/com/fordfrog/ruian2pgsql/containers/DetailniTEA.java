@@ -28,23 +28,46 @@ import java.util.Date;
  *
  * @author fordfrog
  */
-public class DetailniTEA {
+public class DetailniTEA implements ReusableItem {
+
+    /**
+     * Bits of {@link #nulls} of fields with primitive types.
+     */
+    private static final int NULL_ADRESNI_MISTO_KOD = 1;
+    private static final int NULL_NESPRAVNY = 1 << 1;
+    private static final int NULL_POCET_BYTU = 1 << 2;
+    private static final int NULL_POCET_PODLAZI = 1 << 3;
+    private static final int NULL_DRUH_KONSTRUKCE_KOD = 1 << 4;
+    private static final int NULL_PRIPOJ_KANAL_SIT_KOD = 1 << 5;
+    private static final int NULL_PRIPOJ_PLYN_KOD = 1 << 6;
+    private static final int NULL_PRIPOJ_VODOVOD_KOD = 1 << 7;
+    private static final int NULL_PRIPOJ_EL_ENERGIE = 1 << 8;
+    private static final int NULL_ZPUSOB_VYTAPENI_KOD = 1 << 9;
+    private static final int NULL_NZ_ID_GLOBALNI = 1 << 10;
+    /**
+     * All bits of {@link #nulls}.
+     */
+    private static final int ALL_NULLS = (1 << 11) - 1;
+    /**
+     * Bit mask of fields with primitive types that have no value.
+     */
+    private int nulls = ALL_NULLS;
 
     private Integer kod;
     private Integer stavobjKod;
-    private Integer adresniMistoKod;
-    private Boolean nespravny;
-    private Integer pocetBytu;
-    private Integer pocetPodlazi;
-    private Integer druhKonstrukceKod;
-    private Integer pripojKanalSitKod;
-    private Integer pripojPlynKod;
-    private Integer pripojVodovodKod;
-    private Boolean pripojElEnergie;
-    private Integer zpusobVytapeniKod;
+    private int adresniMistoKod;
+    private boolean nespravny;
+    private int pocetBytu;
+    private int pocetPodlazi;
+    private int druhKonstrukceKod;
+    private int pripojKanalSitKod;
+    private int pripojPlynKod;
+    private int pripojVodovodKod;
+    private boolean pripojElEnergie;
+    private int zpusobVytapeniKod;
     private Long idTransRuian;
     private Date platiOd;
-    private Long nzIdGlobalni;
+    private long nzIdGlobalni;
 
     public Integer getKod() {
         return kod;
@@ -62,84 +85,134 @@ public class DetailniTEA {
         this.stavobjKod = stavobjKod;
     }
 
-    public Integer getAdresniMistoKod() {
+    public int getAdresniMistoKod() {
         return adresniMistoKod;
     }
 
-    public void setAdresniMistoKod(final Integer adresniMistoKod) {
+    public void setAdresniMistoKod(final int adresniMistoKod) {
         this.adresniMistoKod = adresniMistoKod;
+        nulls &= ~NULL_ADRESNI_MISTO_KOD;
     }
 
-    public Boolean getNespravny() {
+    public boolean isAdresniMistoKodNull() {
+        return (nulls & NULL_ADRESNI_MISTO_KOD) != 0;
+    }
+
+    public boolean getNespravny() {
         return nespravny;
     }
 
-    public void setNespravny(final Boolean nespravny) {
+    public void setNespravny(final boolean nespravny) {
         this.nespravny = nespravny;
+        nulls &= ~NULL_NESPRAVNY;
+    }
+
+    public boolean isNespravnyNull() {
+        return (nulls & NULL_NESPRAVNY) != 0;
     }
 
-    public Integer getPocetBytu() {
+    public int getPocetBytu() {
         return pocetBytu;
     }
 
-    public void setPocetBytu(final Integer pocetBytu) {
+    public void setPocetBytu(final int pocetBytu) {
         this.pocetBytu = pocetBytu;
+        nulls &= ~NULL_POCET_BYTU;
+    }
+
+    public boolean isPocetBytuNull() {
+        return (nulls & NULL_POCET_BYTU) != 0;
     }
 
-    public Integer getPocetPodlazi() {
+    public int getPocetPodlazi() {
         return pocetPodlazi;
     }
 
-    public void setPocetPodlazi(final Integer pocetPodlazi) {
+    public void setPocetPodlazi(final int pocetPodlazi) {
         this.pocetPodlazi = pocetPodlazi;
+        nulls &= ~NULL_POCET_PODLAZI;
     }
 
-    public Integer getDruhKonstrukceKod() {
+    public boolean isPocetPodlaziNull() {
+        return (nulls & NULL_POCET_PODLAZI) != 0;
+    }
+
+    public int getDruhKonstrukceKod() {
         return druhKonstrukceKod;
     }
 
-    public void setDruhKonstrukceKod(final Integer druhKonstrukceKod) {
+    public void setDruhKonstrukceKod(final int druhKonstrukceKod) {
         this.druhKonstrukceKod = druhKonstrukceKod;
+        nulls &= ~NULL_DRUH_KONSTRUKCE_KOD;
+    }
+
+    public boolean isDruhKonstrukceKodNull() {
+        return (nulls & NULL_DRUH_KONSTRUKCE_KOD) != 0;
     }
 
-    public Integer getPripojKanalSitKod() {
+    public int getPripojKanalSitKod() {
         return pripojKanalSitKod;
     }
 
-    public void setPripojKanalSitKod(final Integer pripojKanalSitKod) {
+    public void setPripojKanalSitKod(final int pripojKanalSitKod) {
         this.pripojKanalSitKod = pripojKanalSitKod;
+        nulls &= ~NULL_PRIPOJ_KANAL_SIT_KOD;
+    }
+
+    public boolean isPripojKanalSitKodNull() {
+        return (nulls & NULL_PRIPOJ_KANAL_SIT_KOD) != 0;
     }
 
-    public Integer getPripojPlynKod() {
+    public int getPripojPlynKod() {
         return pripojPlynKod;
     }
 
-    public void setPripojPlynKod(final Integer pripojPlynKod) {
+    public void setPripojPlynKod(final int pripojPlynKod) {
         this.pripojPlynKod = pripojPlynKod;
+        nulls &= ~NULL_PRIPOJ_PLYN_KOD;
     }
 
-    public Integer getPripojVodovodKod() {
+    public boolean isPripojPlynKodNull() {
+        return (nulls & NULL_PRIPOJ_PLYN_KOD) != 0;
+    }
+
+    public int getPripojVodovodKod() {
         return pripojVodovodKod;
     }
 
-    public void setPripojVodovodKod(final Integer pripojVodovodKod) {
+    public void setPripojVodovodKod(final int pripojVodovodKod) {
         this.pripojVodovodKod = pripojVodovodKod;
+        nulls &= ~NULL_PRIPOJ_VODOVOD_KOD;
+    }
+
+    public boolean isPripojVodovodKodNull() {
+        return (nulls & NULL_PRIPOJ_VODOVOD_KOD) != 0;
     }
 
-    public Boolean getPripojElEnergie() {
+    public boolean getPripojElEnergie() {
         return pripojElEnergie;
     }
 
-    public void setPripojElEnergie(final Boolean pripojElEnergie) {
+    public void setPripojElEnergie(final boolean pripojElEnergie) {
         this.pripojElEnergie = pripojElEnergie;
+        nulls &= ~NULL_PRIPOJ_EL_ENERGIE;
+    }
+
+    public boolean isPripojElEnergieNull() {
+        return (nulls & NULL_PRIPOJ_EL_ENERGIE) != 0;
     }
 
-    public Integer getZpusobVytapeniKod() {
+    public int getZpusobVytapeniKod() {
         return zpusobVytapeniKod;
     }
 
-    public void setZpusobVytapeniKod(final Integer zpusobVytapeniKod) {
+    public void setZpusobVytapeniKod(final int zpusobVytapeniKod) {
         this.zpusobVytapeniKod = zpusobVytapeniKod;
+        nulls &= ~NULL_ZPUSOB_VYTAPENI_KOD;
+    }
+
+    public boolean isZpusobVytapeniKodNull() {
+        return (nulls & NULL_ZPUSOB_VYTAPENI_KOD) != 0;
     }
 
     public Long getIdTransRuian() {
@@ -160,11 +233,36 @@ public class DetailniTEA {
         this.platiOd = platiOd;
     }
 
-    public Long getNzIdGlobalni() {
+    public long getNzIdGlobalni() {
         return nzIdGlobalni;
     }
 
-    public void setNzIdGlobalni(final Long nzIdGlobalni) {
+    public void setNzIdGlobalni(final long nzIdGlobalni) {
         this.nzIdGlobalni = nzIdGlobalni;
+        nulls &= ~NULL_NZ_ID_GLOBALNI;
+    }
+
+    public boolean isNzIdGlobalniNull() {
+        return (nulls & NULL_NZ_ID_GLOBALNI) != 0;
+    }
+
+    @Override
+    public void reset() {
+        nulls = ALL_NULLS;
+        kod = null;
+        stavobjKod = null;
+        adresniMistoKod = 0;
+        nespravny = false;
+        pocetBytu = 0;
+        pocetPodlazi = 0;
+        druhKonstrukceKod = 0;
+        pripojKanalSitKod = 0;
+        pripojPlynKod = 0;
+        pripojVodovodKod = 0;
+        pripojElEnergie = false;
+        zpusobVytapeniKod = 0;
+        idTransRuian = null;
+        platiOd = null;
+        nzIdGlobalni = 0;
     }
 }
@@ -28,7 +28,7 @@ import java.util.Date;
  *
  * @author fordfrog
  */
-public class Hlavicka {
+public class Hlavicka implements ReusableItem {
 
     private String verzeVfr;
     private String typZaznamu;
@@ -161,4 +161,22 @@ public class Hlavicka {
     public void setPlatnostDatKIskn(final Date platnostDatKIskn) {
         this.platnostDatKIskn = platnostDatKIskn;
     }
+
+    @Override
+    public void reset() {
+        verzeVfr = null;
+        typZaznamu = null;
+        typDavky = null;
+        typSouboru = null;
+        datum = null;
+        transakceOdId = null;
+        transakceOdZapsano = null;
+        transakceDoId = null;
+        transakceDoZapsano = null;
+        predchoziSoubor = null;
+        plnySoubor = null;
+        metadata = null;
+        platnostDatKIsui = null;
+        platnostDatKIskn = null;
+    }
 }
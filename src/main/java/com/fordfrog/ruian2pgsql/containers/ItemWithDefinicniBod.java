@@ -23,12 +23,14 @@ package com.fordfrog.ruian2pgsql.containers;
 
 /**
  * Interface for items with DefinicniBod.
+ * Geometries are stored as GML or EWKT string, or as EWKB bytes if
+ * --convert-to-ewkb is used.
  *
  * @author fordfrog
  */
 public interface ItemWithDefinicniBod {
 
-    String getDefinicniBod();
+    Object getDefinicniBod();
 
-    void setDefinicniBod(String definicniBod);
+    void setDefinicniBod(Object definicniBod);
 }
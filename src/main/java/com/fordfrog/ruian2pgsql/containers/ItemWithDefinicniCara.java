@@ -23,12 +23,14 @@ package com.fordfrog.ruian2pgsql.containers;
 
 /**
  * Interface for items with DefinicniCara.
+ * Geometries are stored as GML or EWKT string, or as EWKB bytes if
+ * --convert-to-ewkb is used.
  *
  * @author fordfrog
  */
 public interface ItemWithDefinicniCara {
 
-    String getDefinicniCara();
+    Object getDefinicniCara();
 
-    void setDefinicniCara(String definicniCara);
+    void setDefinicniCara(Object definicniCara);
 }
@@ -23,16 +23,18 @@ package com.fordfrog.ruian2pgsql.containers;
 
 /**
  * Interface for items with Zachranka and Hasici.
+ * Geometries are stored as GML or EWKT string, or as EWKB bytes if
+ * --convert-to-ewkb is used.
  *
  * @author fordfrog
  */
 public interface ItemWithEmergency {
 
-    String getHasici();
+    Object getHasici();
 
-    void setHasici(String hasici);
+    void setHasici(Object hasici);
 
-    String getZachranka();
+    Object getZachranka();
 
-    void setZachranka(String zachranka);
+    void setZachranka(Object zachranka);
 }
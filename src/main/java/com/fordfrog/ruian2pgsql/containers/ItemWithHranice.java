@@ -23,12 +23,14 @@ package com.fordfrog.ruian2pgsql.containers;
 
 /**
  * Interface for items with Hranice.
+ * Geometries are stored as GML or EWKT string, or as EWKB bytes if
+ * --convert-to-ewkb is used.
  *
  * @author fordfrog
  */
 public interface ItemWithHranice {
 
-    String getHranice();
+    Object getHranice();
 
-    void setHranice(String hranice);
+    void setHranice(Object hranice);
 }
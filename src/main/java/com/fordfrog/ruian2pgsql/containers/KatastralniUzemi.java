@@ -29,12 +29,28 @@ import java.util.Date;
  * @author fordfrog
  */
 public class KatastralniUzemi implements ItemWithDefinicniBod, ItemWithHranice,
-        ItemWithMluvCharPad {
+        ItemWithMluvCharPad, ItemWithIdTransRuian, ReusableItem {
+
+    /**
+     * Bits of {@link #nulls} of fields with primitive types.
+     */
+    private static final int NULL_NESPRAVNY = 1;
+    private static final int NULL_OBEC_KOD = 1 << 1;
+    private static final int NULL_NZ_ID_GLOBALNI = 1 << 2;
+    private static final int NULL_RIZENI_ID = 1 << 3;
+    /**
+     * All bits of {@link #nulls}.
+     */
+    private static final int ALL_NULLS = (1 << 4) - 1;
+    /**
+     * Bit mask of fields with primitive types that have no value.
+     */
+    private int nulls = ALL_NULLS;
 
     private Integer kod;
     private String nazev;
-    private Boolean nespravny;
-    private Integer obecKod;
+    private boolean nespravny;
+    private int obecKod;
     private boolean maDkm;
     private String mluvCharPad2;
     private String mluvCharPad3;
@@ -44,10 +60,10 @@ public class KatastralniUzemi implements ItemWithDefinicniBod, ItemWithHranice,
     private String mluvCharPad7;
     private Long idTransRuian;
     private Date platiOd;
-    private Long nzIdGlobalni;
-    private Long rizeniId;
-    private String definicniBod;
-    private String hranice;
+    private long nzIdGlobalni;
+    private long rizeniId;
+    private Object definicniBod;
+    private Object hranice;
     private Date datumVzniku;
 
     public Integer getKod() {
@@ -66,20 +82,30 @@ public class KatastralniUzemi implements ItemWithDefinicniBod, ItemWithHranice,
         this.nazev = nazev;
     }
 
-    public Boolean getNespravny() {
+    public boolean getNespravny() {
         return nespravny;
     }
 
-    public void setNespravny(final Boolean nespravny) {
+    public void setNespravny(final boolean nespravny) {
         this.nespravny = nespravny;
+        nulls &= ~NULL_NESPRAVNY;
     }
 
-    public Integer getObecKod() {
+    public boolean isNespravnyNull() {
+        return (nulls & NULL_NESPRAVNY) != 0;
+    }
+
+    public int getObecKod() {
         return obecKod;
     }
 
-    public void setObecKod(final Integer obecKod) {
+    public void setObecKod(final int obecKod) {
         this.obecKod = obecKod;
+        nulls &= ~NULL_OBEC_KOD;
+    }
+
+    public boolean isObecKodNull() {
+        return (nulls & NULL_OBEC_KOD) != 0;
     }
 
     public boolean isMaDkm() {
@@ -168,39 +194,49 @@ public class KatastralniUzemi implements ItemWithDefinicniBod, ItemWithHranice,
         this.platiOd = platiOd;
     }
 
-    public Long getNzIdGlobalni() {
+    public long getNzIdGlobalni() {
         return nzIdGlobalni;
     }
 
-    public void setNzIdGlobalni(final Long nzIdGlobalni) {
+    public void setNzIdGlobalni(final long nzIdGlobalni) {
         this.nzIdGlobalni = nzIdGlobalni;
+        nulls &= ~NULL_NZ_ID_GLOBALNI;
+    }
+
+    public boolean isNzIdGlobalniNull() {
+        return (nulls & NULL_NZ_ID_GLOBALNI) != 0;
     }
 
-    public Long getRizeniId() {
+    public long getRizeniId() {
         return rizeniId;
     }
 
-    public void setRizeniId(final Long rizeniId) {
+    public void setRizeniId(final long rizeniId) {
         this.rizeniId = rizeniId;
+        nulls &= ~NULL_RIZENI_ID;
+    }
+
+    public boolean isRizeniIdNull() {
+        return (nulls & NULL_RIZENI_ID) != 0;
     }
 
     @Override
-    public String getDefinicniBod() {
+    public Object getDefinicniBod() {
         return definicniBod;
     }
 
     @Override
-    public void setDefinicniBod(final String definicniBod) {
+    public void setDefinicniBod(final Object definicniBod) {
         this.definicniBod = definicniBod;
     }
 
     @Override
-    public String getHranice() {
+    public Object getHranice() {
         return hranice;
     }
 
     @Override
-    public void setHranice(String hranice) {
+    public void setHranice(Object hranice) {
         this.hranice = hranice;
     }
 
@@ -211,4 +247,27 @@ public class KatastralniUzemi implements ItemWithDefinicniBod, ItemWithHranice,
     public void setDatumVzniku(final Date datumVzniku) {
         this.datumVzniku = datumVzniku;
     }
+
+    @Override
+    public void reset() {
+        nulls = ALL_NULLS;
+        kod = null;
+        nazev = null;
+        nespravny = false;
+        obecKod = 0;
+        maDkm = false;
+        mluvCharPad2 = null;
+        mluvCharPad3 = null;
+        mluvCharPad4 = null;
+        mluvCharPad5 = null;
+        mluvCharPad6 = null;
+        mluvCharPad7 = null;
+        idTransRuian = null;
+        platiOd = null;
+        nzIdGlobalni = 0;
+        rizeniId = 0;
+        definicniBod = null;
+        hranice = null;
+        datumVzniku = null;
+    }
 }
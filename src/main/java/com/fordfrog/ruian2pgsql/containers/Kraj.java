@@ -28,18 +28,34 @@ import java.util.Date;
  *
  * @author fordfrog
  */
-public class Kraj implements ItemWithDefinicniBod, ItemWithHranice {
+public class Kraj implements ItemWithDefinicniBod, ItemWithHranice,
+        ItemWithIdTransRuian, ItemWithZmenaGrafiky, ReusableItem {
+
+    /**
+     * Bits of {@link #nulls} of fields with primitive types.
+     */
+    private static final int NULL_NESPRAVNY = 1;
+    private static final int NULL_STAT_KOD = 1 << 1;
+    private static final int NULL_NZ_ID_GLOBALNI = 1 << 2;
+    /**
+     * All bits of {@link #nulls}.
+     */
+    private static final int ALL_NULLS = (1 << 3) - 1;
+    /**
+     * Bit mask of fields with primitive types that have no value.
+     */
+    private int nulls = ALL_NULLS;
 
     private Integer kod;
     private String nazev;
-    private Boolean nespravny;
-    private Integer statKod;
+    private boolean nespravny;
+    private int statKod;
     private Long idTransRuian;
     private Date platiOd;
-    private Long nzIdGlobalni;
+    private long nzIdGlobalni;
     private Boolean zmenaGrafiky;
-    private String definicniBod;
-    private String hranice;
+    private Object definicniBod;
+    private Object hranice;
     private Date datumVzniku;
 
     public Integer getKod() {
@@ -58,20 +74,30 @@ public class Kraj implements ItemWithDefinicniBod, ItemWithHranice {
         this.nazev = nazev;
     }
 
-    public Boolean getNespravny() {
+    public boolean getNespravny() {
         return nespravny;
     }
 
-    public void setNespravny(final Boolean nespravny) {
+    public void setNespravny(final boolean nespravny) {
         this.nespravny = nespravny;
+        nulls &= ~NULL_NESPRAVNY;
     }
 
-    public Integer getStatKod() {
+    public boolean isNespravnyNull() {
+        return (nulls & NULL_NESPRAVNY) != 0;
+    }
+
+    public int getStatKod() {
         return statKod;
     }
 
-    public void setStatKod(final Integer statKod) {
+    public void setStatKod(final int statKod) {
         this.statKod = statKod;
+        nulls &= ~NULL_STAT_KOD;
+    }
+
+    public boolean isStatKodNull() {
+        return (nulls & NULL_STAT_KOD) != 0;
     }
 
     public Long getIdTransRuian() {
@@ -92,39 +118,46 @@ public class Kraj implements ItemWithDefinicniBod, ItemWithHranice {
         this.platiOd = platiOd;
     }
 
-    public Long getNzIdGlobalni() {
+    public long getNzIdGlobalni() {
         return nzIdGlobalni;
     }
 
-    public void setNzIdGlobalni(final Long nzIdGlobalni) {
+    public void setNzIdGlobalni(final long nzIdGlobalni) {
         this.nzIdGlobalni = nzIdGlobalni;
+        nulls &= ~NULL_NZ_ID_GLOBALNI;
+    }
+
+    public boolean isNzIdGlobalniNull() {
+        return (nulls & NULL_NZ_ID_GLOBALNI) != 0;
     }
 
+    @Override
     public Boolean getZmenaGrafiky() {
         return zmenaGrafiky;
     }
 
+    @Override
     public void setZmenaGrafiky(final Boolean zmenaGrafiky) {
         this.zmenaGrafiky = zmenaGrafiky;
     }
 
     @Override
-    public String getDefinicniBod() {
+    public Object getDefinicniBod() {
         return definicniBod;
     }
 
     @Override
-    public void setDefinicniBod(final String definicniBod) {
+    public void setDefinicniBod(final Object definicniBod) {
         this.definicniBod = definicniBod;
     }
 
     @Override
-    public String getHranice() {
+    public Object getHranice() {
         return hranice;
     }
 
     @Override
-    public void setHranice(final String hranice) {
+    public void setHranice(final Object hranice) {
         this.hranice = hranice;
     }
 
@@ -135,4 +168,20 @@ public class Kraj implements ItemWithDefinicniBod, ItemWithHranice {
     public void setDatumVzniku(final Date datumVzniku) {
         this.datumVzniku = datumVzniku;
     }
+
+    @Override
+    public void reset() {
+        nulls = ALL_NULLS;
+        kod = null;
+        nazev = null;
+        nespravny = false;
+        statKod = 0;
+        idTransRuian = null;
+        platiOd = null;
+        nzIdGlobalni = 0;
+        zmenaGrafiky = null;
+        definicniBod = null;
+        hranice = null;
+        datumVzniku = null;
+    }
 }
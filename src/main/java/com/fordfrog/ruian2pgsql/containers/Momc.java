@@ -29,14 +29,32 @@ import java.util.Date;
  * @author fordfrog
  */
 public class Momc implements ItemWithDefinicniBod, ItemWithHranice,
-        ItemWithMluvCharPad {
+        ItemWithMluvCharPad, ItemWithIdTransRuian, ItemWithZmenaGrafiky,
+        ReusableItem {
+
+    /**
+     * Bits of {@link #nulls} of fields with primitive types.
+     */
+    private static final int NULL_NESPRAVNY = 1;
+    private static final int NULL_OBEC_KOD = 1 << 1;
+    private static final int NULL_MOP_KOD = 1 << 2;
+    private static final int NULL_SPRAVOBV_KOD = 1 << 3;
+    private static final int NULL_NZ_ID_GLOBALNI = 1 << 4;
+    /**
+     * All bits of {@link #nulls}.
+     */
+    private static final int ALL_NULLS = (1 << 5) - 1;
+    /**
+     * Bit mask of fields with primitive types that have no value.
+     */
+    private int nulls = ALL_NULLS;
 
     private Integer kod;
     private String nazev;
-    private Boolean nespravny;
-    private Integer obecKod;
-    private Integer mopKod;
-    private Integer spravobvKod;
+    private boolean nespravny;
+    private int obecKod;
+    private int mopKod;
+    private int spravobvKod;
     private String mluvCharPad2;
     private String mluvCharPad3;
     private String mluvCharPad4;
@@ -50,9 +68,9 @@ public class Momc implements ItemWithDefinicniBod, ItemWithHranice,
     private byte[] znakObrazek;
     private Long idTransRuian;
     private Date platiOd;
-    private Long nzIdGlobalni;
-    private String definicniBod;
-    private String hranice;
+    private long nzIdGlobalni;
+    private Object definicniBod;
+    private Object hranice;
     private Date datumVzniku;
 
     public Integer getKod() {
@@ -71,36 +89,56 @@ public class Momc implements ItemWithDefinicniBod, ItemWithHranice,
         this.nazev = nazev;
     }
 
-    public Boolean getNespravny() {
+    public boolean getNespravny() {
         return nespravny;
     }
 
-    public void setNespravny(final Boolean nespravny) {
+    public void setNespravny(final boolean nespravny) {
         this.nespravny = nespravny;
+        nulls &= ~NULL_NESPRAVNY;
     }
 
-    public Integer getObecKod() {
+    public boolean isNespravnyNull() {
+        return (nulls & NULL_NESPRAVNY) != 0;
+    }
+
+    public int getObecKod() {
         return obecKod;
     }
 
-    public void setObecKod(final Integer obecKod) {
+    public void setObecKod(final int obecKod) {
         this.obecKod = obecKod;
+        nulls &= ~NULL_OBEC_KOD;
+    }
+
+    public boolean isObecKodNull() {
+        return (nulls & NULL_OBEC_KOD) != 0;
     }
 
-    public Integer getMopKod() {
+    public int getMopKod() {
         return mopKod;
     }
 
-    public void setMopKod(final Integer mopKod) {
+    public void setMopKod(final int mopKod) {
         this.mopKod = mopKod;
+        nulls &= ~NULL_MOP_KOD;
     }
 
-    public Integer getSpravobvKod() {
+    public boolean isMopKodNull() {
+        return (nulls & NULL_MOP_KOD) != 0;
+    }
+
+    public int getSpravobvKod() {
         return spravobvKod;
     }
 
-    public void setSpravobvKod(final Integer spravobvKod) {
+    public void setSpravobvKod(final int spravobvKod) {
         this.spravobvKod = spravobvKod;
+        nulls &= ~NULL_SPRAVOBV_KOD;
+    }
+
+    public boolean isSpravobvKodNull() {
+        return (nulls & NULL_SPRAVOBV_KOD) != 0;
     }
 
     @Override
@@ -163,10 +201,12 @@ public class Momc implements ItemWithDefinicniBod, ItemWithHranice,
         this.mluvCharPad7 = mluvCharPad7;
     }
 
+    @Override
     public Boolean getZmenaGrafiky() {
         return zmenaGrafiky;
     }
 
+    @Override
     public void setZmenaGrafiky(final Boolean zmenaGrafiky) {
         this.zmenaGrafiky = zmenaGrafiky;
     }
@@ -225,31 +265,36 @@ public class Momc implements ItemWithDefinicniBod, ItemWithHranice,
         this.platiOd = platiOd;
     }
 
-    public Long getNzIdGlobalni() {
+    public long getNzIdGlobalni() {
         return nzIdGlobalni;
     }
 
-    public void setNzIdGlobalni(final Long nzIdGlobalni) {
+    public void setNzIdGlobalni(final long nzIdGlobalni) {
         this.nzIdGlobalni = nzIdGlobalni;
+        nulls &= ~NULL_NZ_ID_GLOBALNI;
+    }
+
+    public boolean isNzIdGlobalniNull() {
+        return (nulls & NULL_NZ_ID_GLOBALNI) != 0;
     }
 
     @Override
-    public String getDefinicniBod() {
+    public Object getDefinicniBod() {
         return definicniBod;
     }
 
     @Override
-    public void setDefinicniBod(final String definicniBod) {
+    public void setDefinicniBod(final Object definicniBod) {
         this.definicniBod = definicniBod;
     }
 
     @Override
-    public String getHranice() {
+    public Object getHranice() {
         return hranice;
     }
 
     @Override
-    public void setHranice(final String hranice) {
+    public void setHranice(final Object hranice) {
         this.hranice = hranice;
     }
 
@@ -260,4 +305,32 @@ public class Momc implements ItemWithDefinicniBod, ItemWithHranice,
     public void setDatumVzniku(final Date datumVzniku) {
         this.datumVzniku = datumVzniku;
     }
+
+    @Override
+    public void reset() {
+        nulls = ALL_NULLS;
+        kod = null;
+        nazev = null;
+        nespravny = false;
+        obecKod = 0;
+        mopKod = 0;
+        spravobvKod = 0;
+        mluvCharPad2 = null;
+        mluvCharPad3 = null;
+        mluvCharPad4 = null;
+        mluvCharPad5 = null;
+        mluvCharPad6 = null;
+        mluvCharPad7 = null;
+        zmenaGrafiky = null;
+        vlajkaText = null;
+        vlajkaObrazek = null;
+        znakText = null;
+        znakObrazek = null;
+        idTransRuian = null;
+        platiOd = null;
+        nzIdGlobalni = 0;
+        definicniBod = null;
+        hranice = null;
+        datumVzniku = null;
+    }
 }
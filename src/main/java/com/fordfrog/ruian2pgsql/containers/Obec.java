@@ -29,13 +29,33 @@ import java.util.Date;
  * @author fordfrog
  */
 public class Obec implements ItemWithDefinicniBod, ItemWithHranice,
-        ItemWithMluvCharPad {
+        ItemWithMluvCharPad, ItemWithIdTransRuian, ItemWithZmenaGrafiky,
+        ReusableItem {
+
+    /**
+     * Bits of {@link #nulls} of fields with primitive types.
+     */
+    private static final int NULL_NESPRAVNY = 1;
+    private static final int NULL_OKRES_KOD = 1 << 1;
+    private static final int NULL_POU_KOD = 1 << 2;
+    private static final int NULL_CLENENI_SM_ROZSAH_KOD = 1 << 3;
+    private static final int NULL_CLENENI_SM_TYP_KOD = 1 << 4;
+    private static final int NULL_STATUS_KOD = 1 << 5;
+    private static final int NULL_NZ_ID_GLOBALNI = 1 << 6;
+    /**
+     * All bits of {@link #nulls}.
+     */
+    private static final int ALL_NULLS = (1 << 7) - 1;
+    /**
+     * Bit mask of fields with primitive types that have no value.
+     */
+    private int nulls = ALL_NULLS;
 
     private Integer kod;
     private String nazev;
-    private Boolean nespravny;
-    private Integer okresKod;
-    private Integer pouKod;
+    private boolean nespravny;
+    private int okresKod;
+    private int pouKod;
     private String nutsLau;
     private String mluvCharPad2;
     private String mluvCharPad3;
@@ -44,18 +64,18 @@ public class Obec implements ItemWithDefinicniBod, ItemWithHranice,
     private String mluvCharPad6;
     private String mluvCharPad7;
     private Boolean zmenaGrafiky;
-    private Integer cleneniSmRozsahKod;
-    private Integer cleneniSmTypKod;
-    private Integer statusKod;
+    private int cleneniSmRozsahKod;
+    private int cleneniSmTypKod;
+    private int statusKod;
     private String vlajkaText;
     private byte[] vlajkaObrazek;
     private String znakText;
     private byte[] znakObrazek;
     private Long idTransRuian;
     private Date platiOd;
-    private Long nzIdGlobalni;
-    private String definicniBod;
-    private String hranice;
+    private long nzIdGlobalni;
+    private Object definicniBod;
+    private Object hranice;
     private Date datumVzniku;
 
     public Integer getKod() {
@@ -74,28 +94,43 @@ public class Obec implements ItemWithDefinicniBod, ItemWithHranice,
         this.nazev = nazev;
     }
 
-    public Boolean getNespravny() {
+    public boolean getNespravny() {
         return nespravny;
     }
 
-    public void setNespravny(final Boolean nespravny) {
+    public void setNespravny(final boolean nespravny) {
         this.nespravny = nespravny;
+        nulls &= ~NULL_NESPRAVNY;
     }
 
-    public Integer getOkresKod() {
+    public boolean isNespravnyNull() {
+        return (nulls & NULL_NESPRAVNY) != 0;
+    }
+
+    public int getOkresKod() {
         return okresKod;
     }
 
-    public void setOkresKod(final Integer okresKod) {
+    public void setOkresKod(final int okresKod) {
         this.okresKod = okresKod;
+        nulls &= ~NULL_OKRES_KOD;
     }
 
-    public Integer getPouKod() {
+    public boolean isOkresKodNull() {
+        return (nulls & NULL_OKRES_KOD) != 0;
+    }
+
+    public int getPouKod() {
         return pouKod;
     }
 
-    public void setPouKod(final Integer pouKod) {
+    public void setPouKod(final int pouKod) {
         this.pouKod = pouKod;
+        nulls &= ~NULL_POU_KOD;
+    }
+
+    public boolean isPouKodNull() {
+        return (nulls & NULL_POU_KOD) != 0;
     }
 
     public String getNutsLau() {
@@ -166,36 +201,53 @@ public class Obec implements ItemWithDefinicniBod, ItemWithHranice,
         this.mluvCharPad7 = mluvCharPad7;
     }
 
+    @Override
     public Boolean getZmenaGrafiky() {
         return zmenaGrafiky;
     }
 
+    @Override
     public void setZmenaGrafiky(final Boolean zmenaGrafiky) {
         this.zmenaGrafiky = zmenaGrafiky;
     }
 
-    public Integer getCleneniSmRozsahKod() {
+    public int getCleneniSmRozsahKod() {
         return cleneniSmRozsahKod;
     }
 
-    public void setCleneniSmRozsahKod(final Integer cleneniSmRozsahKod) {
+    public void setCleneniSmRozsahKod(final int cleneniSmRozsahKod) {
         this.cleneniSmRozsahKod = cleneniSmRozsahKod;
+        nulls &= ~NULL_CLENENI_SM_ROZSAH_KOD;
+    }
+
+    public boolean isCleneniSmRozsahKodNull() {
+        return (nulls & NULL_CLENENI_SM_ROZSAH_KOD) != 0;
     }
 
-    public Integer getCleneniSmTypKod() {
+    public int getCleneniSmTypKod() {
         return cleneniSmTypKod;
     }
 
-    public void setCleneniSmTypKod(final Integer cleneniSmTypKod) {
+    public void setCleneniSmTypKod(final int cleneniSmTypKod) {
         this.cleneniSmTypKod = cleneniSmTypKod;
+        nulls &= ~NULL_CLENENI_SM_TYP_KOD;
     }
 
-    public Integer getStatusKod() {
+    public boolean isCleneniSmTypKodNull() {
+        return (nulls & NULL_CLENENI_SM_TYP_KOD) != 0;
+    }
+
+    public int getStatusKod() {
         return statusKod;
     }
 
-    public void setStatusKod(final Integer statusKod) {
+    public void setStatusKod(final int statusKod) {
         this.statusKod = statusKod;
+        nulls &= ~NULL_STATUS_KOD;
+    }
+
+    public boolean isStatusKodNull() {
+        return (nulls & NULL_STATUS_KOD) != 0;
     }
 
     public String getVlajkaText() {
@@ -252,31 +304,36 @@ public class Obec implements ItemWithDefinicniBod, ItemWithHranice,
         this.platiOd = platiOd;
     }
 
-    public Long getNzIdGlobalni() {
+    public long getNzIdGlobalni() {
         return nzIdGlobalni;
     }
 
-    public void setNzIdGlobalni(final Long nzIdGlobalni) {
+    public void setNzIdGlobalni(final long nzIdGlobalni) {
         this.nzIdGlobalni = nzIdGlobalni;
+        nulls &= ~NULL_NZ_ID_GLOBALNI;
+    }
+
+    public boolean isNzIdGlobalniNull() {
+        return (nulls & NULL_NZ_ID_GLOBALNI) != 0;
     }
 
     @Override
-    public String getDefinicniBod() {
+    public Object getDefinicniBod() {
         return definicniBod;
     }
 
     @Override
-    public void setDefinicniBod(final String definicniBod) {
+    public void setDefinicniBod(final Object definicniBod) {
         this.definicniBod = definicniBod;
     }
 
     @Override
-    public String getHranice() {
+    public Object getHranice() {
         return hranice;
     }
 
     @Override
-    public void setHranice(final String hranice) {
+    public void setHranice(final Object hranice) {
         this.hranice = hranice;
     }
 
@@ -287,4 +344,35 @@ public class Obec implements ItemWithDefinicniBod, ItemWithHranice,
     public void setDatumVzniku(final Date datumVzniku) {
         this.datumVzniku = datumVzniku;
     }
+
+    @Override
+    public void reset() {
+        nulls = ALL_NULLS;
+        kod = null;
+        nazev = null;
+        nespravny = false;
+        okresKod = 0;
+        pouKod = 0;
+        nutsLau = null;
+        mluvCharPad2 = null;
+        mluvCharPad3 = null;
+        mluvCharPad4 = null;
+        mluvCharPad5 = null;
+        mluvCharPad6 = null;
+        mluvCharPad7 = null;
+        zmenaGrafiky = null;
+        cleneniSmRozsahKod = 0;
+        cleneniSmTypKod = 0;
+        statusKod = 0;
+        vlajkaText = null;
+        vlajkaObrazek = null;
+        znakText = null;
+        znakObrazek = null;
+        idTransRuian = null;
+        platiOd = null;
+        nzIdGlobalni = 0;
+        definicniBod = null;
+        hranice = null;
+        datumVzniku = null;
+    }
 }
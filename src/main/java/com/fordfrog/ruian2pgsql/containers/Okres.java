@@ -28,20 +28,37 @@ import java.util.Date;
  *
  * @author fordfrog
  */
-public class Okres implements ItemWithDefinicniBod, ItemWithHranice {
+public class Okres implements ItemWithDefinicniBod, ItemWithHranice,
+        ItemWithIdTransRuian, ItemWithZmenaGrafiky, ReusableItem {
+
+    /**
+     * Bits of {@link #nulls} of fields with primitive types.
+     */
+    private static final int NULL_NESPRAVNY = 1;
+    private static final int NULL_VUSC_KOD = 1 << 1;
+    private static final int NULL_KRAJ1960_KOD = 1 << 2;
+    private static final int NULL_NZ_ID_GLOBALNI = 1 << 3;
+    /**
+     * All bits of {@link #nulls}.
+     */
+    private static final int ALL_NULLS = (1 << 4) - 1;
+    /**
+     * Bit mask of fields with primitive types that have no value.
+     */
+    private int nulls = ALL_NULLS;
 
     private Integer kod;
     private String nazev;
-    private Boolean nespravny;
-    private Integer vuscKod;
-    private Integer kraj1960Kod;
+    private boolean nespravny;
+    private int vuscKod;
+    private int kraj1960Kod;
     private Long idTransRuian;
     private String nutsLau;
     private Date platiOd;
-    private Long nzIdGlobalni;
+    private long nzIdGlobalni;
     private Boolean zmenaGrafiky;
-    private String definicniBod;
-    private String hranice;
+    private Object definicniBod;
+    private Object hranice;
     private Date datumVzniku;
 
     public Integer getKod() {
@@ -60,28 +77,43 @@ public class Okres implements ItemWithDefinicniBod, ItemWithHranice {
         this.nazev = nazev;
     }
 
-    public Boolean getNespravny() {
+    public boolean getNespravny() {
         return nespravny;
     }
 
-    public void setNespravny(final Boolean nespravny) {
+    public void setNespravny(final boolean nespravny) {
         this.nespravny = nespravny;
+        nulls &= ~NULL_NESPRAVNY;
     }
 
-    public Integer getVuscKod() {
+    public boolean isNespravnyNull() {
+        return (nulls & NULL_NESPRAVNY) != 0;
+    }
+
+    public int getVuscKod() {
         return vuscKod;
     }
 
-    public void setVuscKod(final Integer vuscKod) {
+    public void setVuscKod(final int vuscKod) {
         this.vuscKod = vuscKod;
+        nulls &= ~NULL_VUSC_KOD;
+    }
+
+    public boolean isVuscKodNull() {
+        return (nulls & NULL_VUSC_KOD) != 0;
     }
 
-    public Integer getKraj1960Kod() {
+    public int getKraj1960Kod() {
         return kraj1960Kod;
     }
 
-    public void setKraj1960Kod(final Integer kraj1960Kod) {
+    public void setKraj1960Kod(final int kraj1960Kod) {
         this.kraj1960Kod = kraj1960Kod;
+        nulls &= ~NULL_KRAJ1960_KOD;
+    }
+
+    public boolean isKraj1960KodNull() {
+        return (nulls & NULL_KRAJ1960_KOD) != 0;
     }
 
     public Long getIdTransRuian() {
@@ -110,39 +142,46 @@ public class Okres implements ItemWithDefinicniBod, ItemWithHranice {
         this.platiOd = platiOd;
     }
 
-    public Long getNzIdGlobalni() {
+    public long getNzIdGlobalni() {
         return nzIdGlobalni;
     }
 
-    public void setNzIdGlobalni(final Long nzIdGlobalni) {
+    public void setNzIdGlobalni(final long nzIdGlobalni) {
         this.nzIdGlobalni = nzIdGlobalni;
+        nulls &= ~NULL_NZ_ID_GLOBALNI;
     }
 
+    public boolean isNzIdGlobalniNull() {
+        return (nulls & NULL_NZ_ID_GLOBALNI) != 0;
+    }
+
+    @Override
     public Boolean getZmenaGrafiky() {
         return zmenaGrafiky;
     }
 
+    @Override
     public void setZmenaGrafiky(final Boolean zmenaGrafiky) {
         this.zmenaGrafiky = zmenaGrafiky;
     }
 
     @Override
-    public String getDefinicniBod() {
+    public Object getDefinicniBod() {
         return definicniBod;
     }
 
     @Override
-    public void setDefinicniBod(final String definicniBod) {
+    public void setDefinicniBod(final Object definicniBod) {
         this.definicniBod = definicniBod;
     }
 
     @Override
-    public String getHranice() {
+    public Object getHranice() {
         return hranice;
     }
 
     @Override
-    public void setHranice(final String hranice) {
+    public void setHranice(final Object hranice) {
         this.hranice = hranice;
     }
 
@@ -153,4 +192,22 @@ public class Okres implements ItemWithDefinicniBod, ItemWithHranice {
     public void setDatumVzniku(final Date datumVzniku) {
         this.datumVzniku = datumVzniku;
     }
+
+    @Override
+    public void reset() {
+        nulls = ALL_NULLS;
+        kod = null;
+        nazev = null;
+        nespravny = false;
+        vuscKod = 0;
+        kraj1960Kod = 0;
+        idTransRuian = null;
+        nutsLau = null;
+        platiOd = null;
+        nzIdGlobalni = 0;
+        zmenaGrafiky = null;
+        definicniBod = null;
+        hranice = null;
+        datumVzniku = null;
+    }
 }
@@ -28,21 +28,39 @@ import java.util.Date;
  *
  * @author fordfrog
  */
-public class Orp implements ItemWithDefinicniBod, ItemWithHranice {
+public class Orp implements ItemWithDefinicniBod, ItemWithHranice,
+        ItemWithIdTransRuian, ItemWithZmenaGrafiky, ReusableItem {
+
+    /**
+     * Bits of {@link #nulls} of fields with primitive types.
+     */
+    private static final int NULL_NESPRAVNY = 1;
+    private static final int NULL_VUSC_KOD = 1 << 1;
+    private static final int NULL_SPRAVNI_OBEC_KOD = 1 << 2;
+    private static final int NULL_NZ_ID_GLOBALNI = 1 << 3;
+    private static final int NULL_OKRES_KOD = 1 << 4;
+    /**
+     * All bits of {@link #nulls}.
+     */
+    private static final int ALL_NULLS = (1 << 5) - 1;
+    /**
+     * Bit mask of fields with primitive types that have no value.
+     */
+    private int nulls = ALL_NULLS;
 
     private Integer kod;
     private String nazev;
-    private Boolean nespravny;
-    private Integer vuscKod;
-    private Integer spravniObecKod;
+    private boolean nespravny;
+    private int vuscKod;
+    private int spravniObecKod;
     private Long idTransRuian;
     private Date platiOd;
-    private Long nzIdGlobalni;
+    private long nzIdGlobalni;
     private Boolean zmenaGrafiky;
-    private String definicniBod;
-    private String hranice;
+    private Object definicniBod;
+    private Object hranice;
     private Date datumVzniku;
-    private Integer okresKod;
+    private int okresKod;
 
     public Integer getKod() {
         return kod;
@@ -60,28 +78,43 @@ public class Orp implements ItemWithDefinicniBod, ItemWithHranice {
         this.nazev = nazev;
     }
 
-    public Boolean getNespravny() {
+    public boolean getNespravny() {
         return nespravny;
     }
 
-    public void setNespravny(final Boolean nespravny) {
+    public void setNespravny(final boolean nespravny) {
         this.nespravny = nespravny;
+        nulls &= ~NULL_NESPRAVNY;
     }
 
-    public Integer getVuscKod() {
+    public boolean isNespravnyNull() {
+        return (nulls & NULL_NESPRAVNY) != 0;
+    }
+
+    public int getVuscKod() {
         return vuscKod;
     }
 
-    public void setVuscKod(final Integer vuscKod) {
+    public void setVuscKod(final int vuscKod) {
         this.vuscKod = vuscKod;
+        nulls &= ~NULL_VUSC_KOD;
     }
 
-    public Integer getSpravniObecKod() {
+    public boolean isVuscKodNull() {
+        return (nulls & NULL_VUSC_KOD) != 0;
+    }
+
+    public int getSpravniObecKod() {
         return spravniObecKod;
     }
 
-    public void setSpravniObecKod(final Integer spravniObecKod) {
+    public void setSpravniObecKod(final int spravniObecKod) {
         this.spravniObecKod = spravniObecKod;
+        nulls &= ~NULL_SPRAVNI_OBEC_KOD;
+    }
+
+    public boolean isSpravniObecKodNull() {
+        return (nulls & NULL_SPRAVNI_OBEC_KOD) != 0;
     }
 
     public Long getIdTransRuian() {
@@ -102,39 +135,46 @@ public class Orp implements ItemWithDefinicniBod, ItemWithHranice {
         this.platiOd = platiOd;
     }
 
-    public Long getNzIdGlobalni() {
+    public long getNzIdGlobalni() {
         return nzIdGlobalni;
     }
 
-    public void setNzIdGlobalni(final Long nzIdGlobalni) {
+    public void setNzIdGlobalni(final long nzIdGlobalni) {
         this.nzIdGlobalni = nzIdGlobalni;
+        nulls &= ~NULL_NZ_ID_GLOBALNI;
+    }
+
+    public boolean isNzIdGlobalniNull() {
+        return (nulls & NULL_NZ_ID_GLOBALNI) != 0;
     }
 
+    @Override
     public Boolean getZmenaGrafiky() {
         return zmenaGrafiky;
     }
 
+    @Override
     public void setZmenaGrafiky(final Boolean zmenaGrafiky) {
         this.zmenaGrafiky = zmenaGrafiky;
     }
 
     @Override
-    public String getDefinicniBod() {
+    public Object getDefinicniBod() {
         return definicniBod;
     }
 
     @Override
-    public void setDefinicniBod(final String definicniBod) {
+    public void setDefinicniBod(final Object definicniBod) {
         this.definicniBod = definicniBod;
     }
 
     @Override
-    public String getHranice() {
+    public Object getHranice() {
         return hranice;
     }
 
     @Override
-    public void setHranice(final String hranice) {
+    public void setHranice(final Object hranice) {
         this.hranice = hranice;
     }
 
@@ -146,7 +186,34 @@ public class Orp implements ItemWithDefinicniBod, ItemWithHranice {
         this.datumVzniku = datumVzniku;
     }
 
-    public Integer getOkresKod() {return okresKod;}
+    public int getOkresKod() {
+        return okresKod;
+    }
+
+    public void setOkresKod(final int okresKod) {
+        this.okresKod = okresKod;
+        nulls &= ~NULL_OKRES_KOD;
+    }
+
+    public boolean isOkresKodNull() {
+        return (nulls & NULL_OKRES_KOD) != 0;
+    }
 
-    public void setOkresKod(final Integer okresKod) {this.okresKod = okresKod;}
+    @Override
+    public void reset() {
+        nulls = ALL_NULLS;
+        kod = null;
+        nazev = null;
+        nespravny = false;
+        vuscKod = 0;
+        spravniObecKod = 0;
+        idTransRuian = null;
+        platiOd = null;
+        nzIdGlobalni = 0;
+        zmenaGrafiky = null;
+        definicniBod = null;
+        hranice = null;
+        datumVzniku = null;
+        okresKod = 0;
+    }
 }
@@ -28,22 +28,44 @@ import java.util.Date;
  *
  * @author fordfrog
  */
-public class Parcela implements ItemWithDefinicniBod, ItemWithHranice {
+public class Parcela implements ItemWithDefinicniBod, ItemWithHranice,
+        ItemWithIdTransRuian, ReusableItem {
+
+    /**
+     * Bits of {@link #nulls} of fields with primitive types.
+     */
+    private static final int NULL_NESPRAVNY = 1;
+    private static final int NULL_KATUZ_KOD = 1 << 1;
+    private static final int NULL_DRUH_POZEMKU_KOD = 1 << 2;
+    private static final int NULL_DRUH_CISLOVANI_KOD = 1 << 3;
+    private static final int NULL_KMENOVE_CISLO = 1 << 4;
+    private static final int NULL_PODDELENI_CISLA = 1 << 5;
+    private static final int NULL_VYMERA_PARCELY = 1 << 6;
+    private static final int NULL_ZPUSOB_VYU_POZ_KOD = 1 << 7;
+    private static final int NULL_RIZENI_ID = 1 << 8;
+    /**
+     * All bits of {@link #nulls}.
+     */
+    private static final int ALL_NULLS = (1 << 9) - 1;
+    /**
+     * Bit mask of fields with primitive types that have no value.
+     */
+    private int nulls = ALL_NULLS;
 
     private Long id;
-    private Boolean nespravny;
-    private Integer katuzKod;
-    private Integer druhPozemkuKod;
-    private Integer druhCislovaniKod;
-    private Integer kmenoveCislo;
-    private Integer poddeleniCisla;
-    private Long vymeraParcely;
+    private boolean nespravny;
+    private int katuzKod;
+    private int druhPozemkuKod;
+    private int druhCislovaniKod;
+    private int kmenoveCislo;
+    private int poddeleniCisla;
+    private long vymeraParcely;
     private Long idTransRuian;
-    private Integer zpusobVyuPozKod;
-    private Long rizeniId;
+    private int zpusobVyuPozKod;
+    private long rizeniId;
     private Date platiOd;
-    private String definicniBod;
-    private String hranice;
+    private Object definicniBod;
+    private Object hranice;
 
     public Long getId() {
         return id;
@@ -53,60 +75,95 @@ public class Parcela implements ItemWithDefinicniBod, ItemWithHranice {
         this.id = id;
     }
 
-    public Boolean getNespravny() {
+    public boolean getNespravny() {
         return nespravny;
     }
 
-    public void setNespravny(final Boolean nespravny) {
+    public void setNespravny(final boolean nespravny) {
         this.nespravny = nespravny;
+        nulls &= ~NULL_NESPRAVNY;
     }
 
-    public Integer getKatuzKod() {
+    public boolean isNespravnyNull() {
+        return (nulls & NULL_NESPRAVNY) != 0;
+    }
+
+    public int getKatuzKod() {
         return katuzKod;
     }
 
-    public void setKatuzKod(final Integer katuzKod) {
+    public void setKatuzKod(final int katuzKod) {
         this.katuzKod = katuzKod;
+        nulls &= ~NULL_KATUZ_KOD;
+    }
+
+    public boolean isKatuzKodNull() {
+        return (nulls & NULL_KATUZ_KOD) != 0;
     }
 
-    public Integer getDruhPozemkuKod() {
+    public int getDruhPozemkuKod() {
         return druhPozemkuKod;
     }
 
-    public void setDruhPozemkuKod(final Integer druhPozemkuKod) {
+    public void setDruhPozemkuKod(final int druhPozemkuKod) {
         this.druhPozemkuKod = druhPozemkuKod;
+        nulls &= ~NULL_DRUH_POZEMKU_KOD;
+    }
+
+    public boolean isDruhPozemkuKodNull() {
+        return (nulls & NULL_DRUH_POZEMKU_KOD) != 0;
     }
 
-    public Integer getDruhCislovaniKod() {
+    public int getDruhCislovaniKod() {
         return druhCislovaniKod;
     }
 
-    public void setDruhCislovaniKod(final Integer druhCislovaniKod) {
+    public void setDruhCislovaniKod(final int druhCislovaniKod) {
         this.druhCislovaniKod = druhCislovaniKod;
+        nulls &= ~NULL_DRUH_CISLOVANI_KOD;
     }
 
-    public Integer getKmenoveCislo() {
+    public boolean isDruhCislovaniKodNull() {
+        return (nulls & NULL_DRUH_CISLOVANI_KOD) != 0;
+    }
+
+    public int getKmenoveCislo() {
         return kmenoveCislo;
     }
 
-    public void setKmenoveCislo(final Integer kmenoveCislo) {
+    public void setKmenoveCislo(final int kmenoveCislo) {
         this.kmenoveCislo = kmenoveCislo;
+        nulls &= ~NULL_KMENOVE_CISLO;
     }
 
-    public Integer getPoddeleniCisla() {
+    public boolean isKmenoveCisloNull() {
+        return (nulls & NULL_KMENOVE_CISLO) != 0;
+    }
+
+    public int getPoddeleniCisla() {
         return poddeleniCisla;
     }
 
-    public void setPoddeleniCisla(final Integer poddeleniCisla) {
+    public void setPoddeleniCisla(final int poddeleniCisla) {
         this.poddeleniCisla = poddeleniCisla;
+        nulls &= ~NULL_PODDELENI_CISLA;
     }
 
-    public Long getVymeraParcely() {
+    public boolean isPoddeleniCislaNull() {
+        return (nulls & NULL_PODDELENI_CISLA) != 0;
+    }
+
+    public long getVymeraParcely() {
         return vymeraParcely;
     }
 
-    public void setVymeraParcely(final Long vymeraParcely) {
+    public void setVymeraParcely(final long vymeraParcely) {
         this.vymeraParcely = vymeraParcely;
+        nulls &= ~NULL_VYMERA_PARCELY;
+    }
+
+    public boolean isVymeraParcelyNull() {
+        return (nulls & NULL_VYMERA_PARCELY) != 0;
     }
 
     public Long getIdTransRuian() {
@@ -117,20 +174,30 @@ public class Parcela implements ItemWithDefinicniBod, ItemWithHranice {
         this.idTransRuian = idTransRuian;
     }
 
-    public Integer getZpusobVyuPozKod() {
+    public int getZpusobVyuPozKod() {
         return zpusobVyuPozKod;
     }
 
-    public void setZpusobVyuPozKod(final Integer zpusobVyuPozKod) {
+    public void setZpusobVyuPozKod(final int zpusobVyuPozKod) {
         this.zpusobVyuPozKod = zpusobVyuPozKod;
+        nulls &= ~NULL_ZPUSOB_VYU_POZ_KOD;
+    }
+
+    public boolean isZpusobVyuPozKodNull() {
+        return (nulls & NULL_ZPUSOB_VYU_POZ_KOD) != 0;
     }
 
-    public Long getRizeniId() {
+    public long getRizeniId() {
         return rizeniId;
     }
 
-    public void setRizeniId(final Long rizeniId) {
+    public void setRizeniId(final long rizeniId) {
         this.rizeniId = rizeniId;
+        nulls &= ~NULL_RIZENI_ID;
+    }
+
+    public boolean isRizeniIdNull() {
+        return (nulls & NULL_RIZENI_ID) != 0;
     }
 
     @SuppressWarnings("ReturnOfDateField")
@@ -144,22 +211,41 @@ public class Parcela implements ItemWithDefinicniBod, ItemWithHranice {
     }
 
     @Override
-    public String getDefinicniBod() {
+    public Object getDefinicniBod() {
         return definicniBod;
     }
 
     @Override
-    public void setDefinicniBod(final String definicniBod) {
+    public void setDefinicniBod(final Object definicniBod) {
         this.definicniBod = definicniBod;
     }
 
     @Override
-    public String getHranice() {
+    public Object getHranice() {
         return hranice;
     }
 
     @Override
-    public void setHranice(final String hranice) {
+    public void setHranice(final Object hranice) {
         this.hranice = hranice;
     }
+
+    @Override
+    public void reset() {
+        nulls = ALL_NULLS;
+        id = null;
+        nespravny = false;
+        katuzKod = 0;
+        druhPozemkuKod = 0;
+        druhCislovaniKod = 0;
+        kmenoveCislo = 0;
+        poddeleniCisla = 0;
+        vymeraParcely = 0;
+        idTransRuian = null;
+        zpusobVyuPozKod = 0;
+        rizeniId = 0;
+        platiOd = null;
+        definicniBod = null;
+        hranice = null;
+    }
 }
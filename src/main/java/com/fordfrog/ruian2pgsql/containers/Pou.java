@@ -28,19 +28,36 @@ import java.util.Date;
  *
  * @author fordfrog
  */
-public class Pou implements ItemWithDefinicniBod, ItemWithHranice {
+public class Pou implements ItemWithDefinicniBod, ItemWithHranice,
+        ItemWithIdTransRuian, ItemWithZmenaGrafiky, ReusableItem {
+
+    /**
+     * Bits of {@link #nulls} of fields with primitive types.
+     */
+    private static final int NULL_NESPRAVNY = 1;
+    private static final int NULL_ORP_KOD = 1 << 1;
+    private static final int NULL_SPRAVNI_OBEC_KOD = 1 << 2;
+    private static final int NULL_NZ_ID_GLOBALNI = 1 << 3;
+    /**
+     * All bits of {@link #nulls}.
+     */
+    private static final int ALL_NULLS = (1 << 4) - 1;
+    /**
+     * Bit mask of fields with primitive types that have no value.
+     */
+    private int nulls = ALL_NULLS;
 
     private Integer kod;
     private String nazev;
-    private Boolean nespravny;
-    private Integer orpKod;
-    private Integer spravniObecKod;
+    private boolean nespravny;
+    private int orpKod;
+    private int spravniObecKod;
     private Long idTransRuian;
     private Date platiOd;
-    private Long nzIdGlobalni;
+    private long nzIdGlobalni;
     private Boolean zmenaGrafiky;
-    private String definicniBod;
-    private String hranice;
+    private Object definicniBod;
+    private Object hranice;
     private Date datumVzniku;
 
     public Integer getKod() {
@@ -59,28 +76,43 @@ public class Pou implements ItemWithDefinicniBod, ItemWithHranice {
         this.nazev = nazev;
     }
 
-    public Boolean getNespravny() {
+    public boolean getNespravny() {
         return nespravny;
     }
 
-    public void setNespravny(final Boolean nespravny) {
+    public void setNespravny(final boolean nespravny) {
         this.nespravny = nespravny;
+        nulls &= ~NULL_NESPRAVNY;
     }
 
-    public Integer getOrpKod() {
+    public boolean isNespravnyNull() {
+        return (nulls & NULL_NESPRAVNY) != 0;
+    }
+
+    public int getOrpKod() {
         return orpKod;
     }
 
-    public void setOrpKod(final Integer orpKod) {
+    public void setOrpKod(final int orpKod) {
         this.orpKod = orpKod;
+        nulls &= ~NULL_ORP_KOD;
+    }
+
+    public boolean isOrpKodNull() {
+        return (nulls & NULL_ORP_KOD) != 0;
     }
 
-    public Integer getSpravniObecKod() {
+    public int getSpravniObecKod() {
         return spravniObecKod;
     }
 
-    public void setSpravniObecKod(final Integer spravniObecKod) {
+    public void setSpravniObecKod(final int spravniObecKod) {
         this.spravniObecKod = spravniObecKod;
+        nulls &= ~NULL_SPRAVNI_OBEC_KOD;
+    }
+
+    public boolean isSpravniObecKodNull() {
+        return (nulls & NULL_SPRAVNI_OBEC_KOD) != 0;
     }
 
     public Long getIdTransRuian() {
@@ -101,39 +133,46 @@ public class Pou implements ItemWithDefinicniBod, ItemWithHranice {
         this.platiOd = platiOd;
     }
 
-    public Long getNzIdGlobalni() {
+    public long getNzIdGlobalni() {
         return nzIdGlobalni;
     }
 
-    public void setNzIdGlobalni(final Long nzIdGlobalni) {
+    public void setNzIdGlobalni(final long nzIdGlobalni) {
         this.nzIdGlobalni = nzIdGlobalni;
+        nulls &= ~NULL_NZ_ID_GLOBALNI;
     }
 
+    public boolean isNzIdGlobalniNull() {
+        return (nulls & NULL_NZ_ID_GLOBALNI) != 0;
+    }
+
+    @Override
     public Boolean getZmenaGrafiky() {
         return zmenaGrafiky;
     }
 
+    @Override
     public void setZmenaGrafiky(final Boolean zmenaGrafiky) {
         this.zmenaGrafiky = zmenaGrafiky;
     }
 
     @Override
-    public String getDefinicniBod() {
+    public Object getDefinicniBod() {
         return definicniBod;
     }
 
     @Override
-    public void setDefinicniBod(final String definicniBod) {
+    public void setDefinicniBod(final Object definicniBod) {
         this.definicniBod = definicniBod;
     }
 
     @Override
-    public String getHranice() {
+    public Object getHranice() {
         return hranice;
     }
 
     @Override
-    public void setHranice(final String hranice) {
+    public void setHranice(final Object hranice) {
         this.hranice = hranice;
     }
 
@@ -144,4 +183,21 @@ public class Pou implements ItemWithDefinicniBod, ItemWithHranice {
     public void setDatumVzniku(final Date datumVzniku) {
         this.datumVzniku = datumVzniku;
     }
+
+    @Override
+    public void reset() {
+        nulls = ALL_NULLS;
+        kod = null;
+        nazev = null;
+        nespravny = false;
+        orpKod = 0;
+        spravniObecKod = 0;
+        idTransRuian = null;
+        platiOd = null;
+        nzIdGlobalni = 0;
+        zmenaGrafiky = null;
+        definicniBod = null;
+        hranice = null;
+        datumVzniku = null;
+    }
 }
@@ -28,19 +28,36 @@ import java.util.Date;
  *
  * @author fordfrog
  */
-public class SpravniObvod implements ItemWithDefinicniBod, ItemWithHranice {
+public class SpravniObvod implements ItemWithDefinicniBod, ItemWithHranice,
+        ItemWithIdTransRuian, ItemWithZmenaGrafiky, ReusableItem {
+
+    /**
+     * Bits of {@link #nulls} of fields with primitive types.
+     */
+    private static final int NULL_NESPRAVNY = 1;
+    private static final int NULL_OBEC_KOD = 1 << 1;
+    private static final int NULL_SPRAVNI_MOMC_KOD = 1 << 2;
+    private static final int NULL_NZ_ID_GLOBALNI = 1 << 3;
+    /**
+     * All bits of {@link #nulls}.
+     */
+    private static final int ALL_NULLS = (1 << 4) - 1;
+    /**
+     * Bit mask of fields with primitive types that have no value.
+     */
+    private int nulls = ALL_NULLS;
 
     private Integer kod;
     private String nazev;
-    private Boolean nespravny;
-    private Integer obecKod;
-    private Integer spravniMomcKod;
+    private boolean nespravny;
+    private int obecKod;
+    private int spravniMomcKod;
     private Long idTransRuian;
     private Date platiOd;
-    private Long nzIdGlobalni;
+    private long nzIdGlobalni;
     private Boolean zmenaGrafiky;
-    private String definicniBod;
-    private String hranice;
+    private Object definicniBod;
+    private Object hranice;
 
     public Integer getKod() {
         return kod;
@@ -58,28 +75,43 @@ public class SpravniObvod implements ItemWithDefinicniBod, ItemWithHranice {
         this.nazev = nazev;
     }
 
-    public Boolean getNespravny() {
+    public boolean getNespravny() {
         return nespravny;
     }
 
-    public void setNespravny(final Boolean nespravny) {
+    public void setNespravny(final boolean nespravny) {
         this.nespravny = nespravny;
+        nulls &= ~NULL_NESPRAVNY;
     }
 
-    public Integer getObecKod() {
+    public boolean isNespravnyNull() {
+        return (nulls & NULL_NESPRAVNY) != 0;
+    }
+
+    public int getObecKod() {
         return obecKod;
     }
 
-    public void setObecKod(final Integer obecKod) {
+    public void setObecKod(final int obecKod) {
         this.obecKod = obecKod;
+        nulls &= ~NULL_OBEC_KOD;
+    }
+
+    public boolean isObecKodNull() {
+        return (nulls & NULL_OBEC_KOD) != 0;
     }
 
-    public Integer getSpravniMomcKod() {
+    public int getSpravniMomcKod() {
         return spravniMomcKod;
     }
 
-    public void setSpravniMomcKod(final Integer spravniMomcKod) {
+    public void setSpravniMomcKod(final int spravniMomcKod) {
         this.spravniMomcKod = spravniMomcKod;
+        nulls &= ~NULL_SPRAVNI_MOMC_KOD;
+    }
+
+    public boolean isSpravniMomcKodNull() {
+        return (nulls & NULL_SPRAVNI_MOMC_KOD) != 0;
     }
 
     public Long getIdTransRuian() {
@@ -100,39 +132,62 @@ public class SpravniObvod implements ItemWithDefinicniBod, ItemWithHranice {
         this.platiOd = platiOd;
     }
 
-    public Long getNzIdGlobalni() {
+    public long getNzIdGlobalni() {
         return nzIdGlobalni;
     }
 
-    public void setNzIdGlobalni(final Long nzIdGlobalni) {
+    public void setNzIdGlobalni(final long nzIdGlobalni) {
         this.nzIdGlobalni = nzIdGlobalni;
+        nulls &= ~NULL_NZ_ID_GLOBALNI;
     }
 
+    public boolean isNzIdGlobalniNull() {
+        return (nulls & NULL_NZ_ID_GLOBALNI) != 0;
+    }
+
+    @Override
     public Boolean getZmenaGrafiky() {
         return zmenaGrafiky;
     }
 
+    @Override
     public void setZmenaGrafiky(final Boolean zmenaGrafiky) {
         this.zmenaGrafiky = zmenaGrafiky;
     }
 
     @Override
-    public String getDefinicniBod() {
+    public Object getDefinicniBod() {
         return definicniBod;
     }
 
     @Override
-    public void setDefinicniBod(final String definicniBod) {
+    public void setDefinicniBod(final Object definicniBod) {
         this.definicniBod = definicniBod;
     }
 
     @Override
-    public String getHranice() {
+    public Object getHranice() {
         return hranice;
     }
 
     @Override
-    public void setHranice(final String hranice) {
+    public void setHranice(final Object hranice) {
         this.hranice = hranice;
     }
+
+    @Override
+    public void reset() {
+        nulls = ALL_NULLS;
+        kod = null;
+        nazev = null;
+        nespravny = false;
+        obecKod = 0;
+        spravniMomcKod = 0;
+        idTransRuian = null;
+        platiOd = null;
+        nzIdGlobalni = 0;
+        zmenaGrafiky = null;
+        definicniBod = null;
+        hranice = null;
+    }
 }
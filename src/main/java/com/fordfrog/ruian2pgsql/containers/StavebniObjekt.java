@@ -28,37 +28,71 @@ import java.util.Date;
  *
  * @author fordfrog
  */
-public class StavebniObjekt implements ItemWithDefinicniBod, ItemWithHranice {
+public class StavebniObjekt implements ItemWithDefinicniBod, ItemWithHranice,
+        ItemWithIdTransRuian, ItemWithZmenaGrafiky, ReusableItem {
+
+    /**
+     * Bits of {@link #nulls} of fields with primitive types.
+     */
+    private static final int NULL_NESPRAVNY = 1;
+    private static final int NULL_IDENTIFIKACNI_PARCELA_ID = 1 << 1;
+    private static final int NULL_MOMC_KOD = 1 << 2;
+    private static final int NULL_COBCE_KOD = 1 << 3;
+    private static final int NULL_BUDOVA_ID = 1 << 4;
+    private static final int NULL_JE_VYTAH_KOD = 1 << 5;
+    private static final int NULL_DRUH_KONSTRUKCE_KOD = 1 << 6;
+    private static final int NULL_ZMENA_DETAILU = 1 << 7;
+    private static final int NULL_OBESTAVENY_PROSTOR = 1 << 8;
+    private static final int NULL_POCET_BYTU = 1 << 9;
+    private static final int NULL_POCET_PODLAZI = 1 << 10;
+    private static final int NULL_PODLAHOVA_PLOCHA = 1 << 11;
+    private static final int NULL_PRIPOJ_EL_ENERGIE = 1 << 12;
+    private static final int NULL_PRIPOJ_KANAL_SIT_KOD = 1 << 13;
+    private static final int NULL_PRIPOJ_PLYN_KOD = 1 << 14;
+    private static final int NULL_PRIPOJ_VODOVOD_KOD = 1 << 15;
+    private static final int NULL_TYP_KOD = 1 << 16;
+    private static final int NULL_ZASTAVENA_PLOCHA = 1 << 17;
+    private static final int NULL_ZPUSOB_VYTAPENI_KOD = 1 << 18;
+    private static final int NULL_ZPUSOB_VYUZITI_KOD = 1 << 19;
+    private static final int NULL_NZ_ID_GLOBALNI = 1 << 20;
+    /**
+     * All bits of {@link #nulls}.
+     */
+    private static final int ALL_NULLS = (1 << 21) - 1;
+    /**
+     * Bit mask of fields with primitive types that have no value.
+     */
+    private int nulls = ALL_NULLS;
 
     private Integer kod;
-    private Boolean nespravny;
-    private Long identifikacniParcelaId;
-    private Integer momcKod;
-    private Integer cobceKod;
-    private Long budovaId;
+    private boolean nespravny;
+    private long identifikacniParcelaId;
+    private int momcKod;
+    private int cobceKod;
+    private long budovaId;
     private Integer[] cislaDomovni;
     private Date dokonceni;
-    private Integer jeVytahKod;
+    private int jeVytahKod;
     private Boolean zmenaGrafiky;
-    private Integer druhKonstrukceKod;
-    private Boolean zmenaDetailu;
-    private Integer obestavenyProstor;
-    private Integer pocetBytu;
-    private Integer pocetPodlazi;
-    private Integer podlahovaPlocha;
-    private Boolean pripojElEnergie;
-    private Integer pripojKanalSitKod;
-    private Integer pripojPlynKod;
-    private Integer pripojVodovodKod;
-    private Integer typKod;
-    private Integer zastavenaPlocha;
-    private Integer zpusobVytapeniKod;
-    private Integer zpusobVyuzitiKod;
+    private int druhKonstrukceKod;
+    private boolean zmenaDetailu;
+    private int obestavenyProstor;
+    private int pocetBytu;
+    private int pocetPodlazi;
+    private int podlahovaPlocha;
+    private boolean pripojElEnergie;
+    private int pripojKanalSitKod;
+    private int pripojPlynKod;
+    private int pripojVodovodKod;
+    private int typKod;
+    private int zastavenaPlocha;
+    private int zpusobVytapeniKod;
+    private int zpusobVyuzitiKod;
     private Long idTransRuian;
     private Date platiOd;
-    private Long nzIdGlobalni;
-    private String definicniBod;
-    private String hranice;
+    private long nzIdGlobalni;
+    private Object definicniBod;
+    private Object hranice;
 
     public Integer getKod() {
         return kod;
@@ -68,44 +102,69 @@ public class StavebniObjekt implements ItemWithDefinicniBod, ItemWithHranice {
         this.kod = kod;
     }
 
-    public Boolean getNespravny() {
+    public boolean getNespravny() {
         return nespravny;
     }
 
-    public void setNespravny(final Boolean nespravny) {
+    public void setNespravny(final boolean nespravny) {
         this.nespravny = nespravny;
+        nulls &= ~NULL_NESPRAVNY;
     }
 
-    public Long getIdentifikacniParcelaId() {
+    public boolean isNespravnyNull() {
+        return (nulls & NULL_NESPRAVNY) != 0;
+    }
+
+    public long getIdentifikacniParcelaId() {
         return identifikacniParcelaId;
     }
 
-    public void setIdentifikacniParcelaId(final Long identifikacniParcelaId) {
+    public void setIdentifikacniParcelaId(final long identifikacniParcelaId) {
         this.identifikacniParcelaId = identifikacniParcelaId;
+        nulls &= ~NULL_IDENTIFIKACNI_PARCELA_ID;
+    }
+
+    public boolean isIdentifikacniParcelaIdNull() {
+        return (nulls & NULL_IDENTIFIKACNI_PARCELA_ID) != 0;
     }
 
-    public Integer getMomcKod() {
+    public int getMomcKod() {
         return momcKod;
     }
 
-    public void setMomcKod(final Integer momcKod) {
+    public void setMomcKod(final int momcKod) {
         this.momcKod = momcKod;
+        nulls &= ~NULL_MOMC_KOD;
+    }
+
+    public boolean isMomcKodNull() {
+        return (nulls & NULL_MOMC_KOD) != 0;
     }
 
-    public Integer getCobceKod() {
+    public int getCobceKod() {
         return cobceKod;
     }
 
-    public void setCobceKod(final Integer cobceKod) {
+    public void setCobceKod(final int cobceKod) {
         this.cobceKod = cobceKod;
+        nulls &= ~NULL_COBCE_KOD;
     }
 
-    public Long getBudovaId() {
+    public boolean isCobceKodNull() {
+        return (nulls & NULL_COBCE_KOD) != 0;
+    }
+
+    public long getBudovaId() {
         return budovaId;
     }
 
-    public void setBudovaId(final Long budovaId) {
+    public void setBudovaId(final long budovaId) {
         this.budovaId = budovaId;
+        nulls &= ~NULL_BUDOVA_ID;
+    }
+
+    public boolean isBudovaIdNull() {
+        return (nulls & NULL_BUDOVA_ID) != 0;
     }
 
     @SuppressWarnings("ReturnOfCollectionOrArrayField")
@@ -142,132 +201,209 @@ public class StavebniObjekt implements ItemWithDefinicniBod, ItemWithHranice {
         this.dokonceni = dokonceni;
     }
 
-    public Integer getJeVytahKod() {
+    public int getJeVytahKod() {
         return jeVytahKod;
     }
 
-    public void setJeVytahKod(final Integer jeVytahKod) {
+    public void setJeVytahKod(final int jeVytahKod) {
         this.jeVytahKod = jeVytahKod;
+        nulls &= ~NULL_JE_VYTAH_KOD;
+    }
+
+    public boolean isJeVytahKodNull() {
+        return (nulls & NULL_JE_VYTAH_KOD) != 0;
     }
 
+    @Override
     public Boolean getZmenaGrafiky() {
         return zmenaGrafiky;
     }
 
+    @Override
     public void setZmenaGrafiky(final Boolean zmenaGrafiky) {
         this.zmenaGrafiky = zmenaGrafiky;
     }
 
-    public Integer getDruhKonstrukceKod() {
+    public int getDruhKonstrukceKod() {
         return druhKonstrukceKod;
     }
 
-    public void setDruhKonstrukceKod(final Integer druhKonstrukceKod) {
+    public void setDruhKonstrukceKod(final int druhKonstrukceKod) {
         this.druhKonstrukceKod = druhKonstrukceKod;
+        nulls &= ~NULL_DRUH_KONSTRUKCE_KOD;
+    }
+
+    public boolean isDruhKonstrukceKodNull() {
+        return (nulls & NULL_DRUH_KONSTRUKCE_KOD) != 0;
     }
 
-    public Boolean getZmenaDetailu() {
+    public boolean getZmenaDetailu() {
         return zmenaDetailu;
     }
 
-    public void setZmenaDetailu(final Boolean zmenaDetailu) {
+    public void setZmenaDetailu(final boolean zmenaDetailu) {
         this.zmenaDetailu = zmenaDetailu;
+        nulls &= ~NULL_ZMENA_DETAILU;
+    }
+
+    public boolean isZmenaDetailuNull() {
+        return (nulls & NULL_ZMENA_DETAILU) != 0;
     }
 
-    public Integer getObestavenyProstor() {
+    public int getObestavenyProstor() {
         return obestavenyProstor;
     }
 
-    public void setObestavenyProstor(final Integer obestavenyProstor) {
+    public void setObestavenyProstor(final int obestavenyProstor) {
         this.obestavenyProstor = obestavenyProstor;
+        nulls &= ~NULL_OBESTAVENY_PROSTOR;
     }
 
-    public Integer getPocetBytu() {
+    public boolean isObestavenyProstorNull() {
+        return (nulls & NULL_OBESTAVENY_PROSTOR) != 0;
+    }
+
+    public int getPocetBytu() {
         return pocetBytu;
     }
 
-    public void setPocetBytu(final Integer pocetBytu) {
+    public void setPocetBytu(final int pocetBytu) {
         this.pocetBytu = pocetBytu;
+        nulls &= ~NULL_POCET_BYTU;
+    }
+
+    public boolean isPocetBytuNull() {
+        return (nulls & NULL_POCET_BYTU) != 0;
     }
 
-    public Integer getPocetPodlazi() {
+    public int getPocetPodlazi() {
         return pocetPodlazi;
     }
 
-    public void setPocetPodlazi(final Integer pocetPodlazi) {
+    public void setPocetPodlazi(final int pocetPodlazi) {
         this.pocetPodlazi = pocetPodlazi;
+        nulls &= ~NULL_POCET_PODLAZI;
+    }
+
+    public boolean isPocetPodlaziNull() {
+        return (nulls & NULL_POCET_PODLAZI) != 0;
     }
 
-    public Integer getPodlahovaPlocha() {
+    public int getPodlahovaPlocha() {
         return podlahovaPlocha;
     }
 
-    public void setPodlahovaPlocha(final Integer podlahovaPlocha) {
+    public void setPodlahovaPlocha(final int podlahovaPlocha) {
         this.podlahovaPlocha = podlahovaPlocha;
+        nulls &= ~NULL_PODLAHOVA_PLOCHA;
     }
 
-    public Boolean getPripojElEnergie() {
+    public boolean isPodlahovaPlochaNull() {
+        return (nulls & NULL_PODLAHOVA_PLOCHA) != 0;
+    }
+
+    public boolean getPripojElEnergie() {
         return pripojElEnergie;
     }
 
-    public void setPripojElEnergie(final Boolean pripojElEnergie) {
+    public void setPripojElEnergie(final boolean pripojElEnergie) {
         this.pripojElEnergie = pripojElEnergie;
+        nulls &= ~NULL_PRIPOJ_EL_ENERGIE;
+    }
+
+    public boolean isPripojElEnergieNull() {
+        return (nulls & NULL_PRIPOJ_EL_ENERGIE) != 0;
     }
 
-    public Integer getPripojKanalSitKod() {
+    public int getPripojKanalSitKod() {
         return pripojKanalSitKod;
     }
 
-    public void setPripojKanalSitKod(final Integer pripojKanalSitKod) {
+    public void setPripojKanalSitKod(final int pripojKanalSitKod) {
         this.pripojKanalSitKod = pripojKanalSitKod;
+        nulls &= ~NULL_PRIPOJ_KANAL_SIT_KOD;
+    }
+
+    public boolean isPripojKanalSitKodNull() {
+        return (nulls & NULL_PRIPOJ_KANAL_SIT_KOD) != 0;
     }
 
-    public Integer getPripojPlynKod() {
+    public int getPripojPlynKod() {
         return pripojPlynKod;
     }
 
-    public void setPripojPlynKod(final Integer pripojPlynKod) {
+    public void setPripojPlynKod(final int pripojPlynKod) {
         this.pripojPlynKod = pripojPlynKod;
+        nulls &= ~NULL_PRIPOJ_PLYN_KOD;
     }
 
-    public Integer getPripojVodovodKod() {
+    public boolean isPripojPlynKodNull() {
+        return (nulls & NULL_PRIPOJ_PLYN_KOD) != 0;
+    }
+
+    public int getPripojVodovodKod() {
         return pripojVodovodKod;
     }
 
-    public void setPripojVodovodKod(final Integer pripojVodovodKod) {
+    public void setPripojVodovodKod(final int pripojVodovodKod) {
         this.pripojVodovodKod = pripojVodovodKod;
+        nulls &= ~NULL_PRIPOJ_VODOVOD_KOD;
+    }
+
+    public boolean isPripojVodovodKodNull() {
+        return (nulls & NULL_PRIPOJ_VODOVOD_KOD) != 0;
     }
 
-    public Integer getTypKod() {
+    public int getTypKod() {
         return typKod;
     }
 
-    public void setTypKod(final Integer typKod) {
+    public void setTypKod(final int typKod) {
         this.typKod = typKod;
+        nulls &= ~NULL_TYP_KOD;
+    }
+
+    public boolean isTypKodNull() {
+        return (nulls & NULL_TYP_KOD) != 0;
     }
 
-    public Integer getZastavenaPlocha() {
+    public int getZastavenaPlocha() {
         return zastavenaPlocha;
     }
 
-    public void setZastavenaPlocha(final Integer zastavenaPlocha) {
+    public void setZastavenaPlocha(final int zastavenaPlocha) {
         this.zastavenaPlocha = zastavenaPlocha;
+        nulls &= ~NULL_ZASTAVENA_PLOCHA;
     }
 
-    public Integer getZpusobVytapeniKod() {
+    public boolean isZastavenaPlochaNull() {
+        return (nulls & NULL_ZASTAVENA_PLOCHA) != 0;
+    }
+
+    public int getZpusobVytapeniKod() {
         return zpusobVytapeniKod;
     }
 
-    public void setZpusobVytapeniKod(final Integer zpusobVytapeniKod) {
+    public void setZpusobVytapeniKod(final int zpusobVytapeniKod) {
         this.zpusobVytapeniKod = zpusobVytapeniKod;
+        nulls &= ~NULL_ZPUSOB_VYTAPENI_KOD;
+    }
+
+    public boolean isZpusobVytapeniKodNull() {
+        return (nulls & NULL_ZPUSOB_VYTAPENI_KOD) != 0;
     }
 
-    public Integer getZpusobVyuzitiKod() {
+    public int getZpusobVyuzitiKod() {
         return zpusobVyuzitiKod;
     }
 
-    public void setZpusobVyuzitiKod(final Integer zpusobVyuzitiKod) {
+    public void setZpusobVyuzitiKod(final int zpusobVyuzitiKod) {
         this.zpusobVyuzitiKod = zpusobVyuzitiKod;
+        nulls &= ~NULL_ZPUSOB_VYUZITI_KOD;
+    }
+
+    public boolean isZpusobVyuzitiKodNull() {
+        return (nulls & NULL_ZPUSOB_VYUZITI_KOD) != 0;
     }
 
     public Long getIdTransRuian() {
@@ -288,31 +424,70 @@ public class StavebniObjekt implements ItemWithDefinicniBod, ItemWithHranice {
         this.platiOd = platiOd;
     }
 
-    public Long getNzIdGlobalni() {
+    public long getNzIdGlobalni() {
         return nzIdGlobalni;
     }
 
-    public void setNzIdGlobalni(final Long nzIdGlobalni) {
+    public void setNzIdGlobalni(final long nzIdGlobalni) {
         this.nzIdGlobalni = nzIdGlobalni;
+        nulls &= ~NULL_NZ_ID_GLOBALNI;
+    }
+
+    public boolean isNzIdGlobalniNull() {
+        return (nulls & NULL_NZ_ID_GLOBALNI) != 0;
     }
 
     @Override
-    public String getDefinicniBod() {
+    public Object getDefinicniBod() {
         return definicniBod;
     }
 
     @Override
-    public void setDefinicniBod(final String definicniBod) {
+    public void setDefinicniBod(final Object definicniBod) {
         this.definicniBod = definicniBod;
     }
 
     @Override
-    public String getHranice() {
+    public Object getHranice() {
         return hranice;
     }
 
     @Override
-    public void setHranice(final String hranice) {
+    public void setHranice(final Object hranice) {
         this.hranice = hranice;
     }
+
+    @Override
+    public void reset() {
+        nulls = ALL_NULLS;
+        kod = null;
+        nespravny = false;
+        identifikacniParcelaId = 0;
+        momcKod = 0;
+        cobceKod = 0;
+        budovaId = 0;
+        cislaDomovni = null;
+        dokonceni = null;
+        jeVytahKod = 0;
+        zmenaGrafiky = null;
+        druhKonstrukceKod = 0;
+        zmenaDetailu = false;
+        obestavenyProstor = 0;
+        pocetBytu = 0;
+        pocetPodlazi = 0;
+        podlahovaPlocha = 0;
+        pripojElEnergie = false;
+        pripojKanalSitKod = 0;
+        pripojPlynKod = 0;
+        pripojVodovodKod = 0;
+        typKod = 0;
+        zastavenaPlocha = 0;
+        zpusobVytapeniKod = 0;
+        zpusobVyuzitiKod = 0;
+        idTransRuian = null;
+        platiOd = null;
+        nzIdGlobalni = 0;
+        definicniBod = null;
+        hranice = null;
+    }
 }
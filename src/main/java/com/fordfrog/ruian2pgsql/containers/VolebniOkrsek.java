@@ -28,20 +28,38 @@ import java.util.Date;
  *
  * @author fordfrog
  */
-public class VolebniOkrsek implements ItemWithDefinicniBod, ItemWithHranice {
+public class VolebniOkrsek implements ItemWithDefinicniBod, ItemWithHranice,
+        ItemWithIdTransRuian, ReusableItem {
+
+    /**
+     * Bits of {@link #nulls} of fields with primitive types.
+     */
+    private static final int NULL_CISLO = 1;
+    private static final int NULL_NESPRAVNY = 1 << 1;
+    private static final int NULL_OBEC_KOD = 1 << 2;
+    private static final int NULL_MOMC_KOD = 1 << 3;
+    private static final int NULL_NZ_ID_GLOBALNI = 1 << 4;
+    /**
+     * All bits of {@link #nulls}.
+     */
+    private static final int ALL_NULLS = (1 << 5) - 1;
+    /**
+     * Bit mask of fields with primitive types that have no value.
+     */
+    private int nulls = ALL_NULLS;
 
     private Integer kod;
-    private Integer cislo;
-    private Boolean nespravny;
-    private Integer obecKod;
-    private Integer momcKod;
+    private int cislo;
+    private boolean nespravny;
+    private int obecKod;
+    private int momcKod;
     private String poznamka;
     private Date platiOd;
     private Date platiDo;
     private Long idTransRuian;
-    private Long nzIdGlobalni;
-    private String definicniBod;
-    private String hranice;
+    private long nzIdGlobalni;
+    private Object definicniBod;
+    private Object hranice;
 
     public Integer getKod() {
         return kod;
@@ -51,37 +69,56 @@ public class VolebniOkrsek implements ItemWithDefinicniBod, ItemWithHranice {
         this.kod = kod;
     }
 
-    public Integer getCislo() {
-        return this.cislo;
+    public int getCislo() {
+        return cislo;
     }
 
-    public void setCislo(int cislo) {
+    public void setCislo(final int cislo) {
         this.cislo = cislo;
+        nulls &= ~NULL_CISLO;
     }
 
-    public Boolean getNespravny() {
+    public boolean isCisloNull() {
+        return (nulls & NULL_CISLO) != 0;
+    }
+
+    public boolean getNespravny() {
         return nespravny;
     }
 
-    public void setNespravny(final Boolean nespravny) {
+    public void setNespravny(final boolean nespravny) {
         this.nespravny = nespravny;
+        nulls &= ~NULL_NESPRAVNY;
+    }
+
+    public boolean isNespravnyNull() {
+        return (nulls & NULL_NESPRAVNY) != 0;
     }
 
-    public Integer getObecKod() {
+    public int getObecKod() {
         return obecKod;
     }
 
-    public void setObecKod(final Integer obecKod) {
+    public void setObecKod(final int obecKod) {
         this.obecKod = obecKod;
+        nulls &= ~NULL_OBEC_KOD;
     }
 
-    public Integer getMomcKod() {
-        if (momcKod==null) return 0;
+    public boolean isObecKodNull() {
+        return (nulls & NULL_OBEC_KOD) != 0;
+    }
+
+    public int getMomcKod() {
         return momcKod;
     }
 
-    public void setMomcKod(final Integer momcKod) {
+    public void setMomcKod(final int momcKod) {
         this.momcKod = momcKod;
+        nulls &= ~NULL_MOMC_KOD;
+    }
+
+    public boolean isMomcKodNull() {
+        return (nulls & NULL_MOMC_KOD) != 0;
     }
 
     public String getPoznamka() {
@@ -120,31 +157,53 @@ public class VolebniOkrsek implements ItemWithDefinicniBod, ItemWithHranice {
         this.idTransRuian = idTransRuian;
     }
 
-    public Long getNzIdGlobalni() {
+    public long getNzIdGlobalni() {
         return nzIdGlobalni;
     }
 
-    public void setNzIdGlobalni(final Long nzIdGlobalni) {
+    public void setNzIdGlobalni(final long nzIdGlobalni) {
         this.nzIdGlobalni = nzIdGlobalni;
+        nulls &= ~NULL_NZ_ID_GLOBALNI;
+    }
+
+    public boolean isNzIdGlobalniNull() {
+        return (nulls & NULL_NZ_ID_GLOBALNI) != 0;
     }
 
     @Override
-    public String getDefinicniBod() {
+    public Object getDefinicniBod() {
         return definicniBod;
     }
 
     @Override
-    public void setDefinicniBod(final String definicniBod) {
+    public void setDefinicniBod(final Object definicniBod) {
         this.definicniBod = definicniBod;
     }
 
     @Override
-    public String getHranice() {
+    public Object getHranice() {
         return hranice;
     }
 
     @Override
-    public void setHranice(final String hranice) {
+    public void setHranice(final Object hranice) {
         this.hranice = hranice;
     }
+
+    @Override
+    public void reset() {
+        nulls = ALL_NULLS;
+        kod = null;
+        cislo = 0;
+        nespravny = false;
+        obecKod = 0;
+        momcKod = 0;
+        poznamka = null;
+        platiOd = null;
+        platiDo = null;
+        idTransRuian = null;
+        nzIdGlobalni = 0;
+        definicniBod = null;
+        hranice = null;
+    }
 }
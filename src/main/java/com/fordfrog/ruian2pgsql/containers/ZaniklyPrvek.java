@@ -26,7 +26,7 @@ package com.fordfrog.ruian2pgsql.containers;
  *
  * @author fordfrog
  */
-public class ZaniklyPrvek {
+public class ZaniklyPrvek implements ReusableItem {
 
     private String typPrvkuKod;
     private Long prvekId;
@@ -55,4 +55,11 @@ public class ZaniklyPrvek {
     public void setIdTransakce(final Long idTransakce) {
         this.idTransakce = idTransakce;
     }
+
+    @Override
+    public void reset() {
+        typPrvkuKod = null;
+        prvekId = null;
+        idTransakce = null;
+    }
 }
@@ -26,13 +26,27 @@ package com.fordfrog.ruian2pgsql.containers;
  *
  * @author fordfrog
  */
-public class ZpusobOchranyObjektu {
+public class ZpusobOchranyObjektu implements ReusableItem {
+
+    /**
+     * Bits of {@link #nulls} of fields with primitive types.
+     */
+    private static final int NULL_ZPUSOB_OCHRANY_KOD = 1;
+    private static final int NULL_RIZENI_ID = 1 << 1;
+    /**
+     * All bits of {@link #nulls}.
+     */
+    private static final int ALL_NULLS = (1 << 2) - 1;
+    /**
+     * Bit mask of fields with primitive types that have no value.
+     */
+    private int nulls = ALL_NULLS;
 
     private Integer stavobjKod;
     private Integer kod;
-    private Integer zpusobOchranyKod;
+    private int zpusobOchranyKod;
     private Long idTransRuian;
-    private Long rizeniId;
+    private long rizeniId;
 
     public Integer getStavobjKod() {
         return stavobjKod;
@@ -50,12 +64,17 @@ public class ZpusobOchranyObjektu {
         this.kod = kod;
     }
 
-    public Integer getZpusobOchranyKod() {
+    public int getZpusobOchranyKod() {
         return zpusobOchranyKod;
     }
 
-    public void setZpusobOchranyKod(final Integer zpusobOchranyKod) {
+    public void setZpusobOchranyKod(final int zpusobOchranyKod) {
         this.zpusobOchranyKod = zpusobOchranyKod;
+        nulls &= ~NULL_ZPUSOB_OCHRANY_KOD;
+    }
+
+    public boolean isZpusobOchranyKodNull() {
+        return (nulls & NULL_ZPUSOB_OCHRANY_KOD) != 0;
     }
 
     public Long getIdTransRuian() {
@@ -66,11 +85,26 @@ public class ZpusobOchranyObjektu {
         this.idTransRuian = idTransRuian;
     }
 
-    public Long getRizeniId() {
+    public long getRizeniId() {
         return rizeniId;
     }
 
-    public void setRizeniId(final Long rizeniId) {
+    public void setRizeniId(final long rizeniId) {
         this.rizeniId = rizeniId;
+        nulls &= ~NULL_RIZENI_ID;
+    }
+
+    public boolean isRizeniIdNull() {
+        return (nulls & NULL_RIZENI_ID) != 0;
+    }
+
+    @Override
+    public void reset() {
+        nulls = ALL_NULLS;
+        stavobjKod = null;
+        kod = null;
+        zpusobOchranyKod = 0;
+        idTransRuian = null;
+        rizeniId = 0;
     }
 }
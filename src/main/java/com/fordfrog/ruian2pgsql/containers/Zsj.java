@@ -29,26 +29,44 @@ import java.util.Date;
  * @author fordfrog
  */
 public class Zsj implements ItemWithDefinicniBod, ItemWithHranice,
-        ItemWithMluvCharPad {
+        ItemWithMluvCharPad, ItemWithIdTransRuian, ItemWithZmenaGrafiky,
+        ReusableItem {
+
+    /**
+     * Bits of {@link #nulls} of fields with primitive types.
+     */
+    private static final int NULL_NESPRAVNY = 1;
+    private static final int NULL_KATUZ_KOD = 1 << 1;
+    private static final int NULL_CHARAKTER_ZSJ_KOD = 1 << 2;
+    private static final int NULL_VYMERA = 1 << 3;
+    private static final int NULL_NZ_ID_GLOBALNI = 1 << 4;
+    /**
+     * All bits of {@link #nulls}.
+     */
+    private static final int ALL_NULLS = (1 << 5) - 1;
+    /**
+     * Bit mask of fields with primitive types that have no value.
+     */
+    private int nulls = ALL_NULLS;
 
     private Integer kod;
     private String nazev;
-    private Boolean nespravny;
-    private Integer katuzKod;
-    private Integer charakterZsjKod;
+    private boolean nespravny;
+    private int katuzKod;
+    private int charakterZsjKod;
     private String mluvCharPad2;
     private String mluvCharPad3;
     private String mluvCharPad4;
     private String mluvCharPad5;
     private String mluvCharPad6;
     private String mluvCharPad7;
-    private Long vymera;
+    private long vymera;
     private Date platiOd;
     private Boolean zmenaGrafiky;
-    private Long nzIdGlobalni;
+    private long nzIdGlobalni;
     private Long idTransRuian;
-    private String definicniBod;
-    private String hranice;
+    private Object definicniBod;
+    private Object hranice;
     private Date datumVzniku;
 
     public Integer getKod() {
@@ -67,28 +85,43 @@ public class Zsj implements ItemWithDefinicniBod, ItemWithHranice,
         this.nazev = nazev;
     }
 
-    public Boolean getNespravny() {
+    public boolean getNespravny() {
         return nespravny;
     }
 
-    public void setNespravny(final Boolean nespravny) {
+    public void setNespravny(final boolean nespravny) {
         this.nespravny = nespravny;
+        nulls &= ~NULL_NESPRAVNY;
     }
 
-    public Integer getKatuzKod() {
+    public boolean isNespravnyNull() {
+        return (nulls & NULL_NESPRAVNY) != 0;
+    }
+
+    public int getKatuzKod() {
         return katuzKod;
     }
 
-    public void setKatuzKod(final Integer katuzKod) {
+    public void setKatuzKod(final int katuzKod) {
         this.katuzKod = katuzKod;
+        nulls &= ~NULL_KATUZ_KOD;
+    }
+
+    public boolean isKatuzKodNull() {
+        return (nulls & NULL_KATUZ_KOD) != 0;
     }
 
-    public Integer getCharakterZsjKod() {
+    public int getCharakterZsjKod() {
         return charakterZsjKod;
     }
 
-    public void setCharakterZsjKod(final Integer charakterZsjKod) {
+    public void setCharakterZsjKod(final int charakterZsjKod) {
         this.charakterZsjKod = charakterZsjKod;
+        nulls &= ~NULL_CHARAKTER_ZSJ_KOD;
+    }
+
+    public boolean isCharakterZsjKodNull() {
+        return (nulls & NULL_CHARAKTER_ZSJ_KOD) != 0;
     }
 
     @Override
@@ -151,12 +184,17 @@ public class Zsj implements ItemWithDefinicniBod, ItemWithHranice,
         this.mluvCharPad7 = mluvCharPad7;
     }
 
-    public Long getVymera() {
+    public long getVymera() {
         return vymera;
     }
 
-    public void setVymera(final Long vymera) {
+    public void setVymera(final long vymera) {
         this.vymera = vymera;
+        nulls &= ~NULL_VYMERA;
+    }
+
+    public boolean isVymeraNull() {
+        return (nulls & NULL_VYMERA) != 0;
     }
 
     @SuppressWarnings("ReturnOfDateField")
@@ -169,20 +207,27 @@ public class Zsj implements ItemWithDefinicniBod, ItemWithHranice,
         this.platiOd = platiOd;
     }
 
+    @Override
     public Boolean getZmenaGrafiky() {
         return zmenaGrafiky;
     }
 
+    @Override
     public void setZmenaGrafiky(final Boolean zmenaGrafiky) {
         this.zmenaGrafiky = zmenaGrafiky;
     }
 
-    public Long getNzIdGlobalni() {
+    public long getNzIdGlobalni() {
         return nzIdGlobalni;
     }
 
-    public void setNzIdGlobalni(final Long nzIdGlobalni) {
+    public void setNzIdGlobalni(final long nzIdGlobalni) {
         this.nzIdGlobalni = nzIdGlobalni;
+        nulls &= ~NULL_NZ_ID_GLOBALNI;
+    }
+
+    public boolean isNzIdGlobalniNull() {
+        return (nulls & NULL_NZ_ID_GLOBALNI) != 0;
     }
 
     public Long getIdTransRuian() {
@@ -194,22 +239,22 @@ public class Zsj implements ItemWithDefinicniBod, ItemWithHranice,
     }
 
     @Override
-    public String getDefinicniBod() {
+    public Object getDefinicniBod() {
         return definicniBod;
     }
 
     @Override
-    public void setDefinicniBod(final String definicniBod) {
+    public void setDefinicniBod(final Object definicniBod) {
         this.definicniBod = definicniBod;
     }
 
     @Override
-    public String getHranice() {
+    public Object getHranice() {
         return hranice;
     }
 
     @Override
-    public void setHranice(final String hranice) {
+    public void setHranice(final Object hranice) {
         this.hranice = hranice;
     }
 
@@ -220,4 +265,28 @@ public class Zsj implements ItemWithDefinicniBod, ItemWithHranice,
     public void setDatumVzniku(final Date datumVzniku) {
         this.datumVzniku = datumVzniku;
     }
+
+    @Override
+    public void reset() {
+        nulls = ALL_NULLS;
+        kod = null;
+        nazev = null;
+        nespravny = false;
+        katuzKod = 0;
+        charakterZsjKod = 0;
+        mluvCharPad2 = null;
+        mluvCharPad3 = null;
+        mluvCharPad4 = null;
+        mluvCharPad5 = null;
+        mluvCharPad6 = null;
+        mluvCharPad7 = null;
+        vymera = 0;
+        platiOd = null;
+        zmenaGrafiky = null;
+        nzIdGlobalni = 0;
+        idTransRuian = null;
+        definicniBod = null;
+        hranice = null;
+        datumVzniku = null;
+    }
 }
@@ -22,11 +22,36 @@
 package com.fordfrog.ruian2pgsql.convertors;
 
 import com.fordfrog.ruian2pgsql.Config;
+import com.fordfrog.ruian2pgsql.containers.ItemWithIdTransRuian;
+import com.fordfrog.ruian2pgsql.containers.ItemWithZmenaGrafiky;
+import com.fordfrog.ruian2pgsql.containers.ReusableItem;
+import com.fordfrog.ruian2pgsql.utils.CopyStatement;
+import com.fordfrog.ruian2pgsql.utils.Log;
+import com.fordfrog.ruian2pgsql.utils.LongHashSet;
+import com.fordfrog.ruian2pgsql.utils.MultiRowInsertStatement;
+import com.fordfrog.ruian2pgsql.utils.OffHeapLongLongMap;
+import com.fordfrog.ruian2pgsql.utils.PreparedStatementEx;
+import com.fordfrog.ruian2pgsql.utils.RowHashStatement;
+import com.fordfrog.ruian2pgsql.utils.Utils;
 import com.fordfrog.ruian2pgsql.utils.XMLUtils;
+import java.sql.BatchUpdateException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
 
@@ -37,8 +62,69 @@ import javax.xml.stream.XMLStreamReader;
  *
  * @author fordfrog
  */
-public abstract class AbstractSaveConvertor<T> implements Convertor {
+public abstract class AbstractSaveConvertor<T extends ReusableItem>
+        implements Convertor {
 
+    /**
+     * Pattern for parsing of table name and column names from insert
+     * statement.
+     */
+    private static final Pattern PATTERN_INSERT = Pattern.compile(
+            "^INSERT INTO (\\w+) \\(([^)]+)\\) VALUES",
+            Pattern.CASE_INSENSITIVE);
+    /**
+     * Pattern for parsing of table name and key column name from statement
+     * testing whether item exists.
+     */
+    private static final Pattern PATTERN_EXISTS = Pattern.compile(
+            "^SELECT 1 FROM (\\w+) WHERE (\\w+) = \\?$",
+            Pattern.CASE_INSENSITIVE);
+    /**
+     * Name of the column containing RÚIAN transaction id.
+     */
+    private static final String COLUMN_ID_TRANS = "id_trans_ruian";
+    /**
+     * Prefix of names of staging tables.
+     */
+    private static final String STAGING_PREFIX = "stg_";
+    /**
+     * Name of the column of staging tables that contains order in which the
+     * rows were staged.
+     */
+    private static final String COLUMN_STAGING_SEQ = "stg_seq";
+    /**
+     * Number of staged rows from which staging table is analyzed before it
+     * is merged, so that planner does not expect nearly empty table.
+     */
+    private static final int STAGING_ANALYZE_THRESHOLD = 10000;
+    /**
+     * Minimum number of rows that are sent to database in single COPY.
+     */
+    private static final int COPY_BATCH_SIZE = 10000;
+    /**
+     * Keys of items that were loaded using COPY, per table. The sets are
+     * shared by all convertors of the same table as files can be converted
+     * concurrently.
+     */
+    private static final Map<String, LongHashSet> COPIED_KEYS =
+            new HashMap<>(32);
+    /**
+     * Number of rows fetched at once while index is loaded.
+     */
+    private static final int INDEX_FETCH_SIZE = 10000;
+    /**
+     * Maximum number of items that are kept for reuse. Items are reused only
+     * when they are saved, so more than one item is needed only if database
+     * writer is used.
+     */
+    private static final int ITEM_POOL_SIZE = 1024;
+    /**
+     * Preloaded indexes of item keys and transaction ids, per table. The
+     * indexes are shared by all convertors of the same table as files can be
+     * converted concurrently.
+     */
+    private static final Map<String, OffHeapLongLongMap> INDEXES =
+            new HashMap<>(32);
     /**
      * Class of objects that will be saved to the database.
      */
@@ -55,6 +141,38 @@ public abstract class AbstractSaveConvertor<T> implements Convertor {
      * Database connection.
      */
     private final Connection connection;
+    /**
+     * Writer that executes database operations of this convertor or null if
+     * the operations are executed by the thread that reads the XML.
+     */
+    private final DatabaseWriter writer;
+    /**
+     * Items that were saved and can be reused for next elements.
+     */
+    private final ArrayBlockingQueue<T> freeItems =
+            new ArrayBlockingQueue<>(ITEM_POOL_SIZE);
+    /**
+     * Items whose Geometrie element was skipped without parsing. Items are
+     * compared by identity as they are reused.
+     */
+    private final Set<T> geometrySkippedItems =
+            Collections.newSetFromMap(new IdentityHashMap<T, Boolean>(8));
+    /**
+     * Convertor of parent item or null if items are not sub-items of other
+     * items. If set, full batches are executed by flushing the parent
+     * convertor so that pending changes of the parent are executed first.
+     */
+    private AbstractSaveConvertor<?> parentConvertor;
+    /**
+     * Synchronizer that collects the items instead of {@link #pstmInsert} or
+     * null if items are inserted directly.
+     */
+    private SubItemsSynchronizer subItemsSynchronizer;
+    /**
+     * Wrappers of prepared statements, created on first use.
+     */
+    private final Map<PreparedStatement, PreparedStatementEx> pstmExs =
+            new IdentityHashMap<>(8);
     /**
      * Prepared statement for checking whether item exists.
      */
@@ -62,11 +180,87 @@ public abstract class AbstractSaveConvertor<T> implements Convertor {
     /**
      * Prepared statement for insertion of new item.
      */
-    private final PreparedStatement pstmInsert;
+    private PreparedStatement pstmInsert;
+    /**
+     * SQL statement for insertion of new item, adjusted for current
+     * configuration.
+     */
+    private final String sqlInsertItem;
     /**
      * Prepared statement for update of existing item.
      */
     private final PreparedStatement pstmUpdate;
+    /**
+     * Prepared statement for update of existing item that does not update
+     * geometries, used if graphics of the item did not change. Null if items
+     * have no ZmenaGrafiky or if geometries are always written.
+     */
+    private final PreparedStatement pstmUpdateNoGeometry;
+    /**
+     * Whether {@link #pstmInsert} is upsert statement. In such case no test
+     * whether item exists is performed.
+     */
+    private final boolean upsert;
+    /**
+     * Whether {@link #pstmInsert} loads the rows using COPY.
+     */
+    private final boolean copy;
+    /**
+     * Keys of items that were loaded using COPY. Tables are empty at the
+     * beginning of bulk copy so any item that is not in this set does not
+     * exist in database yet. Null if bulk copy is not used or the items have
+     * no key. Access to the set must be synchronized on the set.
+     */
+    private final LongHashSet copiedKeys;
+    /**
+     * Preloaded index of keys and transaction ids of items that exist in
+     * database. Null if --preload-index is not used or the items have no key
+     * or no transaction id. Access to the index must be synchronized on the
+     * index.
+     */
+    private final OffHeapLongLongMap index;
+    /**
+     * Name of staging table to which the items are saved before they are
+     * merged into the target table, or null if --staging is not used or the
+     * items cannot be staged.
+     */
+    private final String stagingTable;
+    /**
+     * SQL statement that merges rows of {@link #stagingTable} into the target
+     * table.
+     */
+    private final String sqlMerge;
+    /**
+     * SQL statement that advances transaction id of rows that were not
+     * updated by {@link #sqlMerge} because their hash did not change, or null
+     * if --row-hash is not used.
+     */
+    private final String sqlMergeAdvance;
+    /**
+     * Number of rows that were saved to {@link #stagingTable} since last
+     * merge.
+     */
+    private long stagedCount;
+    /**
+     * Keys of items that were added to the batch of {@link #pstmInsert}, in
+     * the order in which they were added.
+     */
+    private final List<Number> insertBatchKeys = new ArrayList<>(100);
+    /**
+     * Keys of items that were added to the batch of {@link #pstmUpdate}, in
+     * the order in which they were added.
+     */
+    private final List<Number> updateBatchKeys = new ArrayList<>(100);
+    /**
+     * Keys of items that were added to the batch of
+     * {@link #pstmUpdateNoGeometry}, in the order in which they were added.
+     */
+    private final List<Number> updateNoGeometryBatchKeys =
+            new ArrayList<>(100);
+    /**
+     * Keys of all items that are pending in batches.
+     */
+    private final Set<Long> pendingKeys = new HashSet<>(100);
 
     /**
      * Creates new instance of AbstractSaveConvertor.
@@ -97,11 +291,37 @@ public abstract class AbstractSaveConvertor<T> implements Convertor {
         this.namespace = namespace;
         this.localName = localName;
         this.connection = con;
+        this.writer = DatabaseWriter.get(con);
         this.pstmExists =
                 sqlExists == null ? null : con.prepareStatement(sqlExists);
 
         String sqlInsertAdj = Config.isNoGis() ? sqlInsertNoGis : sqlInsert;
         String sqlUpdateAdj = Config.isNoGis() ? sqlUpdateNoGis : sqlUpdate;
+        final Matcher existsMatcher = sqlExists == null
+                ? null : PATTERN_EXISTS.matcher(sqlExists);
+        final String rowHashKey = Config.isRowHash() && sqlInsertAdj != null
+                && sqlUpdateAdj != null && existsMatcher != null
+                && existsMatcher.matches() ? existsMatcher.group(2) : null;
+        final String sqlInsertUnhashed = sqlInsertAdj;
+        final String sqlUpdateUnhashed = sqlUpdateAdj;
+
+        if (rowHashKey != null) {
+            sqlInsertAdj = RowHashStatement.extendSql(sqlInsertAdj);
+            sqlUpdateAdj = RowHashStatement.extendSql(sqlUpdateAdj);
+        }
+
+        if (Config.isUpsert() && !Config.isStaging() && sqlInsertAdj != null
+                && sqlExists != null) {
+            final String sqlUpsert = createUpsertSql(sqlInsertAdj, sqlExists);
+
+            if (sqlUpsert != null) {
+                sqlInsertAdj = sqlUpsert;
+            }
+
+            upsert = sqlUpsert != null;
+        } else {
+            upsert = false;
+        }
 
         if (Config.isMysqlDriver()) {
             sqlInsertAdj = fixSql(sqlInsertAdj);
@@ -116,10 +336,105 @@ public abstract class AbstractSaveConvertor<T> implements Convertor {
             sqlUpdateAdj = formatGeometry(sqlUpdateAdj);
         }
 
-        this.pstmInsert = sqlInsertAdj == null
-                ? null : con.prepareStatement(sqlInsertAdj);
-        this.pstmUpdate = sqlUpdateAdj == null
-                ? null : con.prepareStatement(sqlUpdateAdj);
+        final Matcher insertMatcher = sqlInsertAdj == null
+                ? null : PATTERN_INSERT.matcher(sqlInsertAdj);
+        final boolean simpleSql = insertMatcher != null && insertMatcher.find()
+                && (existsMatcher == null || existsMatcher.matches()
+                && existsMatcher.group(1).equals(insertMatcher.group(1)));
+
+        if (Config.isStaging() && simpleSql) {
+            final String table = insertMatcher.group(1);
+            final String columns = insertMatcher.group(2);
+            final String key =
+                    existsMatcher == null ? null : existsMatcher.group(2);
+
+            stagingTable = STAGING_PREFIX + table;
+            sqlMerge = createMergeSql(table, columns, key, stagingTable);
+            sqlMergeAdvance = rowHashKey == null ? null
+                    : createMergeAdvanceSql(table, key, stagingTable);
+            createStagingTable(con, table, stagingTable);
+
+            // geometries can be copied only if they are not converted by
+            // database
+            copy = Config.isNoGis() || Config.isParseGML()
+                    && Config.getDestinationSrid() == null;
+            copiedKeys = null;
+            this.pstmInsert = copy
+                    ? CopyStatement.create(con, stagingTable, columns)
+                    : con.prepareStatement("INSERT INTO " + stagingTable
+                            + sqlInsertAdj.substring(insertMatcher.end(1)));
+        } else if (Config.isBulkCopy() && simpleSql) {
+            stagingTable = null;
+            sqlMerge = null;
+            sqlMergeAdvance = null;
+            copy = true;
+            copiedKeys = sqlExists == null
+                    ? null : getCopiedKeys(insertMatcher.group(1));
+            this.pstmInsert = Config.isMysqlDriver()
+                    ? CopyStatement.createLoadData(con,
+                            insertMatcher.group(1), insertMatcher.group(2))
+                    : CopyStatement.create(con,
+                            insertMatcher.group(1), insertMatcher.group(2));
+        } else if (Config.isMysqlDriver() && Config.isBatchMode()
+                && sqlInsertAdj != null) {
+            stagingTable = null;
+            sqlMerge = null;
+            sqlMergeAdvance = null;
+            copy = false;
+            copiedKeys = null;
+            this.pstmInsert =
+                    MultiRowInsertStatement.create(con, sqlInsertAdj);
+        } else {
+            stagingTable = null;
+            sqlMerge = null;
+            sqlMergeAdvance = null;
+            copy = false;
+            copiedKeys = null;
+            this.pstmInsert = sqlInsertAdj == null
+                    ? null : con.prepareStatement(sqlInsertAdj);
+        }
+
+        this.sqlInsertItem = sqlInsertAdj;
+
+        if (rowHashKey != null) {
+            // only PostgreSQL upsert skips rows with unchanged hash
+            this.pstmInsert = RowHashStatement.create(
+                    this.pstmInsert, sqlInsertUnhashed, rowHashKey,
+                    upsert && !copy && !Config.isMysqlDriver());
+            this.pstmUpdate = RowHashStatement.create(
+                    con.prepareStatement(sqlUpdateAdj), sqlUpdateUnhashed,
+                    rowHashKey, true);
+        } else {
+            this.pstmUpdate = sqlUpdateAdj == null
+                    ? null : con.prepareStatement(sqlUpdateAdj);
+        }
+
+        // upsert, staging and COPY always write all columns so geometries
+        // must be available
+        if (!Config.isNoGis() && sqlUpdateNoGis != null && !upsert
+                && stagingTable == null && !copy
+                && ItemWithZmenaGrafiky.class.isAssignableFrom(clazz)) {
+            String sqlUpdateNoGeometry = fixSql(sqlUpdateNoGis);
+
+            // stored hash includes geometries so it cannot be kept
+            if (rowHashKey != null) {
+                sqlUpdateNoGeometry =
+                        RowHashStatement.clearHash(sqlUpdateNoGeometry);
+            }
+
+            pstmUpdateNoGeometry = con.prepareStatement(sqlUpdateNoGeometry);
+        } else {
+            pstmUpdateNoGeometry = null;
+        }
+
+        if (Config.isPreloadIndex() && stagingTable == null
+                && existsMatcher != null && existsMatcher.matches()
+                && ItemWithIdTransRuian.class.isAssignableFrom(clazz)) {
+            index = getIndex(con, existsMatcher.group(1),
+                    existsMatcher.group(2));
+        } else {
+            index = null;
+        }
     }
 
     /**
@@ -131,6 +446,51 @@ public abstract class AbstractSaveConvertor<T> implements Convertor {
         return connection;
     }
 
+    /**
+     * Setter for {@link #parentConvertor}.
+     *
+     * @param parentConvertor {@link #parentConvertor}
+     */
+    public void setParentConvertor(
+            final AbstractSaveConvertor<?> parentConvertor) {
+        this.parentConvertor = parentConvertor;
+    }
+
+    /**
+     * Creates synchronizer of sub-items that are saved by this convertor. The
+     * items are then not inserted directly but they are collected by the
+     * synchronizer and only changes are written to database on flush of the
+     * synchronizer.
+     *
+     * @param parentColumn name of the column that references parent item
+     * @param keyColumns   columns that identify the item within parent item
+     *
+     * @return synchronizer
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    public SubItemsSynchronizer createSubItemsSynchronizer(
+            final String parentColumn, final String... keyColumns)
+            throws SQLException {
+        subItemsSynchronizer = new SubItemsSynchronizer(
+                connection, sqlInsertItem, parentColumn, keyColumns);
+        pstmInsert.close();
+        pstmExs.remove(pstmInsert);
+        pstmInsert = subItemsSynchronizer.getStatement();
+
+        return subItemsSynchronizer;
+    }
+
+    /**
+     * Checks whether items are saved to staging table.
+     *
+     * @return true if items are saved to staging table, otherwise false
+     */
+    protected boolean isStaged() {
+        return stagingTable != null;
+    }
+
     /**
      * Processes current elements and its sub-elements. On each element
      * {@link #processElement(javax.xml.stream.XMLStreamReader, java.lang.Object, java.io.Writer)}
@@ -147,14 +507,7 @@ public abstract class AbstractSaveConvertor<T> implements Convertor {
     @Override
     public void convert(final XMLStreamReader reader) throws XMLStreamException,
             SQLException {
-        final T item;
-
-        try {
-            item = clazz.newInstance();
-        } catch (final IllegalAccessException | InstantiationException ex) {
-            throw new RuntimeException("Failed to instantiate class "
-                    + clazz.getName(), ex);
-        }
+        final T item = acquireItem();
 
         while (reader.hasNext()) {
             final int event = reader.next();
@@ -165,7 +518,24 @@ public abstract class AbstractSaveConvertor<T> implements Convertor {
                     break;
                 case XMLStreamReader.END_ELEMENT:
                     if (XMLUtils.isSameElement(namespace, localName, reader)) {
-                        saveData(item);
+                        if (isSuperseded(item)) {
+                            releaseItem(item);
+
+                            return;
+                        }
+
+                        prepareItem(item);
+
+                        if (writer == null || writer.isWriterThread()) {
+                            saveAndRelease(item);
+                        } else {
+                            writer.submit(new DatabaseWriter.Task() {
+                                @Override
+                                public void run() throws SQLException {
+                                    saveAndRelease(item);
+                                }
+                            });
+                        }
 
                         return;
                     }
@@ -175,6 +545,378 @@ public abstract class AbstractSaveConvertor<T> implements Convertor {
         }
     }
 
+    /**
+     * Returns item that should be filled with values of the element. Items
+     * that were already saved are reused, new item is created only if there is
+     * no such item.
+     *
+     * @return item
+     */
+    private T acquireItem() {
+        final T item = freeItems.poll();
+
+        if (item != null) {
+            return item;
+        }
+
+        try {
+            return clazz.getDeclaredConstructor().newInstance();
+        } catch (final ReflectiveOperationException ex) {
+            throw new RuntimeException("Failed to instantiate class "
+                    + clazz.getName(), ex);
+        }
+    }
+
+    /**
+     * Resets the item and returns it for reuse.
+     *
+     * @param item item
+     */
+    private void releaseItem(final T item) {
+        synchronized (geometrySkippedItems) {
+            geometrySkippedItems.remove(item);
+        }
+
+        item.reset();
+        freeItems.offer(item);
+    }
+
+    /**
+     * Saves the item and returns it for reuse. All values of the item are
+     * passed to the statements while the item is saved so the item can be
+     * reused right after that.
+     *
+     * @param item item
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    private void saveAndRelease(final T item) throws SQLException {
+        try {
+            saveData(item);
+        } finally {
+            releaseItem(item);
+        }
+    }
+
+    /**
+     * Returns wrapper of the prepared statement. Wrapper of each statement is
+     * created only once.
+     *
+     * @param pstm prepared statement
+     *
+     * @return prepared statement wrapper
+     */
+    protected PreparedStatementEx getPreparedStatementEx(
+            final PreparedStatement pstm) {
+        PreparedStatementEx pstmEx = pstmExs.get(pstm);
+
+        if (pstmEx == null) {
+            pstmEx = new PreparedStatementEx(pstm);
+            pstmExs.put(pstm, pstmEx);
+        }
+
+        return pstmEx;
+    }
+
+    /**
+     * Executes all statements that are pending in batches. Inserts are
+     * executed before updates.
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    @Override
+    public void flush() throws SQLException {
+        runOnWriter(new DatabaseWriter.Task() {
+            @Override
+            public void run() throws SQLException {
+                try {
+                    executeBatch(pstmInsert, insertBatchKeys, "insert");
+                    executeBatch(pstmUpdate, updateBatchKeys, "update");
+                    executeBatch(pstmUpdateNoGeometry,
+                            updateNoGeometryBatchKeys, "update");
+
+                    if (stagedCount > 0) {
+                        mergeStagingTable();
+                    }
+                } finally {
+                    pendingKeys.clear();
+                }
+            }
+        });
+    }
+
+    /**
+     * Merges rows of {@link #stagingTable} into the target table and
+     * truncates the staging table.
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    private void mergeStagingTable() throws SQLException {
+        final long startTimestamp = System.currentTimeMillis();
+
+        try (final Statement stm = connection.createStatement()) {
+            if (!Config.isDryRun()) {
+                if (stagedCount >= STAGING_ANALYZE_THRESHOLD) {
+                    stm.execute("ANALYZE " + stagingTable);
+                }
+
+                merge(stm);
+            }
+
+            stm.execute("TRUNCATE " + stagingTable);
+        }
+
+        if (Config.isDebug()) {
+            Log.write("Merged " + stagedCount + " rows of " + stagingTable
+                    + " in " + (System.currentTimeMillis() - startTimestamp)
+                    + " ms");
+        }
+
+        stagedCount = 0;
+    }
+
+    /**
+     * Merges rows of staging table into the target table. Subclasses can
+     * override this method to apply changes that depend on the staged rows
+     * before the rows are merged.
+     *
+     * @param stm statement that can be used for execution of SQL statements
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    protected void merge(final Statement stm) throws SQLException {
+        stm.executeUpdate(sqlMerge);
+
+        if (sqlMergeAdvance != null) {
+            stm.executeUpdate(sqlMergeAdvance);
+        }
+    }
+
+    /**
+     * Runs the database operation. If database writer is used, the operation
+     * is submitted to the writer, unless current thread is the writer thread,
+     * otherwise the operation is run immediately.
+     *
+     * @param task database operation
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    protected void runOnWriter(final DatabaseWriter.Task task)
+            throws SQLException {
+        if (writer == null || writer.isWriterThread()) {
+            task.run();
+        } else {
+            writer.submit(task);
+        }
+    }
+
+    /**
+     * Prepares item for saving. It is called on the thread that reads the XML
+     * once the item element is processed and before
+     * {@link #saveData(java.lang.Object)} is called. Default implementation
+     * does nothing.
+     *
+     * @param item item
+     */
+    protected void prepareItem(final T item) {
+        // nothing to prepare by default
+    }
+
+    /**
+     * Checks whether newer version of the item is contained in other input
+     * file so that this version can be skipped.
+     *
+     * @param item item
+     *
+     * @return true if the item should be skipped, otherwise false
+     */
+    protected boolean isSuperseded(final T item) {
+        return ChangeCoalescer.isSuperseded(localName, getItemKey(item));
+    }
+
+    /**
+     * Checks whether item with specified key might already exist in database.
+     * During bulk copy it is known that items that were not copied yet do not
+     * exist in database, otherwise it is unknown.
+     *
+     * @param key item key
+     *
+     * @return false if item does not exist in database, true if it might
+     *         exist
+     */
+    protected boolean mayExist(final Number key) {
+        if (key == null) {
+            return true;
+        }
+
+        if (index != null) {
+            synchronized (index) {
+                return index.containsKey(key.longValue());
+            }
+        }
+
+        if (copiedKeys == null) {
+            return true;
+        }
+
+        synchronized (copiedKeys) {
+            return copiedKeys.contains(key.longValue());
+        }
+    }
+
+    /**
+     * Returns set of keys of items that were loaded to the table using COPY.
+     *
+     * @param table table name
+     *
+     * @return set of keys
+     */
+    private static LongHashSet getCopiedKeys(final String table) {
+        synchronized (COPIED_KEYS) {
+            LongHashSet keys = COPIED_KEYS.get(table);
+
+            if (keys == null) {
+                keys = new LongHashSet(1024);
+                COPIED_KEYS.put(table, keys);
+            }
+
+            return keys;
+        }
+    }
+
+    /**
+     * Creates temporary staging table with the same columns as the target
+     * table, unless it already exists.
+     *
+     * @param con          database connection
+     * @param table        name of the target table
+     * @param stagingTable name of the staging table
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    private static void createStagingTable(final Connection con,
+            final String table, final String stagingTable)
+            throws SQLException {
+        try (final Statement stm = con.createStatement()) {
+            stm.execute("CREATE TEMPORARY TABLE IF NOT EXISTS " + stagingTable
+                    + " (LIKE " + table + " INCLUDING DEFAULTS, "
+                    + COLUMN_STAGING_SEQ + " bigserial)");
+        }
+    }
+
+    /**
+     * Returns preloaded index of the table. The index is loaded when it is
+     * requested for the first time.
+     *
+     * @param con       database connection
+     * @param table     table name
+     * @param keyColumn name of the key column
+     *
+     * @return index of keys and transaction ids
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    private static OffHeapLongLongMap getIndex(final Connection con,
+            final String table, final String keyColumn) throws SQLException {
+        synchronized (INDEXES) {
+            OffHeapLongLongMap tableIndex = INDEXES.get(table);
+
+            if (tableIndex == null) {
+                tableIndex = loadIndex(con, table, keyColumn);
+                INDEXES.put(table, tableIndex);
+            }
+
+            return tableIndex;
+        }
+    }
+
+    /**
+     * Records in preloaded index of the table that the item was changed in
+     * specified transaction, without being saved by convertor of the table
+     * (for example marked as deleted). Items that are not stored in database
+     * are not added to the index.
+     *
+     * @param con       database connection
+     * @param table     table name
+     * @param keyColumn name of the key column
+     * @param key       item key
+     * @param idTrans   transaction id
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    protected static void updateIndex(final Connection con,
+            final String table, final String keyColumn, final long key,
+            final long idTrans) throws SQLException {
+        final OffHeapLongLongMap tableIndex =
+                getIndex(con, table, keyColumn);
+
+        synchronized (tableIndex) {
+            final long storedIdTrans = tableIndex.get(key);
+
+            if (storedIdTrans != OffHeapLongLongMap.NO_VALUE
+                    && storedIdTrans < idTrans) {
+                tableIndex.put(key, idTrans);
+            }
+        }
+    }
+
+    /**
+     * Loads keys and transaction ids of all rows of the table using single
+     * streaming query.
+     *
+     * @param con       database connection
+     * @param table     table name
+     * @param keyColumn name of the key column
+     *
+     * @return index of keys and transaction ids
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    private static OffHeapLongLongMap loadIndex(final Connection con,
+            final String table, final String keyColumn) throws SQLException {
+        final long startTimestamp = System.currentTimeMillis();
+        final OffHeapLongLongMap tableIndex = new OffHeapLongLongMap(1024);
+
+        try (final Statement stm = con.createStatement()) {
+            // MySQL driver streams the rows only with this special value
+            stm.setFetchSize(Config.isMysqlDriver()
+                    ? Integer.MIN_VALUE : INDEX_FETCH_SIZE);
+
+            try (final ResultSet rs = stm.executeQuery("SELECT " + keyColumn
+                    + ", " + COLUMN_ID_TRANS + " FROM " + table)) {
+                while (rs.next()) {
+                    tableIndex.put(rs.getLong(1), rs.getLong(2));
+                }
+            }
+        }
+
+        Log.write("Loaded index of " + tableIndex.size() + " rows of table "
+                + table + " in " + (System.currentTimeMillis()
+                - startTimestamp) + " ms");
+
+        return tableIndex;
+    }
+
+    /**
+     * Checks whether item with specified key is pending in a batch.
+     *
+     * @param key item key
+     *
+     * @return true if item is pending in a batch, otherwise false
+     */
+    protected boolean isPending(final Number key) {
+        return key != null && pendingKeys.contains(key.longValue());
+    }
+
     /**
      * Fixes SQL statement.
      *
@@ -194,6 +936,178 @@ public abstract class AbstractSaveConvertor<T> implements Convertor {
         }
     }
 
+    /**
+     * Creates upsert statement from insert statement. Name of the key column
+     * is taken from the statement testing whether item exists. All columns
+     * except the key column are updated, but only if transaction id of the
+     * inserted row is not lower than transaction id of the existing row.
+     *
+     * @param sqlInsert SQL statement for insertion of item to database
+     * @param sqlExists SQL statement for testing whether item exists
+     *
+     * @return upsert statement or null if upsert statement cannot be created
+     *         from provided statements
+     */
+    static String createUpsertSql(final String sqlInsert,
+            final String sqlExists) {
+        final Matcher insertMatcher = PATTERN_INSERT.matcher(sqlInsert);
+        final Matcher existsMatcher = PATTERN_EXISTS.matcher(sqlExists);
+
+        if (!insertMatcher.find() || !existsMatcher.matches()
+                || !insertMatcher.group(1).equals(existsMatcher.group(1))) {
+            return null;
+        }
+
+        final String table = insertMatcher.group(1);
+        final String key = existsMatcher.group(2);
+        final List<String> columns =
+                getUpdatedColumns(insertMatcher.group(2), key);
+        final StringBuilder sb = new StringBuilder(sqlInsert.length() * 2);
+        sb.append(sqlInsert);
+
+        if (Config.isMysqlDriver()) {
+            // assignments are evaluated from left to right so transaction id
+            // must be updated as the last one
+            final String condition = "IF(" + COLUMN_ID_TRANS + " <= VALUES("
+                    + COLUMN_ID_TRANS + "), ";
+            sb.append(" ON DUPLICATE KEY UPDATE ");
+
+            for (final String column : columns) {
+                sb.append(column).append(" = ").append(condition);
+                sb.append("VALUES(").append(column).append("), ");
+                sb.append(column).append("), ");
+            }
+
+            sb.append("item_timestamp = ").append(condition);
+            sb.append("current_timestamp, item_timestamp), ");
+            sb.append("deleted = ").append(condition);
+            sb.append("false, deleted), ");
+            sb.append(COLUMN_ID_TRANS).append(" = ").append(condition);
+            sb.append("VALUES(").append(COLUMN_ID_TRANS).append("), ");
+            sb.append(COLUMN_ID_TRANS).append(')');
+        } else {
+            appendOnConflict(sb, table, key, columns);
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Creates statement that merges rows of staging table into the target
+     * table. If the items have a key, only the row with the highest
+     * transaction id (the last one of them in case of equal ids) is merged
+     * for each key and existing rows are updated the same way as by upsert.
+     * Otherwise all rows are inserted.
+     *
+     * @param table        name of the target table
+     * @param columns      comma separated list of inserted columns
+     * @param key          name of the key column or null
+     * @param stagingTable name of the staging table
+     *
+     * @return merge statement
+     */
+    static String createMergeSql(final String table, final String columns,
+            final String key, final String stagingTable) {
+        final StringBuilder sb = new StringBuilder(columns.length() * 4);
+        sb.append("INSERT INTO ").append(table).append(" (").append(columns);
+        sb.append(") SELECT ").append(columns).append(" FROM ");
+
+        if (key == null) {
+            sb.append(stagingTable);
+
+            return sb.toString();
+        }
+
+        sb.append("(SELECT DISTINCT ON (").append(key).append(") * FROM ");
+        sb.append(stagingTable).append(" ORDER BY ").append(key).append(", ");
+        sb.append(COLUMN_ID_TRANS).append(" DESC NULLS LAST, ");
+        sb.append(COLUMN_STAGING_SEQ).append(" DESC) s");
+        appendOnConflict(sb, table, key, getUpdatedColumns(columns, key));
+
+        return sb.toString();
+    }
+
+    /**
+     * Creates statement that advances transaction id of rows that were not
+     * updated by merge statement because their hash did not change. Rows that
+     * were updated already have the highest staged transaction id so they
+     * are not changed by the statement.
+     *
+     * @param table        name of the target table
+     * @param key          name of the key column
+     * @param stagingTable name of the staging table
+     *
+     * @return statement that advances transaction id
+     */
+    static String createMergeAdvanceSql(final String table, final String key,
+            final String stagingTable) {
+        return MessageFormat.format("UPDATE {0} SET {1} = s.{1} FROM "
+                + "(SELECT {2}, max({1}) AS {1} FROM {3} GROUP BY {2}) s "
+                + "WHERE {0}.{2} = s.{2} AND {0}.{1} < s.{1}",
+                table, COLUMN_ID_TRANS, key, stagingTable);
+    }
+
+    /**
+     * Returns columns that are updated when conflicting row is inserted, that
+     * is all columns except the key column and transaction id column.
+     *
+     * @param columns comma separated list of inserted columns
+     * @param key     name of the key column
+     *
+     * @return list of updated columns
+     */
+    private static List<String> getUpdatedColumns(final String columns,
+            final String key) {
+        final List<String> result = new ArrayList<>(20);
+
+        for (final String column : columns.split(",")) {
+            final String trimmed = column.trim();
+
+            if (!trimmed.equals(key) && !trimmed.equals(COLUMN_ID_TRANS)) {
+                result.add(trimmed);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Appends PostgreSQL ON CONFLICT clause that updates existing row, but
+     * only if transaction id of the inserted row is not lower than
+     * transaction id of the existing row. If row_hash column is updated, the
+     * row is updated only if the hash differs or the row is marked as
+     * deleted.
+     *
+     * @param sb      string builder
+     * @param table   table name
+     * @param key     name of the key column
+     * @param columns updated columns
+     */
+    private static void appendOnConflict(final StringBuilder sb,
+            final String table, final String key, final List<String> columns) {
+        sb.append(" ON CONFLICT (").append(key).append(") DO UPDATE SET ");
+
+        for (final String column : columns) {
+            sb.append(column).append(" = EXCLUDED.").append(column);
+            sb.append(", ");
+        }
+
+        sb.append(COLUMN_ID_TRANS).append(" = EXCLUDED.");
+        sb.append(COLUMN_ID_TRANS);
+        sb.append(", item_timestamp = timezone('utc', now()), ");
+        sb.append("deleted = false WHERE ").append(table).append('.');
+        sb.append(COLUMN_ID_TRANS).append(" <= EXCLUDED.");
+        sb.append(COLUMN_ID_TRANS);
+
+        if (columns.contains(RowHashStatement.COLUMN_ROW_HASH)) {
+            sb.append(" AND (").append(table).append('.');
+            sb.append(RowHashStatement.COLUMN_ROW_HASH);
+            sb.append(" IS DISTINCT FROM EXCLUDED.");
+            sb.append(RowHashStatement.COLUMN_ROW_HASH).append(" OR ");
+            sb.append(table).append(".deleted)");
+        }
+    }
+
     /**
      * Formats geometry in SQL statement.
      *
@@ -207,7 +1121,9 @@ public abstract class AbstractSaveConvertor<T> implements Convertor {
         }
 
 	String geomFunction;
-        if (Config.isConvertToEWKT()) {
+        if (Config.isConvertToEWKB()) {
+            geomFunction = "ST_GeomFromEWKB";
+        } else if (Config.isConvertToEWKT()) {
             geomFunction = "ST_GeomFromEWKT";
         } else {
             geomFunction = "ST_GeomFromGML";
@@ -240,6 +1156,48 @@ public abstract class AbstractSaveConvertor<T> implements Convertor {
             return;
         }
 
+        if (stagingTable != null) {
+            insertItem(item);
+
+            return;
+        }
+
+        if (index != null && getItemKey(item) != null) {
+            saveIndexedData(item);
+
+            return;
+        }
+
+        if (upsert) {
+            insertItem(item);
+
+            return;
+        }
+
+        if (copiedKeys != null) {
+            final Number key = getItemKey(item);
+
+            final boolean added;
+
+            if (key == null) {
+                added = false;
+            } else {
+                synchronized (copiedKeys) {
+                    added = copiedKeys.add(key.longValue());
+                }
+            }
+
+            if (added) {
+                insertItem(item);
+
+                return;
+            }
+        }
+
+        if (isPending(getItemKey(item))) {
+            flush();
+        }
+
         if (exists(item)) {
             updateItem(item);
         } else {
@@ -247,6 +1205,45 @@ public abstract class AbstractSaveConvertor<T> implements Convertor {
         }
     }
 
+    /**
+     * Saves the item data into database using {@link #index} instead of
+     * querying the database. Items that are older than the stored ones are
+     * skipped, new items are inserted and other items are updated.
+     *
+     * @param item item to be saved
+     *
+     * @throws SQLException Thrown if problem occurred while saving item into
+     *                      database.
+     */
+    private void saveIndexedData(final T item) throws SQLException {
+        final long key = getItemKey(item).longValue();
+        final Long idTrans = ((ItemWithIdTransRuian) item).getIdTransRuian();
+        final long storedIdTrans;
+
+        synchronized (index) {
+            storedIdTrans = index.get(key);
+
+            if (storedIdTrans != OffHeapLongLongMap.NO_VALUE
+                    && (idTrans == null || idTrans < storedIdTrans)) {
+                return;
+            }
+
+            index.put(key, idTrans == null ? 0 : idTrans);
+        }
+
+        if (upsert || storedIdTrans == OffHeapLongLongMap.NO_VALUE) {
+            insertItem(item);
+        } else {
+            // the same transaction can be applied again, possibly while the
+            // previous statement of the item is still pending in a batch
+            if (isPending(key)) {
+                flush();
+            }
+
+            updateItem(item);
+        }
+    }
+
     /**
      * Checks whether item already exists.
      * {@link #fillExists(java.sql.PreparedStatement, java.lang.Object)} is
@@ -271,32 +1268,246 @@ public abstract class AbstractSaveConvertor<T> implements Convertor {
     /**
      * Inserts item into database. Before statement execution,
      * {@link #fill(java.sql.PreparedStatement, java.lang.Object, boolean)} is
-     * called to get prepared statement parameters filled.
+     * called to get prepared statement parameters filled. Items whose
+     * Geometrie element was skipped are never inserted as their geometries
+     * would be lost.
      *
      * @param item item to be saved
      *
      * @throws SQLException Thrown if problem occurred while communicating with
-     *                      database.
+     *                      database or if Geometrie of the item was skipped.
      */
     protected void insertItem(final T item) throws SQLException {
+        final boolean geometrySkipped;
+
+        synchronized (geometrySkippedItems) {
+            geometrySkipped = geometrySkippedItems.contains(item);
+        }
+
+        if (geometrySkipped) {
+            throw new SQLException(clazz.getSimpleName() + " with key "
+                    + getItemKey(item) + " does not exist in database but "
+                    + "its Geometrie was skipped because it was in the index");
+        }
+
         pstmInsert.clearParameters();
         fill(pstmInsert, item, false);
-        pstmInsert.execute();
+        execute(pstmInsert, insertBatchKeys, item);
     }
 
     /**
      * Updates item in database. Before statement execution,
      * {@link #fill(java.sql.PreparedStatement, java.lang.Object, boolean)} is
-     * called to get prepared statement parameters filled.
+     * called to get prepared statement parameters filled. If graphics of the
+     * item did not change, geometries are not updated.
      *
      * @param item item to be saved
      *
      * @throws SQLException
      */
     protected void updateItem(final T item) throws SQLException {
-        pstmUpdate.clearParameters();
-        fill(pstmUpdate, item, true);
-        pstmUpdate.execute();
+        if (isGeometryUnchanged(item)) {
+            pstmUpdateNoGeometry.clearParameters();
+            fill(pstmUpdateNoGeometry, item, true);
+            execute(pstmUpdateNoGeometry, updateNoGeometryBatchKeys, item);
+        } else {
+            pstmUpdate.clearParameters();
+            fill(pstmUpdate, item, true);
+            execute(pstmUpdate, updateBatchKeys, item);
+        }
+    }
+
+    /**
+     * Checks whether graphics of the item did not change according to its
+     * ZmenaGrafiky and geometries of the item do not need to be written.
+     *
+     * @param item item
+     *
+     * @return true if geometries of the item do not need to be written,
+     *         otherwise false
+     */
+    protected boolean isGeometryUnchanged(final T item) {
+        return pstmUpdateNoGeometry != null && Boolean.FALSE.equals(
+                ((ItemWithZmenaGrafiky) item).getZmenaGrafiky());
+    }
+
+    /**
+     * Checks whether geometries are bound to the prepared statement. They are
+     * not bound if --no-gis is used or if the statement does not update
+     * geometries because graphics of the item did not change.
+     *
+     * @param pstm prepared statement
+     *
+     * @return true if geometries are bound, otherwise false
+     */
+    protected boolean isGeometryBound(final PreparedStatement pstm) {
+        return !Config.isNoGis() && pstm != pstmUpdateNoGeometry;
+    }
+
+    /**
+     * Processes Geometrie element. If graphics of the item did not change and
+     * the item is known to exist in database according to {@link #index}, the
+     * element is skipped without parsing, otherwise it is processed by
+     * {@link Utils#processGeometrie(javax.xml.stream.XMLStreamReader, java.sql.Connection, java.lang.Object, java.lang.String)}.
+     * If ZmenaGrafiky follows Geometrie in the item element or the item might
+     * not exist, the element is parsed, but the geometries are still not
+     * written on update.
+     *
+     * @param reader    XML stream reader
+     * @param item      item
+     * @param namespace namespace of Geometrie element
+     *
+     * @throws XMLStreamException Thrown if problem occurred while reading XML
+     *                            stream.
+     */
+    protected void processGeometrie(final XMLStreamReader reader,
+            final T item, final String namespace) throws XMLStreamException {
+        if (index != null && isGeometryUnchanged(item)
+                && getItemKey(item) != null && mayExist(getItemKey(item))) {
+            synchronized (geometrySkippedItems) {
+                geometrySkippedItems.add(item);
+            }
+
+            XMLUtils.skipCurrentElement(reader);
+        } else {
+            Utils.processGeometrie(reader, connection, item, namespace);
+        }
+    }
+
+    /**
+     * Executes the statement or adds it to the batch if batch mode is enabled.
+     * If the batch is full, all pending batches are executed.
+     *
+     * @param pstm      prepared statement
+     * @param batchKeys keys of items in the batch of the prepared statement
+     * @param item      item that is being saved
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    private void execute(final PreparedStatement pstm,
+            final List<Number> batchKeys, final T item) throws SQLException {
+        // synchronizer collects the items itself and writes them in batches
+        if (!copy && stagingTable == null && (!Config.isBatchMode()
+                || subItemsSynchronizer != null)) {
+            pstm.execute();
+
+            return;
+        }
+
+        final Number key = getItemKey(item);
+
+        pstm.addBatch();
+        batchKeys.add(key);
+
+        if (key != null) {
+            pendingKeys.add(key.longValue());
+        }
+
+        if (stagingTable != null) {
+            stagedCount++;
+        }
+
+        if (insertBatchKeys.size() + updateBatchKeys.size()
+                + updateNoGeometryBatchKeys.size() >= getBatchSize()) {
+            if (stagingTable != null) {
+                // staged items are merged at the end of the collection
+                executeBatch(pstmInsert, insertBatchKeys, "stage");
+            } else if (parentConvertor != null) {
+                parentConvertor.flush();
+            } else {
+                flush();
+            }
+        }
+    }
+
+    /**
+     * Returns number of statements after which the batches are executed.
+     * Rows loaded using COPY and rows saved to staging table are sent in
+     * larger chunks.
+     *
+     * @return batch size
+     */
+    private int getBatchSize() {
+        return copy || stagingTable != null
+                ? Math.max(Config.getBatchSize(), COPY_BATCH_SIZE)
+                : Config.getBatchSize();
+    }
+
+    /**
+     * Executes batch of the prepared statement. If the batch fails, exception
+     * contains information about the item at which the batch failed.
+     *
+     * @param pstm      prepared statement
+     * @param batchKeys keys of items in the batch
+     * @param operation name of the operation for error reporting
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    private void executeBatch(final PreparedStatement pstm,
+            final List<Number> batchKeys, final String operation)
+            throws SQLException {
+        if (batchKeys.isEmpty()) {
+            return;
+        }
+
+        try {
+            pstm.executeBatch();
+        } catch (final BatchUpdateException ex) {
+            final int index = getFailedIndex(ex.getUpdateCounts());
+            final Number key =
+                    index < batchKeys.size() ? batchKeys.get(index) : null;
+            final SQLException cause = ex.getNextException() == null
+                    ? ex : ex.getNextException();
+
+            throw new SQLException(MessageFormat.format(
+                    "Failed to {0} {1} {2} (item {3} of {4} in batch): {5}",
+                    operation, clazz.getSimpleName(),
+                    key == null ? "" : "with key " + key, index + 1,
+                    batchKeys.size(), cause.getMessage()),
+                    cause.getSQLState(), ex);
+        } finally {
+            batchKeys.clear();
+        }
+    }
+
+    /**
+     * Finds index of the first failed statement in the batch. Some drivers
+     * return update counts only for statements that were executed before the
+     * failure, others mark failed statements with
+     * {@link Statement#EXECUTE_FAILED}.
+     *
+     * @param updateCounts update counts returned by the driver
+     *
+     * @return index of the first failed statement
+     */
+    private static int getFailedIndex(final int[] updateCounts) {
+        if (updateCounts == null) {
+            return 0;
+        }
+
+        for (int i = 0; i < updateCounts.length; i++) {
+            if (updateCounts[i] == Statement.EXECUTE_FAILED) {
+                return i;
+            }
+        }
+
+        return updateCounts.length;
+    }
+
+    /**
+     * Returns value of the key (kod or id) of the item that is used for
+     * identification of the item in error messages and for tracking of
+     * pending items. Default implementation returns null which means that the
+     * item has no key.
+     *
+     * @param item item
+     *
+     * @return item key or null
+     */
+    protected Number getItemKey(final T item) {
+        return null;
     }
 
     /**
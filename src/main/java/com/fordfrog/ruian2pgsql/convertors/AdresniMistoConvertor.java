@@ -21,7 +21,6 @@
  */
 package com.fordfrog.ruian2pgsql.convertors;
 
-import com.fordfrog.ruian2pgsql.Config;
 import com.fordfrog.ruian2pgsql.containers.AdresniMisto;
 import com.fordfrog.ruian2pgsql.utils.Namespaces;
 import com.fordfrog.ruian2pgsql.utils.PreparedStatementEx;
@@ -110,25 +109,28 @@ public class AdresniMistoConvertor extends AbstractSaveConvertor<AdresniMisto> {
     @SuppressWarnings("ValueOfIncrementOrDecrementUsed")
     protected void fill(final PreparedStatement pstm, final AdresniMisto item,
             final boolean update) throws SQLException {
-        final PreparedStatementEx pstmEx = new PreparedStatementEx(pstm);
+        final PreparedStatementEx pstmEx = getPreparedStatementEx(pstm);
         int index = 1;
-        pstmEx.setBoolean(index++, item.getNespravny());
-        pstmEx.setInt(index++, item.getAdrpPsc());
-        pstmEx.setInt(index++, item.getUliceKod());
-        pstmEx.setInt(index++, item.getVoKod());
-        pstm.setInt(index++, item.getStavobjKod());
-        pstm.setInt(index++, item.getCisloDomovni());
-        pstmEx.setInt(index++, item.getCisloOrientacniHodnota());
+        pstmEx.setBoolean(index++, item.getNespravny(), item.isNespravnyNull());
+        pstmEx.setInt(index++, item.getAdrpPsc(), item.isAdrpPscNull());
+        pstmEx.setInt(index++, item.getUliceKod(), item.isUliceKodNull());
+        pstmEx.setInt(index++, item.getVoKod(), item.isVoKodNull());
+        pstmEx.setInt(index++, item.getStavobjKod(), item.isStavobjKodNull());
+        pstmEx.setInt(index++, item.getCisloDomovni(),
+                item.isCisloDomovniNull());
+        pstmEx.setInt(index++, item.getCisloOrientacniHodnota(),
+                item.isCisloOrientacniHodnotaNull());
         pstm.setString(index++, item.getCisloOrientacniPismeno());
         pstm.setLong(index++, item.getIdTransRuian());
         pstmEx.setDate(index++, item.getPlatiOd());
         pstmEx.setBoolean(index++, item.getZmenaGrafiky());
-        pstm.setLong(index++, item.getNzIdGlobalni());
+        pstmEx.setLong(index++, item.getNzIdGlobalni(),
+                item.isNzIdGlobalniNull());
 
-        if (!Config.isNoGis()) {
-            pstm.setString(index++, item.getDefinicniBod());
-            pstm.setString(index++, item.getZachranka());
-            pstm.setString(index++, item.getHasici());
+        if (isGeometryBound(pstm)) {
+            pstmEx.setGeometry(index++, item.getDefinicniBod());
+            pstmEx.setGeometry(index++, item.getZachranka());
+            pstmEx.setGeometry(index++, item.getHasici());
         }
 
         pstm.setInt(index++, item.getKod());
@@ -144,6 +146,11 @@ public class AdresniMistoConvertor extends AbstractSaveConvertor<AdresniMisto> {
         pstm.setInt(1, item.getKod());
     }
 
+    @Override
+    protected Number getItemKey(final AdresniMisto item) {
+        return item.getKod();
+    }
+
     @Override
     protected void processElement(final XMLStreamReader reader,
             final AdresniMisto item) throws XMLStreamException {
@@ -151,42 +158,36 @@ public class AdresniMistoConvertor extends AbstractSaveConvertor<AdresniMisto> {
             case NAMESPACE:
                 switch (reader.getLocalName()) {
                     case "CisloDomovni":
-                        item.setCisloDomovni(
-                                Integer.parseInt(reader.getElementText()));
+                        item.setCisloDomovni(XMLUtils.readInt(reader));
                         break;
                     case "CisloOrientacni":
                         item.setCisloOrientacniHodnota(
-                                Integer.parseInt(reader.getElementText()));
+                                XMLUtils.readInt(reader));
                         break;
                     case "CisloOrientacniPismeno":
                         item.setCisloOrientacniPismeno(reader.getElementText());
                         break;
                     case "Geometrie":
-                        Utils.processGeometrie(
-                                reader, getConnection(), item, NAMESPACE);
+                        processGeometrie(reader, item, NAMESPACE);
                         break;
                     case "GlobalniIdNavrhuZmeny":
-                        item.setNzIdGlobalni(
-                                Long.parseLong(reader.getElementText()));
+                        item.setNzIdGlobalni(XMLUtils.readLong(reader));
                         break;
                     case "IdTransakce":
-                        item.setIdTransRuian(
-                                Long.parseLong(reader.getElementText()));
+                        item.setIdTransRuian(XMLUtils.readLong(reader));
                         break;
                     case "Kod":
-                        item.setKod(Integer.parseInt(reader.getElementText()));
+                        item.setKod(XMLUtils.readInt(reader));
                         break;
                     case "Nespravny":
-                        item.setNespravny(
-                                Boolean.valueOf(reader.getElementText()));
+                        item.setNespravny(XMLUtils.readBoolean(reader));
                         break;
                     case "PlatiOd":
                         item.setPlatiOd(
                                 Utils.parseTimestamp(reader.getElementText()));
                         break;
                     case "Psc":
-                        item.setAdrpPsc(
-                                Integer.parseInt(reader.getElementText()));
+                        item.setAdrpPsc(XMLUtils.readInt(reader));
                         break;
                     case "StavebniObjekt":
                         item.setStavobjKod(
@@ -196,7 +197,10 @@ public class AdresniMistoConvertor extends AbstractSaveConvertor<AdresniMisto> {
                         item.setUliceKod(Utils.getUliceKod(reader, NAMESPACE));
                         break;
                     case "VOKod":
-                        item.setVoKod(Integer.parseInt(reader.getElementText()));
+                        item.setVoKod(XMLUtils.readInt(reader));
+                        break;
+                    case "ZmenaGrafiky":
+                        item.setZmenaGrafiky(XMLUtils.readBoolean(reader));
                         break;
                     default:
                         XMLUtils.processUnsupported(reader);
@@ -23,6 +23,7 @@ package com.fordfrog.ruian2pgsql.convertors;
 
 import com.fordfrog.ruian2pgsql.containers.BonitovanyDil;
 import com.fordfrog.ruian2pgsql.utils.Namespaces;
+import com.fordfrog.ruian2pgsql.utils.PreparedStatementEx;
 import com.fordfrog.ruian2pgsql.utils.XMLUtils;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -69,11 +70,12 @@ public class BonitovanyDilConvertor
     @Override
     protected void fill(final PreparedStatement pstm, final BonitovanyDil item,
             final boolean update) throws SQLException {
-        pstm.setLong(1, parcelaId);
-        pstm.setInt(2, item.getBpejKod());
-        pstm.setInt(3, item.getVymera());
+        final PreparedStatementEx pstmEx = getPreparedStatementEx(pstm);
+        pstm.setLong(1, item.getParcelaId());
+        pstmEx.setInt(2, item.getBpejKod(), item.isBpejKodNull());
+        pstmEx.setInt(3, item.getVymera(), item.isVymeraNull());
         pstm.setLong(4, item.getIdTransRuian());
-        pstm.setLong(5, item.getRizeniId());
+        pstmEx.setLong(5, item.getRizeniId(), item.isRizeniIdNull());
     }
 
     @Override
@@ -82,6 +84,30 @@ public class BonitovanyDilConvertor
         // we do not set any parameters as we always return empty result set
     }
 
+    /**
+     * Returns id of parent Parcela so that pending items can be looked up
+     * by the parent.
+     *
+     * @param item item
+     *
+     * @return id of parent Parcela
+     */
+    @Override
+    protected Number getItemKey(final BonitovanyDil item) {
+        return item.getParcelaId();
+    }
+
+    /**
+     * Sets id of parent Parcela to the item, as the item might be saved
+     * after {@link #parcelaId} is changed for next Parcela.
+     *
+     * @param item item
+     */
+    @Override
+    protected void prepareItem(final BonitovanyDil item) {
+        item.setParcelaId(parcelaId);
+    }
+
     @Override
     protected void processElement(final XMLStreamReader reader,
             final BonitovanyDil item) throws XMLStreamException {
@@ -89,21 +115,17 @@ public class BonitovanyDilConvertor
             case NAMESPACE:
                 switch (reader.getLocalName()) {
                     case "BonitovanaJednotkaKod":
-                        item.setBpejKod(
-                                Integer.parseInt(reader.getElementText()));
+                        item.setBpejKod(XMLUtils.readInt(reader));
                         break;
                     case "IdTransakce":
                     case "IdTranskace":
-                        item.setIdTransRuian(
-                                Long.parseLong(reader.getElementText()));
+                        item.setIdTransRuian(XMLUtils.readLong(reader));
                         break;
                     case "RizeniId":
-                        item.setRizeniId(
-                                Long.parseLong(reader.getElementText()));
+                        item.setRizeniId(XMLUtils.readLong(reader));
                         break;
                     case "Vymera":
-                        item.setVymera(
-                                Integer.parseInt(reader.getElementText()));
+                        item.setVymera(XMLUtils.readInt(reader));
                         break;
                     default:
                         XMLUtils.processUnsupported(reader);
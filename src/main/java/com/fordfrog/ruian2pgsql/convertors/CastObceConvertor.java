@@ -21,7 +21,6 @@
  */
 package com.fordfrog.ruian2pgsql.convertors;
 
-import com.fordfrog.ruian2pgsql.Config;
 import com.fordfrog.ruian2pgsql.containers.CastObce;
 import com.fordfrog.ruian2pgsql.utils.Namespaces;
 import com.fordfrog.ruian2pgsql.utils.PreparedStatementEx;
@@ -110,11 +109,11 @@ public class CastObceConvertor extends AbstractSaveConvertor<CastObce> {
     @SuppressWarnings("ValueOfIncrementOrDecrementUsed")
     protected void fill(final PreparedStatement pstm, final CastObce item,
             final boolean update) throws SQLException {
-        final PreparedStatementEx pstmEx = new PreparedStatementEx(pstm);
+        final PreparedStatementEx pstmEx = getPreparedStatementEx(pstm);
         int index = 1;
         pstm.setString(index++, item.getNazev());
-        pstmEx.setBoolean(index++, item.getNespravny());
-        pstm.setInt(index++, item.getObecKod());
+        pstmEx.setBoolean(index++, item.getNespravny(), item.isNespravnyNull());
+        pstmEx.setInt(index++, item.getObecKod(), item.isObecKodNull());
         pstm.setString(index++, item.getMluvCharPad2());
         pstm.setString(index++, item.getMluvCharPad3());
         pstm.setString(index++, item.getMluvCharPad4());
@@ -124,11 +123,12 @@ public class CastObceConvertor extends AbstractSaveConvertor<CastObce> {
         pstm.setLong(index++, item.getIdTransRuian());
         pstmEx.setBoolean(index++, item.getZmenaGrafiky());
         pstmEx.setDate(index++, item.getPlatiOd());
-        pstm.setLong(index++, item.getNzIdGlobalni());
+        pstmEx.setLong(index++, item.getNzIdGlobalni(),
+                item.isNzIdGlobalniNull());
 
-        if (!Config.isNoGis()) {
-            pstm.setString(index++, item.getDefinicniBod());
-            pstm.setString(index++, item.getHranice());
+        if (isGeometryBound(pstm)) {
+            pstmEx.setGeometry(index++, item.getDefinicniBod());
+            pstmEx.setGeometry(index++, item.getHranice());
         }
         pstmEx.setDate(index++, item.getDatumVzniku());
 
@@ -145,6 +145,11 @@ public class CastObceConvertor extends AbstractSaveConvertor<CastObce> {
         pstm.setInt(1, item.getKod());
     }
 
+    @Override
+    protected Number getItemKey(final CastObce item) {
+        return item.getKod();
+    }
+
     @Override
     protected void processElement(final XMLStreamReader reader,
             final CastObce item) throws XMLStreamException {
@@ -156,19 +161,16 @@ public class CastObceConvertor extends AbstractSaveConvertor<CastObce> {
                                 Utils.parseTimestamp(reader.getElementText()));
                         break;
                     case "Geometrie":
-                        Utils.processGeometrie(
-                                reader, getConnection(), item, NAMESPACE);
+                        processGeometrie(reader, item, NAMESPACE);
                         break;
                     case "GlobalniIdNavrhuZmeny":
-                        item.setNzIdGlobalni(
-                                Long.parseLong(reader.getElementText()));
+                        item.setNzIdGlobalni(XMLUtils.readLong(reader));
                         break;
                     case "IdTransakce":
-                        item.setIdTransRuian(
-                                Long.parseLong(reader.getElementText()));
+                        item.setIdTransRuian(XMLUtils.readLong(reader));
                         break;
                     case "Kod":
-                        item.setKod(Integer.parseInt(reader.getElementText()));
+                        item.setKod(XMLUtils.readInt(reader));
                         break;
                     case "MluvnickeCharakteristiky":
                         Utils.processMluvnickeCharakteristiky(
@@ -178,8 +180,7 @@ public class CastObceConvertor extends AbstractSaveConvertor<CastObce> {
                         item.setNazev(reader.getElementText());
                         break;
                     case "Nespravny":
-                        item.setNespravny(
-                                Boolean.valueOf(reader.getElementText()));
+                        item.setNespravny(XMLUtils.readBoolean(reader));
                         break;
                     case "Obec":
                         item.setObecKod(Utils.getObecKod(reader, NAMESPACE));
@@ -188,6 +189,9 @@ public class CastObceConvertor extends AbstractSaveConvertor<CastObce> {
                         item.setPlatiOd(
                                 Utils.parseTimestamp(reader.getElementText()));
                         break;
+                    case "ZmenaGrafiky":
+                        item.setZmenaGrafiky(XMLUtils.readBoolean(reader));
+                        break;
                     default:
                         XMLUtils.processUnsupported(reader);
                 }
@@ -0,0 +1,347 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.convertors;
+
+import com.fordfrog.ruian2pgsql.Config;
+import com.fordfrog.ruian2pgsql.utils.Log;
+import com.fordfrog.ruian2pgsql.utils.OffHeapLongLongMap;
+import com.fordfrog.ruian2pgsql.utils.XMLUtils;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Coalesces changes from sequence of input files. Before the files are
+ * converted, all of them are scanned and for each item (identified by item
+ * type and its key) the file containing the latest version of the item (by
+ * IdTransakce) is found, including ZaniklyPrvek tombstones. During conversion
+ * the older versions are skipped, so each item is written to database only
+ * once. Only keys, transaction ids and file indexes are stored, off-heap, so
+ * memory usage does not depend on size of the items.
+ *
+ * @author fordfrog
+ */
+public class ChangeCoalescer {
+
+    /**
+     * Depth of item elements in the document (root element has depth 1).
+     */
+    private static final int ITEM_DEPTH = 4;
+    /**
+     * Number of bits used for file index in values of {@link #LATEST}.
+     */
+    private static final int FILE_INDEX_BITS = 16;
+    /**
+     * Mask of file index in values of {@link #LATEST}.
+     */
+    private static final long FILE_INDEX_MASK = (1L << FILE_INDEX_BITS) - 1;
+    /**
+     * Item types (local names of item elements) by TypPrvkuKod of
+     * ZaniklyPrvek.
+     */
+    private static final Map<String, String> TYPES = new HashMap<>(32);
+    /**
+     * Latest versions of items by item type. Keys are item keys, values
+     * contain transaction id in upper bits and file index in lower
+     * {@link #FILE_INDEX_BITS} bits.
+     */
+    private static final Map<String, OffHeapLongLongMap> LATEST =
+            new HashMap<>(32);
+    /**
+     * Indexes of scanned files.
+     */
+    private static final Map<Path, Integer> FILE_INDEXES = new HashMap<>(64);
+    /**
+     * Index of file that is being converted by current thread or null if it
+     * is not known.
+     */
+    private static final ThreadLocal<Integer> CURRENT_FILE =
+            new ThreadLocal<>();
+
+    static {
+        TYPES.put("ST", "Stat");
+        TYPES.put("RS", "RegionSoudrznosti");
+        TYPES.put("KR", "Kraj");
+        TYPES.put("VC", "Vusc");
+        TYPES.put("OK", "Okres");
+        TYPES.put("OP", "Orp");
+        TYPES.put("PU", "Pou");
+        TYPES.put("OB", "Obec");
+        TYPES.put("SP", "SpravniObvod");
+        TYPES.put("MP", "Mop");
+        TYPES.put("MC", "Momc");
+        TYPES.put("KU", "KatastralniUzemi");
+        TYPES.put("ZJ", "Zsj");
+        TYPES.put("VO", "VO");
+        TYPES.put("AD", "AdresniMisto");
+        TYPES.put("CO", "CastObce");
+        TYPES.put("SO", "StavebniObjekt");
+        TYPES.put("PA", "Parcela");
+        TYPES.put("UL", "Ulice");
+    }
+
+    /**
+     * Creates new instance of ChangeCoalescer.
+     */
+    private ChangeCoalescer() {
+    }
+
+    /**
+     * Scans the files and finds latest versions of items. Files must be
+     * sorted in the order in which they are converted.
+     *
+     * @param files input files
+     *
+     * @throws XMLStreamException Thrown if problem occurred while reading XML
+     *                            stream.
+     */
+    public static void scan(final List<Path> files) throws XMLStreamException {
+        final long startTimestamp = System.currentTimeMillis();
+        final XMLInputFactory xMLInputFactory = XMLInputFactory.newInstance();
+        long versions = 0;
+
+        if (files.size() > FILE_INDEX_MASK) {
+            throw new RuntimeException(
+                    "Too many input files for coalescing: " + files.size());
+        }
+
+        synchronized (LATEST) {
+            LATEST.clear();
+            FILE_INDEXES.clear();
+
+            for (int i = 0; i < files.size(); i++) {
+                final Path file = files.get(i);
+
+                if (!FileConvertor.isInputFile(file)) {
+                    continue;
+                }
+
+                Log.write("Scanning file " + file);
+                Log.flush();
+
+                FILE_INDEXES.put(file, i);
+
+                try (final InputStream inputStream =
+                        FileConvertor.openInputStream(file)) {
+                    final XMLStreamReader reader = xMLInputFactory.
+                            createXMLStreamReader(inputStream, "UTF-8");
+
+                    try {
+                        versions += scanFile(reader, i);
+                    } finally {
+                        reader.close();
+                    }
+                } catch (final IOException ex) {
+                    throw new RuntimeException(
+                            "Failed to read input file", ex);
+                }
+            }
+
+            long items = 0;
+
+            for (final OffHeapLongLongMap latest : LATEST.values()) {
+                items += latest.size();
+            }
+
+            Log.write("Found " + items + " items in " + versions
+                    + " item versions in " + (System.currentTimeMillis()
+                    - startTimestamp) + " ms");
+        }
+    }
+
+    /**
+     * Sets file that is being converted by current thread.
+     *
+     * @param file file path or null if no file is being converted
+     */
+    public static void setCurrentFile(final Path file) {
+        if (file == null) {
+            CURRENT_FILE.remove();
+        } else {
+            synchronized (LATEST) {
+                CURRENT_FILE.set(FILE_INDEXES.get(file));
+            }
+        }
+    }
+
+    /**
+     * Checks whether newer version of the item is contained in other file
+     * than the file that is being converted by current thread. Items in the
+     * same file are never superseded, their order is preserved.
+     *
+     * @param type item type (local name of item element)
+     * @param key  item key
+     *
+     * @return true if the item version should be skipped, otherwise false
+     */
+    public static boolean isSuperseded(final String type, final Number key) {
+        if (!Config.isCoalesce() || type == null || key == null) {
+            return false;
+        }
+
+        final Integer currentFile = CURRENT_FILE.get();
+
+        if (currentFile == null) {
+            return false;
+        }
+
+        final long value;
+
+        synchronized (LATEST) {
+            final OffHeapLongLongMap latest = LATEST.get(type);
+
+            if (latest == null) {
+                return false;
+            }
+
+            value = latest.get(key.longValue());
+        }
+
+        return value != OffHeapLongLongMap.NO_VALUE
+                && (value & FILE_INDEX_MASK) != currentFile;
+    }
+
+    /**
+     * Returns type of item that is referenced by ZaniklyPrvek.
+     *
+     * @param typPrvkuKod TypPrvkuKod of ZaniklyPrvek
+     *
+     * @return item type or null if the type is not supported
+     */
+    public static String getType(final String typPrvkuKod) {
+        return TYPES.get(typPrvkuKod);
+    }
+
+    /**
+     * Scans single file.
+     *
+     * @param reader    XML stream reader
+     * @param fileIndex index of the file
+     *
+     * @return number of found item versions
+     *
+     * @throws XMLStreamException Thrown if problem occurred while reading XML
+     *                            stream.
+     */
+    private static long scanFile(final XMLStreamReader reader,
+            final int fileIndex) throws XMLStreamException {
+        long versions = 0;
+        int depth = 0;
+        String type = null;
+        String typPrvkuKod = null;
+        long key = 0;
+        long idTrans = 0;
+        boolean hasKey = false;
+        boolean hasIdTrans = false;
+
+        while (reader.hasNext()) {
+            final int event = reader.next();
+
+            switch (event) {
+                case XMLStreamReader.START_ELEMENT:
+                    depth++;
+
+                    if (depth == ITEM_DEPTH) {
+                        type = reader.getLocalName();
+                        typPrvkuKod = null;
+                        hasKey = false;
+                        hasIdTrans = false;
+                    } else if (depth == ITEM_DEPTH + 1) {
+                        switch (reader.getLocalName()) {
+                            case "Kod":
+                            case "Id":
+                            case "PrvekId":
+                                key = XMLUtils.readLong(reader);
+                                hasKey = true;
+                                depth--;
+                                break;
+                            case "IdTransakce":
+                                idTrans = XMLUtils.readLong(reader);
+                                hasIdTrans = true;
+                                depth--;
+                                break;
+                            case "TypPrvkuKod":
+                                typPrvkuKod = reader.getElementText();
+                                depth--;
+                                break;
+                        }
+                    }
+
+                    break;
+                case XMLStreamReader.END_ELEMENT:
+                    if (depth == ITEM_DEPTH && hasKey && hasIdTrans) {
+                        final String itemType = "ZaniklyPrvek".equals(type)
+                                ? getType(typPrvkuKod)
+                                : (TYPES.containsValue(type) ? type : null);
+
+                        if (itemType != null) {
+                            register(itemType, key, idTrans, fileIndex);
+                            versions++;
+                        }
+                    }
+
+                    depth--;
+
+                    break;
+            }
+        }
+
+        return versions;
+    }
+
+    /**
+     * Registers item version if it is newer than already registered one. If
+     * versions have the same transaction id, the later one is registered.
+     *
+     * @param type      item type
+     * @param key       item key
+     * @param idTrans   transaction id
+     * @param fileIndex index of the file
+     */
+    private static void register(final String type, final long key,
+            final long idTrans, final int fileIndex) {
+        if (idTrans < 0 || idTrans > (Long.MAX_VALUE >> FILE_INDEX_BITS)) {
+            throw new RuntimeException(
+                    "Unsupported transaction id for coalescing: " + idTrans);
+        }
+
+        OffHeapLongLongMap latest = LATEST.get(type);
+
+        if (latest == null) {
+            latest = new OffHeapLongLongMap(1024);
+            LATEST.put(type, latest);
+        }
+
+        final long previous = latest.get(key);
+
+        if (previous == OffHeapLongLongMap.NO_VALUE
+                || (previous >> FILE_INDEX_BITS) <= idTrans) {
+            latest.put(key, (idTrans << FILE_INDEX_BITS) | fileIndex);
+        }
+    }
+}
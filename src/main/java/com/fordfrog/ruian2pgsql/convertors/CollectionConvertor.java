@@ -50,6 +50,11 @@ public class CollectionConvertor extends AbstractConvertor {
      * Convertor that can convert the item elements.
      */
     private final Convertor convertor;
+    /**
+     * Whether pending batches of {@link #convertor} should be executed at the
+     * end of the collection.
+     */
+    private final boolean flushOnEnd;
 
     /**
      * Creates new instance of CollectionConvertor.
@@ -65,6 +70,7 @@ public class CollectionConvertor extends AbstractConvertor {
         this.itemNamespace = NAMESPACE;
         this.itemName = itemName;
         this.convertor = convertor;
+        this.flushOnEnd = true;
     }
 
     /**
@@ -79,11 +85,54 @@ public class CollectionConvertor extends AbstractConvertor {
     public CollectionConvertor(final String namespace, final String localName,
             final String itemNamespace, final String itemName,
             final Convertor convertor) {
+        this(namespace, localName, itemNamespace, itemName, convertor, true);
+    }
+
+    /**
+     * Creates new instance of CollectionConvertor.
+     *
+     * @param namespace     namespace of the element
+     * @param localName     local name of the collection main element.
+     * @param itemNamespace item namespace
+     * @param itemName      {@link #itemName}
+     * @param convertor     {@link #convertor}
+     * @param flushOnEnd    {@link #flushOnEnd}
+     */
+    public CollectionConvertor(final String namespace, final String localName,
+            final String itemNamespace, final String itemName,
+            final Convertor convertor, final boolean flushOnEnd) {
         super(namespace, localName);
 
         this.itemNamespace = itemNamespace;
         this.itemName = itemName;
         this.convertor = convertor;
+        this.flushOnEnd = flushOnEnd;
+    }
+
+    /**
+     * Converts the collection and executes pending batches of the item
+     * convertor if {@link #flushOnEnd} is set.
+     *
+     * @param reader XML stream reader
+     *
+     * @throws XMLStreamException Thrown if problem occurred while reading XML
+     *                            stream.
+     * @throws SQLException       Thrown if problem occurred while communicating
+     *                            with database.
+     */
+    @Override
+    public void convert(final XMLStreamReader reader) throws XMLStreamException,
+            SQLException {
+        super.convert(reader);
+
+        if (flushOnEnd) {
+            convertor.flush();
+        }
+    }
+
+    @Override
+    public void flush() throws SQLException {
+        convertor.flush();
     }
 
     @Override
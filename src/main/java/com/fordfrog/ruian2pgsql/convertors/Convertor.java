@@ -44,4 +44,13 @@ public interface Convertor {
      */
     void convert(XMLStreamReader reader) throws XMLStreamException,
             SQLException;
+
+    /**
+     * Executes all statements that are pending in batches of this convertor
+     * and its sub-convertors.
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    void flush() throws SQLException;
 }
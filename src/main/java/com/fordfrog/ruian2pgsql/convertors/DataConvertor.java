@@ -175,6 +175,30 @@ public class DataConvertor extends AbstractConvertor {
 
     }
 
+    @Override
+    public void flush() throws SQLException {
+        convertorAdresniMista.flush();
+        convertorCastiObci.flush();
+        convertorKatastralniUzemi.flush();
+        convertorKraje.flush();
+        convertorMomc.flush();
+        convertorMop.flush();
+        convertorObce.flush();
+        convertorOkresy.flush();
+        convertorOrp.flush();
+        convertorParcely.flush();
+        convertorPou.flush();
+        convertorRegionySoudrznosti.flush();
+        convertorSpravniObvody.flush();
+        convertorStavebniObjekty.flush();
+        convertorStaty.flush();
+        convertorUlice.flush();
+        convertorVolebniOkrsek.flush();
+        convertorVusc.flush();
+        convertorZaniklePrvky.flush();
+        convertorZsj.flush();
+    }
+
     @Override
     protected void processElement(final XMLStreamReader reader)
             throws XMLStreamException, SQLException {
@@ -0,0 +1,278 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.convertors;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Thread that executes all database operations of single connection. XML
+ * parser thread submits the operations to the bounded queue and continues
+ * with parsing of next elements while the writer thread waits for database.
+ * If the queue is full, parser thread waits till there is a free slot in the
+ * queue. Operations are executed in the order in which they were submitted.
+ *
+ * @author fordfrog
+ */
+public class DatabaseWriter {
+
+    /**
+     * Operation that is executed by the writer thread.
+     */
+    public interface Task {
+
+        /**
+         * Executes the operation.
+         *
+         * @throws SQLException Thrown if problem occurred while communicating
+         *                      with database.
+         */
+        void run() throws SQLException;
+    }
+
+    /**
+     * Capacity of the queue.
+     */
+    private static final int QUEUE_SIZE = 1000;
+    /**
+     * Running writers by their connections.
+     */
+    private static final Map<Connection, DatabaseWriter> WRITERS =
+            new HashMap<>(10);
+    /**
+     * Task that stops the writer thread.
+     */
+    private static final Task STOP = new Task() {
+        @Override
+        public void run() {
+        }
+    };
+    /**
+     * Database connection.
+     */
+    private final Connection connection;
+    /**
+     * Queue of submitted tasks.
+     */
+    private final BlockingQueue<Task> queue =
+            new ArrayBlockingQueue<>(QUEUE_SIZE);
+    /**
+     * Writer thread.
+     */
+    private final Thread thread;
+    /**
+     * First failure of the writer thread. Once the writer fails, it skips all
+     * remaining tasks and the failure is reported to the parser thread.
+     */
+    private volatile Throwable failure;
+
+    /**
+     * Creates new instance of DatabaseWriter.
+     *
+     * @param connection {@link #connection}
+     */
+    private DatabaseWriter(final Connection connection) {
+        this.connection = connection;
+        thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                processTasks();
+            }
+        }, "ruian2pgsql-writer");
+    }
+
+    /**
+     * Starts new writer for the connection. Convertors that are created for
+     * this connection afterwards submit their database operations to this
+     * writer.
+     *
+     * @param connection database connection
+     *
+     * @return started writer
+     */
+    public static DatabaseWriter start(final Connection connection) {
+        final DatabaseWriter writer = new DatabaseWriter(connection);
+
+        synchronized (WRITERS) {
+            WRITERS.put(connection, writer);
+        }
+
+        writer.thread.start();
+
+        return writer;
+    }
+
+    /**
+     * Returns writer for the connection.
+     *
+     * @param connection database connection
+     *
+     * @return writer or null if there is no writer for the connection
+     */
+    public static DatabaseWriter get(final Connection connection) {
+        synchronized (WRITERS) {
+            return WRITERS.get(connection);
+        }
+    }
+
+    /**
+     * Checks whether current thread is the writer thread.
+     *
+     * @return true if current thread is the writer thread, otherwise false
+     */
+    public boolean isWriterThread() {
+        return Thread.currentThread() == thread;
+    }
+
+    /**
+     * Submits task to the queue. If the queue is full, waits till there is
+     * free slot in the queue.
+     *
+     * @param task task
+     *
+     * @throws SQLException Thrown if the writer failed before.
+     */
+    public void submit(final Task task) throws SQLException {
+        checkFailure();
+
+        try {
+            queue.put(task);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+
+            throw new RuntimeException("Interrupted while submitting task",
+                    ex);
+        }
+    }
+
+    /**
+     * Waits till all submitted tasks are executed.
+     *
+     * @throws SQLException Thrown if any of the tasks failed.
+     */
+    public void await() throws SQLException {
+        final Barrier barrier = new Barrier();
+
+        try {
+            queue.put(barrier);
+            barrier.latch.await();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+
+            throw new RuntimeException("Interrupted while waiting for writer",
+                    ex);
+        }
+
+        checkFailure();
+    }
+
+    /**
+     * Stops the writer thread after all submitted tasks are processed.
+     */
+    public void stop() {
+        synchronized (WRITERS) {
+            WRITERS.remove(connection);
+        }
+
+        try {
+            queue.put(STOP);
+            thread.join();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+
+            throw new RuntimeException("Interrupted while stopping writer",
+                    ex);
+        }
+    }
+
+    /**
+     * Executes tasks from the queue till the stop task is received.
+     */
+    private void processTasks() {
+        while (true) {
+            final Task task;
+
+            try {
+                task = queue.take();
+            } catch (final InterruptedException ex) {
+                return;
+            }
+
+            if (task == STOP) {
+                return;
+            }
+
+            if (failure != null && !(task instanceof Barrier)) {
+                continue;
+            }
+
+            try {
+                task.run();
+            } catch (final Throwable ex) {
+                // errors must not end the thread, otherwise threads waiting
+                // for free slot in the queue or for barrier would hang
+                failure = ex;
+            }
+        }
+    }
+
+    /**
+     * Rethrows failure of the writer thread in the calling thread.
+     *
+     * @throws SQLException Thrown if the writer failed with SQLException.
+     */
+    private void checkFailure() throws SQLException {
+        final Throwable ex = failure;
+
+        if (ex instanceof SQLException) {
+            throw (SQLException) ex;
+        } else if (ex instanceof RuntimeException) {
+            throw (RuntimeException) ex;
+        } else if (ex instanceof Error) {
+            throw (Error) ex;
+        } else if (ex != null) {
+            throw new RuntimeException("Database writer failed", ex);
+        }
+    }
+
+    /**
+     * Task that releases thread waiting for the writer. It is executed even
+     * after the writer failed.
+     */
+    private static class Barrier implements Task {
+
+        /**
+         * Latch that the waiting thread waits for.
+         */
+        private final CountDownLatch latch = new CountDownLatch(1);
+
+        @Override
+        public void run() {
+            latch.countDown();
+        }
+    }
+}
@@ -73,22 +73,28 @@ public class DetailniTEAConvertor extends AbstractSaveConvertor<DetailniTEA> {
     @Override
     protected void fill(final PreparedStatement pstm, final DetailniTEA item,
             final boolean update) throws SQLException {
-        final PreparedStatementEx pstmEx = new PreparedStatementEx(pstm);
+        final PreparedStatementEx pstmEx = getPreparedStatementEx(pstm);
         pstmEx.setInt(1, item.getKod());
-        pstm.setInt(2, stavebniObjektId);
-        pstmEx.setInt(3, item.getAdresniMistoKod());
-        pstmEx.setBoolean(4, item.getNespravny());
-        pstmEx.setInt(5, item.getPocetBytu());
-        pstmEx.setInt(6, item.getPocetPodlazi());
-        pstmEx.setInt(7, item.getDruhKonstrukceKod());
-        pstmEx.setInt(8, item.getPripojKanalSitKod());
-        pstmEx.setInt(9, item.getPripojPlynKod());
-        pstmEx.setInt(10, item.getPripojVodovodKod());
-        pstmEx.setBoolean(11, item.getPripojElEnergie());
-        pstmEx.setInt(12, item.getZpusobVytapeniKod());
+        pstm.setInt(2, item.getStavobjKod());
+        pstmEx.setInt(3, item.getAdresniMistoKod(),
+                item.isAdresniMistoKodNull());
+        pstmEx.setBoolean(4, item.getNespravny(), item.isNespravnyNull());
+        pstmEx.setInt(5, item.getPocetBytu(), item.isPocetBytuNull());
+        pstmEx.setInt(6, item.getPocetPodlazi(), item.isPocetPodlaziNull());
+        pstmEx.setInt(7, item.getDruhKonstrukceKod(),
+                item.isDruhKonstrukceKodNull());
+        pstmEx.setInt(8, item.getPripojKanalSitKod(),
+                item.isPripojKanalSitKodNull());
+        pstmEx.setInt(9, item.getPripojPlynKod(), item.isPripojPlynKodNull());
+        pstmEx.setInt(10, item.getPripojVodovodKod(),
+                item.isPripojVodovodKodNull());
+        pstmEx.setBoolean(11, item.getPripojElEnergie(),
+                item.isPripojElEnergieNull());
+        pstmEx.setInt(12, item.getZpusobVytapeniKod(),
+                item.isZpusobVytapeniKodNull());
         pstmEx.setLong(13, item.getIdTransRuian());
         pstmEx.setDate(14, item.getPlatiOd());
-        pstmEx.setLong(15, item.getNzIdGlobalni());
+        pstmEx.setLong(15, item.getNzIdGlobalni(), item.isNzIdGlobalniNull());
     }
 
     @Override
@@ -97,6 +103,30 @@ public class DetailniTEAConvertor extends AbstractSaveConvertor<DetailniTEA> {
         // we do not set any parameters as we always return empty result set
     }
 
+    /**
+     * Returns id of parent StavebniObjekt so that pending items can be looked up
+     * by the parent.
+     *
+     * @param item item
+     *
+     * @return id of parent StavebniObjekt
+     */
+    @Override
+    protected Number getItemKey(final DetailniTEA item) {
+        return item.getStavobjKod();
+    }
+
+    /**
+     * Sets id of parent StavebniObjekt to the item, as the item might be saved
+     * after {@link #stavebniObjektId} is changed for next StavebniObjekt.
+     *
+     * @param item item
+     */
+    @Override
+    protected void prepareItem(final DetailniTEA item) {
+        item.setStavobjKod(stavebniObjektId);
+    }
+
     @Override
     protected void processElement(final XMLStreamReader reader,
             final DetailniTEA item) throws XMLStreamException {
@@ -108,51 +138,41 @@ public class DetailniTEAConvertor extends AbstractSaveConvertor<DetailniTEA> {
                                 Utils.getAdresniMistoKod(reader, NAMESPACE));
                         break;
                     case "DruhKonstrukceKod":
-                        item.setDruhKonstrukceKod(
-                                Integer.parseInt(reader.getElementText()));
+                        item.setDruhKonstrukceKod(XMLUtils.readInt(reader));
                         break;
                     case "GlobalniIdNavrhuZmeny":
-                        item.setNzIdGlobalni(
-                                Long.parseLong(reader.getElementText()));
+                        item.setNzIdGlobalni(XMLUtils.readLong(reader));
                         break;
                     case "IdTransakce":
-                        item.setIdTransRuian(
-                                Long.parseLong(reader.getElementText()));
+                        item.setIdTransRuian(XMLUtils.readLong(reader));
                         break;
                     case "Kod":
-                        item.setKod(Integer.parseInt(reader.getElementText()));
+                        item.setKod(XMLUtils.readInt(reader));
                         break;
                     case "Nespravny":
-                        item.setNespravny(
-                                Boolean.valueOf(reader.getElementText()));
+                        item.setNespravny(XMLUtils.readBoolean(reader));
                         break;
                     case "PlatiOd":
                         item.setPlatiOd(
                                 Utils.parseTimestamp(reader.getElementText()));
                         break;
                     case "PocetBytu":
-                        item.setPocetBytu(
-                                Integer.parseInt(reader.getElementText()));
+                        item.setPocetBytu(XMLUtils.readInt(reader));
                         break;
                     case "PocetPodlazi":
-                        item.setPocetPodlazi(
-                                Integer.parseInt(reader.getElementText()));
+                        item.setPocetPodlazi(XMLUtils.readInt(reader));
                         break;
                     case "PripojeniKanalizaceKod":
-                        item.setPripojKanalSitKod(
-                                Integer.parseInt(reader.getElementText()));
+                        item.setPripojKanalSitKod(XMLUtils.readInt(reader));
                         break;
                     case "PripojeniPlynKod":
-                        item.setPripojPlynKod(
-                                Integer.parseInt(reader.getElementText()));
+                        item.setPripojPlynKod(XMLUtils.readInt(reader));
                         break;
                     case "PripojeniVodovodKod":
-                        item.setPripojVodovodKod(
-                                Integer.parseInt(reader.getElementText()));
+                        item.setPripojVodovodKod(XMLUtils.readInt(reader));
                         break;
                     case "ZpusobVytapeniKod":
-                        item.setZpusobVytapeniKod(
-                                Integer.parseInt(reader.getElementText()));
+                        item.setZpusobVytapeniKod(XMLUtils.readInt(reader));
                         break;
                     default:
                         XMLUtils.processUnsupported(reader);
@@ -63,6 +63,12 @@ public class ExchangeFormatConvertor extends AbstractConvertor {
         hlavickaConvertor = new HlavickaConvertor(con);
     }
 
+    @Override
+    public void flush() throws SQLException {
+        hlavickaConvertor.flush();
+        dataConvertor.flush();
+    }
+
     @Override
     protected void processElement(final XMLStreamReader reader)
             throws XMLStreamException, SQLException {
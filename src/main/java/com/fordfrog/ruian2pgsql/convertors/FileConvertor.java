@@ -0,0 +1,283 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.convertors;
+
+import com.fordfrog.ruian2pgsql.Config;
+import com.fordfrog.ruian2pgsql.utils.Log;
+import com.fordfrog.ruian2pgsql.utils.Namespaces;
+import com.fordfrog.ruian2pgsql.utils.XMLUtils;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UnsupportedEncodingException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Converts input files into database. Each instance has its own database
+ * connection and its own tree of convertors so that more files can be
+ * converted concurrently using more instances.
+ *
+ * @author fordfrog
+ */
+public class FileConvertor {
+
+    /**
+     * Database connection.
+     */
+    private final Connection connection;
+    /**
+     * Writer that executes database operations or null if the operations are
+     * executed by the thread that reads the XML.
+     */
+    private final DatabaseWriter writer;
+    /**
+     * Exchange format convertor instance.
+     */
+    private final ExchangeFormatConvertor exchangeFormatConvertor;
+    /**
+     * Special exchange format convertor instance.
+     */
+    private final SpecialExchangeFormatConvertor specialExchangeFormatConvertor;
+
+    /**
+     * Creates new instance of FileConvertor.
+     *
+     * @param connection {@link #connection}
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    public FileConvertor(final Connection connection) throws SQLException {
+        this.connection = connection;
+        writer = Config.isPipeline() ? DatabaseWriter.start(connection) : null;
+        exchangeFormatConvertor = new ExchangeFormatConvertor(connection);
+        specialExchangeFormatConvertor =
+                new SpecialExchangeFormatConvertor(connection);
+    }
+
+    /**
+     * Getter for {@link #connection}.
+     *
+     * @return {@link #connection}
+     */
+    public Connection getConnection() {
+        return connection;
+    }
+
+    /**
+     * Processes single input file and commits the data.
+     *
+     * @param file file path
+     *
+     * @throws UnsupportedEncodingException Thrown if UTF-8 encoding is not
+     *                                      supported.
+     * @throws XMLStreamException           Thrown if problem occurred while
+     *                                      reading XML stream.
+     * @throws SQLException                 Thrown if problem occurred while
+     *                                      communicating with database.
+     */
+    public void convertFile(final Path file) throws XMLStreamException,
+            SQLException {
+        if (isInputFile(file)) {
+            final long startTimestamp = System.currentTimeMillis();
+
+            Log.write("Processing file " + file);
+            Log.flush();
+
+            ChangeCoalescer.setCurrentFile(file);
+
+            try (final InputStream inputStream = openInputStream(file)) {
+                readInputStream(inputStream);
+            } catch (final IOException ex) {
+                throw new RuntimeException("Failed to read input file", ex);
+            } finally {
+                ChangeCoalescer.setCurrentFile(null);
+            }
+
+            exchangeFormatConvertor.flush();
+            specialExchangeFormatConvertor.flush();
+            commit();
+
+            Log.write("File " + file.getFileName() + " processed in "
+                    + (System.currentTimeMillis() - startTimestamp) + " ms");
+            Log.flush();
+        } else {
+            Log.write("Unsupported file extension, ignoring file " + file);
+        }
+    }
+
+    /**
+     * Checks whether the file has extension of supported input file.
+     *
+     * @param file file path
+     *
+     * @return true if the file is supported, otherwise false
+     */
+    static boolean isInputFile(final Path file) {
+        final String fileName = file.toString();
+
+        return fileName.endsWith(".xml.gz") || fileName.endsWith(".xml.zip")
+                || fileName.endsWith(".xml");
+    }
+
+    /**
+     * Opens input file. Files with .gz extension are decompressed, from files
+     * with .zip extension the first entry is read.
+     *
+     * @param file file path
+     *
+     * @return input stream with XML content
+     *
+     * @throws IOException Thrown if problem occurred while opening the file.
+     */
+    static InputStream openInputStream(final Path file) throws IOException {
+        final String fileName = file.toString();
+
+        if (fileName.endsWith(".gz")) {
+            return new GZIPInputStream(Files.newInputStream(file));
+        } else if (fileName.endsWith(".zip")) {
+            final ZipFile zipFile = new ZipFile(fileName);
+            final ZipEntry zipEntry = zipFile.entries().nextElement();
+
+            return new FilterInputStream(zipFile.getInputStream(zipEntry)) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        zipFile.close();
+                    }
+                }
+            };
+        } else {
+            return Files.newInputStream(file);
+        }
+    }
+
+    /**
+     * Stops database writer if it is used. Connection is not closed.
+     */
+    public void close() {
+        if (writer != null) {
+            writer.stop();
+        }
+    }
+
+    /**
+     * Commits the data. If database writer is used, waits till all submitted
+     * operations are executed and then commits the data.
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    private void commit() throws SQLException {
+        if (writer == null) {
+            connection.commit();
+        } else {
+            writer.submit(new DatabaseWriter.Task() {
+                @Override
+                public void run() throws SQLException {
+                    connection.commit();
+                }
+            });
+            writer.await();
+        }
+    }
+
+    /**
+     * Reads input stream and processes the XML content.
+     *
+     * @param inputStream input stream containing XML data
+     *
+     * @throws XMLStreamException Thrown if problem occurred while reading XML
+     *                            stream.
+     * @throws SQLException       Thrown if problem occurred while communicating
+     *                            with database.
+     */
+    private void readInputStream(final InputStream inputStream)
+            throws XMLStreamException, SQLException {
+        final XMLInputFactory xMLInputFactory = XMLInputFactory.newInstance();
+
+        final XMLStreamReader reader;
+
+        try {
+            reader = xMLInputFactory.createXMLStreamReader(
+                    new InputStreamReader(inputStream, "UTF-8"));
+        } catch (final UnsupportedEncodingException ex) {
+            throw new RuntimeException("UTF-8 encoding is not supported", ex);
+        }
+
+        while (reader.hasNext()) {
+            final int event = reader.next();
+
+            if (event == XMLStreamReader.START_ELEMENT) {
+                processElement(reader);
+            }
+        }
+    }
+
+    /**
+     * Processes elements and its sub-elements.
+     *
+     * @param reader XML stream reader
+     *
+     * @throws XMLStreamException Thrown if problem occurred while reading XML
+     *                            stream.
+     * @throws SQLException       Thrown if problem occurred while communicating
+     *                            with database.
+     */
+    private void processElement(final XMLStreamReader reader)
+            throws XMLStreamException, SQLException {
+        switch (reader.getNamespaceURI()) {
+            case Namespaces.VYMENNY_FORMAT_TYPY:
+                switch (reader.getLocalName()) {
+                    case "VymennyFormat":
+                        exchangeFormatConvertor.convert(reader);
+                        break;
+                    default:
+                        XMLUtils.processUnsupported(reader);
+                }
+                break;
+            case Namespaces.SPECIALNI_VYMENNY_FORMAT_TYPY:
+                switch (reader.getLocalName()) {
+                    case "SpecialniVymennyFormat":
+                        specialExchangeFormatConvertor.convert(reader);
+                        break;
+                    default:
+                        XMLUtils.processUnsupported(reader);
+                }
+                break;
+            default:
+                XMLUtils.processUnsupported(reader);
+        }
+    }
+}
@@ -0,0 +1,456 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.convertors;
+
+import com.fordfrog.ruian2pgsql.Config;
+import com.fordfrog.ruian2pgsql.utils.Log;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Creates indexes concurrently using more database connections. Indexes do
+ * not depend on each other so they can be created in any order. Indexes of
+ * the largest tables are created first so that the longest running
+ * statements do not end up at the end of the run.
+ *
+ * @author fordfrog
+ */
+public class IndexCreator {
+
+    /**
+     * Pattern for parsing of index name, table name and index method from
+     * statement creating index.
+     */
+    private static final Pattern PATTERN_CREATE_INDEX = Pattern.compile(
+            "^CREATE (?:UNIQUE )?INDEX (\\w+) ON (\\w+)(?: USING (\\w+))?",
+            Pattern.CASE_INSENSITIVE);
+    /**
+     * SQL statement for getting size of PostgreSQL table.
+     */
+    private static final String SQL_TABLE_SIZE_PGSQL =
+            "SELECT pg_relation_size(CAST(? AS regclass))";
+    /**
+     * SQL statement for getting partitions of PostgreSQL table.
+     */
+    private static final String SQL_PARTITIONS =
+            "SELECT c.relname FROM pg_inherits i "
+            + "JOIN pg_class c ON c.oid = i.inhrelid "
+            + "WHERE i.inhparent = CAST(? AS regclass) ORDER BY c.relname";
+    /**
+     * SQL statement for getting size of MySQL table.
+     */
+    private static final String SQL_TABLE_SIZE_MYSQL =
+            "SELECT data_length FROM information_schema.tables "
+            + "WHERE table_schema = DATABASE() AND table_name = ?";
+
+    /**
+     * Creates new instance of IndexCreator.
+     */
+    private IndexCreator() {
+    }
+
+    /**
+     * Creates indexes from specified resource using
+     * {@link Config#getIndexThreads()} database connections.
+     *
+     * @param con          database connection that is used for reading of
+     *                     table sizes
+     * @param resourceName name of the resource from which to read the SQL
+     *                     statements
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    public static void createIndexes(final Connection con,
+            final String resourceName) throws SQLException {
+        createIndexes(con, MainConvertor.readSQLFromResource(resourceName));
+    }
+
+    /**
+     * Creates indexes using {@link Config#getIndexThreads()} database
+     * connections.
+     *
+     * @param con        database connection that is used for reading of
+     *                   table sizes
+     * @param statements SQL statements creating indexes
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    public static void createIndexes(final Connection con,
+            final List<String> statements) throws SQLException {
+        if (Config.isDryRun() || statements.isEmpty()) {
+            return;
+        }
+
+        final List<String> expanded = expandPartitions(con, statements);
+        final int threads = Math.max(1,
+                Math.min(Config.getIndexThreads(), expanded.size()));
+        final BlockingQueue<Connection> connections =
+                new ArrayBlockingQueue<>(threads);
+        final List<IndexTask> tasks = createTasks(con, expanded, connections);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try {
+            for (int i = 0; i < threads; i++) {
+                final Connection taskCon = DriverManager.getConnection(
+                        Config.getDbConnectionUrl());
+                taskCon.setAutoCommit(false);
+                connections.add(taskCon);
+                MainConvertor.configureConnection(taskCon);
+            }
+
+            final List<Future<Void>> futures = new ArrayList<>(tasks.size());
+
+            for (final IndexTask task : tasks) {
+                futures.add(executor.submit(task));
+            }
+
+            waitForTasks(futures);
+        } finally {
+            executor.shutdownNow();
+
+            for (final Connection taskCon : connections) {
+                taskCon.close();
+            }
+        }
+    }
+
+    /**
+     * Replaces statements creating indexes on partitioned tables with
+     * statements creating the indexes on each partition, so that the
+     * partitions can be indexed concurrently. Names of the indexes are
+     * derived from names of the partitions.
+     *
+     * @param con        database connection
+     * @param statements SQL statements creating indexes
+     *
+     * @return SQL statements creating indexes
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    public static List<String> expandPartitions(final Connection con,
+            final List<String> statements) throws SQLException {
+        if (Config.isMysqlDriver()) {
+            return statements;
+        }
+
+        final List<String> result = new ArrayList<>(statements.size());
+        final Map<String, List<String>> partitions = new HashMap<>(32);
+
+        try (final PreparedStatement pstm =
+                con.prepareStatement(SQL_PARTITIONS)) {
+            for (final String statement : statements) {
+                final Matcher matcher = parseStatement(statement);
+                final String table = matcher.group(2);
+                List<String> tablePartitions = partitions.get(table);
+
+                if (tablePartitions == null) {
+                    tablePartitions = getPartitions(pstm, table);
+                    partitions.put(table, tablePartitions);
+                }
+
+                if (tablePartitions.isEmpty()) {
+                    result.add(statement);
+
+                    continue;
+                }
+
+                final String index = matcher.group(1);
+
+                for (final String partition : tablePartitions) {
+                    final String partitionIndex = index.startsWith(table)
+                            ? partition + index.substring(table.length())
+                            : index + partition.substring(table.length());
+
+                    result.add(statement.substring(0, matcher.start(1))
+                            + partitionIndex
+                            + statement.substring(matcher.end(1),
+                                    matcher.start(2))
+                            + partition
+                            + statement.substring(matcher.end(2)));
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns names of partitions of the table.
+     *
+     * @param pstm  prepared statement for getting partitions
+     * @param table table name
+     *
+     * @return list of partitions, empty if the table is not partitioned
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    private static List<String> getPartitions(final PreparedStatement pstm,
+            final String table) throws SQLException {
+        final List<String> result = new ArrayList<>(16);
+        pstm.setString(1, table);
+
+        try (final ResultSet rs = pstm.executeQuery()) {
+            while (rs.next()) {
+                result.add(rs.getString(1));
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Creates tasks for the statements, sorted by size of the tables from the
+     * largest one. Indexes using other method than B-tree are created first
+     * for tables of the same size as they take longer to create.
+     *
+     * @param con         database connection
+     * @param statements  SQL statements creating indexes
+     * @param connections queue of available database connections
+     *
+     * @return sorted list of tasks
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    private static List<IndexTask> createTasks(final Connection con,
+            final List<String> statements,
+            final BlockingQueue<Connection> connections) throws SQLException {
+        final List<IndexTask> tasks = new ArrayList<>(statements.size());
+        final Map<String, Long> tableSizes = new HashMap<>(32);
+
+        try (final PreparedStatement pstm = con.prepareStatement(
+                Config.isMysqlDriver()
+                ? SQL_TABLE_SIZE_MYSQL : SQL_TABLE_SIZE_PGSQL)) {
+            for (final String statement : statements) {
+                final Matcher matcher = parseStatement(statement);
+                final String table = matcher.group(2);
+                Long size = tableSizes.get(table);
+
+                if (size == null) {
+                    size = getTableSize(pstm, table);
+                    tableSizes.put(table, size);
+                }
+
+                tasks.add(new IndexTask(connections, statement, size,
+                        matcher.group(3) != null
+                        && !"btree".equalsIgnoreCase(matcher.group(3))));
+            }
+        }
+
+        Collections.sort(tasks, new Comparator<IndexTask>() {
+            @Override
+            public int compare(final IndexTask o1, final IndexTask o2) {
+                if (o1.tableSize != o2.tableSize) {
+                    return o1.tableSize > o2.tableSize ? -1 : 1;
+                } else if (o1.slow != o2.slow) {
+                    return o1.slow ? -1 : 1;
+                } else {
+                    return 0;
+                }
+            }
+        });
+
+        return tasks;
+    }
+
+    /**
+     * Returns name of the index that is created by the statement.
+     *
+     * @param statement SQL statement creating index
+     *
+     * @return index name
+     */
+    static String getIndexName(final String statement) {
+        return parseStatement(statement).group(1);
+    }
+
+    /**
+     * Returns name of the table on which the index is created by the
+     * statement.
+     *
+     * @param statement SQL statement creating index
+     *
+     * @return table name
+     */
+    static String getTableName(final String statement) {
+        return parseStatement(statement).group(2);
+    }
+
+    /**
+     * Parses statement creating index.
+     *
+     * @param statement SQL statement creating index
+     *
+     * @return matcher with index name, table name and index method groups
+     */
+    private static Matcher parseStatement(final String statement) {
+        final Matcher matcher = PATTERN_CREATE_INDEX.matcher(statement);
+
+        if (!matcher.find()) {
+            throw new RuntimeException(
+                    "Unsupported index statement: " + statement);
+        }
+
+        return matcher;
+    }
+
+    /**
+     * Returns size of the table in bytes.
+     *
+     * @param pstm  prepared statement for getting table size
+     * @param table table name
+     *
+     * @return table size or 0 if it is not known
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    private static long getTableSize(final PreparedStatement pstm,
+            final String table) throws SQLException {
+        pstm.setString(1, table);
+
+        try (final ResultSet rs = pstm.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    /**
+     * Waits till all tasks are finished.
+     *
+     * @param futures list of tasks
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    private static void waitForTasks(final List<Future<Void>> futures)
+            throws SQLException {
+        try {
+            for (final Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+
+            throw new RuntimeException("Index creation was interrupted", ex);
+        } catch (final ExecutionException ex) {
+            final Throwable cause = ex.getCause();
+
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else {
+                throw new RuntimeException("Index creation failed", cause);
+            }
+        }
+    }
+
+    /**
+     * Task that creates single index using database connection that is
+     * borrowed from the queue of available connections.
+     */
+    private static class IndexTask implements Callable<Void> {
+
+        /**
+         * Queue of available database connections.
+         */
+        private final BlockingQueue<Connection> connections;
+        /**
+         * SQL statement creating the index.
+         */
+        private final String sql;
+        /**
+         * Size of the indexed table in bytes.
+         */
+        private final long tableSize;
+        /**
+         * Whether index uses other method than B-tree.
+         */
+        private final boolean slow;
+
+        /**
+         * Creates new instance of IndexTask.
+         *
+         * @param connections {@link #connections}
+         * @param sql         {@link #sql}
+         * @param tableSize   {@link #tableSize}
+         * @param slow        {@link #slow}
+         */
+        IndexTask(final BlockingQueue<Connection> connections,
+                final String sql, final long tableSize, final boolean slow) {
+            this.connections = connections;
+            this.sql = sql;
+            this.tableSize = tableSize;
+            this.slow = slow;
+        }
+
+        @Override
+        public Void call() throws Exception {
+            final Connection con = connections.take();
+
+            try {
+                final long startTimestamp = System.currentTimeMillis();
+
+                try (final Statement stm = con.createStatement()) {
+                    stm.execute(sql);
+                } catch (final SQLException ex) {
+                    con.rollback();
+
+                    throw new SQLException("Statement failed: " + sql,
+                            ex.getSQLState(), ex);
+                }
+
+                con.commit();
+
+                Log.write("Created index in " + (System.currentTimeMillis()
+                        - startTimestamp) + " ms: " + sql);
+            } finally {
+                connections.add(con);
+            }
+
+            return null;
+        }
+    }
+}
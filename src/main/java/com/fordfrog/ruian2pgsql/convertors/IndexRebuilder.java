@@ -0,0 +1,330 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.convertors;
+
+import com.fordfrog.ruian2pgsql.Config;
+import com.fordfrog.ruian2pgsql.utils.Log;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Drops indexes of tables that will be touched by large number of items
+ * before the files are converted and creates them again afterwards, which is
+ * faster than updating the indexes row by row. Number of touched rows is
+ * estimated by counting item elements in the input files.
+ *
+ * @author fordfrog
+ */
+public class IndexRebuilder {
+
+    /**
+     * Depth of item elements in the document (root element has depth 1).
+     */
+    private static final int ITEM_DEPTH = 4;
+    /**
+     * SQL statement for checking whether index exists.
+     */
+    private static final String SQL_INDEX_EXISTS = "SELECT 1 FROM pg_class "
+            + "WHERE relname = ? AND relkind = 'i' AND pg_table_is_visible(oid)";
+    /**
+     * Tables that are touched by items, by local names of item elements.
+     */
+    private static final Map<String, String[]> TABLES = new HashMap<>(32);
+    /**
+     * Tables that are touched by the converted items.
+     */
+    private static final Set<String> TOUCHED_TABLES = new TreeSet<>();
+    /**
+     * Tables whose indexes were dropped.
+     */
+    private static final Set<String> REBUILT_TABLES = new TreeSet<>();
+
+    static {
+        TABLES.put("AdresniMisto", new String[]{"rn_adresni_misto"});
+        TABLES.put("CastObce", new String[]{"rn_cast_obce"});
+        TABLES.put("KatastralniUzemi", new String[]{"rn_katastralni_uzemi"});
+        TABLES.put("Kraj", new String[]{"rn_kraj_1960"});
+        TABLES.put("Momc", new String[]{"rn_momc"});
+        TABLES.put("Mop", new String[]{"rn_mop"});
+        TABLES.put("Obec", new String[]{"rn_obec"});
+        TABLES.put("Okres", new String[]{"rn_okres"});
+        TABLES.put("Orp", new String[]{"rn_orp"});
+        TABLES.put("Parcela", new String[]{"rn_parcela",
+            "rn_bonit_dily_parcel", "rn_zpusob_ochrany_pozemku"});
+        TABLES.put("Pou", new String[]{"rn_pou"});
+        TABLES.put("RegionSoudrznosti", new String[]{"rn_region_soudrznosti"});
+        TABLES.put("SpravniObvod", new String[]{"rn_spravni_obvod"});
+        TABLES.put("StavebniObjekt", new String[]{"rn_stavebni_objekt",
+            "rn_detailni_tea", "rn_zpusob_ochrany_objektu"});
+        TABLES.put("Stat", new String[]{"rn_stat"});
+        TABLES.put("Ulice", new String[]{"rn_ulice"});
+        TABLES.put("VO", new String[]{"rn_vo"});
+        TABLES.put("Vusc", new String[]{"rn_vusc"});
+        TABLES.put("Zsj", new String[]{"rn_zsj"});
+    }
+
+    /**
+     * Creates new instance of IndexRebuilder.
+     */
+    private IndexRebuilder() {
+    }
+
+    /**
+     * Counts items in the files and drops indexes of tables that will be
+     * touched by at least {@link Config#getRebuildIndexesThreshold()} items.
+     *
+     * @param con   database connection
+     * @param files input files
+     *
+     * @throws XMLStreamException Thrown if problem occurred while reading XML
+     *                            stream.
+     * @throws SQLException       Thrown if problem occurred while communicating
+     *                            with database.
+     */
+    public static void dropIndexes(final Connection con,
+            final List<Path> files) throws XMLStreamException, SQLException {
+        final long startTimestamp = System.currentTimeMillis();
+        final Map<String, Long> counts = countItems(files);
+
+        TOUCHED_TABLES.clear();
+        REBUILT_TABLES.clear();
+
+        for (final Map.Entry<String, Long> entry : counts.entrySet()) {
+            final String[] tables = TABLES.get(entry.getKey());
+
+            if (tables == null) {
+                continue;
+            }
+
+            for (final String table : tables) {
+                TOUCHED_TABLES.add(table);
+
+                if (entry.getValue() >= Config.getRebuildIndexesThreshold()) {
+                    REBUILT_TABLES.add(table);
+                }
+            }
+        }
+
+        if (REBUILT_TABLES.isEmpty() || Config.isDryRun()) {
+            return;
+        }
+
+        int dropped = 0;
+
+        try (final Statement stm = con.createStatement()) {
+            for (final String statement : IndexCreator.expandPartitions(
+                    con, getIndexStatements(REBUILT_TABLES))) {
+                stm.execute("DROP INDEX IF EXISTS "
+                        + IndexCreator.getIndexName(statement));
+                dropped++;
+            }
+        }
+
+        con.commit();
+
+        Log.write("Dropped " + dropped + " indexes of tables "
+                + REBUILT_TABLES + " in " + (System.currentTimeMillis()
+                - startTimestamp) + " ms, they will be created after the "
+                + "import");
+    }
+
+    /**
+     * Creates missing indexes of touched tables and analyzes the touched
+     * tables. Indexes that are missing because previous import failed after
+     * they were dropped are created as well.
+     *
+     * @param con database connection
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    public static void rebuildIndexes(final Connection con)
+            throws SQLException {
+        if (Config.isDryRun()) {
+            return;
+        }
+
+        long startTimestamp = System.currentTimeMillis();
+        final List<String> statements = new ArrayList<>(100);
+
+        try (final PreparedStatement pstm =
+                con.prepareStatement(SQL_INDEX_EXISTS)) {
+            for (final String statement : IndexCreator.expandPartitions(
+                    con, getIndexStatements(TOUCHED_TABLES))) {
+                pstm.setString(1, IndexCreator.getIndexName(statement));
+
+                try (final ResultSet rs = pstm.executeQuery()) {
+                    if (!rs.next()) {
+                        statements.add(statement);
+                    }
+                }
+            }
+        }
+
+        con.commit();
+
+        if (!statements.isEmpty()) {
+            IndexCreator.createIndexes(con, statements);
+
+            Log.write("Created " + statements.size() + " indexes in "
+                    + (System.currentTimeMillis() - startTimestamp) + " ms");
+        }
+
+        startTimestamp = System.currentTimeMillis();
+
+        try (final Statement stm = con.createStatement()) {
+            for (final String table : TOUCHED_TABLES) {
+                stm.execute("ANALYZE " + table);
+            }
+        }
+
+        con.commit();
+
+        Log.write("Analyzed tables " + TOUCHED_TABLES + " in "
+                + (System.currentTimeMillis() - startTimestamp) + " ms");
+    }
+
+    /**
+     * Returns statements creating indexes of specified tables.
+     *
+     * @param tables table names
+     *
+     * @return list of statements
+     */
+    private static List<String> getIndexStatements(final Set<String> tables) {
+        final List<String> result = new ArrayList<>(100);
+
+        for (final String statement : MainConvertor.readSQLFromResource(
+                MainConvertor.getIndexResourceName())) {
+            if (tables.contains(IndexCreator.getTableName(statement))) {
+                result.add(statement);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Counts item elements in the files.
+     *
+     * @param files input files
+     *
+     * @return counts of items by local names of item elements, removed items
+     *         are counted by local names of elements of their type
+     *
+     * @throws XMLStreamException Thrown if problem occurred while reading XML
+     *                            stream.
+     */
+    static Map<String, Long> countItems(final List<Path> files)
+            throws XMLStreamException {
+        final XMLInputFactory xMLInputFactory = XMLInputFactory.newInstance();
+        final Map<String, Long> counts = new HashMap<>(32);
+
+        for (final Path file : files) {
+            if (!FileConvertor.isInputFile(file)) {
+                continue;
+            }
+
+            Log.write("Counting items in file " + file);
+            Log.flush();
+
+            try (final InputStream inputStream =
+                    FileConvertor.openInputStream(file)) {
+                final XMLStreamReader reader = xMLInputFactory.
+                        createXMLStreamReader(inputStream, "UTF-8");
+
+                try {
+                    int depth = 0;
+                    boolean zaniklyPrvek = false;
+
+                    while (reader.hasNext()) {
+                        switch (reader.next()) {
+                            case XMLStreamReader.START_ELEMENT:
+                                depth++;
+
+                                if (depth == ITEM_DEPTH) {
+                                    zaniklyPrvek = "ZaniklyPrvek".equals(
+                                            reader.getLocalName());
+
+                                    if (!zaniklyPrvek) {
+                                        increment(counts,
+                                                reader.getLocalName());
+                                    }
+                                } else if (zaniklyPrvek
+                                        && depth == ITEM_DEPTH + 1
+                                        && "TypPrvkuKod".equals(
+                                                reader.getLocalName())) {
+                                    // removed items touch tables of their
+                                    // type
+                                    final String type = ChangeCoalescer.
+                                            getType(reader.getElementText());
+                                    depth--;
+
+                                    if (type != null) {
+                                        increment(counts, type);
+                                    }
+                                }
+
+                                break;
+                            case XMLStreamReader.END_ELEMENT:
+                                depth--;
+                                break;
+                        }
+                    }
+                } finally {
+                    reader.close();
+                }
+            } catch (final IOException ex) {
+                throw new RuntimeException("Failed to read input file", ex);
+            }
+        }
+
+        return counts;
+    }
+
+    /**
+     * Increments count of items.
+     *
+     * @param counts    counts of items by local names of item elements
+     * @param localName local name of item element
+     */
+    private static void increment(final Map<String, Long> counts,
+            final String localName) {
+        final Long count = counts.get(localName);
+        counts.put(localName, count == null ? 1 : count + 1);
+    }
+}
@@ -21,7 +21,6 @@
  */
 package com.fordfrog.ruian2pgsql.convertors;
 
-import com.fordfrog.ruian2pgsql.Config;
 import com.fordfrog.ruian2pgsql.containers.KatastralniUzemi;
 import com.fordfrog.ruian2pgsql.utils.Namespaces;
 import com.fordfrog.ruian2pgsql.utils.PreparedStatementEx;
@@ -114,11 +113,11 @@ public class KatastralniUzemiConvertor
     protected void fill(final PreparedStatement pstm,
             final KatastralniUzemi item, final boolean update)
             throws SQLException {
-        final PreparedStatementEx pstmEx = new PreparedStatementEx(pstm);
+        final PreparedStatementEx pstmEx = getPreparedStatementEx(pstm);
         int index = 1;
         pstm.setString(index++, item.getNazev());
-        pstmEx.setBoolean(index++, item.getNespravny());
-        pstm.setInt(index++, item.getObecKod());
+        pstmEx.setBoolean(index++, item.getNespravny(), item.isNespravnyNull());
+        pstmEx.setInt(index++, item.getObecKod(), item.isObecKodNull());
         pstm.setBoolean(index++, item.isMaDkm());
         pstm.setString(index++, item.getMluvCharPad2());
         pstm.setString(index++, item.getMluvCharPad3());
@@ -128,12 +127,13 @@ public class KatastralniUzemiConvertor
         pstm.setString(index++, item.getMluvCharPad7());
         pstm.setLong(index++, item.getIdTransRuian());
         pstmEx.setDate(index++, item.getPlatiOd());
-        pstm.setLong(index++, item.getNzIdGlobalni());
-        pstmEx.setLong(index++, item.getRizeniId());
+        pstmEx.setLong(index++, item.getNzIdGlobalni(),
+                item.isNzIdGlobalniNull());
+        pstmEx.setLong(index++, item.getRizeniId(), item.isRizeniIdNull());
 
-        if (!Config.isNoGis()) {
-            pstm.setString(index++, item.getDefinicniBod());
-            pstm.setString(index++, item.getHranice());
+        if (isGeometryBound(pstm)) {
+            pstmEx.setGeometry(index++, item.getDefinicniBod());
+            pstmEx.setGeometry(index++, item.getHranice());
         }
 
         pstmEx.setDate(index++, item.getDatumVzniku());
@@ -150,6 +150,11 @@ public class KatastralniUzemiConvertor
         pstm.setInt(1, item.getKod());
     }
 
+    @Override
+    protected Number getItemKey(final KatastralniUzemi item) {
+        return item.getKod();
+    }
+
     @Override
     protected void processElement(final XMLStreamReader reader,
             final KatastralniUzemi item) throws XMLStreamException {
@@ -161,22 +166,19 @@ public class KatastralniUzemiConvertor
                                 Utils.parseTimestamp(reader.getElementText()));
                         break;
                     case "ExistujeDigitalniMapa":
-                        item.setMaDkm("true".equals(reader.getElementText()));
+                        item.setMaDkm(XMLUtils.readBoolean(reader));
                         break;
                     case "Geometrie":
-                        Utils.processGeometrie(
-                                reader, getConnection(), item, NAMESPACE);
+                        processGeometrie(reader, item, NAMESPACE);
                         break;
                     case "GlobalniIdNavrhuZmeny":
-                        item.setNzIdGlobalni(
-                                Long.parseLong(reader.getElementText()));
+                        item.setNzIdGlobalni(XMLUtils.readLong(reader));
                         break;
                     case "IdTransakce":
-                        item.setIdTransRuian(
-                                Long.parseLong(reader.getElementText()));
+                        item.setIdTransRuian(XMLUtils.readLong(reader));
                         break;
                     case "Kod":
-                        item.setKod(Integer.parseInt(reader.getElementText()));
+                        item.setKod(XMLUtils.readInt(reader));
                         break;
                     case "MluvnickeCharakteristiky":
                         Utils.processMluvnickeCharakteristiky(
@@ -186,8 +188,7 @@ public class KatastralniUzemiConvertor
                         item.setNazev(reader.getElementText());
                         break;
                     case "Nespravny":
-                        item.setNespravny(
-                                Boolean.valueOf(reader.getElementText()));
+                        item.setNespravny(XMLUtils.readBoolean(reader));
                         break;
                     case "Obec":
                         item.setObecKod(Utils.getObecKod(reader, NAMESPACE));
@@ -197,8 +198,7 @@ public class KatastralniUzemiConvertor
                                 Utils.parseTimestamp(reader.getElementText()));
                         break;
                     case "RizeniId":
-                        item.setRizeniId(
-                                Long.parseLong(reader.getElementText()));
+                        item.setRizeniId(XMLUtils.readLong(reader));
                         break;
                     default:
                         XMLUtils.processUnsupported(reader);
@@ -21,7 +21,6 @@
  */
 package com.fordfrog.ruian2pgsql.convertors;
 
-import com.fordfrog.ruian2pgsql.Config;
 import com.fordfrog.ruian2pgsql.containers.Kraj;
 import com.fordfrog.ruian2pgsql.utils.Namespaces;
 import com.fordfrog.ruian2pgsql.utils.PreparedStatementEx;
@@ -99,19 +98,20 @@ public class KrajConvertor extends AbstractSaveConvertor<Kraj> {
     @SuppressWarnings("ValueOfIncrementOrDecrementUsed")
     protected void fill(final PreparedStatement pstm, final Kraj item,
             final boolean update) throws SQLException {
-        final PreparedStatementEx pstmEx = new PreparedStatementEx(pstm);
+        final PreparedStatementEx pstmEx = getPreparedStatementEx(pstm);
         int index = 1;
         pstm.setString(index++, item.getNazev());
-        pstmEx.setBoolean(index++, item.getNespravny());
-        pstm.setInt(index++, item.getStatKod());
+        pstmEx.setBoolean(index++, item.getNespravny(), item.isNespravnyNull());
+        pstmEx.setInt(index++, item.getStatKod(), item.isStatKodNull());
         pstm.setLong(index++, item.getIdTransRuian());
         pstmEx.setDate(index++, item.getPlatiOd());
-        pstm.setLong(index++, item.getNzIdGlobalni());
+        pstmEx.setLong(index++, item.getNzIdGlobalni(),
+                item.isNzIdGlobalniNull());
         pstmEx.setBoolean(index++, item.getZmenaGrafiky());
 
-        if (!Config.isNoGis()) {
-            pstm.setString(index++, item.getDefinicniBod());
-            pstm.setString(index++, item.getHranice());
+        if (isGeometryBound(pstm)) {
+            pstmEx.setGeometry(index++, item.getDefinicniBod());
+            pstmEx.setGeometry(index++, item.getHranice());
         }
 
         pstmEx.setDate(index++, item.getDatumVzniku());
@@ -128,6 +128,11 @@ public class KrajConvertor extends AbstractSaveConvertor<Kraj> {
         pstm.setInt(1, item.getKod());
     }
 
+    @Override
+    protected Number getItemKey(final Kraj item) {
+        return item.getKod();
+    }
+
     @Override
     protected void processElement(final XMLStreamReader reader, final Kraj item)
             throws XMLStreamException {
@@ -139,27 +144,22 @@ public class KrajConvertor extends AbstractSaveConvertor<Kraj> {
                                 Utils.parseTimestamp(reader.getElementText()));
                         break;
                     case "Geometrie":
-                        Utils.processGeometrie(
-                                reader, getConnection(), item, NAMESPACE);
+                        processGeometrie(reader, item, NAMESPACE);
                         break;
                     case "GlobalniIdNavrhuZmeny":
-                        item.setNzIdGlobalni(
-                                Long.parseLong(reader.getElementText()));
+                        item.setNzIdGlobalni(XMLUtils.readLong(reader));
                         break;
                     case "IdTransakce":
-                        item.setIdTransRuian(
-                                Long.parseLong(reader.getElementText()));
+                        item.setIdTransRuian(XMLUtils.readLong(reader));
                         break;
                     case "Kod":
-                        item.setKod(
-                                Integer.parseInt(reader.getElementText()));
+                        item.setKod(XMLUtils.readInt(reader));
                         break;
                     case "Nazev":
                         item.setNazev(reader.getElementText());
                         break;
                     case "Nespravny":
-                        item.setNespravny(
-                                Boolean.valueOf(reader.getElementText()));
+                        item.setNespravny(XMLUtils.readBoolean(reader));
                         break;
                     case "PlatiOd":
                         item.setPlatiOd(
@@ -168,6 +168,9 @@ public class KrajConvertor extends AbstractSaveConvertor<Kraj> {
                     case "Stat":
                         item.setStatKod(Utils.getStatKod(reader, NAMESPACE));
                         break;
+                    case "ZmenaGrafiky":
+                        item.setZmenaGrafiky(XMLUtils.readBoolean(reader));
+                        break;
                     default:
                         XMLUtils.processUnsupported(reader);
                 }
@@ -24,31 +24,36 @@ package com.fordfrog.ruian2pgsql.convertors;
 import com.fordfrog.ruian2pgsql.Config;
 import com.fordfrog.ruian2pgsql.gml.GMLUtils;
 import com.fordfrog.ruian2pgsql.utils.Log;
-import com.fordfrog.ruian2pgsql.utils.Namespaces;
-import com.fordfrog.ruian2pgsql.utils.XMLUtils;
+import com.fordfrog.ruian2pgsql.utils.RowHashStatement;
 import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.UnsupportedEncodingException;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.sql.Connection;
+import java.sql.DatabaseMetaData;
 import java.sql.DriverManager;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
-import java.util.zip.GZIPInputStream;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipFile;
-import javax.xml.stream.XMLInputFactory;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 import javax.xml.stream.XMLStreamException;
-import javax.xml.stream.XMLStreamReader;
 
 /**
  * Converts RÚIAN data into PostgreSQL database.
@@ -58,14 +63,46 @@ import javax.xml.stream.XMLStreamReader;
 public class MainConvertor {
 
     /**
-     * Exchange format convertor instance.
+     * Pattern of names of files with full data of single municipality. These
+     * files do not depend on each other and can be converted concurrently.
      */
-    private static ExchangeFormatConvertor exchangeFormatConvertor;
+    private static final Pattern PATTERN_INDEPENDENT_FILE =
+            Pattern.compile("^\\d{8}_OB_\\d+_U.*");
+    /**
+     * Number of seconds to wait for running file tasks to finish before
+     * connections of the worker threads are closed.
+     */
+    private static final int TERMINATION_TIMEOUT = 60;
+    /**
+     * Beginning of statement creating RÚIAN table.
+     */
+    private static final String SQL_CREATE_TABLE = "CREATE TABLE rn_";
+    /**
+     * Beginning of statement creating unlogged RÚIAN table.
+     */
+    private static final String SQL_CREATE_UNLOGGED_TABLE =
+            "CREATE UNLOGGED TABLE rn_";
+    /**
+     * Key columns of tables that are partitioned if --partitions is used, by
+     * table names.
+     */
+    private static final Map<String, String> PARTITIONED_TABLES =
+            new HashMap<>(2);
 
+    static {
+        PARTITIONED_TABLES.put("rn_parcela", "id");
+        PARTITIONED_TABLES.put("rn_stavebni_objekt", "kod");
+    }
     /**
-     * Special exchange format convertor instance.
+     * Tables of items that are updated in place, to which row_hash column is
+     * added if --row-hash is used.
      */
-    private static SpecialExchangeFormatConvertor specialExchangeFormatConvertor;
+    private static final String[] ROW_HASH_TABLES = {"rn_stat",
+        "rn_region_soudrznosti", "rn_kraj_1960", "rn_vusc", "rn_okres",
+        "rn_orp", "rn_pou", "rn_obec", "rn_spravni_obvod", "rn_mop",
+        "rn_momc", "rn_katastralni_uzemi", "rn_zsj", "rn_vo",
+        "rn_adresni_misto", "rn_cast_obce", "rn_parcela", "rn_ulice",
+        "rn_stavebni_objekt"};
 
     /**
      * Creates new instance of MainConvertor.
@@ -88,24 +125,28 @@ public class MainConvertor {
 
         try (final Connection con = DriverManager.getConnection(
                 Config.getDbConnectionUrl())) {
-            exchangeFormatConvertor = new ExchangeFormatConvertor(con);
-            specialExchangeFormatConvertor = new SpecialExchangeFormatConvertor(con);
-
-            
             con.setAutoCommit(false);
+            configureConnection(con);
 
             if (Config.isCreateTables()) {
-                Log.write("Recreating tables...");
+                final long phaseTimestamp = System.currentTimeMillis();
+                Log.write(Config.isInitialLoad()
+                        ? "Recreating tables as unlogged..."
+                        : "Recreating tables...");
 
                 if (Config.isNoGis() || Config.isMysqlDriver()) {
                     if (Config.isMysqlDriver()) {
                         runSQLFromResource(con, "/sql/schema_no_gis_mysql_tbl.sql");
                     } else {
-                        runSQLFromResource(con, "/sql/schema_no_gis_tbl.sql");
+                        runSQLFromResource(con, "/sql/schema_no_gis_tbl.sql",
+                                Config.isInitialLoad());
                     }
                 } else {
-                    runSQLFromResource(con, "/sql/schema_tbl.sql");
+                    runSQLFromResource(con, "/sql/schema_tbl.sql",
+                            Config.isInitialLoad());
                 }
+
+                logPhase("Tables recreated", phaseTimestamp);
             }
 
             if (!Config.isNoGis() && !Config.isMysqlDriver()) {
@@ -119,13 +160,17 @@ public class MainConvertor {
                 runSQLFromResource(con, "/sql/truncate_all.sql");
             }
 
+            if (Config.isRowHash()) {
+                addRowHashColumns(con);
+            }
+
             if (Config.isResetTransactionIds()) {
                 Log.write("Resetting transaction ids...");
                 runSQLFromResource(con, "/sql/reset_transaction_ids.sql");
             }
 
             if (!Config.isNoGis() && !Config.isMysqlDriver()
-                    && !Config.isConvertToEWKT()
+                    && !Config.isParseGML()
                     && GMLUtils.checkMultipointBug(con)) {
                 Log.write("Installed version of Postgis is affected by "
                         + "multipoint bug "
@@ -136,23 +181,67 @@ public class MainConvertor {
 
             con.commit();
 
-            for (final Path file : getInputFiles(Config.getInputDirPath())) {
-                processFile(file);
-                con.commit();
+            final long convertTimestamp = System.currentTimeMillis();
+            final FileConvertor fileConvertor = new FileConvertor(con);
+            final List<Path> files = getInputFiles(Config.getInputDirPath());
+
+            if (Config.isCoalesce()) {
+                ChangeCoalescer.scan(files);
+            }
+
+            if (Config.getRebuildIndexesThreshold() > 0
+                    && !Config.isCreateTables()) {
+                IndexRebuilder.dropIndexes(con, files);
+            }
+
+            try {
+                if (Config.getThreads() > 1) {
+                    convertFilesConcurrently(fileConvertor, files);
+                } else {
+                    for (final Path file : files) {
+                        fileConvertor.convertFile(file);
+                    }
+                }
+            } finally {
+                fileConvertor.close();
+            }
+
+            logPhase("Files converted", convertTimestamp);
+
+            if (Config.getRebuildIndexesThreshold() > 0
+                    && !Config.isCreateTables()) {
+                IndexRebuilder.rebuildIndexes(con);
             }
 
             if (Config.isCreateTables()) {
+                final long phaseTimestamp = System.currentTimeMillis();
                 Log.write("Creating indexes...");
 
-                if (Config.isNoGis() || Config.isMysqlDriver()) {
-                    if (Config.isMysqlDriver()) {
-                        runSQLFromResource(con, "/sql/schema_no_gis_mysql_idx.sql");
-                    } else {
-                        runSQLFromResource(con, "/sql/schema_no_gis_idx.sql");
-                    }
+                final String resourceName = getIndexResourceName();
+
+                if (Config.getIndexThreads() > 1) {
+                    con.commit();
+                    IndexCreator.createIndexes(con, resourceName);
                 } else {
-                    runSQLFromResource(con, "/sql/schema_idx.sql");
+                    runSQLFromResource(con, resourceName);
                 }
+
+                con.commit();
+                logPhase("Indexes created", phaseTimestamp);
+            }
+
+            if (Config.isInitialLoad()) {
+                long phaseTimestamp = System.currentTimeMillis();
+                Log.write("Switching tables to logged...");
+                runSQLFromResource(con, "/sql/set_logged.sql");
+                con.commit();
+                logPhase("Tables switched to logged", phaseTimestamp);
+
+                phaseTimestamp = System.currentTimeMillis();
+                Log.write("Analyzing tables...");
+                runSQLFromResource(con, "/sql/analyze.sql");
+                con.commit();
+                logPhase("Tables analyzed", phaseTimestamp);
             }
 
             Log.write("Total duration: "
@@ -160,6 +249,221 @@ public class MainConvertor {
         }
     }
 
+    /**
+     * Converts files using more threads. Files with full data of single
+     * municipality are converted concurrently, each thread using its own
+     * database connection. All other files (state level files and files with
+     * changes) are converted one by one in the original order after all
+     * preceding files were converted.
+     *
+     * @param fileConvertor file convertor using the main connection
+     * @param files         sorted list of files
+     *
+     * @throws XMLStreamException Thrown if problem occurred while reading XML
+     *                            stream.
+     * @throws SQLException       Thrown if problem occurred while communicating
+     *                            with database.
+     */
+    private static void convertFilesConcurrently(
+            final FileConvertor fileConvertor, final List<Path> files)
+            throws XMLStreamException, SQLException {
+        final int threads = Config.getThreads();
+        final BlockingQueue<FileConvertor> fileConvertors =
+                new ArrayBlockingQueue<>(threads);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try {
+            fileConvertors.add(fileConvertor);
+
+            for (int i = 1; i < threads; i++) {
+                final Connection con = DriverManager.getConnection(
+                        Config.getDbConnectionUrl());
+                con.setAutoCommit(false);
+                configureConnection(con);
+                fileConvertors.add(new FileConvertor(con));
+            }
+
+            final List<Future<Void>> futures = new ArrayList<>(files.size());
+
+            for (final Path file : files) {
+                if (PATTERN_INDEPENDENT_FILE.matcher(
+                        file.getFileName().toString()).matches()) {
+                    futures.add(executor.submit(
+                            new FileTask(fileConvertors, file)));
+                } else {
+                    waitForTasks(futures);
+                    fileConvertor.convertFile(file);
+                }
+            }
+
+            waitForTasks(futures);
+        } finally {
+            executor.shutdownNow();
+            awaitTermination(executor);
+
+            for (final FileConvertor convertor : fileConvertors) {
+                if (convertor != fileConvertor) {
+                    closeFileConvertor(convertor);
+                }
+            }
+        }
+    }
+
+    /**
+     * Waits till running file tasks finish so that their connections are not
+     * closed while they are still used. Tasks that did not finish in
+     * {@link #TERMINATION_TIMEOUT} seconds keep their file convertors, so
+     * these are not closed.
+     *
+     * @param executor executor that was shut down
+     */
+    private static void awaitTermination(final ExecutorService executor) {
+        try {
+            if (!executor.awaitTermination(
+                    TERMINATION_TIMEOUT, TimeUnit.SECONDS)) {
+                Log.write("File tasks did not finish in "
+                        + TERMINATION_TIMEOUT + " s, their connections are "
+                        + "left open");
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Closes file convertor of worker thread and its connection. Failure is
+     * only logged so that it does not hide exception of the conversion.
+     *
+     * @param convertor file convertor
+     */
+    private static void closeFileConvertor(final FileConvertor convertor) {
+        try {
+            try {
+                convertor.close();
+            } finally {
+                convertor.getConnection().close();
+            }
+        } catch (final SQLException | RuntimeException ex) {
+            Log.write("Failed to close worker connection: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Waits till all tasks are finished and clears the list of tasks.
+     *
+     * @param futures list of tasks
+     *
+     * @throws XMLStreamException Thrown if problem occurred while reading XML
+     *                            stream.
+     * @throws SQLException       Thrown if problem occurred while communicating
+     *                            with database.
+     */
+    private static void waitForTasks(final List<Future<Void>> futures)
+            throws XMLStreamException, SQLException {
+        try {
+            for (final Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+
+            throw new RuntimeException("Conversion was interrupted", ex);
+        } catch (final ExecutionException ex) {
+            final Throwable cause = ex.getCause();
+
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            } else if (cause instanceof XMLStreamException) {
+                throw (XMLStreamException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else {
+                throw new RuntimeException("File conversion failed", cause);
+            }
+        }
+
+        futures.clear();
+    }
+
+    /**
+     * Returns name of the resource containing statements that create indexes.
+     *
+     * @return resource name
+     */
+    static String getIndexResourceName() {
+        if (Config.isNoGis() || Config.isMysqlDriver()) {
+            if (Config.isMysqlDriver()) {
+                return "/sql/schema_no_gis_mysql_idx.sql";
+            } else {
+                return "/sql/schema_no_gis_idx.sql";
+            }
+        } else {
+            return "/sql/schema_idx.sql";
+        }
+    }
+
+    /**
+     * Adds row_hash column to tables in which it does not exist yet.
+     *
+     * @param con database connection
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    private static void addRowHashColumns(final Connection con)
+            throws SQLException {
+        if (Config.isDryRun()) {
+            return;
+        }
+
+        final DatabaseMetaData metaData = con.getMetaData();
+
+        try (final Statement stm = con.createStatement()) {
+            for (final String table : ROW_HASH_TABLES) {
+                try (final ResultSet rs = metaData.getColumns(
+                        con.getCatalog(), null, table,
+                        RowHashStatement.COLUMN_ROW_HASH)) {
+                    if (rs.next()) {
+                        continue;
+                    }
+                }
+
+                Log.write("Adding column " + RowHashStatement.COLUMN_ROW_HASH
+                        + " to table " + table + "...");
+                stm.execute("ALTER TABLE " + table + " ADD COLUMN "
+                        + RowHashStatement.COLUMN_ROW_HASH + " bigint");
+            }
+        }
+    }
+
+    /**
+     * Applies session settings of --initial-load to the connection.
+     *
+     * @param con database connection
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    static void configureConnection(final Connection con)
+            throws SQLException {
+        if (Config.isInitialLoad()) {
+            runSQLFromResource(con, "/sql/initial_load_session.sql");
+            con.commit();
+        }
+    }
+
+    /**
+     * Writes duration of finished phase to the log.
+     *
+     * @param message        message describing the phase
+     * @param startTimestamp timestamp at which the phase started
+     */
+    private static void logPhase(final String message,
+            final long startTimestamp) {
+        Log.write(message + " in "
+                + (System.currentTimeMillis() - startTimestamp) + " ms");
+    }
+
     /**
      * Runs SQL statements from specified resource.
      *
@@ -169,24 +473,109 @@ public class MainConvertor {
      */
     private static void runSQLFromResource(final Connection con,
             final String resourceName) {
+        runSQLFromResource(con, resourceName, false);
+    }
+
+    /**
+     * Runs SQL statements from specified resource.
+     *
+     * @param con          database connection
+     * @param resourceName name of the resource from which to read the SQL
+     *                     statements
+     * @param unlogged     whether RÚIAN tables should be created as unlogged
+     *                     tables
+     */
+    private static void runSQLFromResource(final Connection con,
+            final String resourceName, final boolean unlogged) {
         if (Config.isDryRun()) {
             return;
         }
 
+        String sql = null;
+
+        try (final Statement stm = con.createStatement()) {
+            for (final String statement : readSQLFromResource(resourceName)) {
+                if (!statement.startsWith(SQL_CREATE_TABLE)) {
+                    sql = statement;
+                    stm.execute(sql);
+
+                    continue;
+                }
+
+                final String table = getCreatedTable(statement);
+
+                if (Config.getPartitions() > 1
+                        && PARTITIONED_TABLES.containsKey(table)) {
+                    sql = statement.substring(0, statement.length() - 1)
+                            + " PARTITION BY HASH ("
+                            + PARTITIONED_TABLES.get(table) + ");";
+                    stm.execute(sql);
+
+                    for (int i = 0; i < Config.getPartitions(); i++) {
+                        sql = "CREATE TABLE " + table + "_p" + i
+                                + " PARTITION OF " + table
+                                + " FOR VALUES WITH (MODULUS "
+                                + Config.getPartitions() + ", REMAINDER " + i
+                                + ");";
+                        stm.execute(sql);
+                    }
+                } else if (unlogged) {
+                    sql = SQL_CREATE_UNLOGGED_TABLE
+                            + statement.substring(SQL_CREATE_TABLE.length());
+                    stm.execute(sql);
+                } else {
+                    sql = statement;
+                    stm.execute(sql);
+                }
+            }
+        } catch (final SQLException ex) {
+            throw new RuntimeException("Statement failed: " + sql, ex);
+        }
+    }
+
+    /**
+     * Returns name of RÚIAN table that is created by the statement.
+     *
+     * @param statement SQL statement creating the table
+     *
+     * @return table name
+     */
+    private static String getCreatedTable(final String statement) {
+        int end = SQL_CREATE_TABLE.length();
+
+        while (end < statement.length()
+                && (Character.isLetterOrDigit(statement.charAt(end))
+                || statement.charAt(end) == '_')) {
+            end++;
+        }
+
+        return statement.substring("CREATE TABLE ".length(), end);
+    }
+
+    /**
+     * Reads SQL statements from specified resource. Statements are separated
+     * by semicolons at the ends of lines.
+     *
+     * @param resourceName name of the resource from which to read the SQL
+     *                     statements
+     *
+     * @return list of SQL statements
+     */
+    static List<String> readSQLFromResource(final String resourceName) {
+        final List<String> result = new ArrayList<>(100);
         final StringBuilder sbSQL = new StringBuilder(10_240);
 
         try (final BufferedReader reader = new BufferedReader(
                 new InputStreamReader(
                 MainConvertor.class.getResourceAsStream(
-                resourceName), "UTF-8"));
-                final Statement stm = con.createStatement()) {
+                resourceName), "UTF-8"))) {
             String line = reader.readLine();
 
             while (line != null) {
                 sbSQL.append(line);
 
                 if (line.endsWith(";")) {
-                    stm.execute(sbSQL.toString());
+                    result.add(sbSQL.toString());
                     sbSQL.setLength(0);
                 } else {
                     sbSQL.append('\n');
@@ -194,13 +583,12 @@ public class MainConvertor {
 
                 line = reader.readLine();
             }
-        } catch (final SQLException ex) {
-            throw new RuntimeException(
-                    "Statement failed: " + sbSQL.toString(), ex);
         } catch (final IOException ex) {
             throw new RuntimeException(
                     "Failed to read SQL statements from resource", ex);
         }
+
+        return result;
     }
 
     /**
@@ -241,117 +629,43 @@ public class MainConvertor {
     }
 
     /**
-     * Processes single input file.
-     *
-     * @param file file path
-     *
-     * @throws UnsupportedEncodingException Thrown if UTF-8 encoding is not
-     *                                      supported.
-     * @throws XMLStreamException           Thrown if problem occurred while
-     *                                      reading XML stream.
-     * @throws SQLException                 Thrown if problem occurred while
-     *                                      communicating with database.
+     * Task that converts single file using file convertor that is borrowed
+     * from the queue of available file convertors.
      */
-    private static void processFile(final Path file) throws XMLStreamException,
-            SQLException {
-        final String fileName = file.toString();
-
-        if (fileName.endsWith(".xml.gz") || fileName.endsWith(".xml.zip") || fileName.endsWith(".xml")) {
-            final long startTimestamp = System.currentTimeMillis();
-
-            Log.write("Processing file " + file);
-            Log.flush();
-
-            try (final InputStream inputStream = Files.newInputStream(file)) {
-                if (fileName.endsWith(".gz")) {
-                    readInputStream(new GZIPInputStream(inputStream));
-                } 
-                else if (fileName.endsWith(".zip")) {
-                	ZipFile zif = new ZipFile(fileName);
-                	ZipEntry ze = zif.entries().nextElement();
-                	readInputStream(zif.getInputStream(ze));
-                	zif.close();
-				}
-                else {
-                    readInputStream(inputStream);
-                }
-            } catch (final IOException ex) {
-                throw new RuntimeException("Failed to read input file", ex);
-            }
-
-            Log.write("File processed in "
-                    + (System.currentTimeMillis() - startTimestamp) + " ms");
-            Log.flush();
-        } else {
-            Log.write("Unsupported file extension, ignoring file " + file);
+    private static class FileTask implements Callable<Void> {
+
+        /**
+         * Queue of available file convertors.
+         */
+        private final BlockingQueue<FileConvertor> fileConvertors;
+        /**
+         * File to be converted.
+         */
+        private final Path file;
+
+        /**
+         * Creates new instance of FileTask.
+         *
+         * @param fileConvertors {@link #fileConvertors}
+         * @param file           {@link #file}
+         */
+        FileTask(final BlockingQueue<FileConvertor> fileConvertors,
+                final Path file) {
+            this.fileConvertors = fileConvertors;
+            this.file = file;
         }
-    }
 
-    /**
-     * Reads input stream and processes the XML content.
-     *
-     * @param inputStream input stream containing XML data
-     *
-     * @throws XMLStreamException Thrown if problem occurred while reading XML
-     *                            stream.
-     * @throws SQLException       Thrown if problem occurred while communicating
-     *                            with database.
-     */
-    private static void readInputStream(final InputStream inputStream)
-            throws XMLStreamException, SQLException {
-        final XMLInputFactory xMLInputFactory = XMLInputFactory.newInstance();
+        @Override
+        public Void call() throws Exception {
+            final FileConvertor fileConvertor = fileConvertors.take();
 
-        final XMLStreamReader reader;
-
-        try {
-            reader = xMLInputFactory.createXMLStreamReader(
-                    new InputStreamReader(inputStream, "UTF-8"));
-        } catch (final UnsupportedEncodingException ex) {
-            throw new RuntimeException("UTF-8 encoding is not supported", ex);
-        }
-
-        while (reader.hasNext()) {
-            final int event = reader.next();
-
-            if (event == XMLStreamReader.START_ELEMENT) {
-                processElement(reader);
+            try {
+                fileConvertor.convertFile(file);
+            } finally {
+                fileConvertors.add(fileConvertor);
             }
-        }
-    }
 
-    /**
-     * Processes elements and its sub-elements.
-     *
-     * @param reader XML stream reader
-     *
-     * @throws XMLStreamException Thrown if problem occurred while reading XML
-     *                            stream.
-     * @throws SQLException       Thrown if problem occurred while communicating
-     *                            with database.
-     */
-    private static void processElement(final XMLStreamReader reader)
-            throws XMLStreamException, SQLException {
-        switch (reader.getNamespaceURI()) {
-            case Namespaces.VYMENNY_FORMAT_TYPY:
-                switch (reader.getLocalName()) {
-                    case "VymennyFormat":
-                        exchangeFormatConvertor.convert(reader);
-                        break;
-                    default:
-                        XMLUtils.processUnsupported(reader);
-                }
-                break;
-            case Namespaces.SPECIALNI_VYMENNY_FORMAT_TYPY:
-                switch (reader.getLocalName()) {
-                    case "SpecialniVymennyFormat":
-                        specialExchangeFormatConvertor.convert(reader);
-                        break;
-                    default:
-                        XMLUtils.processUnsupported(reader);
-                }
-                break;
-            default:
-                XMLUtils.processUnsupported(reader);
+            return null;
         }
     }
 }
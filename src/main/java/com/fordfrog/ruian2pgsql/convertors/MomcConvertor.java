@@ -21,7 +21,6 @@
  */
 package com.fordfrog.ruian2pgsql.convertors;
 
-import com.fordfrog.ruian2pgsql.Config;
 import com.fordfrog.ruian2pgsql.containers.Momc;
 import com.fordfrog.ruian2pgsql.utils.Namespaces;
 import com.fordfrog.ruian2pgsql.utils.PreparedStatementEx;
@@ -116,13 +115,13 @@ public class MomcConvertor extends AbstractSaveConvertor<Momc> {
     @SuppressWarnings("ValueOfIncrementOrDecrementUsed")
     protected void fill(final PreparedStatement pstm, final Momc item,
             final boolean update) throws SQLException {
-        final PreparedStatementEx pstmEx = new PreparedStatementEx(pstm);
+        final PreparedStatementEx pstmEx = getPreparedStatementEx(pstm);
         int index = 1;
         pstm.setString(index++, item.getNazev());
-        pstmEx.setBoolean(index++, item.getNespravny());
-        pstm.setInt(index++, item.getObecKod());
-        pstmEx.setInt(index++, item.getMopKod());
-        pstmEx.setInt(index++, item.getSpravobvKod());
+        pstmEx.setBoolean(index++, item.getNespravny(), item.isNespravnyNull());
+        pstmEx.setInt(index++, item.getObecKod(), item.isObecKodNull());
+        pstmEx.setInt(index++, item.getMopKod(), item.isMopKodNull());
+        pstmEx.setInt(index++, item.getSpravobvKod(), item.isSpravobvKodNull());
         pstm.setString(index++, item.getMluvCharPad2());
         pstm.setString(index++, item.getMluvCharPad3());
         pstm.setString(index++, item.getMluvCharPad4());
@@ -136,11 +135,12 @@ public class MomcConvertor extends AbstractSaveConvertor<Momc> {
         pstm.setBytes(index++, item.getZnakObrazek());
         pstm.setLong(index++, item.getIdTransRuian());
         pstmEx.setDate(index++, item.getPlatiOd());
-        pstm.setLong(index++, item.getNzIdGlobalni());
+        pstmEx.setLong(index++, item.getNzIdGlobalni(),
+                item.isNzIdGlobalniNull());
 
-        if (!Config.isNoGis()) {
-            pstm.setString(index++, item.getDefinicniBod());
-            pstm.setString(index++, item.getHranice());
+        if (isGeometryBound(pstm)) {
+            pstmEx.setGeometry(index++, item.getDefinicniBod());
+            pstmEx.setGeometry(index++, item.getHranice());
         }
 
         pstmEx.setDate(index++, item.getDatumVzniku());
@@ -157,6 +157,11 @@ public class MomcConvertor extends AbstractSaveConvertor<Momc> {
         pstm.setInt(1, item.getKod());
     }
 
+    @Override
+    protected Number getItemKey(final Momc item) {
+        return item.getKod();
+    }
+
     @Override
     protected void processElement(final XMLStreamReader reader, final Momc item)
             throws XMLStreamException {
@@ -168,20 +173,16 @@ public class MomcConvertor extends AbstractSaveConvertor<Momc> {
                                 Utils.parseTimestamp(reader.getElementText()));
                         break;
                     case "Geometrie":
-                        Utils.processGeometrie(
-                                reader, getConnection(), item, NAMESPACE);
+                        processGeometrie(reader, item, NAMESPACE);
                         break;
                     case "GlobalniIdNavrhuZmeny":
-                        item.setNzIdGlobalni(
-                                Long.parseLong(reader.getElementText()));
+                        item.setNzIdGlobalni(XMLUtils.readLong(reader));
                         break;
                     case "IdTransakce":
-                        item.setIdTransRuian(
-                                Long.parseLong(reader.getElementText()));
+                        item.setIdTransRuian(XMLUtils.readLong(reader));
                         break;
                     case "Kod":
-                        item.setKod(
-                                Integer.parseInt(reader.getElementText()));
+                        item.setKod(XMLUtils.readInt(reader));
                         break;
                     case "MluvnickeCharakteristiky":
                         Utils.processMluvnickeCharakteristiky(
@@ -194,8 +195,7 @@ public class MomcConvertor extends AbstractSaveConvertor<Momc> {
                         item.setNazev(reader.getElementText());
                         break;
                     case "Nespravny":
-                        item.setNespravny(
-                                Boolean.valueOf(reader.getElementText()));
+                        item.setNespravny(XMLUtils.readBoolean(reader));
                         break;
                     case "Obec":
                         item.setObecKod(Utils.getObecKod(reader, NAMESPACE));
@@ -211,6 +211,9 @@ public class MomcConvertor extends AbstractSaveConvertor<Momc> {
                     case "VlajkaText":
                         item.setVlajkaText(reader.getElementText());
                         break;
+                    case "ZmenaGrafiky":
+                        item.setZmenaGrafiky(XMLUtils.readBoolean(reader));
+                        break;
                     case "ZnakText":
                         item.setZnakText(reader.getElementText());
                         break;
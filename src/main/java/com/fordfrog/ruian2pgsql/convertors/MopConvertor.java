@@ -21,7 +21,6 @@
  */
 package com.fordfrog.ruian2pgsql.convertors;
 
-import com.fordfrog.ruian2pgsql.Config;
 import com.fordfrog.ruian2pgsql.containers.Mop;
 import com.fordfrog.ruian2pgsql.utils.Namespaces;
 import com.fordfrog.ruian2pgsql.utils.PreparedStatementEx;
@@ -98,19 +97,20 @@ public class MopConvertor extends AbstractSaveConvertor<Mop> {
     @SuppressWarnings("ValueOfIncrementOrDecrementUsed")
     protected void fill(final PreparedStatement pstm, final Mop item,
             final boolean update) throws SQLException {
-        final PreparedStatementEx pstmEx = new PreparedStatementEx(pstm);
+        final PreparedStatementEx pstmEx = getPreparedStatementEx(pstm);
         int index = 1;
         pstm.setString(index++, item.getNazev());
-        pstmEx.setBoolean(index++, item.getNespravny());
-        pstm.setInt(index++, item.getObecKod());
+        pstmEx.setBoolean(index++, item.getNespravny(), item.isNespravnyNull());
+        pstmEx.setInt(index++, item.getObecKod(), item.isObecKodNull());
         pstm.setLong(index++, item.getIdTransRuian());
         pstmEx.setDate(index++, item.getPlatiOd());
-        pstm.setLong(index++, item.getNzIdGlobalni());
+        pstmEx.setLong(index++, item.getNzIdGlobalni(),
+                item.isNzIdGlobalniNull());
         pstmEx.setBoolean(index++, item.getZmenaGrafiky());
 
-        if (!Config.isNoGis()) {
-            pstm.setString(index++, item.getDefinicniBod());
-            pstm.setString(index++, item.getHranice());
+        if (isGeometryBound(pstm)) {
+            pstmEx.setGeometry(index++, item.getDefinicniBod());
+            pstmEx.setGeometry(index++, item.getHranice());
         }
 
         pstmEx.setDate(index++, item.getDatumVzniku());
@@ -127,6 +127,11 @@ public class MopConvertor extends AbstractSaveConvertor<Mop> {
         pstm.setInt(1, item.getKod());
     }
 
+    @Override
+    protected Number getItemKey(final Mop item) {
+        return item.getKod();
+    }
+
     @Override
     protected void processElement(final XMLStreamReader reader, final Mop item)
             throws XMLStreamException {
@@ -138,27 +143,22 @@ public class MopConvertor extends AbstractSaveConvertor<Mop> {
                                 Utils.parseTimestamp(reader.getElementText()));
                         break;
                     case "Geometrie":
-                        Utils.processGeometrie(
-                                reader, getConnection(), item, NAMESPACE);
+                        processGeometrie(reader, item, NAMESPACE);
                         break;
                     case "GlobalniIdNavrhuZmeny":
-                        item.setNzIdGlobalni(
-                                Long.parseLong(reader.getElementText()));
+                        item.setNzIdGlobalni(XMLUtils.readLong(reader));
                         break;
                     case "IdTransakce":
-                        item.setIdTransRuian(
-                                Long.parseLong(reader.getElementText()));
+                        item.setIdTransRuian(XMLUtils.readLong(reader));
                         break;
                     case "Kod":
-                        item.setKod(
-                                Integer.parseInt(reader.getElementText()));
+                        item.setKod(XMLUtils.readInt(reader));
                         break;
                     case "Nazev":
                         item.setNazev(reader.getElementText());
                         break;
                     case "Nespravny":
-                        item.setNespravny(
-                                Boolean.valueOf(reader.getElementText()));
+                        item.setNespravny(XMLUtils.readBoolean(reader));
                         break;
                     case "Obec":
                         item.setObecKod(Utils.getObecKod(reader, NAMESPACE));
@@ -167,6 +167,9 @@ public class MopConvertor extends AbstractSaveConvertor<Mop> {
                         item.setPlatiOd(
                                 Utils.parseTimestamp(reader.getElementText()));
                         break;
+                    case "ZmenaGrafiky":
+                        item.setZmenaGrafiky(XMLUtils.readBoolean(reader));
+                        break;
                     default:
                         XMLUtils.processUnsupported(reader);
                 }
@@ -21,7 +21,6 @@
  */
 package com.fordfrog.ruian2pgsql.convertors;
 
-import com.fordfrog.ruian2pgsql.Config;
 import com.fordfrog.ruian2pgsql.containers.Obec;
 import com.fordfrog.ruian2pgsql.utils.Namespaces;
 import com.fordfrog.ruian2pgsql.utils.PreparedStatementEx;
@@ -122,12 +121,12 @@ public class ObecConvertor extends AbstractSaveConvertor<Obec> {
     @SuppressWarnings("ValueOfIncrementOrDecrementUsed")
     protected void fill(final PreparedStatement pstm, final Obec item,
             final boolean update) throws SQLException {
-        final PreparedStatementEx pstmEx = new PreparedStatementEx(pstm);
+        final PreparedStatementEx pstmEx = getPreparedStatementEx(pstm);
         int index = 1;
         pstm.setString(index++, item.getNazev());
-        pstmEx.setBoolean(index++, item.getNespravny());
-        pstmEx.setInt(index++, item.getOkresKod());
-        pstm.setInt(index++, item.getPouKod());
+        pstmEx.setBoolean(index++, item.getNespravny(), item.isNespravnyNull());
+        pstmEx.setInt(index++, item.getOkresKod(), item.isOkresKodNull());
+        pstmEx.setInt(index++, item.getPouKod(), item.isPouKodNull());
         pstm.setString(index++, item.getNutsLau());
         pstm.setString(index++, item.getMluvCharPad2());
         pstm.setString(index++, item.getMluvCharPad3());
@@ -136,20 +135,23 @@ public class ObecConvertor extends AbstractSaveConvertor<Obec> {
         pstm.setString(index++, item.getMluvCharPad6());
         pstm.setString(index++, item.getMluvCharPad7());
         pstmEx.setBoolean(index++, item.getZmenaGrafiky());
-        pstmEx.setInt(index++, item.getCleneniSmRozsahKod());
-        pstmEx.setInt(index++, item.getCleneniSmTypKod());
-        pstm.setInt(index++, item.getStatusKod());
+        pstmEx.setInt(index++, item.getCleneniSmRozsahKod(),
+                item.isCleneniSmRozsahKodNull());
+        pstmEx.setInt(index++, item.getCleneniSmTypKod(),
+                item.isCleneniSmTypKodNull());
+        pstmEx.setInt(index++, item.getStatusKod(), item.isStatusKodNull());
         pstm.setString(index++, item.getVlajkaText());
         pstm.setBytes(index++, item.getVlajkaObrazek());
         pstm.setString(index++, item.getZnakText());
         pstm.setBytes(index++, item.getZnakObrazek());
         pstm.setLong(index++, item.getIdTransRuian());
         pstmEx.setDate(index++, item.getPlatiOd());
-        pstm.setLong(index++, item.getNzIdGlobalni());
+        pstmEx.setLong(index++, item.getNzIdGlobalni(),
+                item.isNzIdGlobalniNull());
 
-        if (!Config.isNoGis()) {
-            pstm.setString(index++, item.getDefinicniBod());
-            pstm.setString(index++, item.getHranice());
+        if (isGeometryBound(pstm)) {
+            pstmEx.setGeometry(index++, item.getDefinicniBod());
+            pstmEx.setGeometry(index++, item.getHranice());
         }
 
         pstmEx.setDate(index++, item.getDatumVzniku());
@@ -166,6 +168,11 @@ public class ObecConvertor extends AbstractSaveConvertor<Obec> {
         pstm.setInt(1, item.getKod());
     }
 
+    @Override
+    protected Number getItemKey(final Obec item) {
+        return item.getKod();
+    }
+
     @Override
     protected void processElement(final XMLStreamReader reader, final Obec item)
             throws XMLStreamException {
@@ -173,32 +180,26 @@ public class ObecConvertor extends AbstractSaveConvertor<Obec> {
             case NAMESPACE:
                 switch (reader.getLocalName()) {
                     case "CleneniSMRozsahKod":
-                        item.setCleneniSmRozsahKod(
-                                Integer.parseInt(reader.getElementText()));
+                        item.setCleneniSmRozsahKod(XMLUtils.readInt(reader));
                         break;
                     case "CleneniSMTypKod":
-                        item.setCleneniSmTypKod(
-                                Integer.parseInt(reader.getElementText()));
+                        item.setCleneniSmTypKod(XMLUtils.readInt(reader));
                         break;
                     case "DatumVzniku":
                         item.setDatumVzniku(
                                 Utils.parseTimestamp(reader.getElementText()));
                         break;
                     case "Geometrie":
-                        Utils.processGeometrie(
-                                reader, getConnection(), item, NAMESPACE);
+                        processGeometrie(reader, item, NAMESPACE);
                         break;
                     case "GlobalniIdNavrhuZmeny":
-                        item.setNzIdGlobalni(
-                                Long.parseLong(reader.getElementText()));
+                        item.setNzIdGlobalni(XMLUtils.readLong(reader));
                         break;
                     case "IdTransakce":
-                        item.setIdTransRuian(
-                                Long.parseLong(reader.getElementText()));
+                        item.setIdTransRuian(XMLUtils.readLong(reader));
                         break;
                     case "Kod":
-                        item.setKod(
-                                Integer.parseInt(reader.getElementText()));
+                        item.setKod(XMLUtils.readInt(reader));
                         break;
                     case "MluvnickeCharakteristiky":
                         Utils.processMluvnickeCharakteristiky(
@@ -208,8 +209,7 @@ public class ObecConvertor extends AbstractSaveConvertor<Obec> {
                         item.setNazev(reader.getElementText());
                         break;
                     case "Nespravny":
-                        item.setNespravny(
-                                Boolean.valueOf(reader.getElementText()));
+                        item.setNespravny(XMLUtils.readBoolean(reader));
                         break;
                     case "NutsLau":
                         item.setNutsLau(reader.getElementText());
@@ -225,12 +225,14 @@ public class ObecConvertor extends AbstractSaveConvertor<Obec> {
                         item.setPouKod(Utils.getPouKod(reader, NAMESPACE));
                         break;
                     case "StatusKod":
-                        item.setStatusKod(
-                                Integer.parseInt(reader.getElementText()));
+                        item.setStatusKod(XMLUtils.readInt(reader));
                         break;
                     case "VlajkaText":
                         item.setVlajkaText(reader.getElementText());
                         break;
+                    case "ZmenaGrafiky":
+                        item.setZmenaGrafiky(XMLUtils.readBoolean(reader));
+                        break;
                     case "ZnakText":
                         item.setZnakText(reader.getElementText());
                         break;
@@ -21,7 +21,6 @@
  */
 package com.fordfrog.ruian2pgsql.convertors;
 
-import com.fordfrog.ruian2pgsql.Config;
 import com.fordfrog.ruian2pgsql.containers.Okres;
 import com.fordfrog.ruian2pgsql.utils.Namespaces;
 import com.fordfrog.ruian2pgsql.utils.PreparedStatementEx;
@@ -102,21 +101,22 @@ public class OkresConvertor extends AbstractSaveConvertor<Okres> {
     @SuppressWarnings("ValueOfIncrementOrDecrementUsed")
     protected void fill(PreparedStatement pstm, Okres item, boolean update)
             throws SQLException {
-        final PreparedStatementEx pstmEx = new PreparedStatementEx(pstm);
+        final PreparedStatementEx pstmEx = getPreparedStatementEx(pstm);
         int index = 1;
         pstm.setString(index++, item.getNazev());
-        pstmEx.setBoolean(index++, item.getNespravny());
-        pstm.setInt(index++, item.getVuscKod());
-        pstmEx.setInt(index++, item.getKraj1960Kod());
+        pstmEx.setBoolean(index++, item.getNespravny(), item.isNespravnyNull());
+        pstmEx.setInt(index++, item.getVuscKod(), item.isVuscKodNull());
+        pstmEx.setInt(index++, item.getKraj1960Kod(), item.isKraj1960KodNull());
         pstm.setLong(index++, item.getIdTransRuian());
         pstm.setString(index++, item.getNutsLau());
         pstmEx.setDate(index++, item.getPlatiOd());
-        pstm.setLong(index++, item.getNzIdGlobalni());
+        pstmEx.setLong(index++, item.getNzIdGlobalni(),
+                item.isNzIdGlobalniNull());
         pstmEx.setBoolean(index++, item.getZmenaGrafiky());
 
-        if (!Config.isNoGis()) {
-            pstm.setString(index++, item.getDefinicniBod());
-            pstm.setString(index++, item.getHranice());
+        if (isGeometryBound(pstm)) {
+            pstmEx.setGeometry(index++, item.getDefinicniBod());
+            pstmEx.setGeometry(index++, item.getHranice());
         }
 
         pstmEx.setDate(index++, item.getDatumVzniku());
@@ -133,6 +133,11 @@ public class OkresConvertor extends AbstractSaveConvertor<Okres> {
         pstm.setInt(1, item.getKod());
     }
 
+    @Override
+    protected Number getItemKey(final Okres item) {
+        return item.getKod();
+    }
+
     @Override
     protected void processElement(final XMLStreamReader reader,
             final Okres item) throws XMLStreamException {
@@ -144,19 +149,16 @@ public class OkresConvertor extends AbstractSaveConvertor<Okres> {
                                 Utils.parseTimestamp(reader.getElementText()));
                         break;
                     case "Geometrie":
-                        Utils.processGeometrie(
-                                reader, getConnection(), item, NAMESPACE);
+                        processGeometrie(reader, item, NAMESPACE);
                         break;
                     case "GlobalniIdNavrhuZmeny":
-                        item.setNzIdGlobalni(
-                                Long.parseLong(reader.getElementText()));
+                        item.setNzIdGlobalni(XMLUtils.readLong(reader));
                         break;
                     case "IdTransakce":
-                        item.setIdTransRuian(
-                                Long.parseLong(reader.getElementText()));
+                        item.setIdTransRuian(XMLUtils.readLong(reader));
                         break;
                     case "Kod":
-                        item.setKod(Integer.parseInt(reader.getElementText()));
+                        item.setKod(XMLUtils.readInt(reader));
                         break;
                     case "Kraj":
                         item.setKraj1960Kod(
@@ -166,8 +168,7 @@ public class OkresConvertor extends AbstractSaveConvertor<Okres> {
                         item.setNazev(reader.getElementText());
                         break;
                     case "Nespravny":
-                        item.setNespravny(
-                                Boolean.valueOf(reader.getElementText()));
+                        item.setNespravny(XMLUtils.readBoolean(reader));
                         break;
                     case "NutsLau":
                         item.setNutsLau(reader.getElementText());
@@ -179,6 +180,9 @@ public class OkresConvertor extends AbstractSaveConvertor<Okres> {
                     case "Vusc":
                         item.setVuscKod(Utils.getVuscKod(reader, NAMESPACE));
                         break;
+                    case "ZmenaGrafiky":
+                        item.setZmenaGrafiky(XMLUtils.readBoolean(reader));
+                        break;
                     default:
                         XMLUtils.processUnsupported(reader);
                 }
@@ -30,6 +30,7 @@ import com.fordfrog.ruian2pgsql.utils.XMLUtils;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.sql.Statement;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
 
@@ -88,23 +89,27 @@ public class ParcelaConvertor extends AbstractSaveConvertor<Parcela> {
             + "item_timestamp = timezone('utc', now()), deleted = false "
             + "WHERE id = ? AND id_trans_ruian <= ?";
     /**
-     * SQL statement for deletion of BonitovaneDily.
+     * SQL statement for deletion of BonitovaneDily of staged Parcely.
      */
-    private static final String SQL_DELETE_BONITOVANE_DILY =
-            "DELETE FROM rn_bonit_dily_parcel WHERE parcela_id = ?";
+    private static final String SQL_DELETE_STAGED_BONITOVANE_DILY =
+            "DELETE FROM rn_bonit_dily_parcel "
+            + "WHERE parcela_id IN (SELECT id FROM stg_rn_parcela)";
     /**
-     * SQL statement for deletion of ZpusobyOchranyPozemku.
+     * SQL statement for deletion of ZpusobyOchranyPozemku of staged Parcely.
      */
-    private static final String SQL_DELETE_ZPUSOBY_OCHRANY_POZEMKU =
-            "DELETE FROM rn_zpusob_ochrany_pozemku WHERE parcela_id = ?";
+    private static final String SQL_DELETE_STAGED_ZPUSOBY_OCHRANY_POZEMKU =
+            "DELETE FROM rn_zpusob_ochrany_pozemku "
+            + "WHERE parcela_id IN (SELECT id FROM stg_rn_parcela)";
     /**
-     * Prepared statement for deletion of BonitovaneDily.
+     * Deleter of BonitovaneDily and ZpusobyOchranyPozemku, null if sub-items
+     * are synchronized.
      */
-    private final PreparedStatement pstmDeleteBonitovaneDily;
+    private final SubItemsDeleter subItemsDeleter;
     /**
-     * Prepared statement for deletion of ZpusobyOchranyPozemku.
+     * Synchronizers of sub-items, null if sub-items are deleted and inserted
+     * again.
      */
-    private final PreparedStatement pstmDeleteZpusobyOchranyPozemku;
+    private final SubItemsSynchronizer[] subItemsSynchronizers;
     /**
      * Convertor for BonitovaneDily.
      */
@@ -135,45 +140,114 @@ public class ParcelaConvertor extends AbstractSaveConvertor<Parcela> {
                 SQL_EXISTS, SQL_INSERT, SQL_UPDATE, SQL_INSERT_NO_GIS,
                 SQL_UPDATE_NO_GIS);
 
-        pstmDeleteBonitovaneDily =
-                con.prepareStatement(SQL_DELETE_BONITOVANE_DILY);
-        pstmDeleteZpusobyOchranyPozemku =
-                con.prepareStatement(SQL_DELETE_ZPUSOBY_OCHRANY_POZEMKU);
-
         bonitovanyDilConvertor = new BonitovanyDilConvertor(con);
+        bonitovanyDilConvertor.setParentConvertor(this);
         zpusobOchranyPozemkuConvertor = new ZpusobOchranyPozemkuConvertor(con);
+        zpusobOchranyPozemkuConvertor.setParentConvertor(this);
+
+        if (Config.isSyncSubItems()) {
+            subItemsDeleter = null;
+            subItemsSynchronizers = new SubItemsSynchronizer[]{
+                bonitovanyDilConvertor.createSubItemsSynchronizer(
+                        "parcela_id", "bpej_kod"),
+                zpusobOchranyPozemkuConvertor.createSubItemsSynchronizer(
+                        "parcela_id", "kod")};
+        } else {
+            subItemsDeleter = new SubItemsDeleter(con, "bigint", "parcela_id",
+                    "rn_bonit_dily_parcel", "rn_zpusob_ochrany_pozemku");
+            subItemsSynchronizers = null;
+        }
 
         convertorBonitovaneDily = new CollectionConvertor(
                 Namespaces.PARCELA_INT_TYPY, "BonitovaneDily",
                 Namespaces.COMMON_TYPY, "BonitovanyDil",
-                bonitovanyDilConvertor);
+                bonitovanyDilConvertor, false);
         convertorZpusobyOchranyPozemku = new CollectionConvertor(
                 Namespaces.PARCELA_INT_TYPY, "ZpusobyOchranyPozemku",
                 Namespaces.COMMON_TYPY, "ZpusobOchrany",
-                zpusobOchranyPozemkuConvertor);
+                zpusobOchranyPozemkuConvertor, false);
+    }
+
+    /**
+     * Executes pending deletes or synchronization of sub-items and pending
+     * batches of this convertor and of convertors of Parcela
+     * sub-elements. Sub-items are deleted first so that new sub-items are not
+     * deleted.
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    @Override
+    public void flush() throws SQLException {
+        runOnWriter(new DatabaseWriter.Task() {
+            @Override
+            public void run() throws SQLException {
+                flushSubItems();
+            }
+        });
+        super.flush();
+        bonitovanyDilConvertor.flush();
+        zpusobOchranyPozemkuConvertor.flush();
+    }
+
+    /**
+     * Deletes sub-items of staged Parcely before the Parcely are merged.
+     * Sub-items from the staging tables are merged afterwards in
+     * {@link #flush()}.
+     *
+     * @param stm statement that can be used for execution of SQL statements
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    @Override
+    protected void merge(final Statement stm) throws SQLException {
+        stm.executeUpdate(SQL_DELETE_STAGED_BONITOVANE_DILY);
+        stm.executeUpdate(SQL_DELETE_STAGED_ZPUSOBY_OCHRANY_POZEMKU);
+        super.merge(stm);
+    }
+
+    /**
+     * Checks whether Parcela or any of its sub-items is pending in a batch.
+     * In such case the batches must be executed before sub-items are
+     * deleted.
+     *
+     * @param key Parcela key
+     *
+     * @return true if there are pending items, otherwise false
+     */
+    private boolean hasPendingItems(final Long key) {
+        return isPending(key) || bonitovanyDilConvertor.isPending(key)
+                || zpusobOchranyPozemkuConvertor.isPending(key);
     }
 
     @Override
     @SuppressWarnings("ValueOfIncrementOrDecrementUsed")
     protected void fill(final PreparedStatement pstm, final Parcela item,
             final boolean update) throws SQLException {
-        final PreparedStatementEx pstmEx = new PreparedStatementEx(pstm);
+        final PreparedStatementEx pstmEx = getPreparedStatementEx(pstm);
         int index = 1;
-        pstmEx.setBoolean(index++, item.getNespravny());
-        pstm.setInt(index++, item.getKatuzKod());
-        pstm.setInt(index++, item.getDruhPozemkuKod());
-        pstm.setInt(index++, item.getDruhCislovaniKod());
-        pstm.setInt(index++, item.getKmenoveCislo());
-        pstmEx.setInt(index++, item.getPoddeleniCisla());
-        pstm.setLong(index++, item.getVymeraParcely());
+        pstmEx.setBoolean(index++, item.getNespravny(), item.isNespravnyNull());
+        pstmEx.setInt(index++, item.getKatuzKod(), item.isKatuzKodNull());
+        pstmEx.setInt(index++, item.getDruhPozemkuKod(),
+                item.isDruhPozemkuKodNull());
+        pstmEx.setInt(index++, item.getDruhCislovaniKod(),
+                item.isDruhCislovaniKodNull());
+        pstmEx.setInt(index++, item.getKmenoveCislo(),
+                item.isKmenoveCisloNull());
+        pstmEx.setInt(index++, item.getPoddeleniCisla(),
+                item.isPoddeleniCislaNull());
+        pstmEx.setLong(index++, item.getVymeraParcely(),
+                item.isVymeraParcelyNull());
         pstm.setLong(index++, item.getIdTransRuian());
-        pstmEx.setInt(index++, item.getZpusobVyuPozKod());
-        pstm.setLong(index++, item.getRizeniId());
+        pstmEx.setInt(index++, item.getZpusobVyuPozKod(),
+                item.isZpusobVyuPozKodNull());
+        pstmEx.setLong(index++, item.getRizeniId(), item.isRizeniIdNull());
         pstmEx.setDate(index++, item.getPlatiOd());
 
-        if (!Config.isNoGis()) {
-            pstm.setString(index++, item.getDefinicniBod());
-            pstm.setString(index++, item.getHranice());
+        if (isGeometryBound(pstm)) {
+            pstmEx.setGeometry(index++, item.getDefinicniBod());
+            pstmEx.setGeometry(index++, item.getHranice());
         }
 
         pstm.setLong(index++, item.getId());
@@ -189,6 +263,11 @@ public class ParcelaConvertor extends AbstractSaveConvertor<Parcela> {
         pstm.setLong(1, item.getId());
     }
 
+    @Override
+    protected Number getItemKey(final Parcela item) {
+        return item.getId();
+    }
+
     @Override
     protected void processElement(final XMLStreamReader reader,
             final Parcela item) throws XMLStreamException,
@@ -197,66 +276,69 @@ public class ParcelaConvertor extends AbstractSaveConvertor<Parcela> {
             case NAMESPACE:
                 switch (reader.getLocalName()) {
                     case "BonitovaneDily":
+                        if (isSuperseded(item)) {
+                            XMLUtils.processUnsupported(reader);
+                            break;
+                        }
+
                         bonitovanyDilConvertor.setParcelaId(item.getId());
                         convertorBonitovaneDily.convert(reader);
                         break;
                     case "DruhCislovaniKod":
-                        item.setDruhCislovaniKod(
-                                Integer.parseInt(reader.getElementText()));
+                        item.setDruhCislovaniKod(XMLUtils.readInt(reader));
                         break;
                     case "DruhPozemkuKod":
-                        item.setDruhPozemkuKod(
-                                Integer.parseInt(reader.getElementText()));
+                        item.setDruhPozemkuKod(XMLUtils.readInt(reader));
                         break;
                     case "Geometrie":
-                        Utils.processGeometrie(
-                                reader, getConnection(), item, NAMESPACE);
+                        processGeometrie(reader, item, NAMESPACE);
                         break;
                     case "Id":
-                        item.setId(Long.parseLong(reader.getElementText()));
-                        deleteBonitovateDily(item.getId());
-                        deleteZpusobyOchranyPozemku(item.getId());
+                        item.setId(XMLUtils.readLong(reader));
+
+                        if (!isSuperseded(item)) {
+                            deleteSubItems(item.getId());
+                        }
+
                         break;
                     case "IdTransakce":
-                        item.setIdTransRuian(
-                                Long.parseLong(reader.getElementText()));
+                        item.setIdTransRuian(XMLUtils.readLong(reader));
                         break;
                     case "KatastralniUzemi":
                         item.setKatuzKod(Utils.getKatastralniUzemiKod(
                                 reader, NAMESPACE));
                         break;
                     case "KmenoveCislo":
-                        item.setKmenoveCislo(
-                                Integer.parseInt(reader.getElementText()));
+                        item.setKmenoveCislo(XMLUtils.readInt(reader));
                         break;
                     case "Nespravny":
-                        item.setNespravny(
-                                Boolean.valueOf(reader.getElementText()));
+                        item.setNespravny(XMLUtils.readBoolean(reader));
                         break;
                     case "PlatiOd":
                         item.setPlatiOd(
                                 Utils.parseTimestamp(reader.getElementText()));
                         break;
                     case "PododdeleniCisla":
-                        item.setPoddeleniCisla(
-                                Integer.parseInt(reader.getElementText()));
+                        item.setPoddeleniCisla(XMLUtils.readInt(reader));
                         break;
                     case "RizeniId":
-                        item.setRizeniId(
-                                Long.parseLong(reader.getElementText()));
+                        item.setRizeniId(XMLUtils.readLong(reader));
                         break;
                     case "VymeraParcely":
-                        item.setVymeraParcely(
-                                Long.parseLong(reader.getElementText()));
+                        item.setVymeraParcely(XMLUtils.readLong(reader));
                         break;
                     case "ZpusobyOchranyPozemku":
+                        if (isSuperseded(item)) {
+                            XMLUtils.processUnsupported(reader);
+                            break;
+                        }
+
                         zpusobOchranyPozemkuConvertor.setParcelaId(
                                 item.getId());
                         convertorZpusobyOchranyPozemku.convert(reader);
                         break;
                     case "ZpusobyVyuzitiPozemku":
-                        item.setZpusobVyuPozKod(
-                                Integer.parseInt(reader.getElementText()));
+                        item.setZpusobVyuPozKod(XMLUtils.readInt(reader));
                         break;
                     default:
                         XMLUtils.processUnsupported(reader);
@@ -269,38 +351,77 @@ public class ParcelaConvertor extends AbstractSaveConvertor<Parcela> {
     }
 
     /**
-     * Deletes BonitovaneDily that belong to this Parcela.
+     * Schedules deletion of sub-items that belong to this Parcela, if the
+     * Parcela might already exist in database. Sub-items are deleted on
+     * {@link #flush()}, once for all Parcely in the batch. Pending batches are
+     * executed first if they contain the Parcela or its sub-items.
      *
      * @param parcelaId Parcela id
      *
      * @throws SQLException Thrown if problem occurred while deleting the items.
      */
-    private void deleteBonitovateDily(final Long parcelaId)
-            throws SQLException {
-        if (Config.isDryRun()) {
-            return;
-        }
+    private void deleteSubItems(final Long parcelaId) throws SQLException {
+        runOnWriter(new DatabaseWriter.Task() {
+            @Override
+            public void run() throws SQLException {
+                // sub-items of previous items are complete at this point
+                if (subItemsSynchronizers != null) {
+                    for (final SubItemsSynchronizer synchronizer
+                            : subItemsSynchronizers) {
+                        if (synchronizer.isFull()) {
+                            synchronizer.flush();
+                        }
+                    }
+                }
+
+                if (!mayExist(parcelaId)) {
+                    return;
+                }
+
+                if (hasPendingItems(parcelaId)) {
+                    flush();
+                }
 
-        pstmDeleteBonitovaneDily.clearParameters();
-        pstmDeleteBonitovaneDily.setLong(1, parcelaId);
-        pstmDeleteBonitovaneDily.execute();
+                // sub-items of staged Parcela are deleted when it is merged
+                if (isStaged()) {
+                    return;
+                }
+
+                if (subItemsSynchronizers != null) {
+                    for (final SubItemsSynchronizer synchronizer
+                            : subItemsSynchronizers) {
+                        synchronizer.add(parcelaId);
+                    }
+
+                    return;
+                }
+
+                subItemsDeleter.add(parcelaId);
+
+                // without batches sub-items are inserted immediately so they
+                // must be deleted right now
+                if (!Config.isBatchMode()
+                        || subItemsDeleter.size() >= Config.getBatchSize()) {
+                    subItemsDeleter.flush();
+                }
+            }
+        });
     }
 
     /**
-     * Deletes ZpusobyOchranyPozemku that belong to this Parcela.
+     * Deletes or synchronizes sub-items of collected Parcely.
      *
-     * @param parcelaId Parcela id
-     *
-     * @throws SQLException Thrown if problem occurred while deleting the items.
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
      */
-    private void deleteZpusobyOchranyPozemku(final Long parcelaId)
-            throws SQLException {
-        if (Config.isDryRun()) {
-            return;
+    private void flushSubItems() throws SQLException {
+        if (subItemsSynchronizers == null) {
+            subItemsDeleter.flush();
+        } else {
+            for (final SubItemsSynchronizer synchronizer
+                    : subItemsSynchronizers) {
+                synchronizer.flush();
+            }
         }
-
-        pstmDeleteZpusobyOchranyPozemku.clearParameters();
-        pstmDeleteZpusobyOchranyPozemku.setLong(1, parcelaId);
-        pstmDeleteZpusobyOchranyPozemku.execute();
     }
 }
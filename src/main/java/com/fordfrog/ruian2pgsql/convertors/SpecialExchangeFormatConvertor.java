@@ -63,6 +63,12 @@ public class SpecialExchangeFormatConvertor extends AbstractConvertor {
         hlavickaConvertor = new SpecialniHlavickaConvertor(con);
     }
 
+    @Override
+    public void flush() throws SQLException {
+        hlavickaConvertor.flush();
+        dataConvertor.flush();
+    }
+
     @Override
     protected void processElement(final XMLStreamReader reader)
             throws XMLStreamException, SQLException {
@@ -86,6 +86,18 @@ public class SpecialniCollectionConvertor extends AbstractConvertor {
         this.convertor = convertor;
     }
 
+    @Override
+    public void convert(final XMLStreamReader reader) throws XMLStreamException,
+            SQLException {
+        super.convert(reader);
+        convertor.flush();
+    }
+
+    @Override
+    public void flush() throws SQLException {
+        convertor.flush();
+    }
+
     @Override
     protected void processElement(final XMLStreamReader reader)
             throws XMLStreamException, SQLException {
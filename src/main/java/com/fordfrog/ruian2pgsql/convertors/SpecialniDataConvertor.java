@@ -58,6 +58,11 @@ public class SpecialniDataConvertor extends AbstractConvertor {
         
     }
 
+    @Override
+    public void flush() throws SQLException {
+        convertorVolebniOkrsek.flush();
+    }
+
     @Override
     protected void processElement(final XMLStreamReader reader)
             throws XMLStreamException, SQLException {
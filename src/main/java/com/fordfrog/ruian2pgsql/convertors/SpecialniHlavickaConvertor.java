@@ -70,7 +70,7 @@ public class SpecialniHlavickaConvertor extends AbstractSaveConvertor<Hlavicka>
     @Override
     protected void fill(final PreparedStatement pstm, final Hlavicka item,
                         final boolean update) throws SQLException {
-        final PreparedStatementEx pstmEx = new PreparedStatementEx(pstm);
+        final PreparedStatementEx pstmEx = getPreparedStatementEx(pstm);
         pstm.setString(1, item.getVerzeVfr());
         pstm.setString(2, item.getTypZaznamu());
         pstm.setString(3, item.getTypDavky());
@@ -189,8 +189,7 @@ public class SpecialniHlavickaConvertor extends AbstractSaveConvertor<Hlavicka>
             case Namespaces.COMMON_TYPY:
                 switch (reader.getLocalName()) {
                     case "Id":
-                        header.setTransakceOdId(
-                                Integer.parseInt(reader.getElementText()));
+                        header.setTransakceOdId(XMLUtils.readInt(reader));
                         break;
                     case "Zapsano":
                         header.setTransakceOdZapsano(
@@ -247,8 +246,7 @@ public class SpecialniHlavickaConvertor extends AbstractSaveConvertor<Hlavicka>
             case Namespaces.COMMON_TYPY:
                 switch (reader.getLocalName()) {
                     case "Id":
-                        header.setTransakceDoId(
-                                Integer.parseInt(reader.getElementText()));
+                        header.setTransakceDoId(XMLUtils.readInt(reader));
                         break;
                     case "Zapsano":
                         header.setTransakceDoZapsano(
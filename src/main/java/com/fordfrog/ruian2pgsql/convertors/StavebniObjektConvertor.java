@@ -30,7 +30,7 @@ import com.fordfrog.ruian2pgsql.utils.XMLUtils;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
-import java.util.Arrays;
+import java.sql.Statement;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
 
@@ -113,23 +113,28 @@ public class StavebniObjektConvertor
             + "item_timestamp = timezone('utc', now()), deleted = false "
             + "WHERE kod = ? AND id_trans_ruian <= ?";
     /**
-     * SQL statement for deleting of DetainiTEA.
+     * SQL statement for deletion of DetailniTEA of staged StavebniObjekty.
      */
-    private static final String SQL_DELETE_DETAILNI_TEA =
-            "DELETE FROM rn_detailni_tea WHERE stavobj_kod = ?";
+    private static final String SQL_DELETE_STAGED_DETAILNI_TEA =
+            "DELETE FROM rn_detailni_tea "
+            + "WHERE stavobj_kod IN (SELECT kod FROM stg_rn_stavebni_objekt)";
     /**
-     * SQL statement for deleting of ZpusobyOchranyObjektu.
+     * SQL statement for deletion of ZpusobyOchranyObjektu of staged
+     * StavebniObjekty.
      */
-    private static final String SQL_DELETE_ZPUSOBY_OCHRANY_OBJEKTU =
-            "DELETE FROM rn_zpusob_ochrany_objektu WHERE stavobj_kod = ?";
+    private static final String SQL_DELETE_STAGED_ZPUSOBY_OCHRANY_OBJEKTU =
+            "DELETE FROM rn_zpusob_ochrany_objektu "
+            + "WHERE stavobj_kod IN (SELECT kod FROM stg_rn_stavebni_objekt)";
     /**
-     * Prepared statement for deleting of DetainiTEA.
+     * Deleter of DetailniTEA and ZpusobyOchranyObjektu, null if sub-items are
+     * synchronized.
      */
-    private final PreparedStatement pstmDeleteDetailniTEA;
+    private final SubItemsDeleter subItemsDeleter;
     /**
-     * Prepared statement for deleting of ZpusobyOchranyObjektu.
+     * Synchronizers of sub-items, null if sub-items are deleted and inserted
+     * again.
      */
-    private final PreparedStatement pstmDeleteZpusobyOchranyObjektu;
+    private final SubItemsSynchronizer[] subItemsSynchronizers;
     /**
      * Convertor for DetailniTEA.
      */
@@ -160,65 +165,143 @@ public class StavebniObjektConvertor
                 "StavebniObjekt", con, SQL_EXISTS, SQL_INSERT, SQL_UPDATE,
                 SQL_INSERT_NO_GIS, SQL_UPDATE_NO_GIS);
 
-        pstmDeleteDetailniTEA = con.prepareStatement(SQL_DELETE_DETAILNI_TEA);
-        pstmDeleteZpusobyOchranyObjektu =
-                con.prepareStatement(SQL_DELETE_ZPUSOBY_OCHRANY_OBJEKTU);
-
         detailniTEAConvertor = new DetailniTEAConvertor(con);
+        detailniTEAConvertor.setParentConvertor(this);
         zpusobOchranyObjektuConvertor = new ZpusobOchranyObjektuConvertor(con);
+        zpusobOchranyObjektuConvertor.setParentConvertor(this);
+
+        if (Config.isSyncSubItems()) {
+            subItemsDeleter = null;
+            subItemsSynchronizers = new SubItemsSynchronizer[]{
+                detailniTEAConvertor.createSubItemsSynchronizer(
+                        "stavobj_kod", "kod"),
+                zpusobOchranyObjektuConvertor.createSubItemsSynchronizer(
+                        "stavobj_kod", "kod")};
+        } else {
+            subItemsDeleter = new SubItemsDeleter(con, "int", "stavobj_kod",
+                    "rn_detailni_tea", "rn_zpusob_ochrany_objektu");
+            subItemsSynchronizers = null;
+        }
 
         convertorDetailniTEA = new CollectionConvertor(
                 Namespaces.STAV_OBJ_INT_TYPY, "DetailniTEA",
                 Namespaces.STAV_OBJ_INT_TYPY, "DetailniTEA",
-                detailniTEAConvertor);
+                detailniTEAConvertor, false);
         convertorZpusobyOchranyObjektu = new CollectionConvertor(
                 Namespaces.STAV_OBJ_INT_TYPY, "ZpusobyOchrany",
                 Namespaces.COMMON_TYPY, "ZpusobOchrany",
-                zpusobOchranyObjektuConvertor);
+                zpusobOchranyObjektuConvertor, false);
+    }
+
+    /**
+     * Executes pending deletes or synchronization of sub-items and pending
+     * batches of this convertor and of convertors of StavebniObjekt
+     * sub-elements. Sub-items are deleted first so that new sub-items are not
+     * deleted.
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    @Override
+    public void flush() throws SQLException {
+        runOnWriter(new DatabaseWriter.Task() {
+            @Override
+            public void run() throws SQLException {
+                flushSubItems();
+            }
+        });
+        super.flush();
+        detailniTEAConvertor.flush();
+        zpusobOchranyObjektuConvertor.flush();
+    }
+
+    /**
+     * Deletes sub-items of staged StavebniObjekty before the StavebniObjekty
+     * are merged. Sub-items from the staging tables are merged afterwards in
+     * {@link #flush()}.
+     *
+     * @param stm statement that can be used for execution of SQL statements
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    @Override
+    protected void merge(final Statement stm) throws SQLException {
+        stm.executeUpdate(SQL_DELETE_STAGED_DETAILNI_TEA);
+        stm.executeUpdate(SQL_DELETE_STAGED_ZPUSOBY_OCHRANY_OBJEKTU);
+        super.merge(stm);
+    }
+
+    /**
+     * Checks whether StavebniObjekt or any of its sub-items is pending in a batch.
+     * In such case the batches must be executed before sub-items are
+     * deleted.
+     *
+     * @param key StavebniObjekt key
+     *
+     * @return true if there are pending items, otherwise false
+     */
+    private boolean hasPendingItems(final Integer key) {
+        return isPending(key) || detailniTEAConvertor.isPending(key)
+                || zpusobOchranyObjektuConvertor.isPending(key);
     }
 
     @Override
     @SuppressWarnings("ValueOfIncrementOrDecrementUsed")
     protected void fill(final PreparedStatement pstm, final StavebniObjekt item,
             final boolean update) throws SQLException {
-        final PreparedStatementEx pstmEx = new PreparedStatementEx(pstm);
+        final PreparedStatementEx pstmEx = getPreparedStatementEx(pstm);
         int index = 1;
-        pstmEx.setBoolean(index++, item.getNespravny());
-        pstmEx.setLong(index++, item.getIdentifikacniParcelaId());
-        pstmEx.setInt(index++, item.getMomcKod());
-        pstmEx.setInt(index++, item.getCobceKod());
-        pstmEx.setLong(index++, item.getBudovaId());
+        pstmEx.setBoolean(index++, item.getNespravny(), item.isNespravnyNull());
+        pstmEx.setLong(index++, item.getIdentifikacniParcelaId(),
+                item.isIdentifikacniParcelaIdNull());
+        pstmEx.setInt(index++, item.getMomcKod(), item.isMomcKodNull());
+        pstmEx.setInt(index++, item.getCobceKod(), item.isCobceKodNull());
+        pstmEx.setLong(index++, item.getBudovaId(), item.isBudovaIdNull());
 
         if (Config.isMysqlDriver()) {
-            pstm.setString(index++, Arrays.toString(item.getCislaDomovni()));
+            pstm.setString(index++, joinCislaDomovni(item.getCislaDomovni()));
         } else {
             pstmEx.setIntArray(index++, item.getCislaDomovni());
         }
 
         pstmEx.setDate(index++, item.getDokonceni());
-        pstmEx.setInt(index++, item.getJeVytahKod());
+        pstmEx.setInt(index++, item.getJeVytahKod(), item.isJeVytahKodNull());
         pstmEx.setBoolean(index++, item.getZmenaGrafiky());
-        pstmEx.setInt(index++, item.getDruhKonstrukceKod());
-        pstmEx.setBoolean(index++, item.getZmenaDetailu());
-        pstmEx.setInt(index++, item.getObestavenyProstor());
-        pstmEx.setInt(index++, item.getPocetBytu());
-        pstmEx.setInt(index++, item.getPocetPodlazi());
-        pstmEx.setInt(index++, item.getPodlahovaPlocha());
-        pstmEx.setBoolean(index++, item.getPripojElEnergie());
-        pstmEx.setInt(index++, item.getPripojKanalSitKod());
-        pstmEx.setInt(index++, item.getPripojPlynKod());
-        pstmEx.setInt(index++, item.getPripojVodovodKod());
-        pstmEx.setInt(index++, item.getTypKod());
-        pstmEx.setInt(index++, item.getZastavenaPlocha());
-        pstmEx.setInt(index++, item.getZpusobVytapeniKod());
-        pstmEx.setInt(index++, item.getZpusobVyuzitiKod());
+        pstmEx.setInt(index++, item.getDruhKonstrukceKod(),
+                item.isDruhKonstrukceKodNull());
+        pstmEx.setBoolean(index++, item.getZmenaDetailu(),
+                item.isZmenaDetailuNull());
+        pstmEx.setInt(index++, item.getObestavenyProstor(),
+                item.isObestavenyProstorNull());
+        pstmEx.setInt(index++, item.getPocetBytu(), item.isPocetBytuNull());
+        pstmEx.setInt(index++, item.getPocetPodlazi(),
+                item.isPocetPodlaziNull());
+        pstmEx.setInt(index++, item.getPodlahovaPlocha(),
+                item.isPodlahovaPlochaNull());
+        pstmEx.setBoolean(index++, item.getPripojElEnergie(),
+                item.isPripojElEnergieNull());
+        pstmEx.setInt(index++, item.getPripojKanalSitKod(),
+                item.isPripojKanalSitKodNull());
+        pstmEx.setInt(index++, item.getPripojPlynKod(),
+                item.isPripojPlynKodNull());
+        pstmEx.setInt(index++, item.getPripojVodovodKod(),
+                item.isPripojVodovodKodNull());
+        pstmEx.setInt(index++, item.getTypKod(), item.isTypKodNull());
+        pstmEx.setInt(index++, item.getZastavenaPlocha(),
+                item.isZastavenaPlochaNull());
+        pstmEx.setInt(index++, item.getZpusobVytapeniKod(),
+                item.isZpusobVytapeniKodNull());
+        pstmEx.setInt(index++, item.getZpusobVyuzitiKod(),
+                item.isZpusobVyuzitiKodNull());
         pstm.setLong(index++, item.getIdTransRuian());
         pstmEx.setDate(index++, item.getPlatiOd());
-        pstm.setLong(index++, item.getNzIdGlobalni());
+        pstmEx.setLong(index++, item.getNzIdGlobalni(),
+                item.isNzIdGlobalniNull());
 
-        if (!Config.isNoGis()) {
-            pstm.setString(index++, item.getDefinicniBod());
-            pstm.setString(index++, item.getHranice());
+        if (isGeometryBound(pstm)) {
+            pstmEx.setGeometry(index++, item.getDefinicniBod());
+            pstmEx.setGeometry(index++, item.getHranice());
         }
 
         pstm.setInt(index++, item.getKod());
@@ -234,6 +317,11 @@ public class StavebniObjektConvertor
         pstm.setInt(1, item.getKod());
     }
 
+    @Override
+    protected Number getItemKey(final StavebniObjekt item) {
+        return item.getKod();
+    }
+
     @Override
     protected void processElement(final XMLStreamReader reader,
             final StavebniObjekt item) throws XMLStreamException, SQLException {
@@ -248,6 +336,11 @@ public class StavebniObjektConvertor
                         processCislaDomovni(reader, item);
                         break;
                     case "DetailniTEA":
+                        if (isSuperseded(item)) {
+                            XMLUtils.processUnsupported(reader);
+                            break;
+                        }
+
                         detailniTEAConvertor.setStavebniObjektId(item.getKod());
                         convertorDetailniTEA.convert(reader);
                         break;
@@ -256,16 +349,13 @@ public class StavebniObjektConvertor
                                 Utils.parseTimestamp(reader.getElementText()));
                         break;
                     case "DruhKonstrukceKod":
-                        item.setDruhKonstrukceKod(
-                                Integer.parseInt(reader.getElementText()));
+                        item.setDruhKonstrukceKod(XMLUtils.readInt(reader));
                         break;
                     case "Geometrie":
-                        Utils.processGeometrie(
-                                reader, getConnection(), item, NAMESPACE);
+                        processGeometrie(reader, item, NAMESPACE);
                         break;
                     case "GlobalniIdNavrhuZmeny":
-                        item.setNzIdGlobalni(
-                                Long.parseLong(reader.getElementText()));
+                        item.setNzIdGlobalni(XMLUtils.readLong(reader));
                         break;
                     case "IdentifikacniParcela":
                         item.setIdentifikacniParcelaId(
@@ -273,79 +363,77 @@ public class StavebniObjektConvertor
                                 reader, NAMESPACE));
                         break;
                     case "IdTransakce":
-                        item.setIdTransRuian(
-                                Long.parseLong(reader.getElementText()));
+                        item.setIdTransRuian(XMLUtils.readLong(reader));
                         break;
                     case "IsknBudovaId":
-                        item.setBudovaId(
-                                Long.parseLong(reader.getElementText()));
+                        item.setBudovaId(XMLUtils.readLong(reader));
                         break;
                     case "Kod":
-                        item.setKod(
-                                Integer.parseInt(reader.getElementText()));
-                        deleteDetailniTEA(item.getKod());
-                        deleteZpusobyOchranyObjektu(item.getKod());
+                        item.setKod(XMLUtils.readInt(reader));
+
+                        if (!isSuperseded(item)) {
+                            deleteSubItems(item.getKod());
+                        }
+
                         break;
                     case "Momc":
                         item.setMomcKod(Utils.getMomcKod(reader, NAMESPACE));
                         break;
                     case "Nespravny":
-                        item.setNespravny(
-                                Boolean.valueOf(reader.getElementText()));
+                        item.setNespravny(XMLUtils.readBoolean(reader));
                         break;
                     case "ObestavenyProstor":
-                        item.setObestavenyProstor(
-                                Integer.parseInt(reader.getElementText()));
+                        item.setObestavenyProstor(XMLUtils.readInt(reader));
                         break;
                     case "PlatiOd":
                         item.setPlatiOd(
                                 Utils.parseTimestamp(reader.getElementText()));
                         break;
                     case "PocetBytu":
-                        item.setPocetBytu(
-                                Integer.parseInt(reader.getElementText()));
+                        item.setPocetBytu(XMLUtils.readInt(reader));
                         break;
                     case "PocetPodlazi":
-                        item.setPocetPodlazi(
-                                Integer.parseInt(reader.getElementText()));
+                        item.setPocetPodlazi(XMLUtils.readInt(reader));
                         break;
                     case "PodlahovaPlocha":
-                        item.setPodlahovaPlocha(
-                                Integer.parseInt(reader.getElementText()));
+                        item.setPodlahovaPlocha(XMLUtils.readInt(reader));
                         break;
                     case "PripojeniKanalizaceKod":
-                        item.setPripojKanalSitKod(
-                                Integer.parseInt(reader.getElementText()));
+                        item.setPripojKanalSitKod(XMLUtils.readInt(reader));
                         break;
                     case "PripojeniPlynKod":
-                        item.setPripojPlynKod(
-                                Integer.parseInt(reader.getElementText()));
+                        item.setPripojPlynKod(XMLUtils.readInt(reader));
                         break;
                     case "PripojeniVodovodKod":
-                        item.setPripojVodovodKod(
-                                Integer.parseInt(reader.getElementText()));
+                        item.setPripojVodovodKod(XMLUtils.readInt(reader));
                         break;
                     case "TypStavebnihoObjektuKod":
-                        item.setTypKod(
-                                Integer.parseInt(reader.getElementText()));
+                        item.setTypKod(XMLUtils.readInt(reader));
                         break;
                     case "VybaveniVytahemKod":
-                        item.setJeVytahKod(
-                                Integer.parseInt(reader.getElementText()));
+                        item.setJeVytahKod(XMLUtils.readInt(reader));
                         break;
                     case "ZastavenaPlocha":
-                        item.setZastavenaPlocha(
-                                Integer.parseInt(reader.getElementText()));
+                        item.setZastavenaPlocha(XMLUtils.readInt(reader));
+                        break;
+                    case "ZmenaDetailu":
+                        item.setZmenaDetailu(XMLUtils.readBoolean(reader));
+                        break;
+                    case "ZmenaGrafiky":
+                        item.setZmenaGrafiky(XMLUtils.readBoolean(reader));
                         break;
                     case "ZpusobVytapeniKod":
-                        item.setZpusobVytapeniKod(
-                                Integer.parseInt(reader.getElementText()));
+                        item.setZpusobVytapeniKod(XMLUtils.readInt(reader));
                         break;
                     case "ZpusobVyuzitiKod":
-                        item.setZpusobVyuzitiKod(
-                                Integer.parseInt(reader.getElementText()));
+                        item.setZpusobVyuzitiKod(XMLUtils.readInt(reader));
                         break;
                     case "ZpusobyOchrany":
+                        if (isSuperseded(item)) {
+                            XMLUtils.processUnsupported(reader);
+                            break;
+                        }
+
                         zpusobOchranyObjektuConvertor.setStavebniObjektId(
                                 item.getKod());
                         convertorZpusobyOchranyObjektu.convert(reader);
@@ -360,6 +448,34 @@ public class StavebniObjektConvertor
         }
     }
 
+    /**
+     * Joins house numbers to comma separated list that is stored in text
+     * column cisla_domovni on MySQL, so that it can be searched using
+     * FIND_IN_SET.
+     *
+     * @param cislaDomovni house numbers or null
+     *
+     * @return comma separated house numbers or null
+     */
+    private static String joinCislaDomovni(final Integer[] cislaDomovni) {
+        if (cislaDomovni == null) {
+            return null;
+        }
+
+        final StringBuilder sbValue = new StringBuilder(
+                cislaDomovni.length * 5);
+
+        for (final Integer cisloDomovni : cislaDomovni) {
+            if (sbValue.length() > 0) {
+                sbValue.append(',');
+            }
+
+            sbValue.append(cisloDomovni);
+        }
+
+        return sbValue.toString();
+    }
+
     /**
      * Processes CislaDomovni element.
      *
@@ -402,8 +518,7 @@ public class StavebniObjektConvertor
             case Namespaces.COMMON_TYPY:
                 switch (reader.getLocalName()) {
                     case "CisloDomovni":
-                        item.addCisloDomovni(
-                                Integer.parseInt(reader.getElementText()));
+                        item.addCisloDomovni(XMLUtils.readInt(reader));
                         break;
                     default:
                         XMLUtils.processUnsupported(reader);
@@ -415,38 +530,80 @@ public class StavebniObjektConvertor
     }
 
     /**
-     * Deletes DetailniTEA that belong to this StavebniObjekt.
+     * Schedules deletion of sub-items that belong to this StavebniObjekt, if
+     * the StavebniObjekt might already exist in database. Sub-items are
+     * deleted on {@link #flush()}, once for all StavebniObjekty in the batch.
+     * Pending batches are executed first if they contain the StavebniObjekt
+     * or its sub-items.
      *
      * @param stavebniObjektId StavebniObjekt id
      *
      * @throws SQLException Thrown if problem occurred while deleting the items.
      */
-    private void deleteDetailniTEA(final Integer stavebniObjektId)
+    private void deleteSubItems(final Integer stavebniObjektId)
             throws SQLException {
-        if (Config.isDryRun()) {
-            return;
-        }
+        runOnWriter(new DatabaseWriter.Task() {
+            @Override
+            public void run() throws SQLException {
+                // sub-items of previous items are complete at this point
+                if (subItemsSynchronizers != null) {
+                    for (final SubItemsSynchronizer synchronizer
+                            : subItemsSynchronizers) {
+                        if (synchronizer.isFull()) {
+                            synchronizer.flush();
+                        }
+                    }
+                }
+
+                if (!mayExist(stavebniObjektId)) {
+                    return;
+                }
+
+                if (hasPendingItems(stavebniObjektId)) {
+                    flush();
+                }
 
-        pstmDeleteDetailniTEA.clearParameters();
-        pstmDeleteDetailniTEA.setInt(1, stavebniObjektId);
-        pstmDeleteDetailniTEA.execute();
+                // sub-items of staged StavebniObjekt are deleted when it is
+                // merged
+                if (isStaged()) {
+                    return;
+                }
+
+                if (subItemsSynchronizers != null) {
+                    for (final SubItemsSynchronizer synchronizer
+                            : subItemsSynchronizers) {
+                        synchronizer.add(stavebniObjektId);
+                    }
+
+                    return;
+                }
+
+                subItemsDeleter.add(stavebniObjektId);
+
+                // without batches sub-items are inserted immediately so they
+                // must be deleted right now
+                if (!Config.isBatchMode()
+                        || subItemsDeleter.size() >= Config.getBatchSize()) {
+                    subItemsDeleter.flush();
+                }
+            }
+        });
     }
 
     /**
-     * Deletes ZpusobyOchranyObjektu that belong to this StavebniObjekt.
+     * Deletes or synchronizes sub-items of collected StavebniObjekty.
      *
-     * @param stavebniObjektId StavebniObjekt id
-     *
-     * @throws SQLException Thrown if problem occurred while deleting the items.
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
      */
-    private void deleteZpusobyOchranyObjektu(final Integer stavebniObjektId)
-            throws SQLException {
-        if (Config.isDryRun()) {
-            return;
+    private void flushSubItems() throws SQLException {
+        if (subItemsSynchronizers == null) {
+            subItemsDeleter.flush();
+        } else {
+            for (final SubItemsSynchronizer synchronizer
+                    : subItemsSynchronizers) {
+                synchronizer.flush();
+            }
         }
-
-        pstmDeleteZpusobyOchranyObjektu.clearParameters();
-        pstmDeleteZpusobyOchranyObjektu.setInt(1, stavebniObjektId);
-        pstmDeleteZpusobyOchranyObjektu.execute();
     }
 }
@@ -0,0 +1,194 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.convertors;
+
+import com.fordfrog.ruian2pgsql.Config;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * Deletes sub-items of items in batches. Keys of items whose sub-items should
+ * be deleted are collected and the sub-items are deleted using single
+ * statement per table on {@link #flush()}. PostgreSQL gets the keys as array
+ * parameter, for MySQL the keys are listed in the statement.
+ *
+ * @author fordfrog
+ */
+public class SubItemsDeleter {
+
+    /**
+     * Database connection.
+     */
+    private final Connection connection;
+    /**
+     * Name of the column that references the item in the sub-item tables.
+     */
+    private final String column;
+    /**
+     * Tables of sub-items.
+     */
+    private final String[] tables;
+    /**
+     * SQL type of the key used for the array parameter.
+     */
+    private final String keyType;
+    /**
+     * Prepared statements for deletion of sub-items from {@link #tables}, null
+     * if MySQL is used.
+     */
+    private final PreparedStatement[] pstmDeletes;
+    /**
+     * Collected keys.
+     */
+    private long[] keys = new long[64];
+    /**
+     * Number of collected keys.
+     */
+    private int keyCount;
+
+    /**
+     * Creates new instance of SubItemsDeleter.
+     *
+     * @param con     database connection
+     * @param keyType {@link #keyType}
+     * @param column  {@link #column}
+     * @param tables  {@link #tables}
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    public SubItemsDeleter(final Connection con, final String keyType,
+            final String column, final String... tables) throws SQLException {
+        this.connection = con;
+        this.keyType = keyType;
+        this.column = column;
+        this.tables = tables;
+
+        if (Config.isMysqlDriver()) {
+            pstmDeletes = null;
+        } else {
+            pstmDeletes = new PreparedStatement[tables.length];
+
+            for (int i = 0; i < tables.length; i++) {
+                pstmDeletes[i] = con.prepareStatement("DELETE FROM "
+                        + tables[i] + " WHERE " + column + " = ANY(?)");
+            }
+        }
+    }
+
+    /**
+     * Adds key of item whose sub-items should be deleted.
+     *
+     * @param key item key
+     */
+    public void add(final long key) {
+        if (keyCount == keys.length) {
+            keys = Arrays.copyOf(keys, keys.length * 2);
+        }
+
+        keys[keyCount++] = key;
+    }
+
+    /**
+     * Returns number of collected keys.
+     *
+     * @return number of collected keys
+     */
+    public int size() {
+        return keyCount;
+    }
+
+    /**
+     * Deletes sub-items of all collected keys.
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    public void flush() throws SQLException {
+        if (keyCount == 0) {
+            return;
+        }
+
+        try {
+            if (Config.isDryRun()) {
+                return;
+            }
+
+            if (pstmDeletes == null) {
+                deleteUsingList();
+            } else {
+                deleteUsingArray();
+            }
+        } finally {
+            keyCount = 0;
+        }
+    }
+
+    /**
+     * Deletes sub-items passing the keys as array parameter.
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    private void deleteUsingArray() throws SQLException {
+        final Object[] values = new Object[keyCount];
+
+        for (int i = 0; i < keyCount; i++) {
+            values[i] = "int".equals(keyType)
+                    ? Integer.valueOf((int) keys[i]) : Long.valueOf(keys[i]);
+        }
+
+        for (final PreparedStatement pstm : pstmDeletes) {
+            pstm.clearParameters();
+            pstm.setArray(1, connection.createArrayOf(keyType, values));
+            pstm.execute();
+        }
+    }
+
+    /**
+     * Deletes sub-items listing the keys in the statement.
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    private void deleteUsingList() throws SQLException {
+        final StringBuilder sbKeys = new StringBuilder(keyCount * 12);
+
+        for (int i = 0; i < keyCount; i++) {
+            if (i > 0) {
+                sbKeys.append(',');
+            }
+
+            sbKeys.append(keys[i]);
+        }
+
+        try (final Statement stm = connection.createStatement()) {
+            for (final String table : tables) {
+                stm.execute("DELETE FROM " + table + " WHERE " + column
+                        + " IN (" + sbKeys + ")");
+            }
+        }
+    }
+}
@@ -0,0 +1,646 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.convertors;
+
+import com.fordfrog.ruian2pgsql.Config;
+import com.fordfrog.ruian2pgsql.utils.LongHashSet;
+import com.fordfrog.ruian2pgsql.utils.ParameterRow;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Synchronizes sub-items of items with database. Instead of deleting all
+ * sub-items of the items and inserting them again, existing sub-items of the
+ * items are loaded using single query and only sub-items that were added,
+ * changed or removed are written to database. Sub-items are matched by parent
+ * column and key columns.
+ *
+ * Rows of sub-items are collected by prepared statement returned by
+ * {@link #getStatement()} that is used by sub-item convertor instead of insert
+ * statement. Keys of items whose sub-items should be synchronized are added
+ * using {@link #add(long)}. Rows of other items are inserted.
+ *
+ * @author fordfrog
+ */
+public class SubItemsSynchronizer {
+
+    /**
+     * Minimum number of collected items and rows after which the collected
+     * sub-items should be synchronized.
+     */
+    private static final int MIN_BATCH_SIZE = 1000;
+    /**
+     * Pattern for parsing table and columns from insert statement.
+     */
+    private static final Pattern PATTERN_INSERT = Pattern.compile(
+            "^INSERT INTO (\\w+) \\(([^)]+)\\)");
+    /**
+     * Database connection.
+     */
+    private final Connection connection;
+    /**
+     * Name of the table of sub-items.
+     */
+    private final String table;
+    /**
+     * Name of the column that references the item.
+     */
+    private final String parentColumn;
+    /**
+     * Columns of the insert statement.
+     */
+    private final String[] columns;
+    /**
+     * Indexes of key columns in {@link #columns}, including the parent
+     * column.
+     */
+    private final int[] keyIndexes;
+    /**
+     * Index of parent column in {@link #columns}.
+     */
+    private final int parentIndex;
+    /**
+     * Statement for insertion of sub-items.
+     */
+    private final PreparedStatement pstmInsert;
+    /**
+     * Statement for update of sub-items.
+     */
+    private final PreparedStatement pstmUpdate;
+    /**
+     * Statement for deletion of sub-items.
+     */
+    private final PreparedStatement pstmDelete;
+    /**
+     * Prepared statement that collects rows of sub-items.
+     */
+    private final PreparedStatement pstmCollect;
+    /**
+     * Keys of items whose sub-items are synchronized.
+     */
+    private final LongHashSet parents = new LongHashSet(1024);
+    /**
+     * Keys of items whose sub-items are synchronized, in order.
+     */
+    private long[] parentKeys = new long[64];
+    /**
+     * Collected rows of sub-items.
+     */
+    private final List<ParameterRow> rows = new ArrayList<>(1024);
+    /**
+     * Calendar with UTC time zone for reading dates.
+     */
+    private final Calendar utcCalendar =
+            Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+    /**
+     * Format for comparison of dates.
+     */
+    private final SimpleDateFormat dateFormat;
+
+    /**
+     * Creates new instance of SubItemsSynchronizer.
+     *
+     * @param con          database connection
+     * @param sqlInsert    statement for insertion of sub-items
+     * @param parentColumn {@link #parentColumn}
+     * @param keyColumns   columns that identify sub-item of the item
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    public SubItemsSynchronizer(final Connection con, final String sqlInsert,
+            final String parentColumn, final String... keyColumns)
+            throws SQLException {
+        final Matcher matcher = PATTERN_INSERT.matcher(sqlInsert);
+
+        if (!matcher.find()) {
+            throw new RuntimeException("Unsupported INSERT statement: "
+                    + sqlInsert);
+        }
+
+        connection = con;
+        table = matcher.group(1);
+        this.parentColumn = parentColumn;
+        columns = matcher.group(2).split(",");
+
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = columns[i].trim();
+        }
+
+        final List<String> columnList = Arrays.asList(columns);
+        parentIndex = getColumnIndex(columnList, parentColumn);
+        keyIndexes = new int[keyColumns.length + 1];
+        keyIndexes[0] = parentIndex;
+
+        for (int i = 0; i < keyColumns.length; i++) {
+            keyIndexes[i + 1] = getColumnIndex(columnList, keyColumns[i]);
+        }
+
+        final StringBuilder sbWhere = new StringBuilder(100);
+
+        for (final int keyIndex : keyIndexes) {
+            sbWhere.append(sbWhere.length() == 0 ? " WHERE " : " AND ");
+            sbWhere.append(columns[keyIndex]);
+            sbWhere.append(" = ?");
+        }
+
+        final StringBuilder sbUpdate = new StringBuilder(200);
+        sbUpdate.append("UPDATE ");
+        sbUpdate.append(table);
+        sbUpdate.append(" SET ");
+
+        for (final String column : columns) {
+            sbUpdate.append(column);
+            sbUpdate.append(" = ?, ");
+        }
+
+        sbUpdate.append("deleted = false");
+        sbUpdate.append(sbWhere);
+
+        pstmInsert = con.prepareStatement(sqlInsert);
+        pstmUpdate = con.prepareStatement(sbUpdate.toString());
+        pstmDelete = con.prepareStatement(
+                "DELETE FROM " + table + sbWhere);
+        pstmCollect = (PreparedStatement) Proxy.newProxyInstance(
+                SubItemsSynchronizer.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, new Collector());
+
+        dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+        dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+    }
+
+    /**
+     * Returns prepared statement that collects rows of sub-items. Rows are
+     * written to database on {@link #flush()}.
+     *
+     * @return prepared statement
+     */
+    public PreparedStatement getStatement() {
+        return pstmCollect;
+    }
+
+    /**
+     * Adds key of item whose sub-items should be synchronized. If sub-items of
+     * the item were already collected, they are synchronized first.
+     *
+     * @param key item key
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    public void add(final long key) throws SQLException {
+        if (parents.contains(key)) {
+            flush();
+        }
+
+        if (parents.size() == parentKeys.length) {
+            parentKeys = Arrays.copyOf(parentKeys, parentKeys.length * 2);
+        }
+
+        parentKeys[parents.size()] = key;
+        parents.add(key);
+    }
+
+    /**
+     * Returns number of collected items and rows of sub-items.
+     *
+     * @return number of collected items and rows
+     */
+    public int size() {
+        return parents.size() + rows.size();
+    }
+
+    /**
+     * Checks whether enough items and rows were collected so that the
+     * sub-items should be synchronized.
+     *
+     * @return true if sub-items should be synchronized, otherwise false
+     */
+    public boolean isFull() {
+        return size() >= Math.max(Config.getBatchSize(), MIN_BATCH_SIZE);
+    }
+
+    /**
+     * Writes changes of collected sub-items to database.
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    public void flush() throws SQLException {
+        if (parents.size() == 0 && rows.isEmpty()) {
+            return;
+        }
+
+        try {
+            if (!Config.isDryRun()) {
+                synchronize();
+            }
+        } finally {
+            parents.clear();
+            rows.clear();
+        }
+    }
+
+    /**
+     * Compares collected rows with existing rows and writes the differences.
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    private void synchronize() throws SQLException {
+        final Map<String, ExistingRow> existingRows = loadExistingRows();
+        final List<ParameterRow> inserts = new ArrayList<>(rows.size());
+        final List<ParameterRow> updates = new ArrayList<>(rows.size());
+
+        for (final ParameterRow row : rows) {
+            final Number parent = (Number) row.getValue(parentIndex);
+
+            if (parent == null || !parents.contains(parent.longValue())) {
+                inserts.add(row);
+
+                continue;
+            }
+
+            final ExistingRow existingRow =
+                    existingRows.get(getKey(row));
+
+            if (existingRow == null || existingRow.matched) {
+                inserts.add(row);
+            } else {
+                existingRow.matched = true;
+
+                if (existingRow.duplicate) {
+                    // duplicate rows are deleted and inserted again
+                    existingRow.matched = false;
+                    inserts.add(row);
+                } else if (existingRow.deleted || !isSame(row, existingRow)) {
+                    updates.add(row);
+                }
+            }
+        }
+
+        int deleteCount = 0;
+
+        for (final ExistingRow existingRow : existingRows.values()) {
+            if (!existingRow.matched) {
+                pstmDelete.clearParameters();
+
+                for (int i = 0; i < keyIndexes.length; i++) {
+                    pstmDelete.setObject(i + 1,
+                            existingRow.values[keyIndexes[i]]);
+                }
+
+                pstmDelete.addBatch();
+                deleteCount++;
+            }
+        }
+
+        if (deleteCount > 0) {
+            pstmDelete.executeBatch();
+        }
+
+        for (final ParameterRow row : updates) {
+            pstmUpdate.clearParameters();
+            row.fill(pstmUpdate, 0);
+
+            for (int i = 0; i < keyIndexes.length; i++) {
+                row.set(pstmUpdate, keyIndexes[i], columns.length + i + 1);
+            }
+
+            pstmUpdate.addBatch();
+        }
+
+        if (!updates.isEmpty()) {
+            pstmUpdate.executeBatch();
+        }
+
+        for (final ParameterRow row : inserts) {
+            pstmInsert.clearParameters();
+            row.fill(pstmInsert, 0);
+            pstmInsert.addBatch();
+        }
+
+        if (!inserts.isEmpty()) {
+            pstmInsert.executeBatch();
+        }
+    }
+
+    /**
+     * Loads existing rows of sub-items of collected items.
+     *
+     * @return existing rows by key
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    private Map<String, ExistingRow> loadExistingRows()
+            throws SQLException {
+        final Map<String, ExistingRow> result = new HashMap<>(rows.size() * 2);
+
+        if (parents.size() == 0) {
+            return result;
+        }
+
+        final StringBuilder sbSql = new StringBuilder(200);
+        sbSql.append("SELECT ");
+
+        for (final String column : columns) {
+            sbSql.append(column);
+            sbSql.append(", ");
+        }
+
+        sbSql.append("deleted FROM ");
+        sbSql.append(table);
+        sbSql.append(" WHERE ");
+        sbSql.append(parentColumn);
+
+        if (Config.isMysqlDriver()) {
+            sbSql.append(" IN (");
+
+            for (int i = 0; i < parents.size(); i++) {
+                if (i > 0) {
+                    sbSql.append(',');
+                }
+
+                sbSql.append(parentKeys[i]);
+            }
+
+            sbSql.append(')');
+        } else {
+            sbSql.append(" = ANY(?)");
+        }
+
+        try (final PreparedStatement pstm =
+                connection.prepareStatement(sbSql.toString())) {
+            if (!Config.isMysqlDriver()) {
+                final Object[] keys = new Object[parents.size()];
+
+                for (int i = 0; i < keys.length; i++) {
+                    keys[i] = parentKeys[i];
+                }
+
+                pstm.setArray(1, connection.createArrayOf("bigint", keys));
+            }
+
+            try (final ResultSet rs = pstm.executeQuery()) {
+                final ResultSetMetaData metaData = rs.getMetaData();
+
+                while (rs.next()) {
+                    final Object[] values = new Object[columns.length];
+
+                    for (int i = 0; i < columns.length; i++) {
+                        values[i] = metaData.getColumnType(i + 1)
+                                == Types.DATE
+                                ? rs.getDate(i + 1, utcCalendar)
+                                : rs.getObject(i + 1);
+                    }
+
+                    final ExistingRow row = new ExistingRow(values,
+                            rs.getBoolean(columns.length + 1));
+                    final String key = getKey(values);
+                    final ExistingRow previous = result.put(key, row);
+
+                    if (previous != null) {
+                        row.duplicate = true;
+                    }
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Checks whether collected row has the same values as existing row.
+     *
+     * @param row         collected row
+     * @param existingRow existing row
+     *
+     * @return true if all values are the same, otherwise false
+     */
+    private boolean isSame(final ParameterRow row,
+            final ExistingRow existingRow) {
+        for (int i = 0; i < columns.length; i++) {
+            if (!normalize(row.getValue(i)).equals(
+                    normalize(existingRow.values[i]))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns key of collected row.
+     *
+     * @param row collected row
+     *
+     * @return key
+     */
+    private String getKey(final ParameterRow row) {
+        final StringBuilder sbKey = new StringBuilder(30);
+
+        for (final int keyIndex : keyIndexes) {
+            sbKey.append(normalize(row.getValue(keyIndex)));
+            sbKey.append('|');
+        }
+
+        return sbKey.toString();
+    }
+
+    /**
+     * Returns key of existing row.
+     *
+     * @param values values of existing row
+     *
+     * @return key
+     */
+    private String getKey(final Object[] values) {
+        final StringBuilder sbKey = new StringBuilder(30);
+
+        for (final int keyIndex : keyIndexes) {
+            sbKey.append(normalize(values[keyIndex]));
+            sbKey.append('|');
+        }
+
+        return sbKey.toString();
+    }
+
+    /**
+     * Converts value to string that can be compared regardless of the Java
+     * type of the value, as the values loaded from database can have
+     * different types than the values of parameters.
+     *
+     * @param value value
+     *
+     * @return normalized value
+     */
+    private String normalize(final Object value) {
+        if (value == null) {
+            return "\u0000";
+        } else if (value instanceof Date) {
+            return dateFormat.format((Date) value);
+        } else if (value instanceof Number) {
+            return Long.toString(((Number) value).longValue());
+        } else if (value instanceof Boolean) {
+            return (Boolean) value ? "1" : "0";
+        } else {
+            return value.toString();
+        }
+    }
+
+    /**
+     * Returns index of column.
+     *
+     * @param columnList list of columns
+     * @param column     column name
+     *
+     * @return column index
+     */
+    private int getColumnIndex(final List<String> columnList,
+            final String column) {
+        final int index = columnList.indexOf(column);
+
+        if (index == -1) {
+            throw new RuntimeException("Column " + column
+                    + " not found in table " + table);
+        }
+
+        return index;
+    }
+
+    /**
+     * Existing row of sub-item.
+     */
+    private static class ExistingRow {
+
+        /**
+         * Values of the row in order of columns of insert statement.
+         */
+        private final Object[] values;
+        /**
+         * Whether the row is marked as deleted.
+         */
+        private final boolean deleted;
+        /**
+         * Whether collected row with the same key was found.
+         */
+        private boolean matched;
+        /**
+         * Whether there are more rows with the same key.
+         */
+        private boolean duplicate;
+
+        /**
+         * Creates new instance of ExistingRow.
+         *
+         * @param values  {@link #values}
+         * @param deleted {@link #deleted}
+         */
+        ExistingRow(final Object[] values, final boolean deleted) {
+            this.values = values;
+            this.deleted = deleted;
+        }
+    }
+
+    /**
+     * Invocation handler of prepared statement that collects rows of
+     * sub-items.
+     */
+    private class Collector implements InvocationHandler {
+
+        /**
+         * Setters called for parameters of current row.
+         */
+        private Method[] setters = new Method[columns.length];
+        /**
+         * Arguments of setters called for parameters of current row.
+         */
+        private Object[][] arguments = new Object[columns.length][];
+
+        @Override
+        public Object invoke(final Object proxy, final Method method,
+                final Object[] args) throws Throwable {
+            final String name = method.getName();
+
+            if (name.startsWith("set") && args != null && args.length >= 2
+                    && args[0] instanceof Integer) {
+                final int index = (Integer) args[0];
+                setters[index - 1] = method;
+                arguments[index - 1] = args.clone();
+
+                return null;
+            }
+
+            switch (name) {
+                case "clearParameters":
+                    Arrays.fill(setters, null);
+                    Arrays.fill(arguments, null);
+
+                    return null;
+                case "addBatch":
+                case "execute":
+                    rows.add(new ParameterRow(setters.clone(),
+                            arguments.clone()));
+
+                    return name.equals("execute") ? false : null;
+                case "executeBatch":
+                    // rows are written on flush of the synchronizer
+                    return new int[0];
+                case "clearBatch":
+                case "close":
+                    return null;
+                case "getConnection":
+                    return connection;
+                case "isClosed":
+                    return false;
+                case "toString":
+                    return "Collector of " + table;
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    throw new UnsupportedOperationException("Method is not "
+                            + "supported by sub-items collector: " + name);
+            }
+        }
+    }
+}
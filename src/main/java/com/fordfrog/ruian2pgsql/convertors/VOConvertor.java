@@ -21,7 +21,6 @@
  */
 package com.fordfrog.ruian2pgsql.convertors;
 
-import com.fordfrog.ruian2pgsql.Config;
 import com.fordfrog.ruian2pgsql.containers.VolebniOkrsek;
 import com.fordfrog.ruian2pgsql.utils.Namespaces;
 import com.fordfrog.ruian2pgsql.utils.PreparedStatementEx;
@@ -99,21 +98,22 @@ public class VOConvertor extends AbstractSaveConvertor<VolebniOkrsek> {
     @SuppressWarnings("ValueOfIncrementOrDecrementUsed")
     protected void fill(final PreparedStatement pstm, final VolebniOkrsek item,
             final boolean update) throws SQLException {
-        final PreparedStatementEx pstmEx = new PreparedStatementEx(pstm);
+        final PreparedStatementEx pstmEx = getPreparedStatementEx(pstm);
         int index = 1;
-        pstm.setInt(index++, item.getCislo());
-        pstmEx.setBoolean(index++, item.getNespravny());
-        pstm.setInt(index++, item.getMomcKod());
-        pstm.setInt(index++, item.getObecKod());
+        pstmEx.setInt(index++, item.getCislo(), item.isCisloNull());
+        pstmEx.setBoolean(index++, item.getNespravny(), item.isNespravnyNull());
+        pstmEx.setInt(index++, item.getMomcKod(), item.isMomcKodNull());
+        pstmEx.setInt(index++, item.getObecKod(), item.isObecKodNull());
         pstm.setString(index++, item.getPoznamka());
         pstmEx.setDate(index++, item.getPlatiOd());
         pstmEx.setDate(index++, item.getPlatiDo());
-        pstm.setLong(index++, item.getNzIdGlobalni());
+        pstmEx.setLong(index++, item.getNzIdGlobalni(),
+                item.isNzIdGlobalniNull());
         pstm.setLong(index++, item.getIdTransRuian());
 
-        if (!Config.isNoGis()) {
-            pstm.setString(index++, item.getDefinicniBod());
-            pstm.setString(index++, item.getHranice());
+        if (isGeometryBound(pstm)) {
+            pstmEx.setGeometry(index++, item.getDefinicniBod());
+            pstmEx.setGeometry(index++, item.getHranice());
         }
 
         pstm.setInt(index++, item.getKod());
@@ -129,6 +129,11 @@ public class VOConvertor extends AbstractSaveConvertor<VolebniOkrsek> {
         pstm.setInt(1, item.getKod());
     }
 
+    @Override
+    protected Number getItemKey(final VolebniOkrsek item) {
+        return item.getKod();
+    }
+
     @Override
     protected void processElement(final XMLStreamReader reader,
             final VolebniOkrsek item) throws XMLStreamException {
@@ -144,26 +149,22 @@ public class VOConvertor extends AbstractSaveConvertor<VolebniOkrsek> {
                                 Utils.parseTimestamp(reader.getElementText()));
                         break;
                     case "IdTransakce":
-                        item.setIdTransRuian(
-                                Long.parseLong(reader.getElementText()));
+                        item.setIdTransRuian(XMLUtils.readLong(reader));
                         break;
                     case "GlobalniIdNavrhuZmeny":
-                        item.setNzIdGlobalni(
-                                Long.parseLong(reader.getElementText()));
+                        item.setNzIdGlobalni(XMLUtils.readLong(reader));
                         break;
                     case "Geometrie":
-                        Utils.processGeometrie(
-                                reader, getConnection(), item, NAMESPACE);
+                        processGeometrie(reader, item, NAMESPACE);
                         break;
                     case "Kod":
-                        item.setKod(Integer.parseInt(reader.getElementText()));
+                        item.setKod(XMLUtils.readInt(reader));
                         break;
                     case "Cislo":
-                        item.setCislo(Integer.parseInt(reader.getElementText()));
+                        item.setCislo(XMLUtils.readInt(reader));
                         break;
                     case "Nespravny":
-                        item.setNespravny(
-                                Boolean.valueOf(reader.getElementText()));
+                        item.setNespravny(XMLUtils.readBoolean(reader));
                         break;
                     case "Obec":
                         item.setObecKod(Utils.getObecKod(reader, NAMESPACE));
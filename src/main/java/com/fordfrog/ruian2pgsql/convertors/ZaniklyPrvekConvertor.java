@@ -26,9 +26,16 @@ import com.fordfrog.ruian2pgsql.containers.ZaniklyPrvek;
 import com.fordfrog.ruian2pgsql.utils.Log;
 import com.fordfrog.ruian2pgsql.utils.Namespaces;
 import com.fordfrog.ruian2pgsql.utils.XMLUtils;
+import java.sql.Array;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
 
@@ -44,220 +51,143 @@ public class ZaniklyPrvekConvertor extends AbstractSaveConvertor<ZaniklyPrvek> {
      */
     private static final String NAMESPACE = Namespaces.VYMENNY_FORMAT_TYPY;
 
-    private static final String SQL_STANDARD_ITEM_UPDATE_TEMPLATE =
-            "UPDATE %s SET deleted = true, "
-            + "item_timestamp = timezone('utc', now()), id_trans_ruian = ? "
-            + "WHERE kod = ? AND id_trans_ruian <= ?";
-    /**
-     * SQL statement for marking Stat as deleted.
-     */
-    private static final String SQL_UPDATE_STAT =
-            String.format(SQL_STANDARD_ITEM_UPDATE_TEMPLATE, "rn_stat");
-    /**
-     * SQL statement for marking RegionSoudrznosti as deleted.
-     */
-    private static final String SQL_UPDATE_REGION_SOUDRZNOSTI =
-            String.format(SQL_STANDARD_ITEM_UPDATE_TEMPLATE, "rn_region_soudrznosti");
-    /**
-     * SQL statement for marking Kraj as deleted.
-     */
-    private static final String SQL_UPDATE_KRAJ =
-            String.format(SQL_STANDARD_ITEM_UPDATE_TEMPLATE, "rn_kraj_1960");
-    /**
-     * SQL statement for marking Vusc as deleted.
-     */
-    private static final String SQL_UPDATE_VUSC =
-            String.format(SQL_STANDARD_ITEM_UPDATE_TEMPLATE, "rn_vusc");
-    /**
-     * SQL statement for marking Okres as deleted.
-     */
-    private static final String SQL_UPDATE_OKRES =
-            String.format(SQL_STANDARD_ITEM_UPDATE_TEMPLATE, "rn_okres");
-    /**
-     * SQL statement for marking Orp as deleted.
-     */
-    private static final String SQL_UPDATE_ORP =
-            String.format(SQL_STANDARD_ITEM_UPDATE_TEMPLATE, "rn_orp");
-    /**
-     * SQL statement for marking Pou as deleted.
-     */
-    private static final String SQL_UPDATE_POU =
-            String.format(SQL_STANDARD_ITEM_UPDATE_TEMPLATE, "rn_pou");
-    /**
-     * SQL statement for marking Obec as deleted.
-     */
-    private static final String SQL_UPDATE_OBEC =
-            String.format(SQL_STANDARD_ITEM_UPDATE_TEMPLATE, "rn_obec");
-    /**
-     * SQL statement for marking SpravniObvod as deleted.
-     */
-    private static final String SQL_UPDATE_SPRAVNI_OBVOD =
-            String.format(SQL_STANDARD_ITEM_UPDATE_TEMPLATE, "rn_spravni_obvod");
-    /**
-     * SQL statement for marking Mop as deleted.
-     */
-    private static final String SQL_UPDATE_MOP =
-            String.format(SQL_STANDARD_ITEM_UPDATE_TEMPLATE, "rn_mop");
     /**
-     * SQL statement for marking Momc as deleted.
+     * SQL statement template for marking items as deleted. Keys and
+     * transaction ids of the items are passed as two arrays.
      */
-    private static final String SQL_UPDATE_MOMC =
-            String.format(SQL_STANDARD_ITEM_UPDATE_TEMPLATE, "rn_momc");
+    private static final String SQL_ITEM_UPDATE_TEMPLATE =
+            "UPDATE %1$s SET deleted = true, "
+            + "item_timestamp = timezone('utc', now()), "
+            + "id_trans_ruian = z.id_trans "
+            + "FROM unnest(?::bigint[], ?::bigint[]) AS z(prvek_id, id_trans) "
+            + "WHERE %1$s.%2$s = z.prvek_id "
+            + "AND %1$s.id_trans_ruian <= z.id_trans";
     /**
-     * SQL statement for marking KatastralniUzemi as deleted.
+     * SQL statement template for marking sub-items of items as deleted. Keys
+     * of the items are passed as array.
      */
-    private static final String SQL_UPDATE_KATASTRALNI_UZEMI =
-            String.format(SQL_STANDARD_ITEM_UPDATE_TEMPLATE, "rn_katastralni_uzemi");
+    private static final String SQL_SUB_ITEM_UPDATE_TEMPLATE =
+            "UPDATE %1$s SET deleted = true WHERE %2$s = ANY(?::bigint[])";
     /**
-     * SQL statement for marking Zsj as deleted.
+     * SQL statement template for marking item as deleted on MySQL.
      */
-    private static final String SQL_UPDATE_ZSJ =
-            String.format(SQL_STANDARD_ITEM_UPDATE_TEMPLATE, "rn_zsj");
-    /**
-     * SQL statement for marking VO as deleted.
-     */
-    private static final String SQL_UPDATE_VO =
-            String.format(SQL_STANDARD_ITEM_UPDATE_TEMPLATE, "rn_vo");
+    private static final String SQL_MYSQL_ITEM_UPDATE_TEMPLATE =
+            "UPDATE %1$s SET deleted = true, "
+            + "item_timestamp = timezone('utc', now()), id_trans_ruian = ? "
+            + "WHERE %2$s = ? AND id_trans_ruian <= ?";
     /**
-     * SQL statement for marking AdresniMisto as deleted.
+     * SQL statement template for marking sub-items of item as deleted on
+     * MySQL.
      */
-    private static final String SQL_UPDATE_ADRESNI_MISTO =
-            String.format(SQL_STANDARD_ITEM_UPDATE_TEMPLATE, "rn_adresni_misto");
+    private static final String SQL_MYSQL_SUB_ITEM_UPDATE_TEMPLATE =
+            "UPDATE %1$s SET deleted = true WHERE %2$s = ?";
     /**
-     * SQL statement for marking CastObce as deleted.
+     * SQL statement template for marking staged items as deleted.
      */
-    private static final String SQL_UPDATE_CAST_OBCE =
-            String.format(SQL_STANDARD_ITEM_UPDATE_TEMPLATE, "rn_cast_obce");
+    private static final String SQL_STAGED_ITEM_UPDATE_TEMPLATE =
+            "UPDATE %1$s SET deleted = true, "
+            + "item_timestamp = timezone('utc', now()), "
+            + "id_trans_ruian = s.id_trans_ruian "
+            + "FROM (SELECT prvek_id, max(id_trans_ruian) AS id_trans_ruian "
+            + "FROM stg_zanikly_prvek WHERE typ_prvku_kod = '%3$s' "
+            + "GROUP BY prvek_id) s "
+            + "WHERE %1$s.%2$s = s.prvek_id "
+            + "AND %1$s.id_trans_ruian <= s.id_trans_ruian";
     /**
-     * SQL statement for marking BonitDilyParcel as deleted.
+     * SQL statement template for marking sub-items of staged items as
+     * deleted.
      */
-    private static final String SQL_UPDATE_BONIT_DILY_PARCEL =
-            "UPDATE rn_bonit_dily_parcel SET deleted = true "
-            + "WHERE parcela_id = ?";
+    private static final String SQL_STAGED_SUB_ITEM_UPDATE_TEMPLATE =
+            "UPDATE %1$s SET deleted = true WHERE %2$s IN (SELECT prvek_id "
+            + "FROM stg_zanikly_prvek WHERE typ_prvku_kod = '%3$s')";
     /**
-     * SQL statement for marking DetailniTEA as deleted.
+     * SQL statement for creation of staging table.
      */
-    private static final String SQL_UPDATE_DETAILNI_TEA =
-            "UPDATE rn_detailni_tea SET deleted = true WHERE stavobj_kod = ?";
+    private static final String SQL_CREATE_STAGING_TABLE =
+            "CREATE TEMPORARY TABLE IF NOT EXISTS stg_zanikly_prvek "
+            + "(typ_prvku_kod varchar(2), prvek_id bigint, "
+            + "id_trans_ruian bigint)";
     /**
-     * SQL statement for marking Parcela as deleted.
+     * SQL statement for saving of item to staging table.
      */
-    private static final String SQL_UPDATE_PARCELA = "UPDATE rn_parcela "
-            + "SET deleted = true, item_timestamp = timezone('utc', now()), "
-            + "id_trans_ruian = ? WHERE id = ? AND id_trans_ruian <= ?";
+    private static final String SQL_STAGE = "INSERT INTO stg_zanikly_prvek "
+            + "(typ_prvku_kod, prvek_id, id_trans_ruian) VALUES (?, ?, ?)";
     /**
-     * SQL statement for marking StavebniObjekt as deleted.
+     * Minimum number of items that are saved to staging table in single
+     * batch.
      */
-    private static final String SQL_UPDATE_STAVEBNI_OBJEKT =
-            String.format(SQL_STANDARD_ITEM_UPDATE_TEMPLATE, "rn_stavebni_objekt");
+    private static final int STAGING_BATCH_SIZE = 10000;
     /**
-     * SQL statement for marking Ulice as deleted.
+     * Minimum number of items that are marked as deleted in single batch.
      */
-    private static final String SQL_UPDATE_ULICE =
-            String.format(SQL_STANDARD_ITEM_UPDATE_TEMPLATE, "rn_ulice");
+    private static final int UPDATE_BATCH_SIZE = 10000;
     /**
-     * SQL statement for marking ZpusobOchranyObjektu as deleted.
+     * SQL statements that mark staged items as deleted, by TypPrvkuKod.
      */
-    private static final String SQL_UPDATE_ZPUSOB_OCHRANY_OBJEKTU =
-            "UPDATE rn_zpusob_ochrany_objektu SET deleted = true "
-            + "WHERE stavobj_kod = ?";
+    private static final Map<String, String[]> SQL_STAGED_UPDATES =
+            new HashMap<>(32);
     /**
-     * SQL statement for marking ZpusobOchranyPozemku as deleted.
+     * Tables and key columns of items and their sub-items, by TypPrvkuKod.
+     * First pair is table and key column of the items, other pairs are
+     * tables and parent key columns of the sub-items.
      */
-    private static final String SQL_UPDATE_ZPUSOB_OCHRANY_POZEMKU =
-            "UPDATE rn_zpusob_ochrany_pozemku SET deleted = true "
-            + "WHERE parcela_id = ?";
+    private static final Map<String, String[]> TABLES = new HashMap<>(32);
+
+    static {
+        addStagedUpdates("ST", "rn_stat", "kod");
+        addStagedUpdates("RS", "rn_region_soudrznosti", "kod");
+        addStagedUpdates("KR", "rn_kraj_1960", "kod");
+        addStagedUpdates("VC", "rn_vusc", "kod");
+        addStagedUpdates("OK", "rn_okres", "kod");
+        addStagedUpdates("OP", "rn_orp", "kod");
+        addStagedUpdates("PU", "rn_pou", "kod");
+        addStagedUpdates("OB", "rn_obec", "kod");
+        addStagedUpdates("SP", "rn_spravni_obvod", "kod");
+        addStagedUpdates("MP", "rn_mop", "kod");
+        addStagedUpdates("MC", "rn_momc", "kod");
+        addStagedUpdates("KU", "rn_katastralni_uzemi", "kod");
+        addStagedUpdates("ZJ", "rn_zsj", "kod");
+        addStagedUpdates("VO", "rn_vo", "kod");
+        addStagedUpdates("AD", "rn_adresni_misto", "kod");
+        addStagedUpdates("CO", "rn_cast_obce", "kod");
+        addStagedUpdates("SO", "rn_stavebni_objekt", "kod",
+                "rn_detailni_tea", "stavobj_kod",
+                "rn_zpusob_ochrany_objektu", "stavobj_kod");
+        addStagedUpdates("PA", "rn_parcela", "id",
+                "rn_zpusob_ochrany_pozemku", "parcela_id",
+                "rn_bonit_dily_parcel", "parcela_id");
+        addStagedUpdates("UL", "rn_ulice", "kod");
+    }
 
     /**
-     * Prepared statement for marking Stat as deleted.
-     */
-    private final PreparedStatement pstmUpdateStat;
-    /**
-     * Prepared statement for marking RegionSoudrznosti as deleted.
-     */
-    private final PreparedStatement pstmUpdateRegionSoudrznosti;
-    /**
-     * Prepared statement for marking Kraj as deleted.
-     */
-    private final PreparedStatement pstmUpdateKraj;
-    /**
-     * Prepared statement for marking Vusc as deleted.
-     */
-    private final PreparedStatement pstmUpdateVusc;
-    /**
-     * Prepared statement for marking Okres as deleted.
-     */
-    private final PreparedStatement pstmUpdateOkres;
-    /**
-     * Prepared statement for marking Orp as deleted.
-     */
-    private final PreparedStatement pstmUpdateOrp;
-    /**
-     * Prepared statement for marking Pou as deleted.
-     */
-    private final PreparedStatement pstmUpdatePou;
-    /**
-     * Prepared statement for marking Obec as deleted.
-     */
-    private final PreparedStatement pstmUpdateObec;
-    /**
-     * Prepared statement for marking SpravniObvod as deleted.
-     */
-    private final PreparedStatement pstmUpdateSpravniObvod;
-    /**
-     * Prepared statement for marking Mop as deleted.
-     */
-    private final PreparedStatement pstmUpdateMop;
-    /**
-     * Prepared statement for marking Momc as deleted.
-     */
-    private final PreparedStatement pstmUpdateMomc;
-    /**
-     * Prepared statement for marking KatastralniUzemi as deleted.
-     */
-    private final PreparedStatement pstmUpdateKatastralniUzemi;
-    /**
-     * Prepared statement for marking Zsj as deleted.
-     */
-    private final PreparedStatement pstmUpdateZsj;
-    /**
-     * Prepared statement for marking VO as deleted.
-     */
-    private final PreparedStatement pstmUpdateVo;
-    /**
-     * Prepared statement for marking AdresniMisto as deleted.
-     */
-    private final PreparedStatement pstmUpdateAdresniMisto;
-    /**
-     * Prepared statement for marking BonitDilyParcel as deleted.
-     */
-    private final PreparedStatement pstmUpdateBonitDilyParcel;
-    /**
-     * Prepared statement for marking CastObce as deleted.
+     * Prepared statement for saving of item to staging table or null if
+     * --staging is not used.
      */
-    private final PreparedStatement pstmUpdateCastObce;
+    private final PreparedStatement pstmStage;
     /**
-     * Prepared statement for marking DetailniTEA as deleted.
+     * TypPrvkuKod values of items that were saved to staging table since last
+     * merge.
      */
-    private final PreparedStatement pstmUpdateDetailniTea;
+    private final Set<String> stagedTypes = new LinkedHashSet<>(32);
     /**
-     * Prepared statement for marking Parcela as deleted.
+     * Number of items in the batch of {@link #pstmStage}.
      */
-    private final PreparedStatement pstmUpdateParcela;
+    private int stagedBatchCount;
     /**
-     * Prepared statement for marking StavebniObjekt as deleted.
+     * Prepared statements for marking items and their sub-items as deleted,
+     * by TypPrvkuKod, or null if --staging is used.
      */
-    private final PreparedStatement pstmUpdateStavebniObjekt;
+    private final Map<String, PreparedStatement[]> pstmUpdates;
     /**
-     * Prepared statement for marking Ulice as deleted.
+     * Keys and transaction ids of items that should be marked as deleted,
+     * by TypPrvkuKod.
      */
-    private final PreparedStatement pstmUpdateUlice;
+    private final Map<String, Map<Long, Long>> pendingItems =
+            new LinkedHashMap<>(32);
     /**
-     * Prepared statement for marking ZpusobOchranyObjektu as deleted.
+     * Number of items in {@link #pendingItems}.
      */
-    private final PreparedStatement pstmUpdateZpusobOchranyObjektu;
-
-    private final PreparedStatement pstmUpdateZpusobOchranyPozemku;
+    private int pendingCount;
 
     /**
      * Creates new instance of ZaniklyPrvekConvertor.
@@ -271,38 +201,111 @@ public class ZaniklyPrvekConvertor extends AbstractSaveConvertor<ZaniklyPrvek> {
         super(ZaniklyPrvek.class, NAMESPACE, "ZaniklyPrvek", con, null, null,
                 null, null, null);
 
-        pstmUpdateStat = con.prepareStatement(fixSql(SQL_UPDATE_STAT));
-        pstmUpdateRegionSoudrznosti =
-                con.prepareStatement(fixSql(SQL_UPDATE_REGION_SOUDRZNOSTI));
-        pstmUpdateKraj = con.prepareStatement(fixSql(SQL_UPDATE_KRAJ));
-        pstmUpdateVusc = con.prepareStatement(fixSql(SQL_UPDATE_VUSC));
-        pstmUpdateOkres = con.prepareStatement(fixSql(SQL_UPDATE_OKRES));
-        pstmUpdateOrp = con.prepareStatement(fixSql(SQL_UPDATE_ORP));
-        pstmUpdatePou = con.prepareStatement(fixSql(SQL_UPDATE_POU));
-        pstmUpdateObec = con.prepareStatement(fixSql(SQL_UPDATE_OBEC));
-        pstmUpdateSpravniObvod =
-                con.prepareStatement(fixSql(SQL_UPDATE_SPRAVNI_OBVOD));
-        pstmUpdateMop = con.prepareStatement(fixSql(SQL_UPDATE_MOP));
-        pstmUpdateMomc = con.prepareStatement(fixSql(SQL_UPDATE_MOMC));
-        pstmUpdateKatastralniUzemi =
-                con.prepareStatement(fixSql(SQL_UPDATE_KATASTRALNI_UZEMI));
-        pstmUpdateZsj = con.prepareStatement(fixSql(SQL_UPDATE_ZSJ));
-        pstmUpdateVo = con.prepareStatement(fixSql(SQL_UPDATE_VO));
-        pstmUpdateAdresniMisto =
-                con.prepareStatement(fixSql(SQL_UPDATE_ADRESNI_MISTO));
-        pstmUpdateBonitDilyParcel =
-                con.prepareStatement(fixSql(SQL_UPDATE_BONIT_DILY_PARCEL));
-        pstmUpdateCastObce = con.prepareStatement(fixSql(SQL_UPDATE_CAST_OBCE));
-        pstmUpdateDetailniTea =
-                con.prepareStatement(fixSql(SQL_UPDATE_DETAILNI_TEA));
-        pstmUpdateParcela = con.prepareStatement(fixSql(SQL_UPDATE_PARCELA));
-        pstmUpdateStavebniObjekt =
-                con.prepareStatement(fixSql(SQL_UPDATE_STAVEBNI_OBJEKT));
-        pstmUpdateUlice = con.prepareStatement(fixSql(SQL_UPDATE_ULICE));
-        pstmUpdateZpusobOchranyObjektu =
-                con.prepareStatement(fixSql(SQL_UPDATE_ZPUSOB_OCHRANY_OBJEKTU));
-        pstmUpdateZpusobOchranyPozemku =
-                con.prepareStatement(fixSql(SQL_UPDATE_ZPUSOB_OCHRANY_POZEMKU));
+        if (Config.isStaging()) {
+            try (final Statement stm = con.createStatement()) {
+                stm.execute(SQL_CREATE_STAGING_TABLE);
+            }
+
+            pstmStage = con.prepareStatement(SQL_STAGE);
+            pstmUpdates = null;
+        } else {
+            pstmStage = null;
+            pstmUpdates = new HashMap<>(32);
+
+            for (final Map.Entry<String, String[]> entry : TABLES.entrySet()) {
+                pstmUpdates.put(entry.getKey(),
+                        prepareUpdates(con, entry.getValue()));
+            }
+        }
+    }
+
+    /**
+     * Adds statements that mark staged items of given type as deleted.
+     *
+     * @param typPrvkuKod TypPrvkuKod of the items
+     * @param table       table of the items
+     * @param keyColumn   key column of the table
+     * @param subItems    pairs of table and parent key column of sub-items
+     */
+    private static void addStagedUpdates(final String typPrvkuKod,
+            final String table, final String keyColumn,
+            final String... subItems) {
+        final String[] sqls = new String[1 + subItems.length / 2];
+        sqls[0] = String.format(SQL_STAGED_ITEM_UPDATE_TEMPLATE, table,
+                keyColumn, typPrvkuKod);
+
+        for (int i = 0; i < subItems.length; i += 2) {
+            sqls[1 + i / 2] = String.format(SQL_STAGED_SUB_ITEM_UPDATE_TEMPLATE,
+                    subItems[i], subItems[i + 1], typPrvkuKod);
+        }
+
+        SQL_STAGED_UPDATES.put(typPrvkuKod, sqls);
+
+        final String[] tables = new String[2 + subItems.length];
+        tables[0] = table;
+        tables[1] = keyColumn;
+        System.arraycopy(subItems, 0, tables, 2, subItems.length);
+        TABLES.put(typPrvkuKod, tables);
+    }
+
+    /**
+     * Prepares statements that mark items of single type and their sub-items
+     * as deleted.
+     *
+     * @param con    database connection
+     * @param tables tables and key columns, see {@link #TABLES}
+     *
+     * @return prepared statements, the first one for the items
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    private PreparedStatement[] prepareUpdates(final Connection con,
+            final String[] tables) throws SQLException {
+        final boolean mysql = Config.isMysqlDriver();
+        final PreparedStatement[] pstms =
+                new PreparedStatement[tables.length / 2];
+
+        for (int i = 0; i < tables.length; i += 2) {
+            final String template;
+
+            if (i == 0) {
+                template = mysql
+                        ? SQL_MYSQL_ITEM_UPDATE_TEMPLATE
+                        : SQL_ITEM_UPDATE_TEMPLATE;
+            } else {
+                template = mysql
+                        ? SQL_MYSQL_SUB_ITEM_UPDATE_TEMPLATE
+                        : SQL_SUB_ITEM_UPDATE_TEMPLATE;
+            }
+
+            pstms[i / 2] = con.prepareStatement(fixSql(
+                    String.format(template, tables[i], tables[i + 1])));
+        }
+
+        return pstms;
+    }
+
+    /**
+     * Marks pending or staged items as deleted.
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    @Override
+    public void flush() throws SQLException {
+        super.flush();
+
+        runOnWriter(new DatabaseWriter.Task() {
+            @Override
+            public void run() throws SQLException {
+                if (pstmStage == null) {
+                    updatePending();
+                } else {
+                    mergeStaged();
+                }
+            }
+        });
     }
 
     @Override
@@ -324,12 +327,10 @@ public class ZaniklyPrvekConvertor extends AbstractSaveConvertor<ZaniklyPrvek> {
             case NAMESPACE:
                 switch (reader.getLocalName()) {
                     case "IdTransakce":
-                        item.setIdTransakce(
-                                Long.parseLong(reader.getElementText()));
+                        item.setIdTransakce(XMLUtils.readLong(reader));
                         break;
                     case "PrvekId":
-                        item.setPrvekId(
-                                Long.parseLong(reader.getElementText()));
+                        item.setPrvekId(XMLUtils.readLong(reader));
                         break;
                     case "TypPrvkuKod":
                         item.setTypPrvkuKod(reader.getElementText());
@@ -344,6 +345,21 @@ public class ZaniklyPrvekConvertor extends AbstractSaveConvertor<ZaniklyPrvek> {
         }
     }
 
+    /**
+     * Checks whether newer version of the referenced item is contained in
+     * other input file.
+     *
+     * @param item item
+     *
+     * @return true if the item should be skipped, otherwise false
+     */
+    @Override
+    protected boolean isSuperseded(final ZaniklyPrvek item) {
+        return ChangeCoalescer.isSuperseded(
+                ChangeCoalescer.getType(item.getTypPrvkuKod()),
+                item.getPrvekId());
+    }
+
     /**
      * Instead of saving data, it removes specified item from database.
      *
@@ -354,144 +370,223 @@ public class ZaniklyPrvekConvertor extends AbstractSaveConvertor<ZaniklyPrvek> {
      */
     @Override
     protected void saveData(final ZaniklyPrvek item) throws SQLException {
-        switch (item.getTypPrvkuKod()) {
-            case "ST": // Stat
-                deleteItem(pstmUpdateStat, item);
-                break;
-            case "RS": // RegionSoudrznosti
-                deleteItem(pstmUpdateRegionSoudrznosti, item);
-                break;
-            case "KR": // Kraj
-                deleteItem(pstmUpdateKraj, item);
-                break;
-            case "VC": // Vusc
-                deleteItem(pstmUpdateVusc, item);
-                break;
-            case "OK": // Okres
-                deleteItem(pstmUpdateOkres, item);
-                break;
-            case "OP": // Orp
-                deleteItem(pstmUpdateOrp, item);
-                break;
-            case "PU": // Pou
-                deleteItem(pstmUpdatePou, item);
-                break;
-            case "OB": // Obec
-                deleteItem(pstmUpdateObec, item);
-                break;
-            case "SP": // SpravniObvod
-                deleteItem(pstmUpdateSpravniObvod, item);
-                break;
-            case "MP": // Mop
-                deleteItem(pstmUpdateMop, item);
-                break;
-            case "MC": // Momc
-                deleteItem(pstmUpdateMomc, item);
-                break;
-            case "KU": //KatastralniUzemi
-                deleteItem(pstmUpdateKatastralniUzemi, item);
-                break;
-            case "ZJ": // Zsj
-                deleteItem(pstmUpdateZsj, item);
-                break;
-            case "VO": // Vo
-                deleteItem(pstmUpdateVo, item);
-                break;
-            case "AD": // AdresniMisto
-                deleteItem(pstmUpdateAdresniMisto, item);
-                break;
-            case "CO": // CastObce
-                deleteItem(pstmUpdateCastObce, item);
-                break;
-            case "SO": // StavebniObjekt
-                deleteStavebniObjekt(item);
-                break;
-            case "PA": // Parcela
-                deleteParcela(item);
-                break;
-            case "UL": // Ulice
-                deleteItem(pstmUpdateUlice, item);
-                break;
-            default:
-                Log.write("Ignoring unsupported TypPrvkuKod '"
-                        + item.getTypPrvkuKod() + " 'of ZaniklyPrvek");
+        if (pstmStage != null) {
+            stageItem(item);
+
+            return;
         }
+
+        addPending(item);
     }
+
     /**
-     * Deletes item with standard (3 parameters) prepared statement.
+     * Adds the item to items that should be marked as deleted. If the same
+     * item is contained more than once, the highest transaction id is used.
+     * Pending items are marked as deleted once the batch is full or on
+     * {@link #flush()}.
      *
-     * @param pstm Prepared statement used to mark item as deleted
      * @param item item
      *
      * @throws SQLException Thrown if problem occurred while communicating with
      *                      database.
      */
-    private void deleteItem(final PreparedStatement pstm, final ZaniklyPrvek item)
-            throws SQLException {
+    private void addPending(final ZaniklyPrvek item) throws SQLException {
         if (Config.isDryRun()) {
             return;
         }
-        pstm.clearParameters();
-        pstm.setLong(1, item.getIdTransakce());
-        pstm.setInt(2, item.getPrvekId().intValue());
-        pstm.setLong(3, item.getIdTransakce());
-        pstm.execute();
+
+        if (!pstmUpdates.containsKey(item.getTypPrvkuKod())) {
+            Log.write("Ignoring unsupported TypPrvkuKod '"
+                    + item.getTypPrvkuKod() + " 'of ZaniklyPrvek");
+
+            return;
+        }
+
+        Map<Long, Long> items = pendingItems.get(item.getTypPrvkuKod());
+
+        if (items == null) {
+            items = new LinkedHashMap<>(64);
+            pendingItems.put(item.getTypPrvkuKod(), items);
+        }
+
+        final Long idTransakce = items.get(item.getPrvekId());
+
+        if (idTransakce == null) {
+            pendingCount++;
+        }
+
+        if (idTransakce == null || idTransakce < item.getIdTransakce()) {
+            items.put(item.getPrvekId(), item.getIdTransakce());
+        }
+
+        if (Config.isPreloadIndex()) {
+            final String[] tables = TABLES.get(item.getTypPrvkuKod());
+            updateIndex(getConnection(), tables[0], tables[1],
+                    item.getPrvekId(), item.getIdTransakce());
+        }
+
+        if (pendingCount >= Math.max(
+                Config.getBatchSize(), UPDATE_BATCH_SIZE)) {
+            updatePending();
+        }
     }
 
     /**
-     * Deletes StavebniObjekt item.
-     *
-     * @param item item
+     * Marks pending items as deleted using single statement per table.
      *
      * @throws SQLException Thrown if problem occurred while communicating with
      *                      database.
      */
-    private void deleteStavebniObjekt(final ZaniklyPrvek item)
-            throws SQLException {
-        if (Config.isDryRun()) {
+    private void updatePending() throws SQLException {
+        if (pendingCount == 0) {
             return;
         }
 
-        pstmUpdateStavebniObjekt.clearParameters();
-        pstmUpdateStavebniObjekt.setLong(1, item.getIdTransakce());
-        pstmUpdateStavebniObjekt.setInt(2, item.getPrvekId().intValue());
-        pstmUpdateStavebniObjekt.setLong(3, item.getIdTransakce());
-        pstmUpdateStavebniObjekt.execute();
+        try {
+            for (final Map.Entry<String, Map<Long, Long>> entry
+                    : pendingItems.entrySet()) {
+                if (entry.getValue().isEmpty()) {
+                    continue;
+                }
+
+                final PreparedStatement[] pstms =
+                        pstmUpdates.get(entry.getKey());
+
+                if (Config.isMysqlDriver()) {
+                    updateUsingBatch(pstms, entry.getValue());
+                } else {
+                    updateUsingArrays(pstms, entry.getValue());
+                }
+
+                entry.getValue().clear();
+            }
+        } finally {
+            pendingCount = 0;
+        }
+    }
+
+    /**
+     * Marks items and their sub-items as deleted passing the keys and
+     * transaction ids as array parameters.
+     *
+     * @param pstms prepared statements for the items and their sub-items
+     * @param items keys and transaction ids of the items
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    private void updateUsingArrays(final PreparedStatement[] pstms,
+            final Map<Long, Long> items) throws SQLException {
+        final Connection con = getConnection();
+        final Array prvekIds = con.createArrayOf("bigint",
+                items.keySet().toArray(new Long[items.size()]));
+
+        pstms[0].clearParameters();
+        pstms[0].setArray(1, prvekIds);
+        pstms[0].setArray(2, con.createArrayOf("bigint",
+                items.values().toArray(new Long[items.size()])));
+        pstms[0].execute();
+
+        for (int i = 1; i < pstms.length; i++) {
+            pstms[i].clearParameters();
+            pstms[i].setArray(1, prvekIds);
+            pstms[i].execute();
+        }
+    }
+
+    /**
+     * Marks items and their sub-items as deleted using batches of single row
+     * statements. Used for MySQL which does not support arrays.
+     *
+     * @param pstms prepared statements for the items and their sub-items
+     * @param items keys and transaction ids of the items
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    private void updateUsingBatch(final PreparedStatement[] pstms,
+            final Map<Long, Long> items) throws SQLException {
+        for (final Map.Entry<Long, Long> entry : items.entrySet()) {
+            pstms[0].clearParameters();
+            pstms[0].setLong(1, entry.getValue());
+            pstms[0].setLong(2, entry.getKey());
+            pstms[0].setLong(3, entry.getValue());
+            pstms[0].addBatch();
 
-        pstmUpdateDetailniTea.clearParameters();
-        pstmUpdateDetailniTea.setInt(1, item.getPrvekId().intValue());
-        pstmUpdateDetailniTea.execute();
+            for (int i = 1; i < pstms.length; i++) {
+                pstms[i].clearParameters();
+                pstms[i].setLong(1, entry.getKey());
+                pstms[i].addBatch();
+            }
+        }
 
-        pstmUpdateZpusobOchranyObjektu.clearParameters();
-        pstmUpdateZpusobOchranyObjektu.setInt(1, item.getPrvekId().intValue());
-        pstmUpdateZpusobOchranyObjektu.execute();
+        for (final PreparedStatement pstm : pstms) {
+            pstm.executeBatch();
+        }
     }
 
     /**
-     * Deletes Parcela item.
+     * Saves the item to staging table. Items are marked as deleted once the
+     * staged items are merged.
      *
      * @param item item
      *
      * @throws SQLException Thrown if problem occurred while communicating with
      *                      database.
      */
-    private void deleteParcela(final ZaniklyPrvek item) throws SQLException {
+    private void stageItem(final ZaniklyPrvek item) throws SQLException {
         if (Config.isDryRun()) {
             return;
         }
 
-        pstmUpdateParcela.clearParameters();
-        pstmUpdateParcela.setLong(1, item.getIdTransakce());
-        pstmUpdateParcela.setLong(2, item.getPrvekId());
-        pstmUpdateParcela.setLong(3, item.getIdTransakce());
-        pstmUpdateParcela.execute();
+        if (!SQL_STAGED_UPDATES.containsKey(item.getTypPrvkuKod())) {
+            Log.write("Ignoring unsupported TypPrvkuKod '"
+                    + item.getTypPrvkuKod() + " 'of ZaniklyPrvek");
+
+            return;
+        }
+
+        pstmStage.clearParameters();
+        pstmStage.setString(1, item.getTypPrvkuKod());
+        pstmStage.setLong(2, item.getPrvekId());
+        pstmStage.setLong(3, item.getIdTransakce());
+        pstmStage.addBatch();
+        stagedTypes.add(item.getTypPrvkuKod());
+        stagedBatchCount++;
+
+        if (stagedBatchCount >= Math.max(
+                Config.getBatchSize(), STAGING_BATCH_SIZE)) {
+            pstmStage.executeBatch();
+            stagedBatchCount = 0;
+        }
+    }
+
+    /**
+     * Marks staged items as deleted and truncates the staging table.
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    private void mergeStaged() throws SQLException {
+        if (stagedTypes.isEmpty()) {
+            return;
+        }
+
+        if (stagedBatchCount > 0) {
+            pstmStage.executeBatch();
+            stagedBatchCount = 0;
+        }
+
+        try (final Statement stm = getConnection().createStatement()) {
+            for (final String typPrvkuKod : stagedTypes) {
+                for (final String sql : SQL_STAGED_UPDATES.get(typPrvkuKod)) {
+                    stm.executeUpdate(sql);
+                }
+            }
 
-        pstmUpdateZpusobOchranyPozemku.clearParameters();
-        pstmUpdateZpusobOchranyPozemku.setLong(1, item.getPrvekId());
-        pstmUpdateZpusobOchranyPozemku.execute();
+            stm.execute("TRUNCATE stg_zanikly_prvek");
+        }
 
-        pstmUpdateBonitDilyParcel.clearParameters();
-        pstmUpdateBonitDilyParcel.setLong(1, item.getPrvekId());
-        pstmUpdateBonitDilyParcel.execute();
+        stagedTypes.clear();
     }
 }
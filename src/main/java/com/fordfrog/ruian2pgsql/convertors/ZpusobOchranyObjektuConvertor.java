@@ -23,6 +23,7 @@ package com.fordfrog.ruian2pgsql.convertors;
 
 import com.fordfrog.ruian2pgsql.containers.ZpusobOchranyObjektu;
 import com.fordfrog.ruian2pgsql.utils.Namespaces;
+import com.fordfrog.ruian2pgsql.utils.PreparedStatementEx;
 import com.fordfrog.ruian2pgsql.utils.XMLUtils;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -72,11 +73,13 @@ public class ZpusobOchranyObjektuConvertor
     protected void fill(final PreparedStatement pstm,
             final ZpusobOchranyObjektu item, final boolean update)
             throws SQLException {
-        pstm.setInt(1, stavebniObjektId);
+        final PreparedStatementEx pstmEx = getPreparedStatementEx(pstm);
+        pstm.setInt(1, item.getStavobjKod());
         pstm.setInt(2, item.getKod());
-        pstm.setInt(3, item.getZpusobOchranyKod());
+        pstmEx.setInt(3, item.getZpusobOchranyKod(),
+                item.isZpusobOchranyKodNull());
         pstm.setLong(4, item.getIdTransRuian());
-        pstm.setLong(5, item.getRizeniId());
+        pstmEx.setLong(5, item.getRizeniId(), item.isRizeniIdNull());
     }
 
     @Override
@@ -85,6 +88,30 @@ public class ZpusobOchranyObjektuConvertor
         // we do not set any parameters as we always return empty result set
     }
 
+    /**
+     * Returns id of parent StavebniObjekt so that pending items can be looked up
+     * by the parent.
+     *
+     * @param item item
+     *
+     * @return id of parent StavebniObjekt
+     */
+    @Override
+    protected Number getItemKey(final ZpusobOchranyObjektu item) {
+        return item.getStavobjKod();
+    }
+
+    /**
+     * Sets id of parent StavebniObjekt to the item, as the item might be saved
+     * after {@link #stavebniObjektId} is changed for next StavebniObjekt.
+     *
+     * @param item item
+     */
+    @Override
+    protected void prepareItem(final ZpusobOchranyObjektu item) {
+        item.setStavobjKod(stavebniObjektId);
+    }
+
     @Override
     protected void processElement(final XMLStreamReader reader,
             final ZpusobOchranyObjektu item) throws XMLStreamException {
@@ -92,19 +119,16 @@ public class ZpusobOchranyObjektuConvertor
             case NAMESPACE:
                 switch (reader.getLocalName()) {
                     case "IdTransakce":
-                        item.setIdTransRuian(
-                                Long.parseLong(reader.getElementText()));
+                        item.setIdTransRuian(XMLUtils.readLong(reader));
                         break;
                     case "Kod":
-                        item.setKod(Integer.parseInt(reader.getElementText()));
+                        item.setKod(XMLUtils.readInt(reader));
                         break;
                     case "TypOchranyKod":
-                        item.setZpusobOchranyKod(
-                                Integer.parseInt(reader.getElementText()));
+                        item.setZpusobOchranyKod(XMLUtils.readInt(reader));
                         break;
                     case "RizeniId":
-                        item.setRizeniId(
-                                Long.parseLong(reader.getElementText()));
+                        item.setRizeniId(XMLUtils.readLong(reader));
                         break;
                     default:
                         XMLUtils.processUnsupported(reader);
@@ -23,6 +23,7 @@ package com.fordfrog.ruian2pgsql.convertors;
 
 import com.fordfrog.ruian2pgsql.containers.ZpusobOchranyPozemku;
 import com.fordfrog.ruian2pgsql.utils.Namespaces;
+import com.fordfrog.ruian2pgsql.utils.PreparedStatementEx;
 import com.fordfrog.ruian2pgsql.utils.XMLUtils;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -72,11 +73,13 @@ public class ZpusobOchranyPozemkuConvertor
     protected void fill(final PreparedStatement pstm,
             final ZpusobOchranyPozemku item, final boolean update)
             throws SQLException {
+        final PreparedStatementEx pstmEx = getPreparedStatementEx(pstm);
         pstm.setInt(1, item.getKod());
-        pstm.setInt(2, item.getZpusobOchranyKod());
-        pstm.setLong(3, parcelaId);
+        pstmEx.setInt(2, item.getZpusobOchranyKod(),
+                item.isZpusobOchranyKodNull());
+        pstm.setLong(3, item.getParcelaId());
         pstm.setLong(4, item.getIdTransRuian());
-        pstm.setLong(5, item.getRizeniId());
+        pstmEx.setLong(5, item.getRizeniId(), item.isRizeniIdNull());
     }
 
     @Override
@@ -85,6 +88,30 @@ public class ZpusobOchranyPozemkuConvertor
         // we do not set any parameters as we always return empty result set
     }
 
+    /**
+     * Returns id of parent Parcela so that pending items can be looked up
+     * by the parent.
+     *
+     * @param item item
+     *
+     * @return id of parent Parcela
+     */
+    @Override
+    protected Number getItemKey(final ZpusobOchranyPozemku item) {
+        return item.getParcelaId();
+    }
+
+    /**
+     * Sets id of parent Parcela to the item, as the item might be saved
+     * after {@link #parcelaId} is changed for next Parcela.
+     *
+     * @param item item
+     */
+    @Override
+    protected void prepareItem(final ZpusobOchranyPozemku item) {
+        item.setParcelaId(parcelaId);
+    }
+
     @Override
     protected void processElement(final XMLStreamReader reader,
             final ZpusobOchranyPozemku item) throws XMLStreamException {
@@ -92,19 +119,16 @@ public class ZpusobOchranyPozemkuConvertor
             case NAMESPACE:
                 switch (reader.getLocalName()) {
                     case "IdTransakce":
-                        item.setIdTransRuian(
-                                Long.parseLong(reader.getElementText()));
+                        item.setIdTransRuian(XMLUtils.readLong(reader));
                         break;
                     case "Kod":
-                        item.setKod(Integer.parseInt(reader.getElementText()));
+                        item.setKod(XMLUtils.readInt(reader));
                         break;
                     case "TypOchranyKod":
-                        item.setZpusobOchranyKod(
-                                Integer.parseInt(reader.getElementText()));
+                        item.setZpusobOchranyKod(XMLUtils.readInt(reader));
                         break;
                     case "RizeniId":
-                        item.setRizeniId(
-                                Long.parseLong(reader.getElementText()));
+                        item.setRizeniId(XMLUtils.readLong(reader));
                         break;
                     default:
                         XMLUtils.processUnsupported(reader);
@@ -21,7 +21,6 @@
  */
 package com.fordfrog.ruian2pgsql.convertors;
 
-import com.fordfrog.ruian2pgsql.Config;
 import com.fordfrog.ruian2pgsql.containers.Zsj;
 import com.fordfrog.ruian2pgsql.utils.Namespaces;
 import com.fordfrog.ruian2pgsql.utils.PreparedStatementEx;
@@ -113,27 +112,29 @@ public class ZsjConvertor extends AbstractSaveConvertor<Zsj> {
     @SuppressWarnings("ValueOfIncrementOrDecrementUsed")
     protected void fill(final PreparedStatement pstm, final Zsj item,
             final boolean update) throws SQLException {
-        final PreparedStatementEx pstmEx = new PreparedStatementEx(pstm);
+        final PreparedStatementEx pstmEx = getPreparedStatementEx(pstm);
         int index = 1;
         pstm.setString(index++, item.getNazev());
-        pstmEx.setBoolean(index++, item.getNespravny());
-        pstm.setInt(index++, item.getKatuzKod());
-        pstm.setInt(index++, item.getCharakterZsjKod());
+        pstmEx.setBoolean(index++, item.getNespravny(), item.isNespravnyNull());
+        pstmEx.setInt(index++, item.getKatuzKod(), item.isKatuzKodNull());
+        pstmEx.setInt(index++, item.getCharakterZsjKod(),
+                item.isCharakterZsjKodNull());
         pstm.setString(index++, item.getMluvCharPad2());
         pstm.setString(index++, item.getMluvCharPad3());
         pstm.setString(index++, item.getMluvCharPad4());
         pstm.setString(index++, item.getMluvCharPad5());
         pstm.setString(index++, item.getMluvCharPad6());
         pstm.setString(index++, item.getMluvCharPad7());
-        pstmEx.setLong(index++, item.getVymera());
+        pstmEx.setLong(index++, item.getVymera(), item.isVymeraNull());
         pstmEx.setDate(index++, item.getPlatiOd());
         pstmEx.setBoolean(index++, item.getZmenaGrafiky());
-        pstm.setLong(index++, item.getNzIdGlobalni());
+        pstmEx.setLong(index++, item.getNzIdGlobalni(),
+                item.isNzIdGlobalniNull());
         pstm.setLong(index++, item.getIdTransRuian());
 
-        if (!Config.isNoGis()) {
-            pstm.setString(index++, item.getDefinicniBod());
-            pstm.setString(index++, item.getHranice());
+        if (isGeometryBound(pstm)) {
+            pstmEx.setGeometry(index++, item.getDefinicniBod());
+            pstmEx.setGeometry(index++, item.getHranice());
         }
 
         pstmEx.setDate(index++, item.getDatumVzniku());
@@ -150,6 +151,11 @@ public class ZsjConvertor extends AbstractSaveConvertor<Zsj> {
         pstm.setInt(1, item.getKod());
     }
 
+    @Override
+    protected Number getItemKey(final Zsj item) {
+        return item.getKod();
+    }
+
     @Override
     protected void processElement(final XMLStreamReader reader, final Zsj item)
             throws XMLStreamException {
@@ -157,31 +163,27 @@ public class ZsjConvertor extends AbstractSaveConvertor<Zsj> {
             case NAMESPACE:
                 switch (reader.getLocalName()) {
                     case "CharakterZsjKod":
-                        item.setCharakterZsjKod(
-                                Integer.parseInt(reader.getElementText()));
+                        item.setCharakterZsjKod(XMLUtils.readInt(reader));
                         break;
                     case "DatumVzniku":
                         item.setDatumVzniku(
                                 Utils.parseTimestamp(reader.getElementText()));
                         break;
                     case "Geometrie":
-                        Utils.processGeometrie(
-                                reader, getConnection(), item, NAMESPACE);
+                        processGeometrie(reader, item, NAMESPACE);
                         break;
                     case "GlobalniIdNavrhuZmeny":
-                        item.setNzIdGlobalni(
-                                Long.parseLong(reader.getElementText()));
+                        item.setNzIdGlobalni(XMLUtils.readLong(reader));
                         break;
                     case "IdTransakce":
-                        item.setIdTransRuian(
-                                Long.parseLong(reader.getElementText()));
+                        item.setIdTransRuian(XMLUtils.readLong(reader));
                         break;
                     case "KatastralniUzemi":
                         item.setKatuzKod(Utils.getKatastralniUzemiKod(
                                 reader, NAMESPACE));
                         break;
                     case "Kod":
-                        item.setKod(Integer.parseInt(reader.getElementText()));
+                        item.setKod(XMLUtils.readInt(reader));
                         break;
                     case "MluvnickeCharakteristiky":
                         Utils.processMluvnickeCharakteristiky(
@@ -191,15 +193,17 @@ public class ZsjConvertor extends AbstractSaveConvertor<Zsj> {
                         item.setNazev(reader.getElementText());
                         break;
                     case "Nespravny":
-                        item.setNespravny(
-                                Boolean.valueOf(reader.getElementText()));
+                        item.setNespravny(XMLUtils.readBoolean(reader));
                         break;
                     case "PlatiOd":
                         item.setPlatiOd(
                                 Utils.parseTimestamp(reader.getElementText()));
                         break;
                     case "Vymera":
-                        item.setVymera(Long.parseLong(reader.getElementText()));
+                        item.setVymera(XMLUtils.readLong(reader));
+                        break;
+                    case "ZmenaGrafiky":
+                        item.setZmenaGrafiky(XMLUtils.readBoolean(reader));
                         break;
                     default:
                         XMLUtils.processUnsupported(reader);
@@ -50,4 +50,12 @@ public abstract class AbstractGeometry implements Geometry {
 
     @Override
     public abstract String toWKT() throws RuntimeException;
+
+    @Override
+    public byte[] toEWKB() {
+        final WKBWriter writer = new WKBWriter(1_024);
+        writeWKB(writer);
+
+        return writer.toByteArray();
+    }
 }
@@ -22,8 +22,6 @@
 package com.fordfrog.ruian2pgsql.gml;
 
 import java.text.MessageFormat;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * Circle.
@@ -35,33 +33,56 @@ public class Circle extends AbstractGeometry implements GeometryWithPoints, Curv
     /**
      * Circle points.
      */
-    private final List<Point> points = new ArrayList<>(5);
+    private final CoordinateSequence points =
+            new CoordinateSequence(3);
 
     @Override
     public void addPoint(final Point point) {
-        points.add(point);
+        points.add(point.getX(), point.getY());
+    }
+
+    @Override
+    public void addPoint(final double x, final double y) {
+        points.add(x, y);
     }
 
     @Override
     public String toWKT() {
+        return toCurve().toWKT();
+    }
+
+    @Override
+    public void writeWKB(final WKBWriter writer) {
+        final Curve curve = toCurve();
+        curve.setSrid(getSrid());
+        curve.writeWKB(writer);
+    }
+
+    /**
+     * Converts the circle to closed circular string.
+     *
+     * @return circular string
+     */
+    private Curve toCurve() {
         if (points.size() != 3) {
             throw new RuntimeException(MessageFormat.format(
                 "Invalid Circle definition: need 3 control points, but got {0}.",
                 points.size()));
         }
 
-        final Point center = GeometryUtils.getArcCenter(points.get(0), points.get(1), points.get(2));
-        final double dx = center.getX() - points.get(0).getX();
-        final double dy = center.getY() - points.get(0).getY();
+        final Point center = GeometryUtils.getArcCenter(points.getPoint(0),
+                points.getPoint(1), points.getPoint(2));
+        final double dx = center.getX() - points.getX(0);
+        final double dy = center.getY() - points.getY(0);
 
         final Curve curve = new Curve();
-        curve.addPoint(points.get(0));
-        curve.addPoint(new Point(center.getX() - dy, center.getY() + dx));
-        curve.addPoint(new Point(center.getX() + dx, center.getY() + dy));
-        curve.addPoint(new Point(center.getX() + dy, center.getY() - dx));
-        curve.addPoint(points.get(0));
+        curve.addPoint(points.getX(0), points.getY(0));
+        curve.addPoint(center.getX() - dy, center.getY() + dx);
+        curve.addPoint(center.getX() + dx, center.getY() + dy);
+        curve.addPoint(center.getX() + dy, center.getY() - dx);
+        curve.addPoint(points.getX(0), points.getY(0));
 
-        return curve.toWKT();
+        return curve;
     }
 
     @Override
@@ -72,10 +93,12 @@ public class Circle extends AbstractGeometry implements GeometryWithPoints, Curv
                 points.size()));
         }
 
-        final Point center = GeometryUtils.getArcCenter(points.get(0), points.get(1), points.get(2));
-        final double radius = GeometryUtils.distance(points.get(0), center);
-        final double a1 = Math.atan2(points.get(0).getY() - center.getY(),
-                                     points.get(0).getX() - center.getX());
+        final Point first = points.getPoint(0);
+        final Point center = GeometryUtils.getArcCenter(first,
+                points.getPoint(1), points.getPoint(2));
+        final double radius = GeometryUtils.distance(first, center);
+        final double a1 = Math.atan2(first.getY() - center.getY(),
+                                     first.getX() - center.getX());
 
         double segmentCount = 3.0;
         if (0.5 * radius > precision) {
@@ -84,13 +107,13 @@ public class Circle extends AbstractGeometry implements GeometryWithPoints, Curv
 
         final Line line = new Line();
         line.setSrid(getSrid());
-        line.addPoint(points.get(0));
+        line.addPoint(first.getX(), first.getY());
         for (int i = 1; i < segmentCount; i++) {
             double a = a1 + i * 2 * Math.PI / segmentCount;
-            line.addPoint(new Point(center.getX() + radius * Math.cos(a),
-                                 center.getY() + radius * Math.sin(a)));
+            line.addPoint(center.getX() + radius * Math.cos(a),
+                          center.getY() + radius * Math.sin(a));
         }
-        line.addPoint(points.get(0));
+        line.addPoint(first.getX(), first.getY());
 
         return line;
     }
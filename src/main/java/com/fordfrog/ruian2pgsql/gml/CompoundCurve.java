@@ -71,11 +71,21 @@ public class CompoundCurve extends AbstractGeometry implements CurvedGeometry<Li
         return sbString.toString();
     }
 
+    @Override
+    public void writeWKB(final WKBWriter writer) {
+        writer.writeHeader(WKBWriter.TYPE_COMPOUNDCURVE, getSrid());
+        writer.writeInt(segments.size());
+
+        for (final Geometry segment : segments) {
+            segment.writeWKB(writer);
+        }
+    }
+
     @Override
     public Line linearize(final double precision) {
         final Line line = new Line();
         line.setSrid(getSrid());
-        List<Point> points = null;
+        CoordinateSequence points = null;
         Point lastPoint = null;
 
         for (final Geometry segment : segments) {
@@ -86,20 +96,18 @@ public class CompoundCurve extends AbstractGeometry implements CurvedGeometry<Li
             }
 
             if (lastPoint != null) {
-                if (lastPoint.getX() != points.get(0).getX() ||
-                    lastPoint.getY() != points.get(0).getY()) {
+                if (lastPoint.getX() != points.getX(0) ||
+                    lastPoint.getY() != points.getY(0)) {
                     throw new RuntimeException(MessageFormat.format(
                         "Could not connect segments of CompoundCurve: {0} != {1}.",
-                        lastPoint.toWKT(), points.get(0).toWKT()));
+                        lastPoint.toWKT(), points.getPoint(0).toWKT()));
                 }
             } else {
-                line.addPoint(points.get(0));
+                line.addPoint(points.getX(0), points.getY(0));
             }
 
-            for (final Point point : points.subList(1, points.size())) {
-                line.addPoint(point);
-            }
-            lastPoint = points.get(points.size() - 1);
+            line.addPoints(points, 1);
+            lastPoint = points.getPoint(points.size() - 1);
         }
 
         return line;
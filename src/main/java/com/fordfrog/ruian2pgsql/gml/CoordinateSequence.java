@@ -0,0 +1,152 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.gml;
+
+import java.util.Arrays;
+
+/**
+ * Growable sequence of coordinates stored in packed array with x and y
+ * coordinates interleaved. It avoids allocation of point instance for every
+ * coordinate pair of parsed geometry.
+ *
+ * @author fordfrog
+ */
+public class CoordinateSequence {
+
+    /**
+     * Packed coordinates, x at even and y at odd positions.
+     */
+    private double[] coordinates;
+    /**
+     * Number of stored coordinate pairs.
+     */
+    private int size;
+
+    /**
+     * Creates new instance of CoordinateSequence.
+     *
+     * @param initialCapacity initial number of coordinate pairs the sequence
+     *                        can hold without growing
+     */
+    public CoordinateSequence(final int initialCapacity) {
+        coordinates = new double[Math.max(initialCapacity, 1) * 2];
+    }
+
+    /**
+     * Adds coordinate pair to the end of the sequence.
+     *
+     * @param x x coordinate
+     * @param y y coordinate
+     */
+    public void add(final double x, final double y) {
+        if (size * 2 == coordinates.length) {
+            coordinates = Arrays.copyOf(coordinates, coordinates.length * 2);
+        }
+
+        coordinates[size * 2] = x;
+        coordinates[size * 2 + 1] = y;
+        size++;
+    }
+
+    /**
+     * Adds coordinate pairs of other sequence starting at specified index.
+     *
+     * @param sequence  source sequence
+     * @param fromIndex index of first coordinate pair to add
+     */
+    public void addAll(final CoordinateSequence sequence, final int fromIndex) {
+        final int count = sequence.size - fromIndex;
+
+        if (count <= 0) {
+            return;
+        }
+
+        final int required = (size + count) * 2;
+
+        if (required > coordinates.length) {
+            coordinates = Arrays.copyOf(coordinates,
+                    Math.max(required, coordinates.length * 2));
+        }
+
+        System.arraycopy(sequence.coordinates, fromIndex * 2, coordinates,
+                size * 2, count * 2);
+        size += count;
+    }
+
+    /**
+     * Returns x coordinate at specified index.
+     *
+     * @param index coordinate pair index
+     *
+     * @return x coordinate
+     */
+    public double getX(final int index) {
+        checkIndex(index);
+
+        return coordinates[index * 2];
+    }
+
+    /**
+     * Returns y coordinate at specified index.
+     *
+     * @param index coordinate pair index
+     *
+     * @return y coordinate
+     */
+    public double getY(final int index) {
+        checkIndex(index);
+
+        return coordinates[index * 2 + 1];
+    }
+
+    /**
+     * Creates new point from coordinate pair at specified index.
+     *
+     * @param index coordinate pair index
+     *
+     * @return new point
+     */
+    public Point getPoint(final int index) {
+        return new Point(getX(index), getY(index));
+    }
+
+    /**
+     * Returns number of coordinate pairs.
+     *
+     * @return number of coordinate pairs
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the index is within the sequence.
+     *
+     * @param index coordinate pair index
+     */
+    private void checkIndex(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(
+                    "Index: " + index + ", Size: " + size);
+        }
+    }
+}
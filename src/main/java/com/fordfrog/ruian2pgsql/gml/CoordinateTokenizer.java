@@ -0,0 +1,253 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.gml;
+
+import java.util.Arrays;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Streaming tokenizer of coordinate lists. It scans text characters of the
+ * element directly from the reader buffer and parses decimal numbers without
+ * creating intermediate strings. Numbers are separated by any whitespace.
+ *
+ * @author fordfrog
+ */
+public class CoordinateTokenizer {
+
+    /**
+     * Exactly representable powers of ten.
+     */
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12,
+        1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    /**
+     * Maximum mantissa that is exactly representable as double.
+     */
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    /**
+     * Maximum number of digits that fit into long mantissa.
+     */
+    private static final int MAX_DIGITS = 18;
+    /**
+     * Geometry the parsed points are added to.
+     */
+    private final GeometryWithPoints geometry;
+    /**
+     * Characters of currently read token.
+     */
+    private char[] token = new char[32];
+    /**
+     * Length of currently read token.
+     */
+    private int tokenLength;
+    /**
+     * X coordinate waiting for its y coordinate.
+     */
+    private double x;
+    /**
+     * Whether {@link #x} is set.
+     */
+    private boolean hasX;
+
+    /**
+     * Creates new instance of CoordinateTokenizer.
+     *
+     * @param geometry {@link #geometry}
+     */
+    public CoordinateTokenizer(final GeometryWithPoints geometry) {
+        this.geometry = geometry;
+    }
+
+    /**
+     * Reads coordinates from text content of current element and adds them
+     * to the geometry. Reader is positioned at the end element afterwards.
+     *
+     * @param reader   XML stream reader positioned at start element
+     * @param geometry geometry the points are added to
+     *
+     * @throws XMLStreamException Thrown if problem occurred while reading XML
+     *                            stream.
+     */
+    public static void read(final XMLStreamReader reader,
+            final GeometryWithPoints geometry) throws XMLStreamException {
+        final CoordinateTokenizer tokenizer = new CoordinateTokenizer(geometry);
+
+        while (reader.hasNext()) {
+            final int event = reader.next();
+
+            switch (event) {
+                case XMLStreamReader.CHARACTERS:
+                case XMLStreamReader.CDATA:
+                case XMLStreamReader.SPACE:
+                    tokenizer.append(reader.getTextCharacters(),
+                            reader.getTextStart(), reader.getTextLength());
+
+                    break;
+                case XMLStreamReader.ENTITY_REFERENCE:
+                    final char[] text = reader.getText().toCharArray();
+                    tokenizer.append(text, 0, text.length);
+
+                    break;
+                case XMLStreamReader.COMMENT:
+                case XMLStreamReader.PROCESSING_INSTRUCTION:
+                    break;
+                case XMLStreamReader.END_ELEMENT:
+                    tokenizer.finish();
+
+                    return;
+                default:
+                    throw new XMLStreamException(
+                            "Unexpected event while reading coordinates: "
+                            + event, reader.getLocation());
+            }
+        }
+
+        throw new XMLStreamException(
+                "Unexpected end of document while reading coordinates",
+                reader.getLocation());
+    }
+
+    /**
+     * Processes chunk of characters. Tokens can span multiple chunks.
+     *
+     * @param chars  character buffer
+     * @param start  start of the chunk in the buffer
+     * @param length length of the chunk
+     */
+    public void append(final char[] chars, final int start, final int length) {
+        final int end = start + length;
+
+        for (int i = start; i < end; i++) {
+            final char c = chars[i];
+
+            if (c <= ' ') {
+                if (tokenLength > 0) {
+                    endToken();
+                }
+            } else {
+                if (tokenLength == token.length) {
+                    token = Arrays.copyOf(token, token.length * 2);
+                }
+
+                token[tokenLength++] = c;
+            }
+        }
+    }
+
+    /**
+     * Processes last token and checks that all coordinates were paired.
+     */
+    public void finish() {
+        if (tokenLength > 0) {
+            endToken();
+        }
+
+        if (hasX) {
+            throw new RuntimeException(
+                    "Odd number of coordinates in coordinate list");
+        }
+    }
+
+    /**
+     * Parses current token and adds the point if both coordinates are read.
+     */
+    private void endToken() {
+        final double value = parseDouble(token, tokenLength);
+        tokenLength = 0;
+
+        if (hasX) {
+            geometry.addPoint(x, value);
+            hasX = false;
+        } else {
+            x = value;
+            hasX = true;
+        }
+    }
+
+    /**
+     * Parses decimal number. Plain decimals with exactly representable
+     * mantissa are parsed directly which gives the same result as
+     * {@link Double#parseDouble(java.lang.String)}, other formats are passed
+     * to that method.
+     *
+     * @param chars  characters of the number
+     * @param length number of characters
+     *
+     * @return parsed number
+     */
+    static double parseDouble(final char[] chars, final int length) {
+        int i = 0;
+        boolean negative = false;
+
+        if (chars[0] == '-') {
+            negative = true;
+            i++;
+        } else if (chars[0] == '+') {
+            i++;
+        }
+
+        long mantissa = 0;
+        boolean hasDigit = false;
+        int digits = 0;
+        int scale = -1;
+
+        for (; i < length; i++) {
+            final char c = chars[i];
+
+            if (c >= '0' && c <= '9') {
+                if (digits == MAX_DIGITS) {
+                    return Double.parseDouble(new String(chars, 0, length));
+                }
+
+                mantissa = mantissa * 10 + (c - '0');
+                hasDigit = true;
+
+                if (mantissa > 0) {
+                    digits++;
+                }
+
+                if (scale >= 0) {
+                    scale++;
+                }
+            } else if (c == '.' && scale < 0) {
+                scale = 0;
+            } else {
+                return Double.parseDouble(new String(chars, 0, length));
+            }
+        }
+
+        if (!hasDigit || mantissa > MAX_EXACT_MANTISSA
+                || scale >= POWERS_OF_TEN.length) {
+            return Double.parseDouble(new String(chars, 0, length));
+        }
+
+        double value = mantissa;
+
+        if (scale > 0) {
+            value /= POWERS_OF_TEN[scale];
+        }
+
+        return negative ? -value : value;
+    }
+}
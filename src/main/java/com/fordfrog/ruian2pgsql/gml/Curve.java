@@ -22,9 +22,6 @@
 package com.fordfrog.ruian2pgsql.gml;
 
 import java.text.MessageFormat;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
 
 /**
  * Curve.
@@ -36,11 +33,17 @@ public class Curve extends AbstractGeometry implements GeometryWithPoints, Curve
     /**
      * Curve points.
      */
-    private final List<Point> points = new ArrayList<>(5);
+    private final CoordinateSequence points =
+            new CoordinateSequence(5);
 
     @Override
     public void addPoint(final Point point) {
-        points.add(point);
+        points.add(point.getX(), point.getY());
+    }
+
+    @Override
+    public void addPoint(final double x, final double y) {
+        points.add(x, y);
     }
 
     @Override
@@ -55,6 +58,12 @@ public class Curve extends AbstractGeometry implements GeometryWithPoints, Curve
         return sbString.toString();
     }
 
+    @Override
+    public void writeWKB(final WKBWriter writer) {
+        writer.writeHeader(WKBWriter.TYPE_CIRCULARSTRING, getSrid());
+        writer.writePoints(points);
+    }
+
     @Override
     public Line linearize(final double precision) {
         if (points.size() < 3) {
@@ -65,30 +74,27 @@ public class Curve extends AbstractGeometry implements GeometryWithPoints, Curve
 
         final Line line = new Line();
         line.setSrid(getSrid());
-        line.addPoint(points.get(0));
+        line.addPoint(points.getX(0), points.getY(0));
         for (int i = 2; i < points.size(); i = i + 2) {
-            List<Point> linePoints = linearizeArc(precision,
-                        points.get(i - 2), points.get(i - 1), points.get(i));
-            for (final Point point : linePoints.subList(1, linePoints.size())) {
-                line.addPoint(point);
-            }
+            linearizeArc(line, precision, points.getPoint(i - 2),
+                    points.getPoint(i - 1), points.getPoint(i));
         }
 
         return line;
     }
 
     /**
-     * Calculates linear approximation of the arc.
+     * Calculates linear approximation of the arc and appends its points,
+     * except the first one, to the line.
      *
+     * @param line      line to append points to
      * @param precision of linear approximation
-     * @param point1 first point of the arc
-     * @param point2 second point of the arc
-     * @param point3 third point of the arc
-     *
-     * @return list of points approximating arc
+     * @param point1    first point of the arc
+     * @param point2    second point of the arc
+     * @param point3    third point of the arc
      */
-    private List<Point> linearizeArc(double precision, final Point point1,
-            final Point point2, final Point point3) {
+    private void linearizeArc(final Line line, double precision,
+            final Point point1, final Point point2, final Point point3) {
         final Point center = GeometryUtils.getArcCenter(point1, point2, point3);
         final double radius = GeometryUtils.distance(point2, center);
         final boolean ccw = GeometryUtils.orientationDet(point1, point2, point3) > 0;
@@ -105,20 +111,15 @@ public class Curve extends AbstractGeometry implements GeometryWithPoints, Curve
             segmentCount = Math.ceil(0.5 * da / Math.acos(1 - precision / radius));
         }
 
-        final List<Point> points = new ArrayList<>(100);
-        for (int i = 1; i < segmentCount; i++) {
+        for (int j = 1; j < segmentCount; j++) {
+            // clockwise arcs are computed from the end point in reverse order
+            final int i = ccw ? j : (int) segmentCount - j;
             double a = (ccw ? a1 : a3) + i * da / segmentCount;
-            points.add(new Point(center.getX() + radius * Math.cos(a),
-                                 center.getY() + radius * Math.sin(a)));
+            line.addPoint(center.getX() + radius * Math.cos(a),
+                          center.getY() + radius * Math.sin(a));
         }
-        if (!ccw) {
-            Collections.reverse(points);
-        }
-
-        points.add(0, point1);
-        points.add(point3);
 
-        return points;
+        line.addPoint(point3.getX(), point3.getY());
     }
 
 }
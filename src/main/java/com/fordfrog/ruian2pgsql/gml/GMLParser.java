@@ -784,9 +784,18 @@ public class GMLParser {
      */
     private static void parsePos(final XMLStreamReader reader,
             final Point point) throws XMLStreamException {
-        final String[] parts = reader.getElementText().split(" ");
-        point.setX(Double.parseDouble(parts[0]));
-        point.setY(Double.parseDouble(parts[1]));
+        CoordinateTokenizer.read(reader, new GeometryWithPoints() {
+            @Override
+            public void addPoint(final Point parsedPoint) {
+                addPoint(parsedPoint.getX(), parsedPoint.getY());
+            }
+
+            @Override
+            public void addPoint(final double x, final double y) {
+                point.setX(x);
+                point.setY(y);
+            }
+        });
     }
 
     /**
@@ -802,12 +811,7 @@ public class GMLParser {
      */
     private static void parsePosList(final XMLStreamReader reader,
             final GeometryWithPoints geometry) throws XMLStreamException {
-        final String[] parts = reader.getElementText().split(" ");
-
-        for (int i = 0; i < parts.length; i += 2) {
-            geometry.addPoint(new Point(Double.parseDouble(parts[i]),
-                    Double.parseDouble(parts[i + 1])));
-        }
+        CoordinateTokenizer.read(reader, geometry);
     }
 
     /**
@@ -41,4 +41,18 @@ public interface Geometry {
      * @return WKT string representing the geometry
      */
     String toWKT();
+
+    /**
+     * Stores geometry as EWKB.
+     *
+     * @return EWKB bytes representing the geometry
+     */
+    byte[] toEWKB();
+
+    /**
+     * Writes geometry in EWKB format. SRID is written only if it is set.
+     *
+     * @param writer WKB writer
+     */
+    void writeWKB(WKBWriter writer);
 }
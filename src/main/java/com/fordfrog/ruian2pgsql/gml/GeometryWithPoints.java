@@ -34,4 +34,12 @@ public interface GeometryWithPoints {
      * @param point
      */
     void addPoint(Point point);
+
+    /**
+     * Adds point specified by its coordinates to the list of points.
+     *
+     * @param x x coordinate
+     * @param y y coordinate
+     */
+    void addPoint(double x, double y);
 }
@@ -21,10 +21,6 @@
  */
 package com.fordfrog.ruian2pgsql.gml;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-
 /**
  * Line.
  *
@@ -35,11 +31,28 @@ public class Line extends AbstractGeometry implements GeometryWithPoints {
     /**
      * List of points.
      */
-    private final List<Point> points = new ArrayList<>(100);
+    private final CoordinateSequence points =
+            new CoordinateSequence(100);
 
     @Override
     public void addPoint(final Point point) {
-        points.add(point);
+        points.add(point.getX(), point.getY());
+    }
+
+    @Override
+    public void addPoint(final double x, final double y) {
+        points.add(x, y);
+    }
+
+    /**
+     * Adds points of the sequence starting at specified index.
+     *
+     * @param sequence  source sequence
+     * @param fromIndex index of first point to add
+     */
+    public void addPoints(final CoordinateSequence sequence,
+            final int fromIndex) {
+        points.addAll(sequence, fromIndex);
     }
 
     @Override
@@ -55,12 +68,18 @@ public class Line extends AbstractGeometry implements GeometryWithPoints {
         return sbString.toString();
     }
 
+    @Override
+    public void writeWKB(final WKBWriter writer) {
+        writer.writeHeader(WKBWriter.TYPE_LINESTRING, getSrid());
+        writer.writePoints(points);
+    }
+
     /**
      * Getter for {@link #points}.
      *
      * @return {@link #points}
      */
-    public List<Point> getPoints() {
-        return Collections.unmodifiableList(points);
+    public CoordinateSequence getPoints() {
+        return points;
     }
 }
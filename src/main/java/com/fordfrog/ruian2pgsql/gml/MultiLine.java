@@ -75,6 +75,17 @@ public class MultiLine extends AbstractGeometry implements CurvedGeometry<MultiL
         return sbString.toString();
     }
 
+    @Override
+    public void writeWKB(final WKBWriter writer) {
+        writer.writeHeader(hasArc() ? WKBWriter.TYPE_MULTICURVE
+                : WKBWriter.TYPE_MULTILINESTRING, getSrid());
+        writer.writeInt(segments.size());
+
+        for (final Geometry segment : segments) {
+            segment.writeWKB(writer);
+        }
+    }
+
     /**
      * Checks whether the multiline has arc.
      *
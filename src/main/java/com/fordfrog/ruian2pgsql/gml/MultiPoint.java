@@ -21,9 +21,6 @@
  */
 package com.fordfrog.ruian2pgsql.gml;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * MultiPoint.
  *
@@ -34,11 +31,17 @@ public class MultiPoint extends AbstractGeometry implements GeometryWithPoints {
     /**
      * Points of the multipoint geometry.
      */
-    private final List<Point> points = new ArrayList<>(2);
+    private final CoordinateSequence points =
+            new CoordinateSequence(2);
 
     @Override
     public void addPoint(final Point point) {
-        points.add(point);
+        points.add(point.getX(), point.getY());
+    }
+
+    @Override
+    public void addPoint(final double x, final double y) {
+        points.add(x, y);
     }
 
     @Override
@@ -52,4 +55,16 @@ public class MultiPoint extends AbstractGeometry implements GeometryWithPoints {
 
         return sbString.toString();
     }
+
+    @Override
+    public void writeWKB(final WKBWriter writer) {
+        writer.writeHeader(WKBWriter.TYPE_MULTIPOINT, getSrid());
+        writer.writeInt(points.size());
+
+        for (int i = 0; i < points.size(); i++) {
+            writer.writeHeader(WKBWriter.TYPE_POINT, null);
+            writer.writeDouble(points.getX(i));
+            writer.writeDouble(points.getY(i));
+        }
+    }
 }
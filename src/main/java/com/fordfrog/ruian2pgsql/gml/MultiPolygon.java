@@ -64,6 +64,17 @@ public class MultiPolygon extends AbstractGeometry implements CurvedGeometry<Mul
         return sbString.toString();
     }
 
+    @Override
+    public void writeWKB(final WKBWriter writer) {
+        writer.writeHeader(hasArc() ? WKBWriter.TYPE_MULTISURFACE
+                : WKBWriter.TYPE_MULTIPOLYGON, getSrid());
+        writer.writeInt(polygons.size());
+
+        for (final Polygon polygon : polygons) {
+            polygon.writeWKB(writer);
+        }
+    }
+
     /**
      * Adds polygon to the list of polygons.
      *
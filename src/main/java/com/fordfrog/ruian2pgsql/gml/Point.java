@@ -103,4 +103,11 @@ public class Point extends AbstractGeometry {
 
         return sbString.toString();
     }
+
+    @Override
+    public void writeWKB(final WKBWriter writer) {
+        writer.writeHeader(WKBWriter.TYPE_POINT, getSrid());
+        writer.writeDouble(x);
+        writer.writeDouble(y);
+    }
 }
@@ -101,6 +101,28 @@ public class Polygon extends AbstractGeometry implements CurvedGeometry<Polygon>
         return sbString.toString().replace("LINESTRING", "");
     }
 
+    @Override
+    public void writeWKB(final WKBWriter writer) {
+        if (hasArc()) {
+            writer.writeHeader(WKBWriter.TYPE_CURVEPOLYGON, getSrid());
+            writer.writeInt(inners.size() + 1);
+            outer.writeWKB(writer);
+
+            for (final Geometry inner : inners) {
+                inner.writeWKB(writer);
+            }
+        } else {
+            // rings of simple polygon contain only points, without header
+            writer.writeHeader(WKBWriter.TYPE_POLYGON, getSrid());
+            writer.writeInt(inners.size() + 1);
+            writer.writePoints(((Line) outer).getPoints());
+
+            for (final Geometry inner : inners) {
+                writer.writePoints(((Line) inner).getPoints());
+            }
+        }
+    }
+
     /**
      * Checks whether the polygon has arc.
      *
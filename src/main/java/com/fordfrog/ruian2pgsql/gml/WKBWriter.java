@@ -0,0 +1,226 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.gml;
+
+import java.util.Arrays;
+
+/**
+ * Writer of geometries in (E)WKB format. Values are written in little endian
+ * byte order.
+ *
+ * @author fordfrog
+ */
+public class WKBWriter {
+
+    /**
+     * WKB type of point.
+     */
+    public static final int TYPE_POINT = 1;
+    /**
+     * WKB type of line string.
+     */
+    public static final int TYPE_LINESTRING = 2;
+    /**
+     * WKB type of polygon.
+     */
+    public static final int TYPE_POLYGON = 3;
+    /**
+     * WKB type of multi point.
+     */
+    public static final int TYPE_MULTIPOINT = 4;
+    /**
+     * WKB type of multi line string.
+     */
+    public static final int TYPE_MULTILINESTRING = 5;
+    /**
+     * WKB type of multi polygon.
+     */
+    public static final int TYPE_MULTIPOLYGON = 6;
+    /**
+     * WKB type of circular string.
+     */
+    public static final int TYPE_CIRCULARSTRING = 8;
+    /**
+     * WKB type of compound curve.
+     */
+    public static final int TYPE_COMPOUNDCURVE = 9;
+    /**
+     * WKB type of curve polygon.
+     */
+    public static final int TYPE_CURVEPOLYGON = 10;
+    /**
+     * WKB type of multi curve.
+     */
+    public static final int TYPE_MULTICURVE = 11;
+    /**
+     * WKB type of multi surface.
+     */
+    public static final int TYPE_MULTISURFACE = 12;
+    /**
+     * EWKB flag marking that SRID follows the geometry type.
+     */
+    private static final int FLAG_SRID = 0x20000000;
+    /**
+     * Marker of little endian byte order.
+     */
+    private static final byte LITTLE_ENDIAN = 1;
+    /**
+     * Hexadecimal digits.
+     */
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+    /**
+     * Buffer.
+     */
+    private byte[] buffer;
+    /**
+     * Number of bytes written to the buffer.
+     */
+    private int length;
+
+    /**
+     * Creates new instance of WKBWriter.
+     *
+     * @param initialCapacity initial capacity of the buffer in bytes
+     */
+    public WKBWriter(final int initialCapacity) {
+        buffer = new byte[initialCapacity];
+    }
+
+    /**
+     * Writes geometry header, that is byte order, geometry type and SRID if
+     * it is not null.
+     *
+     * @param type geometry type
+     * @param srid SRID or null
+     */
+    public void writeHeader(final int type, final Integer srid) {
+        ensureCapacity(9);
+        buffer[length++] = LITTLE_ENDIAN;
+
+        if (srid == null) {
+            writeInt(type);
+        } else {
+            writeInt(type | FLAG_SRID);
+            writeInt(srid);
+        }
+    }
+
+    /**
+     * Writes integer value.
+     *
+     * @param value value
+     */
+    public void writeInt(final int value) {
+        ensureCapacity(4);
+        buffer[length++] = (byte) value;
+        buffer[length++] = (byte) (value >>> 8);
+        buffer[length++] = (byte) (value >>> 16);
+        buffer[length++] = (byte) (value >>> 24);
+    }
+
+    /**
+     * Writes double value.
+     *
+     * @param value value
+     */
+    public void writeDouble(final double value) {
+        final long bits = Double.doubleToLongBits(value);
+        ensureCapacity(8);
+
+        for (int i = 0; i < 8; i++) {
+            buffer[length++] = (byte) (bits >>> (i * 8));
+        }
+    }
+
+    /**
+     * Writes number of points followed by coordinates of the points.
+     *
+     * @param points list of points
+     */
+    public void writePoints(final CoordinateSequence points) {
+        ensureCapacity(4 + points.size() * 16);
+        writeInt(points.size());
+
+        for (int i = 0; i < points.size(); i++) {
+            writeDouble(points.getX(i));
+            writeDouble(points.getY(i));
+        }
+    }
+
+    /**
+     * Returns copy of written bytes.
+     *
+     * @return written bytes
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, length);
+    }
+
+    /**
+     * Converts bytes to hexadecimal string.
+     *
+     * @param bytes bytes
+     *
+     * @return hexadecimal string
+     */
+    public static String toHex(final byte[] bytes) {
+        final char[] chars = new char[bytes.length * 2];
+
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0xF];
+            chars[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0xF];
+        }
+
+        return new String(chars);
+    }
+
+    /**
+     * Converts hexadecimal string to bytes.
+     *
+     * @param hex hexadecimal string
+     *
+     * @return bytes
+     */
+    public static byte[] hexToBytes(final String hex) {
+        final byte[] bytes = new byte[hex.length() / 2];
+
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) ((Character.digit(hex.charAt(i * 2), 16) << 4)
+                    | Character.digit(hex.charAt(i * 2 + 1), 16));
+        }
+
+        return bytes;
+    }
+
+    /**
+     * Makes sure there is enough space in the buffer for specified number of
+     * bytes.
+     *
+     * @param bytes number of bytes that will be written
+     */
+    private void ensureCapacity(final int bytes) {
+        if (length + bytes > buffer.length) {
+            buffer = Arrays.copyOf(buffer,
+                    Math.max(buffer.length * 2, length + bytes));
+        }
+    }
+}
@@ -21,8 +21,6 @@
  */
 package com.fordfrog.ruian2pgsql.gml;
 
-import java.util.List;
-
 /**
  * WKT utilities.
  *
@@ -54,19 +52,15 @@ public class WKTUtils {
      * @param points   list of points
      */
     public static void appendPoints(final StringBuilder sbString,
-            final List<Point> points) {
-        boolean first = true;
-
-        for (final Point point : points) {
-            if (first) {
-                first = false;
-            } else {
+            final CoordinateSequence points) {
+        for (int i = 0; i < points.size(); i++) {
+            if (i > 0) {
                 sbString.append(',');
             }
 
-            sbString.append(point.getX());
+            sbString.append(points.getX(i));
             sbString.append(' ');
-            sbString.append(point.getY());
+            sbString.append(points.getY(i));
         }
     }
 
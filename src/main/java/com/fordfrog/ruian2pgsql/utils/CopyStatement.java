@@ -0,0 +1,503 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+/**
+ * Prepared statement that does not execute inserts but collects the
+ * parameters as rows of PostgreSQL COPY text format. Rows are added on
+ * {@link PreparedStatement#execute()} or
+ * {@link PreparedStatement#addBatch()} and they are sent to database on
+ * {@link PreparedStatement#executeBatch()} using {@link CopyManager}. This
+ * way existing fill methods of convertors can be used for the bulk load
+ * without any change. For MySQL the rows are sent using LOAD DATA LOCAL INFILE
+ * that reads them from in-memory stream, its default format is compatible
+ * with COPY text format except for booleans.
+ *
+ * @author fordfrog
+ */
+public class CopyStatement implements InvocationHandler {
+
+    /**
+     * Database connection.
+     */
+    private final Connection connection;
+    /**
+     * Whether the rows are loaded to MySQL using LOAD DATA.
+     */
+    private final boolean mysql;
+    /**
+     * COPY or LOAD DATA statement.
+     */
+    private final String sqlCopy;
+    /**
+     * Parameters of current row.
+     */
+    private Object[] parameters = new Object[32];
+    /**
+     * Number of parameters of current row.
+     */
+    private int parameterCount;
+    /**
+     * Buffer with rows in COPY text format.
+     */
+    private final StringBuilder rows = new StringBuilder(1024 * 1024);
+    /**
+     * Number of rows in {@link #rows}.
+     */
+    private int rowCount;
+    /**
+     * Format for timestamps in UTC.
+     */
+    private final SimpleDateFormat utcTimestampFormat =
+            createFormat("yyyy-MM-dd HH:mm:ss.SSS", true);
+    /**
+     * Format for dates in UTC.
+     */
+    private final SimpleDateFormat utcDateFormat =
+            createFormat("yyyy-MM-dd", true);
+    /**
+     * Format for timestamps in default time zone.
+     */
+    private final SimpleDateFormat timestampFormat =
+            createFormat("yyyy-MM-dd HH:mm:ss.SSS", false);
+    /**
+     * Format for dates in default time zone.
+     */
+    private final SimpleDateFormat dateFormat =
+            createFormat("yyyy-MM-dd", false);
+
+    /**
+     * Creates new instance of CopyStatement.
+     *
+     * @param connection {@link #connection}
+     * @param mysql      {@link #mysql}
+     * @param table      name of the table
+     * @param columns    comma separated list of columns in the order in which
+     *                   the parameters are set
+     */
+    private CopyStatement(final Connection connection, final boolean mysql,
+            final String table, final String columns) {
+        this.connection = connection;
+        this.mysql = mysql;
+        this.sqlCopy = mysql
+                ? "LOAD DATA LOCAL INFILE 'stream' INTO TABLE " + table
+                + " CHARACTER SET utf8mb4 (" + columns + ")"
+                : "COPY " + table + " (" + columns + ") FROM STDIN";
+    }
+
+    /**
+     * Creates prepared statement that loads the rows to the table using COPY.
+     *
+     * @param connection database connection
+     * @param table      name of the table
+     * @param columns    comma separated list of columns in the order in which
+     *                   the parameters are set
+     *
+     * @return prepared statement
+     */
+    public static PreparedStatement create(final Connection connection,
+            final String table, final String columns) {
+        return (PreparedStatement) Proxy.newProxyInstance(
+                CopyStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                new CopyStatement(connection, false, table, columns));
+    }
+
+    /**
+     * Creates prepared statement that loads the rows to MySQL table using
+     * LOAD DATA LOCAL INFILE. Connection must allow it using
+     * allowLoadLocalInfile=true.
+     *
+     * @param connection database connection
+     * @param table      name of the table
+     * @param columns    comma separated list of columns in the order in which
+     *                   the parameters are set
+     *
+     * @return prepared statement
+     */
+    public static PreparedStatement createLoadData(
+            final Connection connection, final String table,
+            final String columns) {
+        return (PreparedStatement) Proxy.newProxyInstance(
+                CopyStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                new CopyStatement(connection, true, table, columns));
+    }
+
+    /**
+     * Checks whether the prepared statement was created by
+     * {@link #create(java.sql.Connection, java.lang.String, java.lang.String)},
+     * possibly wrapped by {@link RowHashStatement}.
+     *
+     * @param preparedStatement prepared statement
+     *
+     * @return true if the prepared statement loads rows using COPY, otherwise
+     *         false
+     */
+    public static boolean isCopyStatement(
+            final PreparedStatement preparedStatement) {
+        final PreparedStatement unwrapped =
+                RowHashStatement.unwrap(preparedStatement);
+
+        return Proxy.isProxyClass(unwrapped.getClass())
+                && Proxy.getInvocationHandler(unwrapped)
+                instanceof CopyStatement;
+    }
+
+    @Override
+    public Object invoke(final Object proxy, final Method method,
+            final Object[] args) throws Throwable {
+        final String name = method.getName();
+
+        switch (name) {
+            case "setNull":
+                setParameter((Integer) args[0], null);
+
+                return null;
+            case "setBoolean":
+            case "setInt":
+            case "setLong":
+            case "setString":
+            case "setBytes":
+            case "setArray":
+                setParameter((Integer) args[0], args[1]);
+
+                return null;
+            case "setDate":
+                setParameter((Integer) args[0], args[1] == null ? null
+                        : (args.length > 2 ? utcDateFormat : dateFormat).
+                        format((Date) args[1]));
+
+                return null;
+            case "setTimestamp":
+                setParameter((Integer) args[0], args[1] == null ? null
+                        : (args.length > 2 ? utcTimestampFormat
+                                : timestampFormat).format((Date) args[1]));
+
+                return null;
+            case "clearParameters":
+                Arrays.fill(parameters, null);
+                parameterCount = 0;
+
+                return null;
+            case "addBatch":
+                addRow();
+
+                return null;
+            case "execute":
+                addRow();
+
+                return false;
+            case "executeBatch":
+                return copy();
+            case "clearBatch":
+                rows.setLength(0);
+                rowCount = 0;
+
+                return null;
+            case "getConnection":
+                return connection;
+            case "close":
+                return null;
+            case "isClosed":
+                return false;
+            case "toString":
+                return sqlCopy;
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            default:
+                throw new UnsupportedOperationException(
+                        "Method is not supported by COPY statement: " + name);
+        }
+    }
+
+    /**
+     * Stores value of parameter.
+     *
+     * @param index parameter index (1-based)
+     * @param value parameter value
+     */
+    private void setParameter(final int index, final Object value) {
+        if (index > parameters.length) {
+            parameters = Arrays.copyOf(parameters, index * 2);
+        }
+
+        parameters[index - 1] = value;
+
+        if (index > parameterCount) {
+            parameterCount = index;
+        }
+    }
+
+    /**
+     * Appends current parameters as new row to the buffer.
+     *
+     * @throws SQLException Thrown if array value could not be read.
+     */
+    private void addRow() throws SQLException {
+        for (int i = 0; i < parameterCount; i++) {
+            if (i > 0) {
+                rows.append('\t');
+            }
+
+            appendValue(parameters[i]);
+        }
+
+        rows.append('\n');
+        rowCount++;
+    }
+
+    /**
+     * Appends value in COPY text format.
+     *
+     * @param value value
+     *
+     * @throws SQLException Thrown if array value could not be read.
+     */
+    private void appendValue(final Object value) throws SQLException {
+        if (value == null) {
+            rows.append("\\N");
+        } else if (value instanceof Boolean) {
+            if (mysql) {
+                rows.append((Boolean) value ? '1' : '0');
+            } else {
+                rows.append((Boolean) value ? 't' : 'f');
+            }
+        } else if (value instanceof byte[]) {
+            rows.append("\\\\x");
+
+            for (final byte b : (byte[]) value) {
+                rows.append(Character.forDigit((b >> 4) & 0xF, 16));
+                rows.append(Character.forDigit(b & 0xF, 16));
+            }
+        } else if (value instanceof Array) {
+            final Object[] array = (Object[]) ((Array) value).getArray();
+            rows.append('{');
+
+            for (int i = 0; i < array.length; i++) {
+                if (i > 0) {
+                    rows.append(',');
+                }
+
+                rows.append(array[i] == null ? "NULL" : array[i]);
+            }
+
+            rows.append('}');
+        } else if (value instanceof Number) {
+            rows.append(value);
+        } else {
+            appendEscaped(value.toString());
+        }
+    }
+
+    /**
+     * Appends string escaped for COPY text format.
+     *
+     * @param value string
+     */
+    private void appendEscaped(final String value) {
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+
+            switch (c) {
+                case '\\':
+                    rows.append("\\\\");
+                    break;
+                case '\n':
+                    rows.append("\\n");
+                    break;
+                case '\r':
+                    rows.append("\\r");
+                    break;
+                case '\t':
+                    rows.append("\\t");
+                    break;
+                default:
+                    rows.append(c);
+            }
+        }
+    }
+
+    /**
+     * Sends buffered rows to database.
+     *
+     * @return update counts
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    private int[] copy() throws SQLException {
+        final int[] updateCounts = new int[rowCount];
+
+        if (rowCount == 0) {
+            return updateCounts;
+        }
+
+        Arrays.fill(updateCounts, 1);
+
+        if (mysql) {
+            try {
+                loadData();
+            } finally {
+                rows.setLength(0);
+                rowCount = 0;
+            }
+
+            return updateCounts;
+        }
+
+        final CopyManager copyManager =
+                connection.unwrap(PGConnection.class).getCopyAPI();
+
+        try {
+            copyManager.copyIn(sqlCopy, new StringReader(rows.toString()));
+        } catch (final IOException ex) {
+            throw new SQLException("Failed to copy data: " + sqlCopy, ex);
+        } finally {
+            rows.setLength(0);
+            rowCount = 0;
+        }
+
+        return updateCounts;
+    }
+
+    /**
+     * Sends buffered rows to MySQL using LOAD DATA LOCAL INFILE. The rows are
+     * passed to the driver as input stream so no temporary file is needed.
+     * MySQL driver is not compile time dependency so the driver specific
+     * method is called using reflection.
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    private void loadData() throws SQLException {
+        final InputStream stream = new ByteArrayInputStream(
+                rows.toString().getBytes(StandardCharsets.UTF_8));
+
+        try (final Statement stm = connection.createStatement()) {
+            final Statement driverStatement = stm.unwrap(Statement.class);
+            Method setStream = null;
+
+            for (final Class<?> iface : getInterfaces(
+                    driverStatement.getClass())) {
+                try {
+                    setStream = iface.getMethod("setLocalInfileInputStream",
+                            InputStream.class);
+
+                    break;
+                } catch (final NoSuchMethodException ex) {
+                    // try next interface
+                }
+            }
+
+            if (setStream == null) {
+                throw new SQLException("Driver does not support LOAD DATA "
+                        + "from input stream: " + driverStatement.getClass());
+            }
+
+            try {
+                setStream.invoke(driverStatement, stream);
+            } catch (final IllegalAccessException
+                    | InvocationTargetException ex) {
+                throw new SQLException("Failed to set input stream of LOAD "
+                        + "DATA: " + sqlCopy, ex);
+            }
+
+            stm.execute(sqlCopy);
+        }
+    }
+
+    /**
+     * Returns all public interfaces implemented by the class and its
+     * superclasses. Methods of driver classes are looked up through them as
+     * the classes themselves do not need to be public.
+     *
+     * @param clazz class
+     *
+     * @return list of interfaces
+     */
+    private static List<Class<?>> getInterfaces(
+            final Class<?> clazz) {
+        final List<Class<?>> result = new ArrayList<>(10);
+
+        for (Class<?> current = clazz; current != null;
+                current = current.getSuperclass()) {
+            for (final Class<?> iface : current.getInterfaces()) {
+                if (!result.contains(iface)) {
+                    result.add(iface);
+                }
+
+                for (final Class<?> parent : getInterfaces(iface)) {
+                    if (!result.contains(parent)) {
+                        result.add(parent);
+                    }
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Creates date format.
+     *
+     * @param pattern pattern
+     * @param utc     whether the format should use UTC time zone
+     *
+     * @return date format
+     */
+    private static SimpleDateFormat createFormat(final String pattern,
+            final boolean utc) {
+        final SimpleDateFormat format = new SimpleDateFormat(pattern);
+
+        if (utc) {
+            format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        }
+
+        return format;
+    }
+}
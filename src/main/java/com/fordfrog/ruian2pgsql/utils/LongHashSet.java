@@ -0,0 +1,198 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.utils;
+
+import java.util.Arrays;
+
+/**
+ * Memory efficient set of long values. Values are stored in open addressing
+ * hash table backed by primitive array, so there is no boxing and no entry
+ * objects.
+ *
+ * @author fordfrog
+ */
+public class LongHashSet {
+
+    /**
+     * Value that marks empty slot. Slot for this value is tracked separately.
+     */
+    private static final long EMPTY = 0;
+    /**
+     * Maximum load factor of the table.
+     */
+    private static final float LOAD_FACTOR = 0.5f;
+    /**
+     * Hash table slots.
+     */
+    private long[] slots;
+    /**
+     * Whether the set contains value {@link #EMPTY}.
+     */
+    private boolean containsEmpty;
+    /**
+     * Number of values in {@link #slots}.
+     */
+    private int size;
+
+    /**
+     * Creates new instance of LongHashSet.
+     *
+     * @param expectedSize expected number of values
+     */
+    public LongHashSet(final int expectedSize) {
+        slots = new long[tableSize(expectedSize)];
+    }
+
+    /**
+     * Adds value to the set.
+     *
+     * @param value value
+     *
+     * @return true if value was added, false if it was already present
+     */
+    public boolean add(final long value) {
+        if (value == EMPTY) {
+            if (containsEmpty) {
+                return false;
+            }
+
+            containsEmpty = true;
+
+            return true;
+        }
+
+        final int index = find(slots, value);
+
+        if (slots[index] == value) {
+            return false;
+        }
+
+        slots[index] = value;
+        size++;
+
+        if (size > slots.length * LOAD_FACTOR) {
+            rehash();
+        }
+
+        return true;
+    }
+
+    /**
+     * Checks whether the set contains the value.
+     *
+     * @param value value
+     *
+     * @return true if set contains the value, otherwise false
+     */
+    public boolean contains(final long value) {
+        if (value == EMPTY) {
+            return containsEmpty;
+        }
+
+        return slots[find(slots, value)] == value;
+    }
+
+    /**
+     * Returns number of values in the set.
+     *
+     * @return number of values
+     */
+    public int size() {
+        return containsEmpty ? size + 1 : size;
+    }
+
+    /**
+     * Removes all values from the set.
+     */
+    public void clear() {
+        Arrays.fill(slots, EMPTY);
+        containsEmpty = false;
+        size = 0;
+    }
+
+    /**
+     * Finds slot that contains the value or empty slot where the value should
+     * be stored.
+     *
+     * @param table hash table
+     * @param value value
+     *
+     * @return slot index
+     */
+    private static int find(final long[] table, final long value) {
+        final int mask = table.length - 1;
+        int index = hash(value) & mask;
+
+        while (table[index] != EMPTY && table[index] != value) {
+            index = (index + 1) & mask;
+        }
+
+        return index;
+    }
+
+    /**
+     * Doubles size of the hash table.
+     */
+    private void rehash() {
+        final long[] newSlots = new long[slots.length * 2];
+
+        for (final long value : slots) {
+            if (value != EMPTY) {
+                newSlots[find(newSlots, value)] = value;
+            }
+        }
+
+        slots = newSlots;
+    }
+
+    /**
+     * Computes hash of the value. Keys are often sequential so the bits are
+     * mixed to spread them over the table.
+     *
+     * @param value value
+     *
+     * @return hash
+     */
+    private static int hash(final long value) {
+        final long h = value * 0x9E3779B97F4A7C15L;
+
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * Computes size of the table for expected number of values. Size is
+     * always power of two.
+     *
+     * @param expectedSize expected number of values
+     *
+     * @return table size
+     */
+    private static int tableSize(final int expectedSize) {
+        int tableSize = 16;
+
+        while (tableSize * LOAD_FACTOR < expectedSize) {
+            tableSize <<= 1;
+        }
+
+        return tableSize;
+    }
+}
@@ -0,0 +1,414 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.utils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Prepared statement that collects the rows of single-row INSERT statement
+ * and sends them on {@link PreparedStatement#executeBatch()} as multi-row
+ * INSERT statements. Number of rows in single statement is limited so that
+ * the statement fits into MySQL max_allowed_packet. Trailing clause of the
+ * statement (ON DUPLICATE KEY UPDATE) is kept. This way existing fill methods
+ * of convertors can be used without any change and the rows are sent in large
+ * chunks without need to configure the driver.
+ *
+ * @author fordfrog
+ */
+public class MultiRowInsertStatement implements InvocationHandler {
+
+    /**
+     * Maximum number of parameters of single statement.
+     */
+    private static final int MAX_PARAMETERS = 65535;
+    /**
+     * Estimated size of non-string value in the statement.
+     */
+    private static final int VALUE_SIZE = 24;
+    /**
+     * Database connection.
+     */
+    private final Connection connection;
+    /**
+     * Part of the statement before the row values.
+     */
+    private final String prefix;
+    /**
+     * Row values with parameter placeholders.
+     */
+    private final String rowTemplate;
+    /**
+     * Part of the statement after the row values.
+     */
+    private final String suffix;
+    /**
+     * Number of parameters of single row.
+     */
+    private final int rowParameters;
+    /**
+     * Setters called for parameters of current row.
+     */
+    private Method[] setters = new Method[32];
+    /**
+     * Arguments of setters called for parameters of current row.
+     */
+    private Object[][] arguments = new Object[32][];
+    /**
+     * Number of parameters of current row.
+     */
+    private int parameterCount;
+    /**
+     * Collected rows.
+     */
+    private final List<Row> rows = new ArrayList<>(1000);
+    /**
+     * Maximum size of statement in bytes, loaded from database when needed.
+     */
+    private long maxStatementSize;
+
+    /**
+     * Creates new instance of MultiRowInsertStatement.
+     *
+     * @param connection {@link #connection}
+     * @param sql        single-row INSERT statement
+     */
+    private MultiRowInsertStatement(final Connection connection,
+            final String sql) {
+        this.connection = connection;
+
+        final int values = sql.toUpperCase(Locale.ENGLISH).indexOf(" VALUES");
+        final int start = values == -1 ? -1 : sql.indexOf('(', values);
+
+        if (start == -1) {
+            throw new RuntimeException("Unsupported INSERT statement: " + sql);
+        }
+
+        int end = start;
+        int depth = 0;
+
+        do {
+            if (sql.charAt(end) == '(') {
+                depth++;
+            } else if (sql.charAt(end) == ')') {
+                depth--;
+            }
+
+            end++;
+        } while (depth > 0 && end < sql.length());
+
+        prefix = sql.substring(0, start);
+        rowTemplate = sql.substring(start, end);
+        suffix = sql.substring(end);
+
+        int count = 0;
+
+        for (int i = 0; i < rowTemplate.length(); i++) {
+            if (rowTemplate.charAt(i) == '?') {
+                count++;
+            }
+        }
+
+        rowParameters = count;
+    }
+
+    /**
+     * Creates prepared statement that sends the rows using multi-row INSERT
+     * statements.
+     *
+     * @param connection database connection
+     * @param sql        single-row INSERT statement
+     *
+     * @return prepared statement
+     */
+    public static PreparedStatement create(final Connection connection,
+            final String sql) {
+        return (PreparedStatement) Proxy.newProxyInstance(
+                MultiRowInsertStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                new MultiRowInsertStatement(connection, sql));
+    }
+
+    @Override
+    public Object invoke(final Object proxy, final Method method,
+            final Object[] args) throws Throwable {
+        final String name = method.getName();
+
+        if (name.startsWith("set") && args != null && args.length >= 2
+                && args[0] instanceof Integer) {
+            setParameter(method, args);
+
+            return null;
+        }
+
+        switch (name) {
+            case "clearParameters":
+                Arrays.fill(setters, null);
+                Arrays.fill(arguments, null);
+                parameterCount = 0;
+
+                return null;
+            case "addBatch":
+                addRow();
+
+                return null;
+            case "execute":
+                addRow();
+                executeRows();
+
+                return false;
+            case "executeBatch":
+                return executeRows();
+            case "clearBatch":
+                rows.clear();
+
+                return null;
+            case "getConnection":
+                return connection;
+            case "close":
+                return null;
+            case "isClosed":
+                return false;
+            case "toString":
+                return prefix + rowTemplate + suffix;
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            default:
+                throw new UnsupportedOperationException("Method is not "
+                        + "supported by multi-row INSERT statement: " + name);
+        }
+    }
+
+    /**
+     * Stores setter call of parameter.
+     *
+     * @param setter setter method
+     * @param args   setter arguments, the first one is parameter index
+     *               (1-based)
+     */
+    private void setParameter(final Method setter, final Object[] args) {
+        final int index = (Integer) args[0];
+
+        if (index > setters.length) {
+            setters = Arrays.copyOf(setters, index * 2);
+            arguments = Arrays.copyOf(arguments, index * 2);
+        }
+
+        setters[index - 1] = setter;
+        arguments[index - 1] = args.clone();
+
+        if (index > parameterCount) {
+            parameterCount = index;
+        }
+    }
+
+    /**
+     * Adds current parameters as new row.
+     */
+    private void addRow() {
+        if (parameterCount != rowParameters) {
+            throw new RuntimeException("Expected " + rowParameters
+                    + " parameters but got " + parameterCount + ": "
+                    + prefix + rowTemplate + suffix);
+        }
+
+        long size = rowTemplate.length() + 1;
+
+        for (int i = 0; i < parameterCount; i++) {
+            final Object value = arguments[i][1];
+            size += value instanceof String
+                    ? ((String) value).length() * 4 + 2 : VALUE_SIZE;
+        }
+
+        rows.add(new Row(new ParameterRow(Arrays.copyOf(setters,
+                parameterCount), Arrays.copyOf(arguments, parameterCount)),
+                size));
+    }
+
+    /**
+     * Sends collected rows to database.
+     *
+     * @return update counts
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    private int[] executeRows() throws SQLException {
+        final int[] updateCounts = new int[rows.size()];
+        Arrays.fill(updateCounts, Statement.SUCCESS_NO_INFO);
+
+        try {
+            int done = 0;
+
+            while (done < rows.size()) {
+                final int end = getChunkEnd(done);
+
+                try {
+                    executeChunk(done, end);
+                } catch (final SQLException ex) {
+                    throw new BatchUpdateException(ex.getMessage(),
+                            ex.getSQLState(), ex.getErrorCode(),
+                            Arrays.copyOf(updateCounts, done), ex);
+                }
+
+                done = end;
+            }
+        } finally {
+            rows.clear();
+        }
+
+        return updateCounts;
+    }
+
+    /**
+     * Finds end of chunk of rows that fit into single statement.
+     *
+     * @param start index of the first row of the chunk
+     *
+     * @return index after the last row of the chunk
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    private int getChunkEnd(final int start) throws SQLException {
+        final long maxSize = getMaxStatementSize();
+        final int maxRows = Math.max(1, MAX_PARAMETERS / Math.max(
+                rowParameters, 1));
+        long size = prefix.length() + suffix.length();
+        int end = start;
+
+        while (end < rows.size() && end - start < maxRows) {
+            size += rows.get(end).size;
+
+            if (size > maxSize && end > start) {
+                break;
+            }
+
+            end++;
+        }
+
+        return end;
+    }
+
+    /**
+     * Executes single multi-row statement.
+     *
+     * @param start index of the first row
+     * @param end   index after the last row
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    private void executeChunk(final int start, final int end)
+            throws SQLException {
+        final StringBuilder sb = new StringBuilder(prefix.length()
+                + (rowTemplate.length() + 1) * (end - start)
+                + suffix.length());
+        sb.append(prefix);
+
+        for (int i = start; i < end; i++) {
+            if (i > start) {
+                sb.append(',');
+            }
+
+            sb.append(rowTemplate);
+        }
+
+        sb.append(suffix);
+
+        try (final PreparedStatement pstm =
+                connection.prepareStatement(sb.toString())) {
+            int offset = 0;
+
+            for (int i = start; i < end; i++) {
+                rows.get(i).parameters.fill(pstm, offset);
+                offset += rowParameters;
+            }
+
+            pstm.executeUpdate();
+        }
+    }
+
+    /**
+     * Returns maximum size of statement. It is loaded from database on first
+     * use, leaving a reserve for estimation errors.
+     *
+     * @return maximum size of statement in bytes
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    private long getMaxStatementSize() throws SQLException {
+        if (maxStatementSize == 0) {
+            try (final Statement stm = connection.createStatement();
+                    final ResultSet rs = stm.executeQuery(
+                            "SELECT @@max_allowed_packet")) {
+                maxStatementSize = rs.next() ? rs.getLong(1) * 3 / 4 : 0;
+            }
+
+            if (maxStatementSize <= 0) {
+                maxStatementSize = 1024 * 1024;
+            }
+        }
+
+        return maxStatementSize;
+    }
+
+    /**
+     * Collected row.
+     */
+    private static class Row {
+
+        /**
+         * Parameters of the row.
+         */
+        private final ParameterRow parameters;
+        /**
+         * Estimated size of the row in the statement.
+         */
+        private final long size;
+
+        /**
+         * Creates new instance of Row.
+         *
+         * @param parameters {@link #parameters}
+         * @param size       {@link #size}
+         */
+        Row(final ParameterRow parameters, final long size) {
+            this.parameters = parameters;
+            this.size = size;
+        }
+    }
+}
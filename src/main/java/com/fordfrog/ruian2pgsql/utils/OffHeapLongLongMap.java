@@ -0,0 +1,243 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+
+/**
+ * Map of long keys to long values stored off-heap. Entries are stored in
+ * open addressing hash table backed by direct buffers, so millions of
+ * entries do not increase heap size nor garbage collection time. Size of
+ * direct memory can be limited by -XX:MaxDirectMemorySize JVM option. The map
+ * is not thread safe.
+ *
+ * @author fordfrog
+ */
+public class OffHeapLongLongMap {
+
+    /**
+     * Value returned for keys that are not present in the map.
+     */
+    public static final long NO_VALUE = Long.MIN_VALUE;
+    /**
+     * Key that marks empty slot. Value for this key is tracked separately.
+     */
+    private static final long EMPTY = 0;
+    /**
+     * Maximum load factor of the table.
+     */
+    private static final float LOAD_FACTOR = 0.75f;
+    /**
+     * Maximum size of the table, limited by maximum size of direct buffer.
+     */
+    private static final int MAX_TABLE_SIZE = 1 << 27;
+    /**
+     * Keys of hash table slots.
+     */
+    private LongBuffer keys;
+    /**
+     * Values of hash table slots.
+     */
+    private LongBuffer values;
+    /**
+     * Number of slots in the hash table.
+     */
+    private int tableSize;
+    /**
+     * Whether the map contains key {@link #EMPTY}.
+     */
+    private boolean containsEmpty;
+    /**
+     * Value for key {@link #EMPTY}.
+     */
+    private long emptyValue;
+    /**
+     * Number of entries in the hash table.
+     */
+    private int size;
+
+    /**
+     * Creates new instance of OffHeapLongLongMap.
+     *
+     * @param expectedSize expected number of entries
+     */
+    public OffHeapLongLongMap(final int expectedSize) {
+        tableSize = 16;
+
+        while (tableSize * LOAD_FACTOR < expectedSize
+                && tableSize < MAX_TABLE_SIZE) {
+            tableSize <<= 1;
+        }
+
+        keys = allocate(tableSize);
+        values = allocate(tableSize);
+    }
+
+    /**
+     * Returns value for the key.
+     *
+     * @param key key
+     *
+     * @return value or {@link #NO_VALUE} if the map does not contain the key
+     */
+    public long get(final long key) {
+        if (key == EMPTY) {
+            return containsEmpty ? emptyValue : NO_VALUE;
+        }
+
+        final int index = find(keys, tableSize, key);
+
+        return keys.get(index) == key ? values.get(index) : NO_VALUE;
+    }
+
+    /**
+     * Checks whether the map contains the key.
+     *
+     * @param key key
+     *
+     * @return true if map contains the key, otherwise false
+     */
+    public boolean containsKey(final long key) {
+        if (key == EMPTY) {
+            return containsEmpty;
+        }
+
+        return keys.get(find(keys, tableSize, key)) == key;
+    }
+
+    /**
+     * Sets value for the key.
+     *
+     * @param key   key
+     * @param value value
+     */
+    public void put(final long key, final long value) {
+        if (key == EMPTY) {
+            containsEmpty = true;
+            emptyValue = value;
+
+            return;
+        }
+
+        final int index = find(keys, tableSize, key);
+
+        if (keys.get(index) != key) {
+            keys.put(index, key);
+            size++;
+        }
+
+        values.put(index, value);
+
+        if (size > tableSize * LOAD_FACTOR) {
+            rehash();
+        }
+    }
+
+    /**
+     * Returns number of entries in the map.
+     *
+     * @return number of entries
+     */
+    public int size() {
+        return containsEmpty ? size + 1 : size;
+    }
+
+    /**
+     * Finds slot that contains the key or empty slot where the key should be
+     * stored.
+     *
+     * @param table     keys of the hash table
+     * @param tableSize number of slots in the hash table
+     * @param key       key
+     *
+     * @return slot index
+     */
+    private static int find(final LongBuffer table, final int tableSize,
+            final long key) {
+        final int mask = tableSize - 1;
+        int index = hash(key) & mask;
+        long current = table.get(index);
+
+        while (current != EMPTY && current != key) {
+            index = (index + 1) & mask;
+            current = table.get(index);
+        }
+
+        return index;
+    }
+
+    /**
+     * Doubles size of the hash table.
+     */
+    private void rehash() {
+        if (tableSize == MAX_TABLE_SIZE) {
+            throw new RuntimeException("Off-heap map cannot hold more than "
+                    + size + " entries");
+        }
+
+        final int newTableSize = tableSize * 2;
+        final LongBuffer newKeys = allocate(newTableSize);
+        final LongBuffer newValues = allocate(newTableSize);
+
+        for (int i = 0; i < tableSize; i++) {
+            final long key = keys.get(i);
+
+            if (key != EMPTY) {
+                final int index = find(newKeys, newTableSize, key);
+                newKeys.put(index, key);
+                newValues.put(index, values.get(i));
+            }
+        }
+
+        keys = newKeys;
+        values = newValues;
+        tableSize = newTableSize;
+    }
+
+    /**
+     * Allocates zeroed direct buffer for specified number of longs.
+     *
+     * @param length number of longs
+     *
+     * @return buffer
+     */
+    private static LongBuffer allocate(final int length) {
+        return ByteBuffer.allocateDirect(length * 8).
+                order(ByteOrder.nativeOrder()).asLongBuffer();
+    }
+
+    /**
+     * Computes hash of the key. Keys are often sequential so the bits are
+     * mixed to spread them over the table.
+     *
+     * @param key key
+     *
+     * @return hash
+     */
+    private static int hash(final long key) {
+        final long h = key * 0x9E3779B97F4A7C15L;
+
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,123 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.utils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Parameters of single row recorded from setter calls on prepared statement.
+ * The setters can be replayed later on another prepared statement, possibly
+ * with different parameter indexes.
+ *
+ * @author fordfrog
+ */
+public class ParameterRow {
+
+    /**
+     * Setters of parameters.
+     */
+    private final Method[] setters;
+    /**
+     * Arguments of the setters, the first argument is parameter index.
+     */
+    private final Object[][] arguments;
+
+    /**
+     * Creates new instance of ParameterRow.
+     *
+     * @param setters   {@link #setters}
+     * @param arguments {@link #arguments}
+     */
+    public ParameterRow(final Method[] setters, final Object[][] arguments) {
+        this.setters = setters;
+        this.arguments = arguments;
+    }
+
+    /**
+     * Returns number of parameters.
+     *
+     * @return number of parameters
+     */
+    public int size() {
+        return setters.length;
+    }
+
+    /**
+     * Returns value of parameter.
+     *
+     * @param index parameter index (0-based)
+     *
+     * @return parameter value, null for null parameter
+     */
+    public Object getValue(final int index) {
+        return "setNull".equals(setters[index].getName())
+                ? null : arguments[index][1];
+    }
+
+    /**
+     * Sets all parameters in the prepared statement.
+     *
+     * @param pstm   prepared statement
+     * @param offset number that is added to parameter indexes
+     *
+     * @throws SQLException Thrown if problem occurred while setting the
+     *                      parameters.
+     */
+    public void fill(final PreparedStatement pstm, final int offset)
+            throws SQLException {
+        for (int i = 0; i < setters.length; i++) {
+            set(pstm, i, offset + (Integer) arguments[i][0]);
+        }
+    }
+
+    /**
+     * Sets single parameter in the prepared statement.
+     *
+     * @param pstm        prepared statement
+     * @param index       parameter index in this row (0-based)
+     * @param targetIndex parameter index in the prepared statement (1-based)
+     *
+     * @throws SQLException Thrown if problem occurred while setting the
+     *                      parameter.
+     */
+    public void set(final PreparedStatement pstm, final int index,
+            final int targetIndex) throws SQLException {
+        final Object[] args = arguments[index].clone();
+        args[0] = targetIndex;
+
+        try {
+            setters[index].invoke(pstm, args);
+        } catch (final IllegalAccessException ex) {
+            throw new RuntimeException("Failed to set parameter", ex);
+        } catch (final InvocationTargetException ex) {
+            if (ex.getCause() instanceof SQLException) {
+                throw (SQLException) ex.getCause();
+            }
+
+            throw new RuntimeException("Failed to set parameter",
+                    ex.getCause());
+        }
+    }
+}
@@ -21,6 +21,8 @@
  */
 package com.fordfrog.ruian2pgsql.utils;
 
+import com.fordfrog.ruian2pgsql.Config;
+import com.fordfrog.ruian2pgsql.gml.WKBWriter;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Timestamp;
@@ -37,10 +39,16 @@ import java.util.TimeZone;
 public class PreparedStatementEx {
 
     /**
-     * Calendar with UTC time zone for storing dates in database.
+     * Calendar with UTC time zone for storing dates in database. Calendar is
+     * not thread safe so each thread has its own instance.
      */
-    private static final Calendar TZ_CALENDAR =
-            Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+    private static final ThreadLocal<Calendar> TZ_CALENDAR =
+            new ThreadLocal<Calendar>() {
+                @Override
+                protected Calendar initialValue() {
+                    return Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+                }
+            };
     /**
      * Wrapped prepared statement.
      */
@@ -106,6 +114,63 @@ public class PreparedStatementEx {
         }
     }
 
+    /**
+     * Sets boolean value or boolean null to the prepared statement. Used for
+     * values of primitive type that are not boxed.
+     *
+     * @param parameterIndex parameter index
+     * @param value          boolean value
+     * @param isNull         whether null should be set instead of the value
+     *
+     * @throws SQLException Thrown if problem occurred while setting the value.
+     */
+    public void setBoolean(final int parameterIndex, final boolean value,
+            final boolean isNull) throws SQLException {
+        if (isNull) {
+            preparedStatement.setNull(parameterIndex, Types.BOOLEAN);
+        } else {
+            preparedStatement.setBoolean(parameterIndex, value);
+        }
+    }
+
+    /**
+     * Sets integer value or integer null to the prepared statement. Used for
+     * values of primitive type that are not boxed.
+     *
+     * @param parameterIndex parameter index
+     * @param value          integer value
+     * @param isNull         whether null should be set instead of the value
+     *
+     * @throws SQLException Thrown if problem occurred while setting the value.
+     */
+    public void setInt(final int parameterIndex, final int value,
+            final boolean isNull) throws SQLException {
+        if (isNull) {
+            preparedStatement.setNull(parameterIndex, Types.INTEGER);
+        } else {
+            preparedStatement.setInt(parameterIndex, value);
+        }
+    }
+
+    /**
+     * Sets long value or long null to the prepared statement. Used for values
+     * of primitive type that are not boxed.
+     *
+     * @param parameterIndex parameter index
+     * @param value          long value
+     * @param isNull         whether null should be set instead of the value
+     *
+     * @throws SQLException Thrown if problem occurred while setting the value.
+     */
+    public void setLong(final int parameterIndex, final long value,
+            final boolean isNull) throws SQLException {
+        if (isNull) {
+            preparedStatement.setNull(parameterIndex, Types.BIGINT);
+        } else {
+            preparedStatement.setLong(parameterIndex, value);
+        }
+    }
+
     /**
      * Sets date value in UTC time zone to the prepared statement.
      *
@@ -120,7 +185,9 @@ public class PreparedStatementEx {
             preparedStatement.setNull(parameterIndex, Types.DATE);
         } else {
             preparedStatement.setDate(parameterIndex,
-                    new java.sql.Date(date.getTime()), TZ_CALENDAR);
+                    date instanceof java.sql.Date ? (java.sql.Date) date
+                            : new java.sql.Date(date.getTime()),
+                    TZ_CALENDAR.get());
         }
     }
 
@@ -138,7 +205,9 @@ public class PreparedStatementEx {
             preparedStatement.setNull(parameterIndex, Types.DATE);
         } else {
             preparedStatement.setTimestamp(parameterIndex,
-                    new Timestamp(timestamp.getTime()), TZ_CALENDAR);
+                    timestamp instanceof Timestamp ? (Timestamp) timestamp
+                            : new Timestamp(timestamp.getTime()),
+                    TZ_CALENDAR.get());
         }
     }
 
@@ -160,4 +229,35 @@ public class PreparedStatementEx {
                     createArrayOf("int", array));
         }
     }
+
+    /**
+     * Sets geometry parameter. EWKB bytes are passed to database as bytes,
+     * except for COPY where they are encoded to hexadecimal string that is
+     * accepted as geometry text. Geometry string (GML or EWKT) is passed as
+     * is.
+     *
+     * @param parameterIndex parameter index
+     * @param geometry       geometry string or EWKB bytes
+     *
+     * @throws SQLException Thrown if problem occurred while setting the
+     *                      parameter.
+     */
+    public void setGeometry(final int parameterIndex, final Object geometry)
+            throws SQLException {
+        if (geometry == null) {
+            if (Config.isConvertToEWKB()
+                    && !CopyStatement.isCopyStatement(preparedStatement)) {
+                preparedStatement.setNull(parameterIndex, Types.BINARY);
+            } else {
+                preparedStatement.setString(parameterIndex, null);
+            }
+        } else if (!(geometry instanceof byte[])) {
+            preparedStatement.setString(parameterIndex, (String) geometry);
+        } else if (CopyStatement.isCopyStatement(preparedStatement)) {
+            preparedStatement.setString(parameterIndex,
+                    WKBWriter.toHex((byte[]) geometry));
+        } else {
+            preparedStatement.setBytes(parameterIndex, (byte[]) geometry);
+        }
+    }
 }
@@ -0,0 +1,1202 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.utils;
+
+import com.fordfrog.ruian2pgsql.Config;
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Date;
+import java.sql.NClob;
+import java.sql.PreparedStatement;
+import java.sql.Ref;
+import java.sql.RowId;
+import java.sql.SQLException;
+import java.sql.SQLXML;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Prepared statement wrapper that computes hash of the row values and binds
+ * it to row_hash column. The hash is computed from values of all columns
+ * except the key column and transaction id, ordered by column name, so that
+ * INSERT and UPDATE statement of the same item produce the same hash. UPDATE
+ * statement is extended so that rows with unchanged hash are not updated.
+ * Parameter indexes are mapped to the extended statement so that existing
+ * fill methods of convertors can be used without any change.
+ * <p>
+ * Rows that are not updated because their hash did not change still get the
+ * new transaction id, otherwise older version of the item could overwrite
+ * them later. This is done by separate statement that updates only the
+ * transaction id and that is executed only for rows that the wrapped
+ * statement did not update.
+ *
+ * @author fordfrog
+ */
+public class RowHashStatement extends DelegatingPreparedStatement {
+
+    /**
+     * Name of the column containing hash of the row values.
+     */
+    public static final String COLUMN_ROW_HASH = "row_hash";
+    /**
+     * Name of the column containing RÚIAN transaction id.
+     */
+    private static final String COLUMN_ID_TRANS = "id_trans_ruian";
+    /**
+     * FNV-1a 64-bit offset basis.
+     */
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    /**
+     * FNV-1a 64-bit prime.
+     */
+    private static final long FNV_PRIME = 0x100000001b3L;
+    /**
+     * Pattern for parsing parameters of WHERE clause conditions.
+     */
+    private static final Pattern PATTERN_CONDITION =
+            Pattern.compile("(\\w+)\\s*(?:<=|>=|<>|=|<|>)\\s*\\?");
+    /**
+     * Parameter indexes of the extended statement, by original parameter
+     * index (0-based).
+     */
+    private final int[] targetIndexes;
+    /**
+     * Positions of parameter values in the hash or -1 if the value is not
+     * hashed, by original parameter index (0-based).
+     */
+    private final int[] slots;
+    /**
+     * Indexes of parameters of the extended statement to which the hash is
+     * bound.
+     */
+    private final int[] hashIndexes;
+    /**
+     * Hashed values of current row, by position in the hash.
+     */
+    private final Object[] values;
+    /**
+     * Original parameter index (0-based) of the key or -1 if the statement
+     * does not contain the key.
+     */
+    private final int keyIndex;
+    /**
+     * Original parameter index (0-based) of the transaction id or -1 if the
+     * statement does not contain the transaction id.
+     */
+    private final int idTransIndex;
+    /**
+     * Statement that advances transaction id of rows that were not updated,
+     * or null if transaction id should not be advanced.
+     */
+    private final String sqlAdvance;
+    /**
+     * Prepared statement of {@link #sqlAdvance}, prepared on first use.
+     */
+    private PreparedStatement pstmAdvance;
+    /**
+     * Key of current row.
+     */
+    private Object key;
+    /**
+     * Transaction id of current row.
+     */
+    private Object idTrans;
+    /**
+     * Keys of rows in the batch.
+     */
+    private final List<Object> batchKeys = new ArrayList<>(100);
+    /**
+     * Transaction ids of rows in the batch.
+     */
+    private final List<Object> batchIdTrans = new ArrayList<>(100);
+
+    /**
+     * Creates new instance of RowHashStatement.
+     *
+     * @param preparedStatement prepared statement of the extended statement
+     * @param sql               original statement without row_hash column
+     * @param keyColumn         name of the key column
+     * @param advanceIdTrans    whether transaction id of rows that the
+     *                          statement did not update should be advanced
+     */
+    private RowHashStatement(final PreparedStatement preparedStatement,
+            final String sql, final String keyColumn,
+            final boolean advanceIdTrans) {
+        super(preparedStatement);
+
+        final List<String> columns = new ArrayList<>(32);
+        final int setParameters;
+        final String table;
+        final int whereKeyIndex;
+
+        if (isInsert(sql)) {
+            final String[] parts = splitInsert(sql);
+            final List<String> names = split(parts[1]);
+            final List<String> expressions = split(parts[3]);
+
+            if (names.size() != expressions.size()) {
+                throw new RuntimeException(
+                        "Unsupported INSERT statement: " + sql);
+            }
+
+            for (int i = 0; i < names.size(); i++) {
+                addColumn(columns, names.get(i), expressions.get(i));
+            }
+
+            setParameters = columns.size();
+            hashIndexes = new int[]{setParameters + 1};
+            table = getTable(parts[0], 1);
+            whereKeyIndex = -1;
+        } else {
+            final String[] parts = splitUpdate(sql);
+
+            for (final String assignment : split(parts[1])) {
+                final int equals = assignment.indexOf('=');
+
+                if (equals == -1) {
+                    throw new RuntimeException(
+                            "Unsupported UPDATE statement: " + sql);
+                }
+
+                addColumn(columns, assignment.substring(0, equals),
+                        assignment.substring(equals + 1));
+            }
+
+            setParameters = columns.size();
+
+            final int whereParameters = countParameters(parts[2]);
+
+            for (int i = 0; i < whereParameters; i++) {
+                columns.add(null);
+            }
+
+            hashIndexes = new int[]{
+                setParameters + 1, setParameters + whereParameters + 2};
+            table = getTable(parts[0], 2);
+
+            final int index = indexOf(getWhereColumns(parts[2]), keyColumn);
+            whereKeyIndex = index == -1 ? -1 : setParameters + index;
+        }
+
+        targetIndexes = new int[columns.size()];
+
+        for (int i = 0; i < targetIndexes.length; i++) {
+            targetIndexes[i] = i < setParameters ? i + 1 : i + 2;
+        }
+
+        slots = createSlots(columns, keyColumn);
+
+        int hashed = 0;
+
+        for (final int slot : slots) {
+            if (slot != -1) {
+                hashed++;
+            }
+        }
+
+        values = new Object[hashed];
+        keyIndex = whereKeyIndex == -1
+                ? indexOf(columns, keyColumn) : whereKeyIndex;
+        idTransIndex = indexOf(columns, COLUMN_ID_TRANS);
+
+        if (!advanceIdTrans) {
+            sqlAdvance = null;
+        } else if (keyIndex == -1 || idTransIndex == -1) {
+            throw new RuntimeException("Statement does not contain key or "
+                    + "transaction id: " + sql);
+        } else {
+            sqlAdvance = "UPDATE " + table + " SET " + COLUMN_ID_TRANS
+                    + " = ? WHERE " + keyColumn + " = ? AND "
+                    + COLUMN_ID_TRANS + " < ?";
+        }
+    }
+
+    /**
+     * Extends INSERT or UPDATE statement with row_hash column. UPDATE
+     * statement updates the row only if the hash differs or the row is marked
+     * as deleted.
+     *
+     * @param sql INSERT or UPDATE statement
+     *
+     * @return extended statement
+     */
+    public static String extendSql(final String sql) {
+        if (isInsert(sql)) {
+            final String[] parts = splitInsert(sql);
+
+            return parts[0] + parts[1] + ", " + COLUMN_ROW_HASH + parts[2]
+                    + parts[3] + ", ?" + parts[4];
+        }
+
+        final String[] parts = splitUpdate(sql);
+        final String condition = Config.isMysqlDriver()
+                ? "NOT " + COLUMN_ROW_HASH + " <=> ?"
+                : COLUMN_ROW_HASH + " IS DISTINCT FROM ?";
+
+        return parts[0] + parts[1] + ", " + COLUMN_ROW_HASH + " = ?"
+                + parts[2] + " AND (" + condition + " OR deleted)";
+    }
+
+    /**
+     * Extends UPDATE statement so that it clears row_hash column. Used for
+     * statements that do not update all hashed columns.
+     *
+     * @param sql UPDATE statement
+     *
+     * @return extended statement
+     */
+    public static String clearHash(final String sql) {
+        final String[] parts = splitUpdate(sql);
+
+        return parts[0] + parts[1] + ", " + COLUMN_ROW_HASH + " = NULL"
+                + parts[2];
+    }
+
+    /**
+     * Creates prepared statement that binds hash of the row values to the
+     * extended statement.
+     *
+     * @param preparedStatement prepared statement of the extended statement
+     * @param sql               original statement without row_hash column
+     * @param keyColumn         name of the key column
+     * @param advanceIdTrans    whether transaction id of rows that the
+     *                          statement did not update should be advanced,
+     *                          should be true for UPDATE statements and
+     *                          upserts that skip rows with unchanged hash
+     *
+     * @return prepared statement
+     */
+    public static PreparedStatement create(
+            final PreparedStatement preparedStatement, final String sql,
+            final String keyColumn, final boolean advanceIdTrans) {
+        return new RowHashStatement(
+                preparedStatement, sql, keyColumn, advanceIdTrans);
+    }
+
+    /**
+     * Returns prepared statement wrapped by row hash statement or the
+     * prepared statement itself if it is not row hash statement.
+     *
+     * @param preparedStatement prepared statement
+     *
+     * @return wrapped prepared statement
+     */
+    public static PreparedStatement unwrap(
+            final PreparedStatement preparedStatement) {
+        if (preparedStatement instanceof RowHashStatement) {
+            return ((RowHashStatement) preparedStatement).preparedStatement;
+        }
+
+        return preparedStatement;
+    }
+
+    @Override
+    public void clearParameters() throws SQLException {
+        Arrays.fill(values, null);
+        key = null;
+        idTrans = null;
+        preparedStatement.clearParameters();
+    }
+
+    @Override
+    public void addBatch() throws SQLException {
+        bindHash();
+        preparedStatement.addBatch();
+
+        if (sqlAdvance != null) {
+            batchKeys.add(key);
+            batchIdTrans.add(idTrans);
+        }
+    }
+
+    @Override
+    public void clearBatch() throws SQLException {
+        batchKeys.clear();
+        batchIdTrans.clear();
+        preparedStatement.clearBatch();
+    }
+
+    @Override
+    public int[] executeBatch() throws SQLException {
+        try {
+            final int[] result = preparedStatement.executeBatch();
+
+            if (sqlAdvance != null) {
+                advanceIdTrans(result);
+            }
+
+            return result;
+        } finally {
+            batchKeys.clear();
+            batchIdTrans.clear();
+        }
+    }
+
+    @Override
+    public boolean execute() throws SQLException {
+        bindHash();
+
+        final boolean result = preparedStatement.execute();
+
+        if (sqlAdvance != null && !result
+                && preparedStatement.getUpdateCount() == 0
+                && bindAdvance(key, idTrans)) {
+            pstmAdvance.executeUpdate();
+        }
+
+        return result;
+    }
+
+    @Override
+    public int executeUpdate() throws SQLException {
+        bindHash();
+
+        final int result = preparedStatement.executeUpdate();
+
+        if (sqlAdvance != null && result == 0 && bindAdvance(key, idTrans)) {
+            pstmAdvance.executeUpdate();
+        }
+
+        return result;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try {
+            preparedStatement.close();
+        } finally {
+            if (pstmAdvance != null) {
+                pstmAdvance.close();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RowHashStatement: " + preparedStatement;
+    }
+
+    @Override
+    public void setNull(final int parameterIndex, final int sqlType)
+            throws SQLException {
+        preparedStatement.setNull(bind(parameterIndex, null), sqlType);
+    }
+
+    @Override
+    public void setNull(final int parameterIndex, final int sqlType,
+            final String typeName) throws SQLException {
+        preparedStatement.setNull(
+                bind(parameterIndex, null), sqlType, typeName);
+    }
+
+    @Override
+    public void setBoolean(final int parameterIndex, final boolean x)
+            throws SQLException {
+        preparedStatement.setBoolean(bind(parameterIndex, x), x);
+    }
+
+    @Override
+    public void setByte(final int parameterIndex, final byte x)
+            throws SQLException {
+        preparedStatement.setByte(bind(parameterIndex, x), x);
+    }
+
+    @Override
+    public void setShort(final int parameterIndex, final short x)
+            throws SQLException {
+        preparedStatement.setShort(bind(parameterIndex, x), x);
+    }
+
+    @Override
+    public void setInt(final int parameterIndex, final int x)
+            throws SQLException {
+        preparedStatement.setInt(bind(parameterIndex, x), x);
+    }
+
+    @Override
+    public void setLong(final int parameterIndex, final long x)
+            throws SQLException {
+        preparedStatement.setLong(bind(parameterIndex, x), x);
+    }
+
+    @Override
+    public void setFloat(final int parameterIndex, final float x)
+            throws SQLException {
+        preparedStatement.setFloat(bind(parameterIndex, x), x);
+    }
+
+    @Override
+    public void setDouble(final int parameterIndex, final double x)
+            throws SQLException {
+        preparedStatement.setDouble(bind(parameterIndex, x), x);
+    }
+
+    @Override
+    public void setBigDecimal(final int parameterIndex, final BigDecimal x)
+            throws SQLException {
+        preparedStatement.setBigDecimal(bind(parameterIndex, x), x);
+    }
+
+    @Override
+    public void setString(final int parameterIndex, final String x)
+            throws SQLException {
+        preparedStatement.setString(bind(parameterIndex, x), x);
+    }
+
+    @Override
+    public void setBytes(final int parameterIndex, final byte[] x)
+            throws SQLException {
+        preparedStatement.setBytes(bind(parameterIndex, x), x);
+    }
+
+    @Override
+    public void setDate(final int parameterIndex, final Date x)
+            throws SQLException {
+        preparedStatement.setDate(bind(parameterIndex, x), x);
+    }
+
+    @Override
+    public void setDate(final int parameterIndex, final Date x,
+            final Calendar cal) throws SQLException {
+        preparedStatement.setDate(bind(parameterIndex, x), x, cal);
+    }
+
+    @Override
+    public void setTime(final int parameterIndex, final Time x)
+            throws SQLException {
+        preparedStatement.setTime(bind(parameterIndex, x), x);
+    }
+
+    @Override
+    public void setTime(final int parameterIndex, final Time x,
+            final Calendar cal) throws SQLException {
+        preparedStatement.setTime(bind(parameterIndex, x), x, cal);
+    }
+
+    @Override
+    public void setTimestamp(final int parameterIndex, final Timestamp x)
+            throws SQLException {
+        preparedStatement.setTimestamp(bind(parameterIndex, x), x);
+    }
+
+    @Override
+    public void setTimestamp(final int parameterIndex, final Timestamp x,
+            final Calendar cal) throws SQLException {
+        preparedStatement.setTimestamp(bind(parameterIndex, x), x, cal);
+    }
+
+    @Override
+    public void setAsciiStream(final int parameterIndex, final InputStream x)
+            throws SQLException {
+        preparedStatement.setAsciiStream(bind(parameterIndex, x), x);
+    }
+
+    @Override
+    public void setAsciiStream(final int parameterIndex, final InputStream x,
+            final int length) throws SQLException {
+        preparedStatement.setAsciiStream(bind(parameterIndex, x), x, length);
+    }
+
+    @Override
+    public void setAsciiStream(final int parameterIndex, final InputStream x,
+            final long length) throws SQLException {
+        preparedStatement.setAsciiStream(bind(parameterIndex, x), x, length);
+    }
+
+    @Override
+    public void setBinaryStream(final int parameterIndex, final InputStream x)
+            throws SQLException {
+        preparedStatement.setBinaryStream(bind(parameterIndex, x), x);
+    }
+
+    @Override
+    public void setBinaryStream(final int parameterIndex, final InputStream x,
+            final int length) throws SQLException {
+        preparedStatement.setBinaryStream(bind(parameterIndex, x), x, length);
+    }
+
+    @Override
+    public void setBinaryStream(final int parameterIndex, final InputStream x,
+            final long length) throws SQLException {
+        preparedStatement.setBinaryStream(bind(parameterIndex, x), x, length);
+    }
+
+    @Override
+    @Deprecated
+    public void setUnicodeStream(final int parameterIndex, final InputStream x,
+            final int length) throws SQLException {
+        preparedStatement.setUnicodeStream(bind(parameterIndex, x), x, length);
+    }
+
+    @Override
+    public void setCharacterStream(final int parameterIndex,
+            final Reader reader) throws SQLException {
+        preparedStatement.setCharacterStream(
+                bind(parameterIndex, reader), reader);
+    }
+
+    @Override
+    public void setCharacterStream(final int parameterIndex,
+            final Reader reader, final int length) throws SQLException {
+        preparedStatement.setCharacterStream(
+                bind(parameterIndex, reader), reader, length);
+    }
+
+    @Override
+    public void setCharacterStream(final int parameterIndex,
+            final Reader reader, final long length) throws SQLException {
+        preparedStatement.setCharacterStream(
+                bind(parameterIndex, reader), reader, length);
+    }
+
+    @Override
+    public void setNCharacterStream(final int parameterIndex,
+            final Reader value) throws SQLException {
+        preparedStatement.setNCharacterStream(
+                bind(parameterIndex, value), value);
+    }
+
+    @Override
+    public void setNCharacterStream(final int parameterIndex,
+            final Reader value, final long length) throws SQLException {
+        preparedStatement.setNCharacterStream(
+                bind(parameterIndex, value), value, length);
+    }
+
+    @Override
+    public void setObject(final int parameterIndex, final Object x)
+            throws SQLException {
+        preparedStatement.setObject(bind(parameterIndex, x), x);
+    }
+
+    @Override
+    public void setObject(final int parameterIndex, final Object x,
+            final int targetSqlType) throws SQLException {
+        preparedStatement.setObject(bind(parameterIndex, x), x, targetSqlType);
+    }
+
+    @Override
+    public void setObject(final int parameterIndex, final Object x,
+            final int targetSqlType, final int scaleOrLength)
+            throws SQLException {
+        preparedStatement.setObject(
+                bind(parameterIndex, x), x, targetSqlType, scaleOrLength);
+    }
+
+    @Override
+    public void setRef(final int parameterIndex, final Ref x)
+            throws SQLException {
+        preparedStatement.setRef(bind(parameterIndex, x), x);
+    }
+
+    @Override
+    public void setBlob(final int parameterIndex, final Blob x)
+            throws SQLException {
+        preparedStatement.setBlob(bind(parameterIndex, x), x);
+    }
+
+    @Override
+    public void setBlob(final int parameterIndex, final InputStream inputStream)
+            throws SQLException {
+        preparedStatement.setBlob(
+                bind(parameterIndex, inputStream), inputStream);
+    }
+
+    @Override
+    public void setBlob(final int parameterIndex, final InputStream inputStream,
+            final long length) throws SQLException {
+        preparedStatement.setBlob(
+                bind(parameterIndex, inputStream), inputStream, length);
+    }
+
+    @Override
+    public void setClob(final int parameterIndex, final Clob x)
+            throws SQLException {
+        preparedStatement.setClob(bind(parameterIndex, x), x);
+    }
+
+    @Override
+    public void setClob(final int parameterIndex, final Reader reader)
+            throws SQLException {
+        preparedStatement.setClob(bind(parameterIndex, reader), reader);
+    }
+
+    @Override
+    public void setClob(final int parameterIndex, final Reader reader,
+            final long length) throws SQLException {
+        preparedStatement.setClob(bind(parameterIndex, reader), reader, length);
+    }
+
+    @Override
+    public void setNClob(final int parameterIndex, final NClob value)
+            throws SQLException {
+        preparedStatement.setNClob(bind(parameterIndex, value), value);
+    }
+
+    @Override
+    public void setNClob(final int parameterIndex, final Reader reader)
+            throws SQLException {
+        preparedStatement.setNClob(bind(parameterIndex, reader), reader);
+    }
+
+    @Override
+    public void setNClob(final int parameterIndex, final Reader reader,
+            final long length) throws SQLException {
+        preparedStatement.setNClob(
+                bind(parameterIndex, reader), reader, length);
+    }
+
+    @Override
+    public void setArray(final int parameterIndex, final Array x)
+            throws SQLException {
+        preparedStatement.setArray(bind(parameterIndex, x), x);
+    }
+
+    @Override
+    public void setURL(final int parameterIndex, final URL x)
+            throws SQLException {
+        preparedStatement.setURL(bind(parameterIndex, x), x);
+    }
+
+    @Override
+    public void setRowId(final int parameterIndex, final RowId x)
+            throws SQLException {
+        preparedStatement.setRowId(bind(parameterIndex, x), x);
+    }
+
+    @Override
+    public void setNString(final int parameterIndex, final String value)
+            throws SQLException {
+        preparedStatement.setNString(bind(parameterIndex, value), value);
+    }
+
+    @Override
+    public void setSQLXML(final int parameterIndex, final SQLXML xmlObject)
+            throws SQLException {
+        preparedStatement.setSQLXML(bind(parameterIndex, xmlObject), xmlObject);
+    }
+
+    /**
+     * Computes 64-bit FNV-1a hash of the values.
+     *
+     * @param values values
+     *
+     * @return hash
+     *
+     * @throws SQLException Thrown if problem occurred while reading array
+     *                      value.
+     */
+    static long hash(final Object... values) throws SQLException {
+        long hash = FNV_OFFSET_BASIS;
+
+        for (final Object value : values) {
+            hash = hashValue(hash, value);
+        }
+
+        return hash;
+    }
+
+    /**
+     * Returns statement that advances transaction id of rows that were not
+     * updated.
+     *
+     * @return statement that advances transaction id
+     */
+    String getAdvanceSql() {
+        return sqlAdvance;
+    }
+
+    /**
+     * Records value of the parameter and returns index of the parameter in
+     * the extended statement.
+     *
+     * @param parameterIndex original parameter index
+     * @param value          parameter value
+     *
+     * @return parameter index in the extended statement
+     *
+     * @throws SQLException Thrown if the parameter index is out of range.
+     */
+    private int bind(final int parameterIndex, final Object value)
+            throws SQLException {
+        if (parameterIndex < 1 || parameterIndex > slots.length) {
+            throw new SQLException("Parameter index " + parameterIndex
+                    + " is out of range 1-" + slots.length);
+        }
+
+        final int index = parameterIndex - 1;
+
+        if (slots[index] != -1) {
+            values[slots[index]] = value;
+        }
+
+        if (index == keyIndex) {
+            key = value;
+        } else if (index == idTransIndex) {
+            idTrans = value;
+        }
+
+        return targetIndexes[index];
+    }
+
+    /**
+     * Binds hash of current values to the wrapped statement.
+     *
+     * @throws SQLException Thrown if problem occurred while setting the hash.
+     */
+    private void bindHash() throws SQLException {
+        final long hash = hash(values);
+
+        for (final int index : hashIndexes) {
+            preparedStatement.setLong(index, hash);
+        }
+    }
+
+    /**
+     * Advances transaction id of rows in the executed batch that were not
+     * updated. If the driver does not return update counts, transaction id is
+     * advanced for all rows of the batch, which does not change rows that
+     * were updated as they already have the transaction id.
+     *
+     * @param updateCounts update counts returned by the driver
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    private void advanceIdTrans(final int[] updateCounts)
+            throws SQLException {
+        final boolean countsKnown = updateCounts.length == batchKeys.size();
+        boolean added = false;
+
+        for (int i = 0; i < batchKeys.size(); i++) {
+            if ((!countsKnown || updateCounts[i] == 0
+                    || updateCounts[i] == Statement.SUCCESS_NO_INFO)
+                    && bindAdvance(batchKeys.get(i), batchIdTrans.get(i))) {
+                pstmAdvance.addBatch();
+                added = true;
+            }
+        }
+
+        if (added) {
+            pstmAdvance.executeBatch();
+        }
+    }
+
+    /**
+     * Binds parameters of the statement that advances transaction id. The
+     * statement is prepared on first use.
+     *
+     * @param rowKey     key of the row
+     * @param rowIdTrans transaction id of the row
+     *
+     * @return true if the parameters were bound, false if the key or
+     *         transaction id is not known
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    private boolean bindAdvance(final Object rowKey, final Object rowIdTrans)
+            throws SQLException {
+        if (rowKey == null || rowIdTrans == null) {
+            return false;
+        }
+
+        if (pstmAdvance == null) {
+            pstmAdvance = preparedStatement.getConnection().prepareStatement(
+                    sqlAdvance);
+        }
+
+        pstmAdvance.setObject(1, rowIdTrans);
+        pstmAdvance.setObject(2, rowKey);
+        pstmAdvance.setObject(3, rowIdTrans);
+
+        return true;
+    }
+
+    /**
+     * Returns table name from the beginning of INSERT or UPDATE statement.
+     *
+     * @param prefix   beginning of the statement up to the column list or SET
+     *                 keyword
+     * @param position position of the table name from the end of the prefix
+     *
+     * @return table name
+     */
+    private static String getTable(final String prefix, final int position) {
+        final String[] words = prefix.replace('(', ' ').trim().split("\\s+");
+
+        return words[words.length - position];
+    }
+
+    /**
+     * Returns column names of parameters of WHERE clause.
+     *
+     * @param where WHERE clause
+     *
+     * @return column names by parameter index, names of parameters that are
+     *         not compared with a column are null
+     */
+    private static List<String> getWhereColumns(final String where) {
+        final List<String> result = new ArrayList<>(4);
+        final Matcher matcher = PATTERN_CONDITION.matcher(where);
+        int start = 0;
+
+        while (matcher.find()) {
+            for (int i = countParameters(
+                    where.substring(start, matcher.start())); i > 0; i--) {
+                result.add(null);
+            }
+
+            result.add(matcher.group(1));
+            start = matcher.end();
+        }
+
+        for (int i = countParameters(where.substring(start)); i > 0; i--) {
+            result.add(null);
+        }
+
+        return result;
+    }
+
+    /**
+     * Finds index of the first occurrence of the column in the list.
+     *
+     * @param columns column names
+     * @param column  column name
+     *
+     * @return index of the column or -1 if it was not found
+     */
+    private static int indexOf(final List<String> columns,
+            final String column) {
+        for (int i = 0; i < columns.size(); i++) {
+            if (column.equalsIgnoreCase(columns.get(i))) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Adds column to the list once per each parameter of the expression.
+     *
+     * @param columns    list of columns by parameter index
+     * @param column     column name
+     * @param expression expression assigned to the column
+     */
+    private static void addColumn(final List<String> columns,
+            final String column, final String expression) {
+        final int count = countParameters(expression);
+
+        for (int i = 0; i < count; i++) {
+            columns.add(column.trim());
+        }
+    }
+
+    /**
+     * Assigns positions in the hash to parameters. Parameters of key column,
+     * transaction id and parameters without column are not hashed. Other
+     * parameters are ordered by column name.
+     *
+     * @param columns   column names by parameter index
+     * @param keyColumn name of the key column
+     *
+     * @return positions in the hash by parameter index
+     */
+    private static int[] createSlots(final List<String> columns,
+            final String keyColumn) {
+        final List<Integer> hashed = new ArrayList<>(columns.size());
+
+        for (int i = 0; i < columns.size(); i++) {
+            final String column = columns.get(i);
+
+            if (column != null && !column.equalsIgnoreCase(keyColumn)
+                    && !column.equalsIgnoreCase(COLUMN_ID_TRANS)) {
+                hashed.add(i);
+            }
+        }
+
+        Collections.sort(hashed, new Comparator<Integer>() {
+            @Override
+            public int compare(final Integer o1, final Integer o2) {
+                return columns.get(o1).compareToIgnoreCase(columns.get(o2));
+            }
+        });
+
+        final int[] result = new int[columns.size()];
+        Arrays.fill(result, -1);
+
+        for (int i = 0; i < hashed.size(); i++) {
+            result[hashed.get(i)] = i;
+        }
+
+        return result;
+    }
+
+    /**
+     * Mixes the value into the hash. Type of the value is mixed in too so that
+     * for example null and empty string produce different hash.
+     *
+     * @param hash  current hash
+     * @param value value
+     *
+     * @return new hash
+     *
+     * @throws SQLException Thrown if problem occurred while reading array
+     *                      value.
+     */
+    private static long hashValue(final long hash, final Object value)
+            throws SQLException {
+        if (value == null) {
+            return mix(hash, 0);
+        } else if (value instanceof String) {
+            final String string = (String) value;
+            long result = mixLong(mix(hash, 1), string.length());
+
+            for (int i = 0; i < string.length(); i++) {
+                final char ch = string.charAt(i);
+                result = mix(mix(result, ch >>> 8), ch);
+            }
+
+            return result;
+        } else if (value instanceof Boolean) {
+            return mix(mix(hash, 2), (Boolean) value ? 1 : 0);
+        } else if (value instanceof Long || value instanceof Integer
+                || value instanceof Short || value instanceof Byte) {
+            return mixLong(mix(hash, 3), ((Number) value).longValue());
+        } else if (value instanceof java.util.Date) {
+            return mixLong(mix(hash, 4), ((java.util.Date) value).getTime());
+        } else if (value instanceof byte[]) {
+            final byte[] bytes = (byte[]) value;
+            long result = mixLong(mix(hash, 5), bytes.length);
+
+            for (final byte b : bytes) {
+                result = mix(result, b);
+            }
+
+            return result;
+        } else if (value instanceof Array) {
+            final Object[] elements = (Object[]) ((Array) value).getArray();
+            long result = mixLong(mix(hash, 6), elements.length);
+
+            for (final Object element : elements) {
+                result = hashValue(result, element);
+            }
+
+            return result;
+        } else {
+            return hashValue(mix(hash, 7), value.toString());
+        }
+    }
+
+    /**
+     * Mixes single byte into the hash.
+     *
+     * @param hash  current hash
+     * @param value byte value, only the lowest 8 bits are used
+     *
+     * @return new hash
+     */
+    private static long mix(final long hash, final int value) {
+        return (hash ^ (value & 0xff)) * FNV_PRIME;
+    }
+
+    /**
+     * Mixes long value into the hash.
+     *
+     * @param hash  current hash
+     * @param value long value
+     *
+     * @return new hash
+     */
+    private static long mixLong(final long hash, final long value) {
+        long result = hash;
+
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            result = mix(result, (int) (value >>> shift));
+        }
+
+        return result;
+    }
+
+    /**
+     * Checks whether the statement is INSERT statement.
+     *
+     * @param sql SQL statement
+     *
+     * @return true if the statement is INSERT statement, false if it is
+     *         UPDATE statement
+     */
+    private static boolean isInsert(final String sql) {
+        return sql.trim().toUpperCase(Locale.ENGLISH).startsWith("INSERT");
+    }
+
+    /**
+     * Splits INSERT statement into the part before column list, column list,
+     * the part between column list and values list, values list and the rest
+     * of the statement.
+     *
+     * @param sql INSERT statement
+     *
+     * @return parts of the statement
+     */
+    private static String[] splitInsert(final String sql) {
+        final int columnsStart = sql.indexOf('(');
+        final int columnsEnd = columnsStart == -1
+                ? -1 : findClosingParenthesis(sql, columnsStart);
+        final int valuesStart = columnsEnd == -1 ? -1 : sql.indexOf('(',
+                sql.toUpperCase(Locale.ENGLISH).indexOf(" VALUES", columnsEnd));
+        final int valuesEnd = valuesStart == -1
+                ? -1 : findClosingParenthesis(sql, valuesStart);
+
+        if (valuesEnd == -1) {
+            throw new RuntimeException("Unsupported INSERT statement: " + sql);
+        }
+
+        return new String[]{
+            sql.substring(0, columnsStart + 1),
+            sql.substring(columnsStart + 1, columnsEnd),
+            sql.substring(columnsEnd, valuesStart + 1),
+            sql.substring(valuesStart + 1, valuesEnd),
+            sql.substring(valuesEnd)};
+    }
+
+    /**
+     * Splits UPDATE statement into the part up to SET keyword, assignments
+     * and the WHERE clause.
+     *
+     * @param sql UPDATE statement
+     *
+     * @return parts of the statement
+     */
+    private static String[] splitUpdate(final String sql) {
+        final String upperSql = sql.toUpperCase(Locale.ENGLISH);
+        final int set = upperSql.indexOf(" SET ");
+        final int where = upperSql.lastIndexOf(" WHERE ");
+
+        if (set == -1 || where < set) {
+            throw new RuntimeException("Unsupported UPDATE statement: " + sql);
+        }
+
+        return new String[]{
+            sql.substring(0, set + 5),
+            sql.substring(set + 5, where),
+            sql.substring(where)};
+    }
+
+    /**
+     * Finds closing parenthesis matching the opening parenthesis.
+     *
+     * @param sql   SQL statement
+     * @param start index of opening parenthesis
+     *
+     * @return index of closing parenthesis or -1 if it was not found
+     */
+    private static int findClosingParenthesis(final String sql,
+            final int start) {
+        int depth = 0;
+
+        for (int i = start; i < sql.length(); i++) {
+            if (sql.charAt(i) == '(') {
+                depth++;
+            } else if (sql.charAt(i) == ')') {
+                depth--;
+
+                if (depth == 0) {
+                    return i;
+                }
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Splits comma separated list on commas that are not enclosed in
+     * parentheses or quotes.
+     *
+     * @param list comma separated list
+     *
+     * @return list items
+     */
+    private static List<String> split(final String list) {
+        final List<String> result = new ArrayList<>(32);
+        int depth = 0;
+        boolean quoted = false;
+        int start = 0;
+
+        for (int i = 0; i < list.length(); i++) {
+            final char ch = list.charAt(i);
+
+            if (ch == '\'') {
+                quoted = !quoted;
+            } else if (quoted) {
+                continue;
+            } else if (ch == '(') {
+                depth++;
+            } else if (ch == ')') {
+                depth--;
+            } else if (ch == ',' && depth == 0) {
+                result.add(list.substring(start, i));
+                start = i + 1;
+            }
+        }
+
+        result.add(list.substring(start));
+
+        return result;
+    }
+
+    /**
+     * Counts parameter placeholders in the SQL fragment.
+     *
+     * @param sql SQL fragment
+     *
+     * @return number of parameters
+     */
+    private static int countParameters(final String sql) {
+        int count = 0;
+
+        for (int i = 0; i < sql.length(); i++) {
+            if (sql.charAt(i) == '?') {
+                count++;
+            }
+        }
+
+        return count;
+    }
+}
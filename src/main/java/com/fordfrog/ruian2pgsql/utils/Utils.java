@@ -28,13 +28,12 @@ import com.fordfrog.ruian2pgsql.containers.ItemWithEmergency;
 import com.fordfrog.ruian2pgsql.containers.ItemWithHranice;
 import com.fordfrog.ruian2pgsql.containers.ItemWithMluvCharPad;
 import com.fordfrog.ruian2pgsql.gml.GMLParser;
+import com.fordfrog.ruian2pgsql.gml.Geometry;
 import com.fordfrog.ruian2pgsql.gml.GMLReader;
+import com.fordfrog.ruian2pgsql.gml.WKBWriter;
 import java.sql.Connection;
-import java.util.Calendar;
+import java.sql.Timestamp;
 import java.util.Date;
-import java.util.TimeZone;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
 
@@ -46,10 +45,23 @@ import javax.xml.stream.XMLStreamReader;
 public class Utils {
 
     /**
-     * Pattern for parsing timestamp value from string.
+     * Number of entries in {@link #DAY_CACHE}.
      */
-    private static final Pattern PATTERN_TIMESTAMP = Pattern.compile(
-            "^(\\d{4})-(\\d{2})-(\\d{2})T(\\d{2}):(\\d{2}):(\\d{2})$");
+    private static final int DAY_CACHE_SIZE = 64;
+    /**
+     * Cache of recently parsed days. Most of the records share just a few
+     * dates so their calendar calculation is reused. Entries are immutable so
+     * the cache can be shared by multiple threads without locking.
+     */
+    private static final DayEntry[] DAY_CACHE = new DayEntry[DAY_CACHE_SIZE];
+    /**
+     * Number of milliseconds in second.
+     */
+    private static final long MILLIS_IN_SECOND = 1000L;
+    /**
+     * Number of milliseconds in day.
+     */
+    private static final long MILLIS_IN_DAY = 24L * 60 * 60 * MILLIS_IN_SECOND;
 
     /**
      * Creates new instance of Utils.
@@ -58,31 +70,128 @@ public class Utils {
     }
 
     /**
-     * Parses timestamp value from string.
+     * Parses timestamp value in format yyyy-MM-ddTHH:mm:ss from string. The
+     * value is interpreted in UTC time zone. Values that are at midnight are
+     * returned as {@link java.sql.Date} instances, other values as
+     * {@link Timestamp} instances, so that they do not have to be converted
+     * again when they are stored.
      *
      * @param value string value
      *
      * @return parsed timestamp value
      */
     public static Date parseTimestamp(final String value) {
-        final Matcher matcher = PATTERN_TIMESTAMP.matcher(value);
+        if (value.length() != 19 || value.charAt(4) != '-'
+                || value.charAt(7) != '-' || value.charAt(10) != 'T'
+                || value.charAt(13) != ':' || value.charAt(16) != ':') {
+            throw new RuntimeException("Invalid timestamp value: " + value);
+        }
+
+        int year = parseDigits(value, 0, 4);
+        int month = parseDigits(value, 5, 2);
+        final int day = parseDigits(value, 8, 2);
+        final int hour = parseDigits(value, 11, 2);
+        final int minute = parseDigits(value, 14, 2);
+        final int second = parseDigits(value, 17, 2);
 
-        if (!matcher.matches()) {
+        if (year < 0 || month < 0 || day < 0 || hour < 0 || minute < 0
+                || second < 0) {
             throw new RuntimeException("Invalid timestamp value: " + value);
         }
 
-        final Calendar calendar =
-                Calendar.getInstance(TimeZone.getTimeZone("UTC"));
-        calendar.clear();
-        calendar.set(
-                Integer.parseInt(matcher.group(1)),
-                Integer.parseInt(matcher.group(2)) - 1,
-                Integer.parseInt(matcher.group(3)),
-                Integer.parseInt(matcher.group(4)),
-                Integer.parseInt(matcher.group(5)),
-                Integer.parseInt(matcher.group(6)));
-
-        return calendar.getTime();
+        // out of range months are rolled the same way lenient calendar does
+        if (month == 0) {
+            year--;
+            month = 12;
+        } else if (month > 12) {
+            year += (month - 1) / 12;
+            month = (month - 1) % 12 + 1;
+        }
+
+        final long dayMillis = getDayMillis(year, month, day);
+
+        if (hour == 0 && minute == 0 && second == 0) {
+            return new java.sql.Date(dayMillis);
+        }
+
+        return new Timestamp(dayMillis
+                + ((hour * 60L + minute) * 60L + second) * MILLIS_IN_SECOND);
+    }
+
+    /**
+     * Returns start of specified day in UTC time zone in milliseconds since
+     * epoch, either from the {@link #DAY_CACHE} or newly calculated.
+     *
+     * @param year  year
+     * @param month month (1-12)
+     * @param day   day of month, values out of range are rolled to
+     *              neighbouring months
+     *
+     * @return milliseconds since epoch
+     */
+    private static long getDayMillis(final int year, final int month,
+            final int day) {
+        final int key = (year * 100 + month) * 100 + day;
+        final int index = (key ^ (key >>> 6)) & (DAY_CACHE_SIZE - 1);
+        final DayEntry entry = DAY_CACHE[index];
+
+        if (entry != null && entry.key == key) {
+            return entry.millis;
+        }
+
+        final long millis = daysFromCivil(year, month, day) * MILLIS_IN_DAY;
+        DAY_CACHE[index] = new DayEntry(key, millis);
+
+        return millis;
+    }
+
+    /**
+     * Calculates number of days since 1970-01-01 in proleptic Gregorian
+     * calendar.
+     *
+     * @param year  year
+     * @param month month (1-12)
+     * @param day   day of month
+     *
+     * @return number of days since epoch
+     */
+    private static long daysFromCivil(final int year, final int month,
+            final int day) {
+        final int y = month <= 2 ? year - 1 : year;
+        final int era = (y >= 0 ? y : y - 399) / 400;
+        final int yearOfEra = y - era * 400;
+        final int dayOfYear =
+                (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        final int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100
+                + dayOfYear;
+
+        return era * 146097L + dayOfEra - 719468;
+    }
+
+    /**
+     * Parses non-negative decimal number from part of the string.
+     *
+     * @param value  string value
+     * @param start  index of first digit
+     * @param length number of digits
+     *
+     * @return parsed number or -1 if the part contains non-digit character
+     */
+    private static int parseDigits(final String value, final int start,
+            final int length) {
+        int result = 0;
+
+        for (int i = start; i < start + length; i++) {
+            final char c = value.charAt(i);
+
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+
+            result = result * 10 + (c - '0');
+        }
+
+        return result;
     }
 
     /**
@@ -178,10 +287,10 @@ public class Utils {
      * @throws XMLStreamException Thrown if problem occurred while reading XML
      *                            stream.
      */
-    public static Integer getAdresniMistoKod(final XMLStreamReader reader,
+    public static int getAdresniMistoKod(final XMLStreamReader reader,
             final String endNamespace) throws XMLStreamException {
-        return getElementValue(reader, Namespaces.BASE_TYPY, "Kod",
-                endNamespace, "AdresniMistoKod").intValue();
+        return (int) getElementValue(reader, Namespaces.BASE_TYPY,
+                "Kod", endNamespace, "AdresniMistoKod");
     }
 
     /**
@@ -195,10 +304,10 @@ public class Utils {
      * @throws XMLStreamException Thrown if problem occurred while reading XML
      *                            stream.
      */
-    public static Integer getCastObceKod(final XMLStreamReader reader,
+    public static int getCastObceKod(final XMLStreamReader reader,
             final String endNamespace) throws XMLStreamException {
-        return getElementValue(reader, Namespaces.CAST_OBCE_INT_TYPY, "Kod",
-                endNamespace, "CastObce").intValue();
+        return (int) getElementValue(reader, Namespaces.CAST_OBCE_INT_TYPY,
+                "Kod", endNamespace, "CastObce");
     }
 
     /**
@@ -212,7 +321,7 @@ public class Utils {
      * @throws XMLStreamException Thrown if problem occurred while reading XML
      *                            stream.
      */
-    public static Long getIdentifikacniParcelaId(final XMLStreamReader reader,
+    public static long getIdentifikacniParcelaId(final XMLStreamReader reader,
             final String endNamespace) throws XMLStreamException {
         return getElementValue(reader, Namespaces.PARCELA_INT_TYPY, "Id",
                 endNamespace, "IdentifikacniParcela");
@@ -229,10 +338,10 @@ public class Utils {
      * @throws XMLStreamException Thrown if problem occurred while reading XML
      *                            stream.
      */
-    public static Integer getKatastralniUzemiKod(final XMLStreamReader reader,
+    public static int getKatastralniUzemiKod(final XMLStreamReader reader,
             final String endNamespace) throws XMLStreamException {
-        return getElementValue(reader, Namespaces.KAT_UZ_INT_TYPY, "Kod",
-                endNamespace, "KatastralniUzemi").intValue();
+        return (int) getElementValue(reader, Namespaces.KAT_UZ_INT_TYPY,
+                "Kod", endNamespace, "KatastralniUzemi");
     }
 
     /**
@@ -246,10 +355,10 @@ public class Utils {
      * @throws XMLStreamException Thrown if problem occurred while reading XML
      *                            stream.
      */
-    public static Integer getKrajKod(final XMLStreamReader reader,
+    public static int getKrajKod(final XMLStreamReader reader,
             final String endNamespace) throws XMLStreamException {
-        return getElementValue(reader, Namespaces.KRAJ_INT_TYPY, "Kod",
-                endNamespace, "Kraj").intValue();
+        return (int) getElementValue(reader, Namespaces.KRAJ_INT_TYPY,
+                "Kod", endNamespace, "Kraj");
     }
 
     /**
@@ -263,10 +372,10 @@ public class Utils {
      * @throws XMLStreamException Thrown if problem occurred while reading XML
      *                            stream.
      */
-    public static Integer getMomcKod(final XMLStreamReader reader,
+    public static int getMomcKod(final XMLStreamReader reader,
             final String endNamespace) throws XMLStreamException {
-        return getElementValue(reader, Namespaces.MOMC_INT_TYPY, "Kod",
-                endNamespace, "Momc").intValue();
+        return (int) getElementValue(reader, Namespaces.MOMC_INT_TYPY,
+                "Kod", endNamespace, "Momc");
     }
 
     /**
@@ -280,10 +389,10 @@ public class Utils {
      * @throws XMLStreamException Thrown if problem occurred while reading XML
      *                            stream.
      */
-    public static Integer getMopKod(final XMLStreamReader reader,
+    public static int getMopKod(final XMLStreamReader reader,
             final String endNamespace) throws XMLStreamException {
-        return getElementValue(reader, Namespaces.MOP_INT_TYPY, "Kod",
-                endNamespace, "Mop").intValue();
+        return (int) getElementValue(reader, Namespaces.MOP_INT_TYPY,
+                "Kod", endNamespace, "Mop");
     }
 
     /**
@@ -297,10 +406,10 @@ public class Utils {
      * @throws XMLStreamException Thrown if problem occurred while reading XML
      *                            stream.
      */
-    public static Integer getObecKod(final XMLStreamReader reader,
+    public static int getObecKod(final XMLStreamReader reader,
             final String endNamespace) throws XMLStreamException {
-        return getElementValue(reader, Namespaces.OBEC_INT_TYPY, "Kod",
-                endNamespace, "Obec").intValue();
+        return (int) getElementValue(reader, Namespaces.OBEC_INT_TYPY,
+                "Kod", endNamespace, "Obec");
     }
 
     /**
@@ -314,10 +423,10 @@ public class Utils {
      * @throws XMLStreamException Thrown if problem occurred while reading XML
      *                            stream.
      */
-    public static Integer getOkresKod(final XMLStreamReader reader,
+    public static int getOkresKod(final XMLStreamReader reader,
             final String endNamespace) throws XMLStreamException {
-        return getElementValue(reader, Namespaces.OKRES_INT_TYPY, "Kod",
-                endNamespace, "Okres").intValue();
+        return (int) getElementValue(reader, Namespaces.OKRES_INT_TYPY,
+                "Kod", endNamespace, "Okres");
     }
 
     /**
@@ -331,10 +440,10 @@ public class Utils {
      * @throws XMLStreamException Thrown if problem occurred while reading XML
      *                            stream.
      */
-    public static Integer getOrpKod(final XMLStreamReader reader,
+    public static int getOrpKod(final XMLStreamReader reader,
             final String endNamespace) throws XMLStreamException {
-        return getElementValue(reader, Namespaces.ORP_INT_TYPY, "Kod",
-                endNamespace, "Orp").intValue();
+        return (int) getElementValue(reader, Namespaces.ORP_INT_TYPY,
+                "Kod", endNamespace, "Orp");
     }
 
     /**
@@ -348,10 +457,10 @@ public class Utils {
      * @throws XMLStreamException Thrown if problem occurred while reading XML
      *                            stream.
      */
-    public static Integer getPouKod(final XMLStreamReader reader,
+    public static int getPouKod(final XMLStreamReader reader,
             final String endNamespace) throws XMLStreamException {
-        return getElementValue(reader, Namespaces.POU_INT_TYPY, "Kod",
-                endNamespace, "Pou").intValue();
+        return (int) getElementValue(reader, Namespaces.POU_INT_TYPY,
+                "Kod", endNamespace, "Pou");
     }
 
     /**
@@ -365,10 +474,10 @@ public class Utils {
      * @throws XMLStreamException Thrown if problem occurred while reading XML
      *                            stream.
      */
-    public static Integer getRegionSoudrznostiKod(final XMLStreamReader reader,
+    public static int getRegionSoudrznostiKod(final XMLStreamReader reader,
             final String endNamespace) throws XMLStreamException {
-        return getElementValue(reader, Namespaces.REG_SOU_INTI_TYPY, "Kod",
-                endNamespace, "RegionSoudrznosti").intValue();
+        return (int) getElementValue(reader, Namespaces.REG_SOU_INTI_TYPY,
+                "Kod", endNamespace, "RegionSoudrznosti");
     }
 
     /**
@@ -382,10 +491,10 @@ public class Utils {
      * @throws XMLStreamException Thrown if problem occurred while reading XML
      *                            stream.
      */
-    public static Integer getSpravniObvodKod(final XMLStreamReader reader,
+    public static int getSpravniObvodKod(final XMLStreamReader reader,
             final String endNamespace) throws XMLStreamException {
-        return getElementValue(reader, Namespaces.SPRAV_OBV_INT_TYPY, "Kod",
-                endNamespace, "SpravniObvod").intValue();
+        return (int) getElementValue(reader, Namespaces.SPRAV_OBV_INT_TYPY,
+                "Kod", endNamespace, "SpravniObvod");
     }
 
     /**
@@ -399,10 +508,10 @@ public class Utils {
      * @throws XMLStreamException Thrown if problem occurred while reading XML
      *                            stream.
      */
-    public static Integer getStatKod(final XMLStreamReader reader,
+    public static int getStatKod(final XMLStreamReader reader,
             final String endNamespace) throws XMLStreamException {
-        return getElementValue(reader, Namespaces.STAT_INT_TYPY, "Kod",
-                endNamespace, "Stat").intValue();
+        return (int) getElementValue(reader, Namespaces.STAT_INT_TYPY,
+                "Kod", endNamespace, "Stat");
     }
 
     /**
@@ -416,10 +525,10 @@ public class Utils {
      * @throws XMLStreamException Thrown if problem occurred while reading XML
      *                            stream.
      */
-    public static Integer getStavebniObjektKod(final XMLStreamReader reader,
+    public static int getStavebniObjektKod(final XMLStreamReader reader,
             final String endNamespace) throws XMLStreamException {
-        return getElementValue(reader, Namespaces.STAV_OBJ_INT_TYPY, "Kod",
-                endNamespace, "StavebniObjekt").intValue();
+        return (int) getElementValue(reader, Namespaces.STAV_OBJ_INT_TYPY,
+                "Kod", endNamespace, "StavebniObjekt");
     }
 
     /**
@@ -433,10 +542,10 @@ public class Utils {
      * @throws XMLStreamException Thrown if problem occurred while reading XML
      *                            stream.
      */
-    public static Integer getUliceKod(final XMLStreamReader reader,
+    public static int getUliceKod(final XMLStreamReader reader,
             final String endNamespace) throws XMLStreamException {
-        return getElementValue(reader, Namespaces.ULICE_INT_TYPY, "Kod",
-                endNamespace, "Ulice").intValue();
+        return (int) getElementValue(reader, Namespaces.ULICE_INT_TYPY,
+                "Kod", endNamespace, "Ulice");
     }
 
     /**
@@ -450,10 +559,10 @@ public class Utils {
      * @throws XMLStreamException Thrown if problem occurred while reading XML
      *                            stream.
      */
-    public static Integer getVuscKod(final XMLStreamReader reader,
+    public static int getVuscKod(final XMLStreamReader reader,
             final String endNamespace) throws XMLStreamException {
-        return getElementValue(reader, Namespaces.VUSC_INT_TYPY, "Kod",
-                endNamespace, "Vusc").intValue();
+        return (int) getElementValue(reader, Namespaces.VUSC_INT_TYPY,
+                "Kod", endNamespace, "Vusc");
     }
 
     /**
@@ -468,55 +577,46 @@ public class Utils {
      * @return Kod value
      *
      * @throws XMLStreamException Thrown if problem occurred while reading XML
-     *                            stream.
+     *                            stream or if the value element was not
+     *                            found.
      */
-    private static Long getElementValue(final XMLStreamReader reader,
+    private static long getElementValue(final XMLStreamReader reader,
             final String valueNamespace, final String valueLocalName,
             final String endNamespace, final String endElement)
             throws XMLStreamException {
-        Long kod = null;
+        long kod = 0;
+        boolean found = false;
 
         while (reader.hasNext()) {
             final int event = reader.next();
 
             switch (event) {
                 case XMLStreamReader.START_ELEMENT:
-                    kod = getElementValueFromElement(
-                            reader, valueNamespace, valueLocalName);
+                    if (XMLUtils.isSameElement(
+                            valueNamespace, valueLocalName, reader)) {
+                        kod = XMLUtils.readLong(reader);
+                        found = true;
+                    } else {
+                        XMLUtils.processUnsupported(reader);
+                    }
+
                     break;
                 case XMLStreamReader.END_ELEMENT:
                     if (XMLUtils.isSameElement(
                             endNamespace, endElement, reader)) {
+                        if (!found) {
+                            throw new XMLStreamException("Element "
+                                    + valueLocalName + " not found in "
+                                    + endElement, reader.getLocation());
+                        }
+
                         return kod;
                     }
             }
         }
 
-        return kod;
-    }
-
-    /**
-     * Reads value from element.
-     *
-     * @param reader    XML stream reader
-     * @param namespace namespace of the value element
-     * @param localName local name of the value element
-     *
-     * @return Kod value
-     *
-     * @throws XMLStreamException Thrown if problem occurred while reading XML
-     *                            stream.
-     */
-    private static Long getElementValueFromElement(final XMLStreamReader reader,
-            final String namespace, final String localName)
-            throws XMLStreamException {
-        if (XMLUtils.isSameElement(namespace, localName, reader)) {
-            return Long.valueOf(reader.getElementText());
-        } else {
-            XMLUtils.processUnsupported(reader);
-        }
-
-        return null;
+        throw new XMLStreamException("Unexpected end of document in "
+                + endElement);
     }
 
     /**
@@ -684,32 +784,63 @@ public class Utils {
      * @param endNamespace end namespace
      * @param endLocalName end local name
      *
-     * @return parsed GML as string (either GML or EWKT)
+     * @return parsed GML as string (either GML or EWKT) or EWKB bytes
      *
      * @throws XMLStreamException Thrown if problem occurred while reading XML
      *                            stream.
      */
-    private static String processGML(final XMLStreamReader reader,
+    private static Object processGML(final XMLStreamReader reader,
             final Connection con, final String endNamespace,
             final String endLocalName) throws XMLStreamException {
-        final String result;
+        final Object result;
+
+        if (Config.isParseGML()) {
+            final Geometry geometry;
 
-        if (Config.isConvertToEWKT()) {
             if (Config.isLinearizeEWKT()) {
-                result =
-                    GMLParser.parseLinearized(reader, endNamespace, endLocalName, Config.getLinearPrecision()).toWKT();
+                geometry =
+                    GMLParser.parseLinearized(reader, endNamespace, endLocalName, Config.getLinearPrecision());
             } else {
-                result =
-                    GMLParser.parse(reader, endNamespace, endLocalName).toWKT();
+                geometry = GMLParser.parse(reader, endNamespace, endLocalName);
             }
+
+            result = Config.isConvertToEWKB()
+                    ? geometry.toEWKB() : geometry.toWKT();
         } else {
             result = GMLReader.readGML(reader, con, endNamespace, endLocalName);
         }
 
         if (Config.isDebug()) {
-            Log.write(result);
+            Log.write(result instanceof byte[]
+                    ? WKBWriter.toHex((byte[]) result) : (String) result);
         }
 
         return result;
     }
+
+    /**
+     * Entry of {@link #DAY_CACHE}.
+     */
+    private static class DayEntry {
+
+        /**
+         * Day in format yyyyMMdd.
+         */
+        private final int key;
+        /**
+         * Start of the day in milliseconds since epoch.
+         */
+        private final long millis;
+
+        /**
+         * Creates new instance of DayEntry.
+         *
+         * @param key    {@link #key}
+         * @param millis {@link #millis}
+         */
+        DayEntry(final int key, final long millis) {
+            this.key = key;
+            this.millis = millis;
+        }
+    }
 }
@@ -31,6 +31,22 @@ import javax.xml.stream.XMLStreamReader;
  */
 public class XMLUtils {
 
+    /**
+     * Maximum length of text of element that is parsed as number or boolean.
+     */
+    private static final int MAX_VALUE_LENGTH = 64;
+    /**
+     * Buffer for text of element that is parsed as number or boolean. Each
+     * thread has its own buffer.
+     */
+    private static final ThreadLocal<char[]> VALUE_BUFFER =
+            new ThreadLocal<char[]>() {
+                @Override
+                protected char[] initialValue() {
+                    return new char[MAX_VALUE_LENGTH];
+                }
+            };
+
     /**
      * Checks whether XML stream reader namespace and local name match the one
      * specified in the call.
@@ -146,6 +162,250 @@ public class XMLUtils {
         }
     }
 
+    /**
+     * Reads text of current element and parses it as int. The text is parsed
+     * directly from characters of the reader without creating string. After
+     * the call the reader is positioned at the end of the element, same as
+     * after {@link XMLStreamReader#getElementText()}.
+     *
+     * @param reader XML stream reader
+     *
+     * @return int value
+     *
+     * @throws XMLStreamException Thrown if problem occurred while reading XML
+     *                            stream.
+     */
+    public static int readInt(final XMLStreamReader reader)
+            throws XMLStreamException {
+        final char[] buffer = VALUE_BUFFER.get();
+        final int length = readText(reader, buffer);
+        final long value = parseLong(buffer, length);
+
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw createNumberFormatException(buffer, length);
+        }
+
+        return (int) value;
+    }
+
+    /**
+     * Reads text of current element and parses it as long. The text is parsed
+     * directly from characters of the reader without creating string. After
+     * the call the reader is positioned at the end of the element, same as
+     * after {@link XMLStreamReader#getElementText()}.
+     *
+     * @param reader XML stream reader
+     *
+     * @return long value
+     *
+     * @throws XMLStreamException Thrown if problem occurred while reading XML
+     *                            stream.
+     */
+    public static long readLong(final XMLStreamReader reader)
+            throws XMLStreamException {
+        final char[] buffer = VALUE_BUFFER.get();
+
+        return parseLong(buffer, readText(reader, buffer));
+    }
+
+    /**
+     * Reads text of current element and parses it as boolean. Values "true"
+     * (in any case) and "1" are parsed as true, all other values as false.
+     * After the call the reader is positioned at the end of the element, same
+     * as after {@link XMLStreamReader#getElementText()}.
+     *
+     * @param reader XML stream reader
+     *
+     * @return boolean value
+     *
+     * @throws XMLStreamException Thrown if problem occurred while reading XML
+     *                            stream.
+     */
+    public static boolean readBoolean(final XMLStreamReader reader)
+            throws XMLStreamException {
+        final char[] buffer = VALUE_BUFFER.get();
+        final int length = readText(reader, buffer);
+        int start = 0;
+        int end = length;
+
+        while (start < end && Character.isWhitespace(buffer[start])) {
+            start++;
+        }
+
+        while (end > start && Character.isWhitespace(buffer[end - 1])) {
+            end--;
+        }
+
+        if (end - start == 1) {
+            return buffer[start] == '1';
+        }
+
+        return end - start == 4
+                && Character.toLowerCase(buffer[start]) == 't'
+                && Character.toLowerCase(buffer[start + 1]) == 'r'
+                && Character.toLowerCase(buffer[start + 2]) == 'u'
+                && Character.toLowerCase(buffer[start + 3]) == 'e';
+    }
+
+    /**
+     * Reads text of current element to the buffer. Text can be split to more
+     * events by the reader, so all text events up to the end of the element
+     * are read.
+     *
+     * @param reader XML stream reader
+     * @param buffer buffer
+     *
+     * @return length of the text
+     *
+     * @throws XMLStreamException Thrown if problem occurred while reading XML
+     *                            stream, if the element contains other
+     *                            elements or if the text does not fit into
+     *                            the buffer.
+     */
+    private static int readText(final XMLStreamReader reader,
+            final char[] buffer) throws XMLStreamException {
+        int length = 0;
+
+        while (true) {
+            final int event = reader.next();
+
+            switch (event) {
+                case XMLStreamReader.CHARACTERS:
+                case XMLStreamReader.CDATA:
+                case XMLStreamReader.SPACE:
+                    final int textLength = reader.getTextLength();
+                    checkTextLength(reader, buffer, length + textLength);
+                    System.arraycopy(reader.getTextCharacters(),
+                            reader.getTextStart(), buffer, length,
+                            textLength);
+                    length += textLength;
+
+                    break;
+                case XMLStreamReader.ENTITY_REFERENCE:
+                    final String text = reader.getText();
+                    checkTextLength(reader, buffer, length + text.length());
+                    text.getChars(0, text.length(), buffer, length);
+                    length += text.length();
+
+                    break;
+                case XMLStreamReader.COMMENT:
+                case XMLStreamReader.PROCESSING_INSTRUCTION:
+                    break;
+                case XMLStreamReader.END_ELEMENT:
+                    return length;
+                case XMLStreamReader.START_ELEMENT:
+                    throw new XMLStreamException("Element text content may "
+                            + "not contain START_ELEMENT",
+                            reader.getLocation());
+                default:
+                    throw new XMLStreamException("Unexpected event type "
+                            + event + " while reading element text",
+                            reader.getLocation());
+            }
+        }
+    }
+
+    /**
+     * Checks that text of specified length fits into the buffer.
+     *
+     * @param reader XML stream reader
+     * @param buffer buffer
+     * @param length length of the text
+     *
+     * @throws XMLStreamException Thrown if the text does not fit into the
+     *                            buffer.
+     */
+    private static void checkTextLength(final XMLStreamReader reader,
+            final char[] buffer, final int length) throws XMLStreamException {
+        if (length > buffer.length) {
+            throw new XMLStreamException("Text of element is too long to be "
+                    + "parsed as value", reader.getLocation());
+        }
+    }
+
+    /**
+     * Parses long value from the buffer. Leading and trailing white space is
+     * ignored.
+     *
+     * @param buffer buffer
+     * @param length length of text in the buffer
+     *
+     * @return long value
+     *
+     * @throws NumberFormatException Thrown if the text is not valid long
+     *                               value.
+     */
+    private static long parseLong(final char[] buffer, final int length) {
+        int start = 0;
+        int end = length;
+
+        while (start < end && Character.isWhitespace(buffer[start])) {
+            start++;
+        }
+
+        while (end > start && Character.isWhitespace(buffer[end - 1])) {
+            end--;
+        }
+
+        if (start == end) {
+            throw createNumberFormatException(buffer, length);
+        }
+
+        final boolean negative = buffer[start] == '-';
+
+        if (negative || buffer[start] == '+') {
+            start++;
+
+            if (start == end) {
+                throw createNumberFormatException(buffer, length);
+            }
+        }
+
+        // value is accumulated as negative number so that Long.MIN_VALUE
+        // can be parsed too
+        long value = 0;
+
+        for (int i = start; i < end; i++) {
+            final int digit = buffer[i] - '0';
+
+            if (digit < 0 || digit > 9 || value < Long.MIN_VALUE / 10) {
+                throw createNumberFormatException(buffer, length);
+            }
+
+            value *= 10;
+
+            if (value < Long.MIN_VALUE + digit) {
+                throw createNumberFormatException(buffer, length);
+            }
+
+            value -= digit;
+        }
+
+        if (!negative) {
+            if (value == Long.MIN_VALUE) {
+                throw createNumberFormatException(buffer, length);
+            }
+
+            return -value;
+        }
+
+        return value;
+    }
+
+    /**
+     * Creates exception for text that is not valid number.
+     *
+     * @param buffer buffer
+     * @param length length of text in the buffer
+     *
+     * @return exception
+     */
+    private static NumberFormatException createNumberFormatException(
+            final char[] buffer, final int length) {
+        return new NumberFormatException("For input string: \""
+                + new String(buffer, 0, length) + "\"");
+    }
+
     /**
      * Creates new instance of XMLUtils.
      */
@@ -0,0 +1,23 @@
+ANALYZE rn_stat;
+ANALYZE rn_region_soudrznosti;
+ANALYZE rn_vusc;
+ANALYZE rn_kraj_1960;
+ANALYZE rn_okres;
+ANALYZE rn_orp;
+ANALYZE rn_pou;
+ANALYZE rn_obec;
+ANALYZE rn_cast_obce;
+ANALYZE rn_mop;
+ANALYZE rn_spravni_obvod;
+ANALYZE rn_momc;
+ANALYZE rn_parcela;
+ANALYZE rn_zpusob_ochrany_pozemku;
+ANALYZE rn_bonit_dily_parcel;
+ANALYZE rn_ulice;
+ANALYZE rn_stavebni_objekt;
+ANALYZE rn_detailni_tea;
+ANALYZE rn_zpusob_ochrany_objektu;
+ANALYZE rn_adresni_misto;
+ANALYZE rn_katastralni_uzemi;
+ANALYZE rn_zsj;
+ANALYZE rn_vo;
@@ -0,0 +1,3 @@
+SET synchronous_commit = off;
+SET maintenance_work_mem = '1GB';
+SET work_mem = '64MB';
@@ -0,0 +1,23 @@
+ALTER TABLE rn_stat SET LOGGED;
+ALTER TABLE rn_region_soudrznosti SET LOGGED;
+ALTER TABLE rn_vusc SET LOGGED;
+ALTER TABLE rn_kraj_1960 SET LOGGED;
+ALTER TABLE rn_okres SET LOGGED;
+ALTER TABLE rn_orp SET LOGGED;
+ALTER TABLE rn_pou SET LOGGED;
+ALTER TABLE rn_obec SET LOGGED;
+ALTER TABLE rn_cast_obce SET LOGGED;
+ALTER TABLE rn_mop SET LOGGED;
+ALTER TABLE rn_spravni_obvod SET LOGGED;
+ALTER TABLE rn_momc SET LOGGED;
+ALTER TABLE rn_parcela SET LOGGED;
+ALTER TABLE rn_zpusob_ochrany_pozemku SET LOGGED;
+ALTER TABLE rn_bonit_dily_parcel SET LOGGED;
+ALTER TABLE rn_ulice SET LOGGED;
+ALTER TABLE rn_stavebni_objekt SET LOGGED;
+ALTER TABLE rn_detailni_tea SET LOGGED;
+ALTER TABLE rn_zpusob_ochrany_objektu SET LOGGED;
+ALTER TABLE rn_adresni_misto SET LOGGED;
+ALTER TABLE rn_katastralni_uzemi SET LOGGED;
+ALTER TABLE rn_zsj SET LOGGED;
+ALTER TABLE rn_vo SET LOGGED;
@@ -0,0 +1,134 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.convertors;
+
+import com.fordfrog.ruian2pgsql.Config;
+import com.fordfrog.ruian2pgsql.utils.Log;
+import java.io.StringWriter;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import javax.xml.stream.XMLStreamException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link ChangeCoalescer}.
+ *
+ * @author fordfrog
+ */
+public class ChangeCoalescerTest {
+
+    private Path file1;
+    private Path file2;
+
+    @Before
+    public void setUp() throws URISyntaxException, XMLStreamException {
+        file1 = getPath("coalesce1.xml");
+        file2 = getPath("coalesce2.xml");
+        Log.setLogWriter(new StringWriter());
+        Config.setCoalesce(true);
+        ChangeCoalescer.scan(Arrays.asList(file1, file2));
+    }
+
+    @After
+    public void tearDown() {
+        ChangeCoalescer.setCurrentFile(null);
+        Config.setCoalesce(false);
+    }
+
+    @Test
+    public void testNewerVersionInLaterFile() {
+        ChangeCoalescer.setCurrentFile(file1);
+        Assert.assertTrue(ChangeCoalescer.isSuperseded("Obec", 1));
+
+        ChangeCoalescer.setCurrentFile(file2);
+        Assert.assertFalse(ChangeCoalescer.isSuperseded("Obec", 1));
+    }
+
+    @Test
+    public void testOlderVersionInLaterFile() {
+        ChangeCoalescer.setCurrentFile(file1);
+        Assert.assertFalse(ChangeCoalescer.isSuperseded("Obec", 3));
+
+        ChangeCoalescer.setCurrentFile(file2);
+        Assert.assertTrue(ChangeCoalescer.isSuperseded("Obec", 3));
+    }
+
+    @Test
+    public void testSameTransactionLaterFileWins() {
+        ChangeCoalescer.setCurrentFile(file1);
+        Assert.assertTrue(ChangeCoalescer.isSuperseded("Obec", 2));
+
+        ChangeCoalescer.setCurrentFile(file2);
+        Assert.assertFalse(ChangeCoalescer.isSuperseded("Obec", 2));
+    }
+
+    @Test
+    public void testVersionsInSameFileAreKept() {
+        ChangeCoalescer.setCurrentFile(file1);
+        Assert.assertFalse(ChangeCoalescer.isSuperseded("Obec", 4));
+    }
+
+    @Test
+    public void testRemovalSupersedesCreation() {
+        ChangeCoalescer.setCurrentFile(file1);
+        Assert.assertTrue(ChangeCoalescer.isSuperseded("StavebniObjekt", 77));
+
+        ChangeCoalescer.setCurrentFile(file2);
+        Assert.assertFalse(ChangeCoalescer.isSuperseded(
+                ChangeCoalescer.getType("SO"), 77));
+    }
+
+    @Test
+    public void testNestedKeysAreIgnored() {
+        ChangeCoalescer.setCurrentFile(file1);
+        Assert.assertFalse(ChangeCoalescer.isSuperseded("Obec", 999));
+        Assert.assertFalse(ChangeCoalescer.isSuperseded("Pou", 999));
+    }
+
+    @Test
+    public void testUnknownItems() {
+        ChangeCoalescer.setCurrentFile(file1);
+        Assert.assertFalse(ChangeCoalescer.isSuperseded("Obec", 5));
+        Assert.assertFalse(ChangeCoalescer.isSuperseded("Ulice", 1));
+        Assert.assertFalse(ChangeCoalescer.isSuperseded(null, 1));
+        Assert.assertFalse(ChangeCoalescer.isSuperseded("Obec", null));
+    }
+
+    @Test
+    public void testDisabled() {
+        ChangeCoalescer.setCurrentFile(null);
+        Assert.assertFalse(ChangeCoalescer.isSuperseded("Obec", 1));
+
+        ChangeCoalescer.setCurrentFile(file1);
+        Config.setCoalesce(false);
+        Assert.assertFalse(ChangeCoalescer.isSuperseded("Obec", 1));
+    }
+
+    private Path getPath(final String name) throws URISyntaxException {
+        return Paths.get(getClass().getResource(name).toURI());
+    }
+}
@@ -0,0 +1,55 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.convertors;
+
+import com.fordfrog.ruian2pgsql.utils.Log;
+import java.io.StringWriter;
+import java.net.URISyntaxException;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Map;
+import javax.xml.stream.XMLStreamException;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link IndexRebuilder}.
+ *
+ * @author fordfrog
+ */
+public class IndexRebuilderTest {
+
+    @Test
+    public void testCountItems()
+            throws URISyntaxException, XMLStreamException {
+        Log.setLogWriter(new StringWriter());
+
+        final Map<String, Long> counts = IndexRebuilder.countItems(
+                Collections.singletonList(Paths.get(getClass().getResource(
+                        "coalesce2.xml").toURI())));
+
+        Assert.assertEquals(2, counts.size());
+        Assert.assertEquals(Long.valueOf(3), counts.get("Obec"));
+        // removed items are counted by their type
+        Assert.assertEquals(Long.valueOf(1), counts.get("StavebniObjekt"));
+    }
+}
@@ -0,0 +1,338 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.convertors;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link SubItemsSynchronizer}.
+ *
+ * @author fordfrog
+ */
+public class SubItemsSynchronizerTest {
+
+    /**
+     * INSERT statement of sub-items used in tests.
+     */
+    private static final String SQL_INSERT = "INSERT INTO rn_test "
+            + "(kod, parent_kod, pocet, plati_od, priznak) "
+            + "VALUES (?, ?, ?, ?, ?)";
+    /**
+     * Column types of existing rows.
+     */
+    private static final int[] COLUMN_TYPES = {Types.BIGINT, Types.BIGINT,
+        Types.NUMERIC, Types.DATE, Types.INTEGER, Types.BOOLEAN};
+    /**
+     * Day used as plati_od value.
+     */
+    private static final java.sql.Date DAY = new java.sql.Date(1464652800000L);
+    /**
+     * Existing rows returned by the connection, values are followed by the
+     * deleted flag.
+     */
+    private final List<Object[]> existingRows = new ArrayList<>(10);
+    /**
+     * Executed SELECT statements.
+     */
+    private final List<String> queries = new ArrayList<>(2);
+    /**
+     * Written rows, as statement type and kod of the row.
+     */
+    private final List<String> writes = new ArrayList<>(10);
+    /**
+     * Synchronizer being tested.
+     */
+    private SubItemsSynchronizer synchronizer;
+    /**
+     * Statement that collects rows of sub-items.
+     */
+    private PreparedStatement pstm;
+
+    @Before
+    public void setUp() throws SQLException {
+        synchronizer = new SubItemsSynchronizer(createConnection(),
+                SQL_INSERT, "parent_kod", "kod");
+        pstm = synchronizer.getStatement();
+    }
+
+    @Test
+    public void testUnchangedRowsAreNotWritten() throws SQLException {
+        // existing values are returned with other Java types than the
+        // collected ones, as drivers do
+        existingRows.add(new Object[]{1L, 100L, new BigDecimal("5"), DAY, 1,
+            false});
+        existingRows.add(new Object[]{2L, 100L, null, null, null, false});
+
+        synchronizer.add(100);
+        collect(1, 100, 5, DAY, true);
+        collect(2, 100, null, null, null);
+        synchronizer.flush();
+
+        Assert.assertEquals(Arrays.asList("SELECT kod, parent_kod, pocet, "
+                + "plati_od, priznak, deleted FROM rn_test "
+                + "WHERE parent_kod = ANY(?)"), queries);
+        Assert.assertEquals(0, writes.size());
+    }
+
+    @Test
+    public void testChangedRowsAreWritten() throws SQLException {
+        existingRows.add(new Object[]{1L, 100L, 5L, DAY, true, false});
+        existingRows.add(new Object[]{2L, 100L, 0L, DAY, true, false});
+        existingRows.add(new Object[]{3L, 100L, 5L, DAY, true, true});
+        existingRows.add(new Object[]{4L, 100L, 5L, DAY, true, false});
+        existingRows.add(new Object[]{5L, 100L, 5L, DAY, false, false});
+
+        synchronizer.add(100);
+        collect(1, 100, 6, DAY, true);
+        collect(2, 100, null, DAY, true);
+        collect(3, 100, 5, DAY, true);
+        collect(5, 100, 5, new java.sql.Date(DAY.getTime() + 86_400_000L),
+                false);
+        collect(6, 100, 5, DAY, true);
+        synchronizer.flush();
+
+        Assert.assertEquals(Arrays.asList("DELETE 4", "UPDATE 1", "UPDATE 2",
+                "UPDATE 3", "UPDATE 5", "INSERT 6"), writes);
+    }
+
+    @Test
+    public void testDuplicateRowsAreReplaced() throws SQLException {
+        existingRows.add(new Object[]{1L, 100L, 5L, DAY, true, false});
+        existingRows.add(new Object[]{1L, 100L, 5L, DAY, true, false});
+
+        synchronizer.add(100);
+        collect(1, 100, 5, DAY, true);
+        synchronizer.flush();
+
+        Assert.assertEquals(Arrays.asList("DELETE 1", "INSERT 1"), writes);
+    }
+
+    @Test
+    public void testRowsOfOtherItemsAreInserted() throws SQLException {
+        collect(1, 200, 5, DAY, true);
+        synchronizer.flush();
+
+        Assert.assertEquals(0, queries.size());
+        Assert.assertEquals(Arrays.asList("INSERT 1"), writes);
+    }
+
+    @Test
+    public void testRemovedSubItemsAreDeleted() throws SQLException {
+        existingRows.add(new Object[]{1L, 100L, 5L, DAY, true, false});
+        existingRows.add(new Object[]{1L, 101L, 5L, DAY, true, false});
+
+        synchronizer.add(100);
+        synchronizer.add(101);
+        collect(1, 101, 5, DAY, true);
+        synchronizer.flush();
+
+        Assert.assertEquals(Arrays.asList("DELETE 1"), writes);
+        Assert.assertEquals(0, synchronizer.size());
+    }
+
+    /**
+     * Collects row of sub-item the same way convertors do.
+     *
+     * @param kod     kod
+     * @param parent  parent kod
+     * @param pocet   pocet or null
+     * @param platiOd plati_od or null
+     * @param priznak priznak or null
+     *
+     * @throws SQLException Thrown if problem occurred while collecting the
+     *                      row.
+     */
+    private void collect(final int kod, final int parent,
+            final Integer pocet, final java.sql.Date platiOd,
+            final Boolean priznak) throws SQLException {
+        pstm.clearParameters();
+        pstm.setInt(1, kod);
+        pstm.setInt(2, parent);
+
+        if (pocet == null) {
+            pstm.setNull(3, Types.INTEGER);
+        } else {
+            pstm.setInt(3, pocet);
+        }
+
+        if (platiOd == null) {
+            pstm.setNull(4, Types.DATE);
+        } else {
+            pstm.setDate(4, platiOd);
+        }
+
+        if (priznak == null) {
+            pstm.setNull(5, Types.BOOLEAN);
+        } else {
+            pstm.setBoolean(5, priznak);
+        }
+
+        pstm.addBatch();
+    }
+
+    /**
+     * Creates connection that returns {@link #existingRows} for SELECT
+     * statements and records rows written by other statements to
+     * {@link #writes}.
+     *
+     * @return connection
+     */
+    private Connection createConnection() {
+        return (Connection) Proxy.newProxyInstance(
+                SubItemsSynchronizerTest.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new InvocationHandler() {
+                    @Override
+                    public Object invoke(final Object proxy,
+                            final Method method, final Object[] args) {
+                        switch (method.getName()) {
+                            case "prepareStatement":
+                                return createStatement((String) args[0]);
+                            case "createArrayOf":
+                                return createProxy(Array.class);
+                            default:
+                                return null;
+                        }
+                    }
+                });
+    }
+
+    /**
+     * Creates prepared statement.
+     *
+     * @param sql statement SQL
+     *
+     * @return prepared statement
+     */
+    private PreparedStatement createStatement(final String sql) {
+        final String type = sql.substring(0, sql.indexOf(' '));
+        // index of kod parameter in the statement
+        final int kodIndex = "UPDATE".equals(type) ? 7
+                : "DELETE".equals(type) ? 2 : 1;
+        final Map<Integer, Object> parameters = new HashMap<>(16);
+
+        return (PreparedStatement) Proxy.newProxyInstance(
+                SubItemsSynchronizerTest.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                new InvocationHandler() {
+                    @Override
+                    public Object invoke(final Object proxy,
+                            final Method method, final Object[] args) {
+                        final String name = method.getName();
+
+                        if (name.startsWith("set")) {
+                            parameters.put((Integer) args[0],
+                                    "setNull".equals(name) ? null : args[1]);
+                        } else if ("clearParameters".equals(name)) {
+                            parameters.clear();
+                        } else if ("addBatch".equals(name)) {
+                            writes.add(type + " "
+                                    + parameters.get(kodIndex));
+                        } else if ("executeBatch".equals(name)) {
+                            return new int[0];
+                        } else if ("executeQuery".equals(name)) {
+                            queries.add(sql);
+
+                            return createResultSet();
+                        }
+
+                        return null;
+                    }
+                });
+    }
+
+    /**
+     * Creates result set of {@link #existingRows}.
+     *
+     * @return result set
+     */
+    private ResultSet createResultSet() {
+        final ResultSetMetaData metaData =
+                (ResultSetMetaData) createProxy(ResultSetMetaData.class);
+
+        return (ResultSet) Proxy.newProxyInstance(
+                SubItemsSynchronizerTest.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class},
+                new InvocationHandler() {
+                    private int row = -1;
+
+                    @Override
+                    public Object invoke(final Object proxy,
+                            final Method method, final Object[] args) {
+                        switch (method.getName()) {
+                            case "next":
+                                row++;
+
+                                return row < existingRows.size();
+                            case "getMetaData":
+                                return metaData;
+                            case "getObject":
+                            case "getDate":
+                            case "getBoolean":
+                                return existingRows.get(row)[
+                                        (Integer) args[0] - 1];
+                            default:
+                                return null;
+                        }
+                    }
+                });
+    }
+
+    /**
+     * Creates proxy that returns column type from {@link #COLUMN_TYPES} for
+     * getColumnType and null for other methods.
+     *
+     * @param clazz interface of the proxy
+     *
+     * @return proxy
+     */
+    private static Object createProxy(final Class<?> clazz) {
+        return Proxy.newProxyInstance(
+                SubItemsSynchronizerTest.class.getClassLoader(),
+                new Class<?>[]{clazz}, new InvocationHandler() {
+                    @Override
+                    public Object invoke(final Object proxy,
+                            final Method method, final Object[] args) {
+                        return "getColumnType".equals(method.getName())
+                                ? COLUMN_TYPES[(Integer) args[0] - 1] : null;
+                    }
+                });
+    }
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.gml;
+
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link CoordinateTokenizer}.
+ *
+ * @author fordfrog
+ */
+public class CoordinateTokenizerTest {
+
+    @Test
+    public void testParseDoubleMatchesJdk() {
+        final String[] values = {"0", "0.00", "-0.00", "496547.00",
+            "-744000.5", "+12.25", "1.", ".5", "1043000.123456789",
+            "123456789012345678", "1234567890123456789", "9007199254740993",
+            "0.1234567890123456789012345", "1e3", "-2.5E-4"};
+
+        for (final String value : values) {
+            assertParsed(value);
+        }
+
+        final Random random = new Random(0);
+
+        for (int i = 0; i < 10000; i++) {
+            assertParsed(String.format("%d.%02d",
+                    random.nextInt(2000000) - 1000000, random.nextInt(100)));
+        }
+    }
+
+    @Test
+    public void testSplitChunksAndWhitespace() {
+        final Line line = new Line();
+        final CoordinateTokenizer tokenizer = new CoordinateTokenizer(line);
+        final char[] chars = "  -744000.50   -1043000.25\n\t-7440".toCharArray();
+        final char[] rest = "01.00 -1043001.00 ".toCharArray();
+
+        tokenizer.append(chars, 0, chars.length);
+        tokenizer.append(rest, 0, rest.length);
+        tokenizer.finish();
+
+        Assert.assertEquals(
+                "LINESTRING(-744000.5 -1043000.25,-744001.0 -1043001.0)",
+                line.toWKT());
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testOddNumberOfCoordinates() {
+        final CoordinateTokenizer tokenizer =
+                new CoordinateTokenizer(new Line());
+        final char[] chars = "1.00 2.00 3.00".toCharArray();
+
+        tokenizer.append(chars, 0, chars.length);
+        tokenizer.finish();
+    }
+
+    /**
+     * Checks that the value is parsed the same way as by
+     * {@link Double#parseDouble(java.lang.String)}.
+     *
+     * @param value value to parse
+     */
+    private static void assertParsed(final String value) {
+        Assert.assertEquals(value,
+                Double.doubleToRawLongBits(Double.parseDouble(value)),
+                Double.doubleToRawLongBits(CoordinateTokenizer.parseDouble(
+                                value.toCharArray(), value.length())));
+    }
+}
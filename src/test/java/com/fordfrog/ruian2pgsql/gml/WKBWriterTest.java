@@ -0,0 +1,106 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.gml;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link WKBWriter} and EWKB output of geometries.
+ *
+ * @author fordfrog
+ */
+public class WKBWriterTest {
+
+    @Test
+    public void testPoint() {
+        final Point point = new Point(-744000.5, -1043000.25);
+        point.setSrid(5514);
+
+        Assert.assertEquals(
+                "01010000208A1500000000000081B426C10000008070D42FC1",
+                WKBWriter.toHex(point.toEWKB()));
+    }
+
+    @Test
+    public void testPolygon() {
+        final Polygon polygon = new Polygon();
+        polygon.setSrid(5514);
+        polygon.setOuter(createLine(0, 0, 10, 0, 10, 10, 0, 0));
+
+        Assert.assertEquals("01030000208A15000001000000040000000000000000000000"
+                + "0000000000000000000000000000244000000000000000000000000000"
+                + "002440000000000000244000000000000000000000000000000000",
+                WKBWriter.toHex(polygon.toEWKB()));
+    }
+
+    @Test
+    public void testCurvePolygon() {
+        final Curve curve = new Curve();
+        curve.addPoint(new Point(10, 0));
+        curve.addPoint(new Point(5, 5));
+        curve.addPoint(new Point(0, 0));
+
+        final CompoundCurve ring = new CompoundCurve();
+        ring.addSegment(createLine(0, 0, 10, 0));
+        ring.addSegment(curve);
+
+        final Polygon polygon = new Polygon();
+        polygon.setSrid(5514);
+        polygon.setOuter(ring);
+
+        Assert.assertEquals("010A0000208A15000001000000010900000002000000010200"
+                + "0000020000000000000000000000000000000000000000000000000024"
+                + "4000000000000000000108000000030000000000000000002440000000"
+                + "0000000000000000000000144000000000000014400000000000000000"
+                + "0000000000000000", WKBWriter.toHex(polygon.toEWKB()));
+    }
+
+    @Test
+    public void testMultiPoint() {
+        final MultiPoint multiPoint = new MultiPoint();
+        multiPoint.addPoint(new Point(1, 2));
+        multiPoint.addPoint(new Point(3, 4));
+
+        Assert.assertEquals("010400000002000000010100000000000000000"
+                + "0F03F0000000000000040010100000000000000000008400000000000"
+                + "001040", WKBWriter.toHex(multiPoint.toEWKB()));
+    }
+
+    @Test
+    public void testHex() {
+        Assert.assertArrayEquals(new byte[]{0x01, (byte) 0xAB, 0x7F},
+                WKBWriter.hexToBytes("01AB7F"));
+        Assert.assertEquals("01AB7F",
+                WKBWriter.toHex(new byte[]{0x01, (byte) 0xAB, 0x7F}));
+    }
+
+    private static Line createLine(final double... coordinates) {
+        final Line line = new Line();
+
+        for (int i = 0; i < coordinates.length; i += 2) {
+            line.addPoint(new Point(coordinates[i], coordinates[i + 1]));
+        }
+
+        return line;
+    }
+}
@@ -0,0 +1,327 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.utils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link MultiRowInsertStatement}.
+ *
+ * @author fordfrog
+ */
+public class MultiRowInsertStatementTest {
+
+    /**
+     * INSERT statement with function call in values and trailing clause.
+     */
+    private static final String SQL_UPSERT = "INSERT INTO rn_test "
+            + "(kod, nazev, hranice) VALUES (?, ?, ST_GeomFromText(?)) "
+            + "ON DUPLICATE KEY UPDATE nazev = VALUES(nazev)";
+    /**
+     * Simple INSERT statement.
+     */
+    private static final String SQL_INSERT =
+            "INSERT INTO rn_test (kod, nazev) VALUES (?, ?)";
+    /**
+     * SQL of executed statements.
+     */
+    private final List<String> statements = new ArrayList<>(10);
+    /**
+     * Parameters of executed statements.
+     */
+    private final List<Map<Integer, Object>> parameters = new ArrayList<>(10);
+    /**
+     * Value of max_allowed_packet returned by the connection.
+     */
+    private long maxAllowedPacket = 1024 * 1024;
+    /**
+     * Index of statement execution of which fails, or -1.
+     */
+    private int failingStatement = -1;
+
+    @Test
+    public void testRowsAreJoined() throws SQLException {
+        final PreparedStatement pstm = MultiRowInsertStatement.create(
+                createConnection(), SQL_UPSERT);
+
+        for (int i = 1; i <= 3; i++) {
+            pstm.setInt(1, i);
+            pstm.setString(2, "Nazev " + i);
+            pstm.setString(3, "POINT(" + i + " 0)");
+            pstm.addBatch();
+        }
+
+        final int[] updateCounts = pstm.executeBatch();
+
+        Assert.assertEquals(Arrays.asList("INSERT INTO rn_test "
+                + "(kod, nazev, hranice) VALUES (?, ?, ST_GeomFromText(?)),"
+                + "(?, ?, ST_GeomFromText(?)),(?, ?, ST_GeomFromText(?)) "
+                + "ON DUPLICATE KEY UPDATE nazev = VALUES(nazev)"),
+                statements);
+        Assert.assertEquals(Arrays.<Object>asList(1, "Nazev 1", "POINT(1 0)",
+                2, "Nazev 2", "POINT(2 0)", 3, "Nazev 3", "POINT(3 0)"),
+                new ArrayList<>(parameters.get(0).values()));
+        Assert.assertArrayEquals(new int[]{Statement.SUCCESS_NO_INFO,
+            Statement.SUCCESS_NO_INFO, Statement.SUCCESS_NO_INFO},
+                updateCounts);
+
+        Assert.assertEquals(0, pstm.executeBatch().length);
+        Assert.assertEquals(1, statements.size());
+    }
+
+    @Test
+    public void testExecuteSendsSingleRow() throws SQLException {
+        final PreparedStatement pstm = MultiRowInsertStatement.create(
+                createConnection(), SQL_INSERT);
+        pstm.setInt(1, 1);
+        pstm.setNull(2, java.sql.Types.VARCHAR);
+        pstm.execute();
+
+        Assert.assertEquals(Arrays.asList(SQL_INSERT), statements);
+        Assert.assertEquals(Arrays.<Object>asList(1, null),
+                new ArrayList<>(parameters.get(0).values()));
+    }
+
+    @Test
+    public void testChunksByParameterCount() throws SQLException {
+        maxAllowedPacket = 64 * 1024 * 1024;
+
+        final PreparedStatement pstm = MultiRowInsertStatement.create(
+                createConnection(), "INSERT INTO rn_test (kod) VALUES (?)");
+
+        for (int i = 0; i < 65_536; i++) {
+            pstm.setInt(1, i);
+            pstm.addBatch();
+        }
+
+        pstm.executeBatch();
+
+        Assert.assertEquals(2, statements.size());
+        Assert.assertEquals(65_535, parameters.get(0).size());
+        Assert.assertEquals(1, parameters.get(1).size());
+        Assert.assertEquals(65_535, parameters.get(1).get(1));
+    }
+
+    @Test
+    public void testChunksByStatementSize() throws SQLException {
+        // statement can take 300 bytes, prefix has 40 bytes and each row with
+        // 20 characters long string is estimated to 113 bytes
+        maxAllowedPacket = 400;
+
+        final PreparedStatement pstm = MultiRowInsertStatement.create(
+                createConnection(), SQL_INSERT);
+
+        for (int i = 0; i < 5; i++) {
+            pstm.setInt(1, i);
+            pstm.setString(2, "12345678901234567890");
+            pstm.addBatch();
+        }
+
+        pstm.executeBatch();
+
+        Assert.assertEquals(3, statements.size());
+        Assert.assertEquals(4, parameters.get(0).size());
+        Assert.assertEquals(4, parameters.get(1).size());
+        Assert.assertEquals(2, parameters.get(2).size());
+        Assert.assertEquals(4, parameters.get(2).get(1));
+    }
+
+    @Test
+    public void testOversizedRowIsSentAlone() throws SQLException {
+        maxAllowedPacket = 100;
+
+        final PreparedStatement pstm = MultiRowInsertStatement.create(
+                createConnection(), SQL_INSERT);
+
+        for (int i = 0; i < 2; i++) {
+            pstm.setInt(1, i);
+            pstm.setString(2, "12345678901234567890");
+            pstm.addBatch();
+        }
+
+        pstm.executeBatch();
+
+        Assert.assertEquals(Arrays.asList(SQL_INSERT, SQL_INSERT), statements);
+    }
+
+    @Test
+    public void testFailureReportsSentRows() throws SQLException {
+        maxAllowedPacket = 400;
+        failingStatement = 1;
+
+        final PreparedStatement pstm = MultiRowInsertStatement.create(
+                createConnection(), SQL_INSERT);
+
+        for (int i = 0; i < 5; i++) {
+            pstm.setInt(1, i);
+            pstm.setString(2, "12345678901234567890");
+            pstm.addBatch();
+        }
+
+        try {
+            pstm.executeBatch();
+            Assert.fail("BatchUpdateException expected");
+        } catch (final BatchUpdateException ex) {
+            Assert.assertEquals(2, ex.getUpdateCounts().length);
+            Assert.assertEquals("failed", ex.getMessage());
+        }
+
+        Assert.assertEquals(0, pstm.executeBatch().length);
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testMissingParameter() throws SQLException {
+        final PreparedStatement pstm = MultiRowInsertStatement.create(
+                createConnection(), SQL_INSERT);
+        pstm.setInt(1, 1);
+        pstm.addBatch();
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testUnsupportedStatement() {
+        MultiRowInsertStatement.create(createConnection(),
+                "INSERT INTO rn_test SELECT * FROM stg_test");
+    }
+
+    /**
+     * Creates connection that records executed statements and their
+     * parameters.
+     *
+     * @return connection
+     */
+    private Connection createConnection() {
+        return (Connection) Proxy.newProxyInstance(
+                MultiRowInsertStatementTest.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new InvocationHandler() {
+                    @Override
+                    public Object invoke(final Object proxy,
+                            final Method method, final Object[] args) {
+                        switch (method.getName()) {
+                            case "prepareStatement":
+                                return createRecorder((String) args[0]);
+                            case "createStatement":
+                                return createPacketStatement();
+                            default:
+                                return null;
+                        }
+                    }
+                });
+    }
+
+    /**
+     * Creates prepared statement that records its SQL and parameter values
+     * when it is executed.
+     *
+     * @param sql statement SQL
+     *
+     * @return prepared statement
+     */
+    private PreparedStatement createRecorder(final String sql) {
+        final Map<Integer, Object> values = new TreeMap<>();
+
+        return (PreparedStatement) Proxy.newProxyInstance(
+                MultiRowInsertStatementTest.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                new InvocationHandler() {
+                    @Override
+                    public Object invoke(final Object proxy,
+                            final Method method, final Object[] args)
+                            throws SQLException {
+                        if (method.getName().startsWith("set")) {
+                            values.put((Integer) args[0],
+                                    "setNull".equals(method.getName())
+                                    ? null : args[1]);
+                        } else if ("executeUpdate".equals(method.getName())) {
+                            if (statements.size() == failingStatement) {
+                                throw new SQLException("failed");
+                            }
+
+                            statements.add(sql);
+                            parameters.add(values);
+
+                            return 1;
+                        }
+
+                        return null;
+                    }
+                });
+    }
+
+    /**
+     * Creates statement that returns {@link #maxAllowedPacket} as result of
+     * any query.
+     *
+     * @return statement
+     */
+    private Statement createPacketStatement() {
+        final ResultSet rs = (ResultSet) Proxy.newProxyInstance(
+                MultiRowInsertStatementTest.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class},
+                new InvocationHandler() {
+                    private boolean read;
+
+                    @Override
+                    public Object invoke(final Object proxy,
+                            final Method method, final Object[] args) {
+                        switch (method.getName()) {
+                            case "next":
+                                final boolean next = !read;
+                                read = true;
+
+                                return next;
+                            case "getLong":
+                                return maxAllowedPacket;
+                            default:
+                                return null;
+                        }
+                    }
+                });
+
+        return (Statement) Proxy.newProxyInstance(
+                MultiRowInsertStatementTest.class.getClassLoader(),
+                new Class<?>[]{Statement.class},
+                new InvocationHandler() {
+                    @Override
+                    public Object invoke(final Object proxy,
+                            final Method method, final Object[] args) {
+                        return "executeQuery".equals(method.getName())
+                                ? rs : null;
+                    }
+                });
+    }
+}
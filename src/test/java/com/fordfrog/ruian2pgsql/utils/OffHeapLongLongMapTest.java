@@ -0,0 +1,53 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link OffHeapLongLongMap}.
+ *
+ * @author fordfrog
+ */
+public class OffHeapLongLongMapTest {
+
+    @Test
+    public void testPutAndGet() {
+        final OffHeapLongLongMap map = new OffHeapLongLongMap(4);
+
+        for (long key = 0; key < 100_000; key++) {
+            map.put(key * 7, key);
+        }
+
+        map.put(14, -1);
+
+        Assert.assertEquals(100_000, map.size());
+        Assert.assertEquals(0, map.get(0));
+        Assert.assertEquals(-1, map.get(14));
+        Assert.assertEquals(99_999, map.get(699_993));
+        Assert.assertTrue(map.containsKey(0));
+        Assert.assertFalse(map.containsKey(1));
+        Assert.assertEquals(OffHeapLongLongMap.NO_VALUE, map.get(1));
+        Assert.assertEquals(OffHeapLongLongMap.NO_VALUE, map.get(-7));
+    }
+}
@@ -0,0 +1,323 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.utils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link RowHashStatement}.
+ *
+ * @author fordfrog
+ */
+public class RowHashStatementTest {
+
+    /**
+     * INSERT statement used in tests.
+     */
+    private static final String SQL_INSERT = "INSERT INTO rn_test "
+            + "(nazev, id_trans_ruian, hranice, plati_od, kod) "
+            + "VALUES (?, ?, %FUNCTION%(?), ?, ?)";
+    /**
+     * UPDATE statement used in tests.
+     */
+    private static final String SQL_UPDATE = "UPDATE rn_test "
+            + "SET plati_od = ?, nazev = ?, id_trans_ruian = ?, "
+            + "hranice = %FUNCTION%(?), "
+            + "item_timestamp = timezone('utc', now()), deleted = false "
+            + "WHERE kod = ? AND id_trans_ruian <= ?";
+
+    @Test
+    public void testExtendInsert() {
+        Assert.assertEquals("INSERT INTO rn_test "
+                + "(nazev, id_trans_ruian, hranice, plati_od, kod, row_hash) "
+                + "VALUES (?, ?, %FUNCTION%(?), ?, ?, ?)",
+                RowHashStatement.extendSql(SQL_INSERT));
+    }
+
+    @Test
+    public void testExtendUpdate() {
+        Assert.assertEquals("UPDATE rn_test "
+                + "SET plati_od = ?, nazev = ?, id_trans_ruian = ?, "
+                + "hranice = %FUNCTION%(?), "
+                + "item_timestamp = timezone('utc', now()), deleted = false, "
+                + "row_hash = ? "
+                + "WHERE kod = ? AND id_trans_ruian <= ? "
+                + "AND (row_hash IS DISTINCT FROM ? OR deleted)",
+                RowHashStatement.extendSql(SQL_UPDATE));
+    }
+
+    @Test
+    public void testInsertAndUpdateHashesMatch() throws SQLException {
+        final Map<Integer, Object> insertParameters = new HashMap<>(8);
+        final PreparedStatement insert = RowHashStatement.create(
+                createRecorder(insertParameters), SQL_INSERT, "kod", false);
+        insert.setString(1, "Nazev");
+        insert.setLong(2, 100L);
+        insert.setString(3, "<gml/>");
+        insert.setNull(4, Types.DATE);
+        insert.setInt(5, 7);
+        insert.execute();
+
+        final Map<Integer, Object> updateParameters = new HashMap<>(8);
+        final PreparedStatement update = RowHashStatement.create(
+                createRecorder(updateParameters), SQL_UPDATE, "kod", false);
+        update.setNull(1, Types.DATE);
+        update.setString(2, "Nazev");
+        update.setLong(3, 200L);
+        update.setString(4, "<gml/>");
+        update.setInt(5, 7);
+        update.setLong(6, 200L);
+        update.execute();
+
+        Assert.assertEquals(6, insertParameters.size());
+        Assert.assertEquals(8, updateParameters.size());
+        Assert.assertEquals(7, updateParameters.get(6));
+        Assert.assertEquals(200L, updateParameters.get(7));
+        Assert.assertEquals(updateParameters.get(5), updateParameters.get(8));
+        Assert.assertEquals(insertParameters.get(6), updateParameters.get(5));
+    }
+
+    @Test
+    public void testChangedValueChangesHash() throws SQLException {
+        final Map<Integer, Object> parameters = new HashMap<>(8);
+        final PreparedStatement insert = RowHashStatement.create(
+                createRecorder(parameters), SQL_INSERT, "kod", false);
+        insert.setString(1, "Nazev");
+        insert.setString(3, "<gml/>");
+        insert.execute();
+
+        final Object hash = parameters.get(6);
+
+        insert.clearParameters();
+        insert.setString(1, "Nazev");
+        insert.setString(3, "<gml />");
+        insert.execute();
+
+        Assert.assertNotEquals(hash, parameters.get(6));
+    }
+
+    @Test
+    public void testHashDistinguishesTypes() throws SQLException {
+        Assert.assertNotEquals(RowHashStatement.hash((Object) null),
+                RowHashStatement.hash(""));
+        Assert.assertNotEquals(RowHashStatement.hash("a", "b"),
+                RowHashStatement.hash("ab", ""));
+        Assert.assertNotEquals(RowHashStatement.hash(1L),
+                RowHashStatement.hash("1"));
+        Assert.assertEquals(RowHashStatement.hash(1),
+                RowHashStatement.hash(1L));
+    }
+
+    @Test
+    public void testAdvanceSql() {
+        Assert.assertEquals("UPDATE rn_test SET id_trans_ruian = ? "
+                + "WHERE kod = ? AND id_trans_ruian < ?",
+                ((RowHashStatement) RowHashStatement.create(
+                        createRecorder(new HashMap<Integer, Object>(8)),
+                        SQL_UPDATE, "kod", true)).getAdvanceSql());
+        Assert.assertEquals("UPDATE rn_test SET id_trans_ruian = ? "
+                + "WHERE kod = ? AND id_trans_ruian < ?",
+                ((RowHashStatement) RowHashStatement.create(
+                        createRecorder(new HashMap<Integer, Object>(8)),
+                        SQL_INSERT, "kod", true)).getAdvanceSql());
+    }
+
+    @Test
+    public void testAdvanceIdTransOfNotUpdatedRows() throws SQLException {
+        final List<String> calls = new ArrayList<>(10);
+        final PreparedStatement update = RowHashStatement.create(
+                createBatchRecorder(calls, new int[]{1, 0}), SQL_UPDATE,
+                "kod", true);
+        addUpdateBatch(update, 7, 200L);
+        addUpdateBatch(update, 8, 300L);
+        update.executeBatch();
+
+        Assert.assertEquals(Arrays.asList("addBatch", "addBatch",
+                "executeBatch", "prepare UPDATE rn_test SET id_trans_ruian = ? "
+                + "WHERE kod = ? AND id_trans_ruian < ?",
+                "setObject 1 300", "setObject 2 8", "setObject 3 300",
+                "addBatch", "executeBatch"), calls);
+    }
+
+    @Test
+    public void testAdvanceIdTransWithoutUpdateCounts() throws SQLException {
+        final List<String> calls = new ArrayList<>(10);
+        final PreparedStatement update = RowHashStatement.create(
+                createBatchRecorder(calls, new int[]{
+                    Statement.SUCCESS_NO_INFO, Statement.SUCCESS_NO_INFO}),
+                SQL_UPDATE, "kod", true);
+        addUpdateBatch(update, 7, 200L);
+        addUpdateBatch(update, 8, 300L);
+        update.executeBatch();
+
+        Assert.assertEquals(Arrays.asList("addBatch", "addBatch",
+                "executeBatch", "prepare UPDATE rn_test SET id_trans_ruian = ? "
+                + "WHERE kod = ? AND id_trans_ruian < ?",
+                "setObject 1 200", "setObject 2 7", "setObject 3 200",
+                "addBatch", "setObject 1 300", "setObject 2 8",
+                "setObject 3 300", "addBatch", "executeBatch"), calls);
+    }
+
+    @Test
+    public void testNoAdvanceWhenAllRowsUpdated() throws SQLException {
+        final List<String> calls = new ArrayList<>(10);
+        final PreparedStatement update = RowHashStatement.create(
+                createBatchRecorder(calls, new int[]{1, 1}), SQL_UPDATE,
+                "kod", true);
+        addUpdateBatch(update, 7, 200L);
+        addUpdateBatch(update, 8, 300L);
+        update.executeBatch();
+        update.executeBatch();
+
+        Assert.assertEquals(Arrays.asList("addBatch", "addBatch",
+                "executeBatch", "executeBatch"), calls);
+    }
+
+    /**
+     * Fills parameters of {@link #SQL_UPDATE} and adds them to the batch.
+     *
+     * @param update  update statement
+     * @param kod     item code
+     * @param idTrans transaction id
+     *
+     * @throws SQLException Thrown if problem occurred while setting the
+     *                      parameters.
+     */
+    private static void addUpdateBatch(final PreparedStatement update,
+            final int kod, final long idTrans) throws SQLException {
+        update.clearParameters();
+        update.setNull(1, Types.DATE);
+        update.setString(2, "Nazev");
+        update.setLong(3, idTrans);
+        update.setString(4, "<gml/>");
+        update.setInt(5, kod);
+        update.setLong(6, idTrans);
+        update.addBatch();
+    }
+
+    /**
+     * Creates prepared statement that records executed batches and
+     * parameters set using setObject. Statements prepared on its connection
+     * record the calls to the same list.
+     *
+     * @param calls        list to which the calls are recorded
+     * @param updateCounts update counts returned by executeBatch
+     *
+     * @return prepared statement
+     */
+    private static PreparedStatement createBatchRecorder(
+            final List<String> calls, final int[] updateCounts) {
+        final Connection connection = (Connection) Proxy.newProxyInstance(
+                RowHashStatementTest.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new InvocationHandler() {
+                    @Override
+                    public Object invoke(final Object proxy,
+                            final Method method, final Object[] args) {
+                        if ("prepareStatement".equals(method.getName())) {
+                            calls.add("prepare " + args[0]);
+
+                            return createBatchRecorder(calls, updateCounts);
+                        }
+
+                        return null;
+                    }
+                });
+
+        return (PreparedStatement) Proxy.newProxyInstance(
+                RowHashStatementTest.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                new InvocationHandler() {
+                    @Override
+                    public Object invoke(final Object proxy,
+                            final Method method, final Object[] args) {
+                        switch (method.getName()) {
+                            case "getConnection":
+                                return connection;
+                            case "setObject":
+                                calls.add("setObject " + args[0] + " "
+                                        + args[1]);
+
+                                return null;
+                            case "executeBatch":
+                                calls.add("executeBatch");
+
+                                return updateCounts;
+                            case "addBatch":
+                                if (args == null) {
+                                    calls.add("addBatch");
+                                }
+
+                                return null;
+                            default:
+                                return null;
+                        }
+                    }
+                });
+    }
+
+    /**
+     * Creates prepared statement that records values of parameters.
+     *
+     * @param parameters map to which the values are recorded by parameter
+     *                   index
+     *
+     * @return prepared statement
+     */
+    private static PreparedStatement createRecorder(
+            final Map<Integer, Object> parameters) {
+        return (PreparedStatement) Proxy.newProxyInstance(
+                RowHashStatementTest.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                new InvocationHandler() {
+                    @Override
+                    public Object invoke(final Object proxy,
+                            final Method method, final Object[] args) {
+                        if (method.getName().startsWith("set")) {
+                            parameters.put((Integer) args[0],
+                                    "setNull".equals(method.getName())
+                                    ? null : args[1]);
+                        } else if ("clearParameters".equals(
+                                method.getName())) {
+                            parameters.clear();
+                        }
+
+                        return "execute".equals(method.getName())
+                                ? Boolean.FALSE : null;
+                    }
+                });
+    }
+}
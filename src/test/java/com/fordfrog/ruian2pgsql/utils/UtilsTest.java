@@ -0,0 +1,123 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.utils;
+
+import java.sql.Timestamp;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Random;
+import java.util.TimeZone;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link Utils}.
+ *
+ * @author fordfrog
+ */
+public class UtilsTest {
+
+    @Test
+    public void testParseTimestamp() {
+        assertTimestamp("2016-05-31T00:00:00", 2016, 5, 31, 0, 0, 0);
+        assertTimestamp("2000-02-29T23:59:59", 2000, 2, 29, 23, 59, 59);
+        assertTimestamp("1970-01-01T00:00:01", 1970, 1, 1, 0, 0, 1);
+        assertTimestamp("1899-12-31T12:30:00", 1899, 12, 31, 12, 30, 0);
+
+        final Random random = new Random(0);
+
+        for (int i = 0; i < 10000; i++) {
+            final int year = 1800 + random.nextInt(300);
+            final int month = 1 + random.nextInt(12);
+            final int day = 1 + random.nextInt(28);
+            final int hour = random.nextInt(24);
+            final int minute = random.nextInt(60);
+            final int second = random.nextInt(60);
+
+            assertTimestamp(String.format("%04d-%02d-%02dT%02d:%02d:%02d",
+                    year, month, day, hour, minute, second),
+                    year, month, day, hour, minute, second);
+        }
+    }
+
+    @Test
+    public void testParseTimestampRollsOutOfRangeValues() {
+        assertTimestamp("2015-02-31T00:00:00", 2015, 2, 31, 0, 0, 0);
+        assertTimestamp("2015-13-01T00:00:00", 2015, 13, 1, 0, 0, 0);
+        assertTimestamp("2015-00-15T24:00:00", 2015, 0, 15, 24, 0, 0);
+    }
+
+    @Test
+    public void testParseTimestampTypes() {
+        final Date date = Utils.parseTimestamp("2016-05-31T00:00:00");
+
+        Assert.assertTrue(date instanceof java.sql.Date);
+        Assert.assertTrue(Utils.parseTimestamp("2016-05-31T10:00:00")
+                instanceof Timestamp);
+    }
+
+    @Test
+    public void testParseTimestampReturnsDistinctInstances() {
+        final Date date = Utils.parseTimestamp("2016-05-31T00:00:00");
+        final long millis = date.getTime();
+        date.setTime(0);
+
+        final Date other = Utils.parseTimestamp("2016-05-31T00:00:00");
+
+        Assert.assertNotSame(date, other);
+        Assert.assertEquals(millis, other.getTime());
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testParseTimestampInvalid() {
+        Utils.parseTimestamp("2016-05-31 00:00:00");
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testParseTimestampInvalidDigit() {
+        Utils.parseTimestamp("2016-05-3xT00:00:00");
+    }
+
+    /**
+     * Checks that parsed value is the same as value created by lenient UTC
+     * calendar.
+     *
+     * @param value  timestamp string
+     * @param year   expected year
+     * @param month  expected month (1-12)
+     * @param day    expected day of month
+     * @param hour   expected hour
+     * @param minute expected minute
+     * @param second expected second
+     */
+    private static void assertTimestamp(final String value, final int year,
+            final int month, final int day, final int hour, final int minute,
+            final int second) {
+        final Calendar calendar =
+                Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        calendar.clear();
+        calendar.set(year, month - 1, day, hour, minute, second);
+
+        Assert.assertEquals(value, calendar.getTimeInMillis(),
+                Utils.parseTimestamp(value).getTime());
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.utils;
+
+import java.io.StringReader;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link XMLUtils}.
+ *
+ * @author fordfrog
+ */
+public class XMLUtilsTest {
+
+    @Test
+    public void testReadInt() throws XMLStreamException {
+        Assert.assertEquals(0, XMLUtils.readInt(createReader("<a>0</a>")));
+        Assert.assertEquals(554782,
+                XMLUtils.readInt(createReader("<a>554782</a>")));
+        Assert.assertEquals(-17, XMLUtils.readInt(createReader("<a>-17</a>")));
+        Assert.assertEquals(17,
+                XMLUtils.readInt(createReader("<a> +17\n</a>")));
+        Assert.assertEquals(Integer.MAX_VALUE, XMLUtils.readInt(
+                createReader("<a>" + Integer.MAX_VALUE + "</a>")));
+        Assert.assertEquals(Integer.MIN_VALUE, XMLUtils.readInt(
+                createReader("<a>" + Integer.MIN_VALUE + "</a>")));
+    }
+
+    @Test
+    public void testReadLong() throws XMLStreamException {
+        Assert.assertEquals(4026311110L,
+                XMLUtils.readLong(createReader("<a>4026311110</a>")));
+        Assert.assertEquals(Long.MAX_VALUE, XMLUtils.readLong(
+                createReader("<a>" + Long.MAX_VALUE + "</a>")));
+        Assert.assertEquals(Long.MIN_VALUE, XMLUtils.readLong(
+                createReader("<a>" + Long.MIN_VALUE + "</a>")));
+        Assert.assertEquals(12345L, XMLUtils.readLong(
+                createReader("<a>12<!-- comment -->3<![CDATA[45]]></a>")));
+    }
+
+    @Test
+    public void testReadLeavesReaderAtEndElement() throws XMLStreamException {
+        final XMLStreamReader reader = createReader("<a>1</a>");
+
+        XMLUtils.readInt(reader);
+
+        Assert.assertEquals(XMLStreamReader.END_ELEMENT,
+                reader.getEventType());
+        Assert.assertEquals("a", reader.getLocalName());
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testReadIntOverflow() throws XMLStreamException {
+        XMLUtils.readInt(createReader("<a>2147483648</a>"));
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testReadLongOverflow() throws XMLStreamException {
+        XMLUtils.readLong(createReader("<a>9223372036854775808</a>"));
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testReadIntInvalid() throws XMLStreamException {
+        XMLUtils.readInt(createReader("<a>12a</a>"));
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testReadIntEmpty() throws XMLStreamException {
+        XMLUtils.readInt(createReader("<a></a>"));
+    }
+
+    @Test(expected = XMLStreamException.class)
+    public void testReadIntNested() throws XMLStreamException {
+        XMLUtils.readInt(createReader("<a><b>1</b></a>"));
+    }
+
+    @Test
+    public void testReadBoolean() throws XMLStreamException {
+        Assert.assertTrue(XMLUtils.readBoolean(createReader("<a>true</a>")));
+        Assert.assertTrue(XMLUtils.readBoolean(createReader("<a>TRUE</a>")));
+        Assert.assertTrue(XMLUtils.readBoolean(createReader("<a>1</a>")));
+        Assert.assertFalse(XMLUtils.readBoolean(createReader("<a>false</a>")));
+        Assert.assertFalse(XMLUtils.readBoolean(createReader("<a>0</a>")));
+        Assert.assertFalse(XMLUtils.readBoolean(createReader("<a></a>")));
+    }
+
+    /**
+     * Creates XML stream reader positioned at the root element.
+     *
+     * @param xml XML string
+     *
+     * @return XML stream reader
+     *
+     * @throws XMLStreamException Thrown if problem occurred while reading XML
+     *                            stream.
+     */
+    private static XMLStreamReader createReader(final String xml)
+            throws XMLStreamException {
+        final XMLStreamReader reader = XMLInputFactory.newInstance().
+                createXMLStreamReader(new StringReader(xml));
+        reader.nextTag();
+
+        return reader;
+    }
+}